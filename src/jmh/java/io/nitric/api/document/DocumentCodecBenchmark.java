@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.Struct;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentGetResponse;
+import io.nitric.util.ProtoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Provides document content decode and encode benchmarks for typed and Map document references.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentCodecBenchmark {
+
+    @Param({"1", "20"})
+    int itemCount;
+
+    DocumentRef<Order> orderRef;
+    DocumentRef<Map> mapRef;
+    DocumentGetResponse response;
+    Order order;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        order = Order.build(itemCount);
+
+        var documents = new Documents();
+        orderRef = documents.collection("orders").doc("order-1", Order.class);
+        mapRef = documents.collection("orders").doc("order-1");
+
+        response = DocumentGetResponse.newBuilder()
+            .setDocument(Document.newBuilder().setContent(orderRef.toContentStruct(order)))
+            .build();
+    }
+
+    @Benchmark
+    public Order decodeTyped() {
+        return orderRef.toContent(response);
+    }
+
+    @Benchmark
+    public Map decodeMap() {
+        return mapRef.toContent(response);
+    }
+
+    @Benchmark
+    public Struct encodeTyped() {
+        return orderRef.toContentStruct(order);
+    }
+
+    @Benchmark
+    public Struct encodeMap() {
+        return ProtoUtils.toStruct(ProtoUtils.toMap(response.getDocument().getContent()));
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a representative order document with nested line items.
+     */
+    public static class Order {
+
+        String id;
+        String customerEmail;
+        String status;
+        boolean paid;
+        double total;
+        List<Item> items;
+
+        static Order build(int itemCount) {
+            var order = new Order();
+            order.id = "order-1";
+            order.customerEmail = "customer@example.com";
+            order.status = "shipped";
+            order.paid = true;
+            order.items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                var item = new Item();
+                item.sku = "SKU-" + i;
+                item.description = "Item description " + i;
+                item.quantity = i % 5 + 1;
+                item.price = 9.95 + i;
+                order.items.add(item);
+                order.total += item.quantity * item.price;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Provides an order line item.
+     */
+    public static class Item {
+
+        String sku;
+        String description;
+        int quantity;
+        double price;
+    }
+
+}
@@ -0,0 +1,220 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentQueryRequest;
+import io.nitric.proto.document.v1.DocumentQueryResponse;
+import io.nitric.proto.document.v1.DocumentQueryStreamRequest;
+import io.nitric.proto.document.v1.DocumentQueryStreamResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Provides a full result scan benchmark comparing the paged Query call, the paged Query call with a prefetched page,
+ * and the QueryStream call. Each operation counts the results of a <code>stream()</code> of all documents, against
+ * an in-process membrane Document Service stand-in which adds the given latency to each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class QueryScanBenchmark {
+
+    @Param({"100000"})
+    int documentCount;
+
+    @Param({"0", "2"})
+    long latencyMillis;
+
+    @Param({"paged", "prefetch", "stream"})
+    String scan;
+
+    Server server;
+    ManagedChannel channel;
+    Query<String> query;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        var name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+            .addService(new DocumentServiceStandIn(documentCount, latencyMillis))
+            .build()
+            .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+
+        Documents.setStreamStub(DocumentServiceGrpc.newStub(channel));
+        Documents.setServiceStub(DocumentServiceGrpc.newBlockingStub(channel));
+        Documents.setFutureStub(DocumentServiceGrpc.newFutureStub(channel));
+
+        query = new Documents().collection("orders").query(String.class).codec(new IdCodec());
+        if ("prefetch".equals(scan)) {
+            query.prefetch(1);
+        } else if ("stream".equals(scan)) {
+            query.streaming(true);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        Documents.setStreamStub(null);
+        Documents.setServiceStub(null);
+        Documents.setFutureStub(null);
+    }
+
+    @Benchmark
+    public long scan() {
+        try (var stream = query.stream()) {
+            return stream.count();
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a codec for documents with a single <code>id</code> field, so the benchmark measures the transport
+     * rather than the content decoding.
+     */
+    static class IdCodec implements DocumentCodec<String> {
+
+        @Override
+        public String decode(Struct content) {
+            return content.getFieldsOrThrow("id").getStringValue();
+        }
+
+        @Override
+        public Struct encode(String value) {
+            return Struct.newBuilder()
+                .putFields("id", Value.newBuilder().setStringValue(value).build())
+                .build();
+        }
+    }
+
+    /**
+     * Provides a membrane DocumentService stand-in, which returns the given number of documents from both the paged
+     * Query call and the flow controlled QueryStream call, after the given call latency.
+     */
+    static class DocumentServiceStandIn extends DocumentServiceGrpc.DocumentServiceImplBase {
+
+        final int documentCount;
+        final long latencyMillis;
+        final IdCodec codec = new IdCodec();
+
+        DocumentServiceStandIn(int documentCount, long latencyMillis) {
+            this.documentCount = documentCount;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void query(DocumentQueryRequest request, StreamObserver<DocumentQueryResponse> responseObserver) {
+            delay();
+
+            var offset = Integer.parseInt(request.getPagingTokenMap().getOrDefault("offset", "0"));
+            var end = Math.min(documentCount, offset + request.getLimit());
+
+            var documents = new ArrayList<Document>(end - offset);
+            for (int i = offset; i < end; i++) {
+                documents.add(newDocument(request.getCollection().getName(), i));
+            }
+
+            var response = DocumentQueryResponse.newBuilder().addAllDocuments(documents);
+            if (end < documentCount) {
+                response.putAllPagingToken(Map.of("offset", String.valueOf(end)));
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void queryStream(
+            DocumentQueryStreamRequest request,
+            StreamObserver<DocumentQueryStreamResponse> responseObserver) {
+
+            delay();
+
+            var serverObserver = (ServerCallStreamObserver<DocumentQueryStreamResponse>) responseObserver;
+            var next = new AtomicInteger();
+            serverObserver.setOnReadyHandler(() -> {
+                while (serverObserver.isReady() && !serverObserver.isCancelled()) {
+                    var index = next.getAndIncrement();
+                    if (index >= documentCount) {
+                        if (index == documentCount) {
+                            serverObserver.onCompleted();
+                        }
+                        return;
+                    }
+                    serverObserver.onNext(DocumentQueryStreamResponse.newBuilder()
+                        .setDocument(newDocument(request.getCollection().getName(), index))
+                        .build());
+                }
+            });
+        }
+
+        private void delay() {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Document newDocument(String collection, int index) {
+            var id = String.valueOf(index);
+            return Document.newBuilder()
+                .setKey(Key.newBuilder()
+                    .setCollection(io.nitric.proto.document.v1.Collection.newBuilder().setName(collection))
+                    .setId(id))
+                .setContent(codec.encode(id))
+                .build();
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import com.google.protobuf.ByteString;
+import io.nitric.faas.event.EventContext;
+import io.nitric.faas.http.HttpContext;
+import io.nitric.proto.faas.v1.HeaderValue;
+import io.nitric.proto.faas.v1.HttpTriggerContext;
+import io.nitric.proto.faas.v1.QueryValue;
+import io.nitric.proto.faas.v1.TopicTriggerContext;
+import io.nitric.proto.faas.v1.TriggerRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides realistic trigger request and response fixtures for the FaaS benchmarks.
+ */
+final class BenchmarkData {
+
+    /** Typical browser / API gateway request headers, including a JWT and cookies. */
+    static final Map<String, String> REQUEST_HEADERS = new LinkedHashMap<>();
+
+    static {
+        REQUEST_HEADERS.put("Host", "api.example.com");
+        REQUEST_HEADERS.put("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) "
+            + "Chrome/106.0.0.0 Safari/537.36");
+        REQUEST_HEADERS.put("Accept", "application/json, text/plain, */*");
+        REQUEST_HEADERS.put("Accept-Encoding", "gzip, deflate, br");
+        REQUEST_HEADERS.put("Accept-Language", "en-AU,en-GB;q=0.9,en-US;q=0.8,en;q=0.7");
+        REQUEST_HEADERS.put("Authorization", "Bearer " + repeat('a', 800));
+        REQUEST_HEADERS.put("Content-Type", "application/json");
+        REQUEST_HEADERS.put("Cookie", "session=" + repeat('s', 64) + "; _ga=" + repeat('g', 32)
+            + "; prefs=" + repeat('p', 256));
+        REQUEST_HEADERS.put("Origin", "https://app.example.com");
+        REQUEST_HEADERS.put("Referer", "https://app.example.com/customers/1234");
+        REQUEST_HEADERS.put("X-Forwarded-For", "203.0.113.195, 70.41.3.18, 150.172.238.178");
+        REQUEST_HEADERS.put("X-Forwarded-Proto", "https");
+        REQUEST_HEADERS.put("X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5");
+        REQUEST_HEADERS.put("traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Create a HTTP POST TriggerRequest with realistic headers, query parameters and the given body size.
+     *
+     * @param bodySize the request body size in bytes
+     * @return a new HTTP TriggerRequest
+     */
+    static TriggerRequest httpTrigger(int bodySize) {
+        var http = HttpTriggerContext.newBuilder()
+            .setMethod("POST")
+            .setPath("/customers/1234/orders")
+            .putQueryParams("page", QueryValue.newBuilder().addValue("2").build())
+            .putQueryParams("limit", QueryValue.newBuilder().addValue("50").build())
+            .putQueryParams("sort", QueryValue.newBuilder().addValue("created").addValue("desc").build());
+
+        REQUEST_HEADERS.forEach((name, value) -> http.putHeaders(name, HeaderValue.newBuilder().addValue(value).build()));
+
+        return TriggerRequest.newBuilder()
+            .setMimeType("application/json")
+            .setData(ByteString.copyFrom(jsonBody(bodySize)))
+            .setHttp(http)
+            .build();
+    }
+
+    /**
+     * Create a Topic TriggerRequest with the given payload size.
+     *
+     * @param payloadSize the event payload size in bytes
+     * @return a new Topic TriggerRequest
+     */
+    static TriggerRequest topicTrigger(int payloadSize) {
+        return TriggerRequest.newBuilder()
+            .setMimeType("application/json")
+            .setData(ByteString.copyFrom(jsonBody(payloadSize)))
+            .setTopic(TopicTriggerContext.newBuilder().setTopic("orders"))
+            .build();
+    }
+
+    /**
+     * Create a HTTP response with typical API response headers and the given body size.
+     *
+     * @param bodySize the response body size in bytes
+     * @return a new HTTP response
+     */
+    static HttpContext.Response httpResponse(int bodySize) {
+        return new HttpContext.Response()
+            .status(200)
+            .contentType("application/json")
+            .addHeader("Cache-Control", "no-cache, no-store, must-revalidate")
+            .addHeader("Content-Encoding", "identity")
+            .addHeader("Strict-Transport-Security", "max-age=63072000; includeSubDomains; preload")
+            .addHeader("X-Content-Type-Options", "nosniff")
+            .addHeader("X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5")
+            .data(jsonBody(bodySize));
+    }
+
+    /**
+     * Create an Event response with the given body size.
+     *
+     * @param bodySize the response body size in bytes
+     * @return a new Event response
+     */
+    static EventContext.Response eventResponse(int bodySize) {
+        return new EventContext.Response().data(jsonBody(bodySize));
+    }
+
+    /**
+     * Create a JSON array body of the given size in bytes.
+     *
+     * @param size the body size in bytes
+     * @return the JSON body
+     */
+    static byte[] jsonBody(int size) {
+        var body = new byte[Math.max(size, 2)];
+        Arrays.fill(body, (byte) 'x');
+        var prefix = "[\"".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(prefix, 0, body, 0, Math.min(prefix.length, body.length));
+        if (body.length > 3) {
+            body[body.length - 2] = '"';
+        }
+        body[body.length - 1] = ']';
+        return body;
+    }
+
+    private static String repeat(char c, int count) {
+        return String.valueOf(c).repeat(count);
+    }
+
+}
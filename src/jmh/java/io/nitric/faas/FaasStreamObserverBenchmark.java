@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.nitric.faas.http.HttpMiddleware;
+import io.nitric.faas.logger.JUtilLogger;
+import io.nitric.proto.faas.v1.ClientMessage;
+import io.nitric.proto.faas.v1.FaasServiceGrpc;
+import io.nitric.proto.faas.v1.InitRequest;
+import io.nitric.proto.faas.v1.ServerMessage;
+import io.nitric.proto.faas.v1.TriggerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Provides a full FaasStreamObserver round trip benchmark against an in-process gRPC membrane stand-in. Each
+ * operation sends a HTTP TriggerRequest from the server and waits for the client's TriggerResponse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class FaasStreamObserverBenchmark {
+
+    @Param({"1024", "65536"})
+    int bodySize;
+
+    final AtomicLong nextId = new AtomicLong();
+    final SynchronousQueue<ClientMessage> responses = new SynchronousQueue<>();
+    final CountDownLatch initialized = new CountDownLatch(1);
+
+    Server server;
+    ManagedChannel channel;
+    volatile StreamObserver<ServerMessage> serverStream;
+    FaasStreamObserver faasStreamObserver;
+    ServerMessage.Builder triggerMessage;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        var name = InProcessServerBuilder.generateName();
+
+        server = InProcessServerBuilder.forName(name)
+            .addService(new MembraneStandIn())
+            .build()
+            .start();
+
+        channel = InProcessChannelBuilder.forName(name).build();
+
+        var responseBody = BenchmarkData.jsonBody(bodySize);
+        var processor = new TriggerProcessor();
+        processor.setHttpMiddlewares(List.of(new HttpMiddleware.HandlerAdapter(context -> {
+            context.getResponse().contentType("application/json").data(responseBody);
+            return context;
+        })));
+        processor.setEventMiddlewares(List.of());
+        processor.setLogger(new JUtilLogger("benchmark"));
+
+        var clientObserver = new AtomicReference<StreamObserver<ClientMessage>>();
+        faasStreamObserver = new FaasStreamObserver(
+            processor, clientObserver, new CountDownLatch(1), new JUtilLogger("benchmark")
+        );
+        clientObserver.set(FaasServiceGrpc.newStub(channel).triggerStream(faasStreamObserver));
+        faasStreamObserver.send(ClientMessage.newBuilder().setInitRequest(InitRequest.newBuilder()).build());
+
+        if (!initialized.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("in-process membrane did not receive InitRequest");
+        }
+
+        triggerMessage = ServerMessage.newBuilder().setTriggerRequest(BenchmarkData.httpTrigger(bodySize));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        serverStream.onCompleted();
+        faasStreamObserver.complete();
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public TriggerResponse roundTrip() throws InterruptedException {
+        var id = Long.toString(nextId.incrementAndGet());
+        serverStream.onNext(triggerMessage.setId(id).build());
+
+        var response = responses.poll(10, TimeUnit.SECONDS);
+        if (response == null || !id.equals(response.getId())) {
+            throw new IllegalStateException("unexpected TriggerResponse for " + id + ": " + response);
+        }
+        return response.getTriggerResponse();
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a minimal membrane FaasService, which hands trigger responses back to the benchmark thread.
+     */
+    class MembraneStandIn extends FaasServiceGrpc.FaasServiceImplBase {
+
+        @Override
+        public StreamObserver<ClientMessage> triggerStream(StreamObserver<ServerMessage> responseObserver) {
+            serverStream = responseObserver;
+
+            return new StreamObserver<>() {
+                @Override
+                public void onNext(ClientMessage message) {
+                    if (message.hasInitRequest()) {
+                        initialized.countDown();
+                        return;
+                    }
+                    try {
+                        responses.put(message);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                }
+
+                @Override
+                public void onCompleted() {
+                }
+            };
+        }
+    }
+
+}
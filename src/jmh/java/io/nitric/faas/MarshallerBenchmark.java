@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import io.nitric.faas.event.EventContext;
+import io.nitric.faas.http.HttpContext;
+import io.nitric.proto.faas.v1.TriggerRequest;
+import io.nitric.proto.faas.v1.TriggerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a Marshaller benchmark for converting trigger requests to contexts, and responses to trigger responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+    @Param({"1024", "65536"})
+    int bodySize;
+
+    TriggerRequest httpTrigger;
+    TriggerRequest topicTrigger;
+    HttpContext.Response httpResponse;
+    EventContext.Response eventResponse;
+
+    @Setup
+    public void setup() {
+        httpTrigger = BenchmarkData.httpTrigger(bodySize);
+        topicTrigger = BenchmarkData.topicTrigger(bodySize);
+        httpResponse = BenchmarkData.httpResponse(bodySize);
+        eventResponse = BenchmarkData.eventResponse(bodySize);
+    }
+
+    @Benchmark
+    public HttpContext toHttpContext() {
+        return Marshaller.toHttpContext(httpTrigger);
+    }
+
+    @Benchmark
+    public String toHttpContextGetHeader() {
+        return Marshaller.toHttpContext(httpTrigger).getRequest().getHeader("x-request-id");
+    }
+
+    @Benchmark
+    public Object toHttpContextGetHeaders() {
+        return Marshaller.toHttpContext(httpTrigger).getRequest().getHeaders();
+    }
+
+    @Benchmark
+    public TriggerResponse toHttpTriggerResponse() {
+        return Marshaller.toHttpTriggerResponse(httpResponse);
+    }
+
+    @Benchmark
+    public EventContext toEventContext() {
+        return Marshaller.toEventContext(topicTrigger);
+    }
+
+    @Benchmark
+    public TriggerResponse toTopicTriggerResponse() {
+        return Marshaller.toTopicTriggerResponse(eventResponse);
+    }
+
+}
@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import io.nitric.faas.http.HttpContext;
+import io.nitric.faas.http.HttpMiddleware;
+import io.nitric.proto.faas.v1.HttpTriggerContext;
+import io.nitric.proto.faas.v1.TriggerRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a TriggerProcessor middleware chain benchmark, comparing the cached chain against building the chain
+ * for every request. Run with <code>-prof gc</code> to report the per-request allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MiddlewareChainBenchmark {
+
+    @Param({"1", "5", "20"})
+    int middlewareCount;
+
+    TriggerProcessor processor;
+    TriggerRequest request;
+
+    @Setup
+    public void setup() {
+        List<HttpMiddleware> middlewares = new ArrayList<>();
+        for (int i = 0; i < middlewareCount; i++) {
+            middlewares.add(new PassMiddleware());
+        }
+
+        processor = new TriggerProcessor();
+        processor.setHttpMiddlewares(middlewares);
+
+        request = TriggerRequest.newBuilder()
+            .setHttp(HttpTriggerContext.newBuilder().setMethod("GET").setPath("/customers"))
+            .build();
+    }
+
+    @Benchmark
+    public HttpMiddleware buildChain() {
+        return processor.buildHttpMiddlewareChain();
+    }
+
+    @Benchmark
+    public Object processCachedChain() {
+        return processor.processHttpTrigger(request);
+    }
+
+    @Benchmark
+    public Object processRebuiltChain() {
+        var context = Marshaller.toHttpContext(request);
+        var middleware = processor.buildHttpMiddlewareChain();
+        return Marshaller.toHttpTriggerResponse(middleware.handle(context, middleware.getNext()).getResponse());
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    static class PassMiddleware extends HttpMiddleware {
+        @Override
+        public HttpContext handle(HttpContext context, HttpMiddleware next) {
+            return next.handle(context, next.getNext());
+        }
+    }
+
+}
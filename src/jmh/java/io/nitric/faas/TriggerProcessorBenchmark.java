@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import io.nitric.faas.event.EventContext;
+import io.nitric.faas.event.EventMiddleware;
+import io.nitric.faas.http.HttpContext;
+import io.nitric.faas.http.HttpMiddleware;
+import io.nitric.faas.logger.JUtilLogger;
+import io.nitric.proto.faas.v1.TriggerRequest;
+import io.nitric.proto.faas.v1.TriggerResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a TriggerProcessor benchmark, processing HTTP and Topic triggers through a chain of middlewares ending
+ * in a handler which writes a response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriggerProcessorBenchmark {
+
+    @Param({"1", "5", "20"})
+    int middlewareCount;
+
+    @Param({"1024"})
+    int bodySize;
+
+    TriggerProcessor processor;
+    TriggerRequest httpTrigger;
+    TriggerRequest topicTrigger;
+
+    @Setup
+    public void setup() {
+        var responseBody = BenchmarkData.jsonBody(bodySize);
+
+        List<HttpMiddleware> httpMiddlewares = new ArrayList<>();
+        List<EventMiddleware> eventMiddlewares = new ArrayList<>();
+        for (int i = 1; i < middlewareCount; i++) {
+            httpMiddlewares.add(new HeaderMiddleware("X-Middleware-" + i));
+            eventMiddlewares.add(new PassEventMiddleware());
+        }
+        httpMiddlewares.add(new HttpMiddleware.HandlerAdapter(context -> {
+            context.getResponse().contentType("application/json").data(responseBody);
+            return context;
+        }));
+        eventMiddlewares.add(new EventMiddleware.HandlerAdapter(context -> context));
+
+        processor = new TriggerProcessor();
+        processor.setHttpMiddlewares(httpMiddlewares);
+        processor.setEventMiddlewares(eventMiddlewares);
+        processor.setLogger(new JUtilLogger("benchmark"));
+
+        httpTrigger = BenchmarkData.httpTrigger(bodySize);
+        topicTrigger = BenchmarkData.topicTrigger(bodySize);
+    }
+
+    @Benchmark
+    public TriggerResponse processHttp() {
+        return processor.process(httpTrigger);
+    }
+
+    @Benchmark
+    public TriggerResponse processTopic() {
+        return processor.process(topicTrigger);
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    static class HeaderMiddleware extends HttpMiddleware {
+        final String name;
+
+        HeaderMiddleware(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public HttpContext handle(HttpContext context, HttpMiddleware next) {
+            context.getResponse().addHeader(name, "true");
+            return next.handle(context, next.getNext());
+        }
+    }
+
+    static class PassEventMiddleware extends EventMiddleware {
+        @Override
+        public EventContext handle(EventContext context, EventMiddleware next) {
+            return next.handle(context, next.getNext());
+        }
+    }
+
+}
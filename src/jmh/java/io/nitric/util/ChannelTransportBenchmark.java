@@ -0,0 +1,168 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import io.grpc.stub.StreamObserver;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentGetRequest;
+import io.nitric.proto.document.v1.DocumentGetResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Provides a unary call round trip benchmark for the membrane channel transports. Each operation makes a blocking
+ * Document Service get call through a channel built by <code>GrpcChannelProvider</code>, against a local Netty
+ * server listening on loopback TCP or on a Unix domain socket.
+ *
+ * <p>
+ *  The <code>okhttp</code> transport over loopback TCP is the SDK default and the baseline for the other results.
+ *  The <code>epoll</code> and <code>uds</code> transports require native epoll support.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class ChannelTransportBenchmark {
+
+    @Param({"okhttp", "netty", "epoll", "uds"})
+    String transport;
+
+    @Param({"false", "true"})
+    boolean directExecutor;
+
+    EventLoopGroup serverGroup;
+    Server server;
+    ManagedChannel channel;
+    DocumentServiceGrpc.DocumentServiceBlockingStub stub;
+    DocumentGetRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        var env = new HashMap<String, String>();
+        env.put("NITRIC_CHANNEL_DIRECT_EXECUTOR", String.valueOf(directExecutor));
+
+        if ("uds".equals(transport)) {
+            var socketFile = Files.createTempFile("nitric-benchmark", ".sock");
+            Files.delete(socketFile);
+            socketFile.toFile().deleteOnExit();
+
+            serverGroup = new EpollEventLoopGroup(1);
+            server = NettyServerBuilder.forAddress(new DomainSocketAddress(socketFile.toString()))
+                .channelType(EpollServerDomainSocketChannel.class)
+                .bossEventLoopGroup(serverGroup)
+                .workerEventLoopGroup(serverGroup)
+                .directExecutor()
+                .addService(new DocumentServiceStandIn())
+                .build()
+                .start();
+
+            env.put("NITRIC_SERVICE_SOCKET", socketFile.toString());
+
+        } else {
+            server = NettyServerBuilder.forPort(0)
+                .directExecutor()
+                .addService(new DocumentServiceStandIn())
+                .build()
+                .start();
+
+            env.put("NITRIC_SERVICE_PORT", String.valueOf(server.getPort()));
+            env.put("NITRIC_CHANNEL_TRANSPORT", transport);
+        }
+
+        GrpcChannelProvider.envLookup = env::get;
+        channel = GrpcChannelProvider.newChannel();
+        stub = DocumentServiceGrpc.newBlockingStub(channel);
+
+        request = DocumentGetRequest.newBuilder()
+            .setKey(Key.newBuilder().setId("customer-1"))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        if (serverGroup != null) {
+            serverGroup.shutdownGracefully();
+        }
+        GrpcChannelProvider.reset();
+        GrpcChannelProvider.envLookup = System::getenv;
+    }
+
+    @Benchmark
+    public DocumentGetResponse roundTrip() {
+        return stub.get(request);
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a minimal membrane DocumentService, which returns a fixed document for every get call.
+     */
+    static class DocumentServiceStandIn extends DocumentServiceGrpc.DocumentServiceImplBase {
+
+        final DocumentGetResponse response = DocumentGetResponse.newBuilder()
+            .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of(
+                "email", "customer@example.com",
+                "name", "Example Customer",
+                "active", true,
+                "orders", 12
+            ))))
+            .build();
+
+        @Override
+        public void get(DocumentGetRequest request, StreamObserver<DocumentGetResponse> responseObserver) {
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Provides Struct to Map conversion benchmarks for nested documents of 1 KB to 1 MB. The <code>streamToMap</code>
+ * benchmark is the previous Stream and Collector based <code>ProtoUtils.toMap()</code> implementation, which is the
+ * baseline for the loop based <code>toMap</code> and the lazily converting <code>StructMap</code> view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtoUtilsBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    int documentBytes;
+
+    Struct struct;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var order = new HashMap<String, Object>();
+        order.put("id", "order-1");
+        order.put("status", "shipped");
+        order.put("total", 0.0);
+        order.put("customer", Map.of("email", "customer@example.com", "name", "Example Customer"));
+
+        var items = new ArrayList<Object>();
+        order.put("items", items);
+
+        // Add line items until the document reaches the serialized size
+        var total = 0.0;
+        for (int i = 0; ProtoUtils.toStruct(order).getSerializedSize() < documentBytes; i++) {
+            var batch = Math.max(1, (documentBytes - ProtoUtils.toStruct(order).getSerializedSize()) / 256);
+            for (int j = 0; j < batch; j++, i++) {
+                var item = new HashMap<String, Object>();
+                item.put("sku", "SKU-" + i);
+                item.put("description", "Item description " + i);
+                item.put("quantity", i % 5 + 1);
+                item.put("price", 9.95 + i);
+                item.put("tags", List.of("tag-a", "tag-b"));
+                item.put("dimensions", Map.of("width", 10.0, "height", 20.0, "depth", 5.0));
+                items.add(item);
+                total += 9.95 + i;
+            }
+        }
+        order.put("total", total);
+
+        struct = ProtoUtils.toStruct(order);
+    }
+
+    @Benchmark
+    public Map<String, Object> streamToMap() {
+        return StreamProtoUtils.toMap(struct);
+    }
+
+    @Benchmark
+    public Map<String, Object> toMap() {
+        return ProtoUtils.toMap(struct);
+    }
+
+    @Benchmark
+    public double structMapReadFields() {
+        var map = ProtoUtils.asMap(struct);
+        var email = map.getMap("customer").getString("email");
+        return map.getDouble("total", 0) + email.length() + map.getString("status").length();
+    }
+
+    @Benchmark
+    public double structMapSumItems() {
+        var sum = 0.0;
+        for (Object item : ProtoUtils.asMap(struct).getList("items")) {
+            sum += ((StructMap) item).getDouble("price", 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public double toMapSumItems() {
+        var sum = 0.0;
+        for (Object item : (List<Object>) ProtoUtils.toMap(struct).get("items")) {
+            sum += (Double) ((Map<String, Object>) item).get("price");
+        }
+        return sum;
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides the previous Stream based Struct to Map conversion.
+     */
+    static class StreamProtoUtils {
+
+        static Map<String, Object> toMap(Struct struct) {
+            return struct.getFieldsMap().entrySet().stream().collect(toMapNullFriendly(
+                Map.Entry::getKey,
+                entry -> {
+                    Value value = entry.getValue();
+                    switch (value.getKindCase()) {
+                        case STRUCT_VALUE:
+                            return toMap(value.getStructValue());
+                        case LIST_VALUE:
+                            return toList(value.getListValue());
+                        default:
+                            return ProtoUtils.getScalarValue(value);
+                    }
+                }));
+        }
+
+        static List<Object> toList(ListValue listValue) {
+            return listValue.getValuesList().stream()
+                .map(value -> Value.KindCase.STRUCT_VALUE.equals(value.getKindCase())
+                    ? toMap(value.getStructValue())
+                    : ProtoUtils.getScalarValue(value))
+                .collect(Collectors.toList());
+        }
+
+        static <T, K, U> Collector<T, ?, Map<K, U>> toMapNullFriendly(
+            Function<? super T, ? extends K> keyMapper,
+            Function<? super T, ? extends U> valueMapper) {
+
+            @SuppressWarnings("unchecked")
+            U none = (U) new Object();
+            return Collectors.collectingAndThen(
+                Collectors.<T, K, U>toMap(keyMapper, valueMapper.andThen(v -> v == null ? none : v)), map -> {
+                    map.replaceAll((k, v) -> v == none ? null : v);
+                    return map;
+                });
+        }
+    }
+
+}
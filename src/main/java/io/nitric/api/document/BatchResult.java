@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+/**
+ * Provides a Batch Result class for the Collection <code>getAll()</code>, <code>setAll()</code> and
+ * <code>deleteAll()</code> operations. A batch result reports the outcome of the operation for a single document,
+ * which is either the document content or the error which failed the document's operation.
+ *
+ * <pre><code class="code">
+ *  var results = new Documents().collection("customers").getAll(List.of("customer-1", "customer-2"));
+ *
+ *  for (BatchResult&lt;Map&gt; result : results) {
+ *      if (result.isSuccess()) {
+ *          System.out.println(result.getKey().getId() + ": " + result.getContent());
+ *      } else {
+ *          System.out.println(result.getKey().getId() + " failed: " + result.getError());
+ *      }
+ *  }
+ * </code></pre>
+ *
+ * @see Collection
+ */
+public class BatchResult<T> {
+
+    final Key key;
+    final T content;
+    final Throwable error;
+
+    // Constructor ------------------------------------------------------------
+
+    /*
+     * Enforce package builder patterns.
+     */
+    BatchResult(Key key, T content, Throwable error) {
+        this.key = key;
+        this.content = content;
+        this.error = error;
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * @return the document key
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * @return the document content, or null if the operation failed or returns no content
+     */
+    public T getContent() {
+        return content;
+    }
+
+    /**
+     * @return the error which failed the document's operation, or null if the operation succeeded
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return true if the document's operation succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the string representation of this object
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[key=" + key + ", content=" + content + ", error=" + error + "]";
+    }
+
+}
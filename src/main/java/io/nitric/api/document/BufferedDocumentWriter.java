@@ -0,0 +1,388 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.Struct;
+import io.nitric.proto.document.v1.DocumentDeleteRequest;
+import io.nitric.proto.document.v1.DocumentSetRequest;
+import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
+
+/**
+ * <p>
+ *  Provides a write-behind Buffered Document Writer class. The writer buffers document set and delete writes, and
+ *  coalesces repeated writes to the same document key, so only the last buffered write of a document is sent to the
+ *  Document Service. Buffered writes are flushed when the buffer reaches the batch size, when the flush interval
+ *  elapses, or when <code>flush()</code> or <code>close()</code> is called.
+ * </p>
+ *
+ * <p>
+ *  Each write returns a future which completes when the document write has been stored, or completes exceptionally
+ *  with a <code>NitricException</code> if the write failed. Coalesced writes of the same key share the future of
+ *  the write which is sent. Flushes run one after another, and the writes of a flush are sent with at most
+ *  <code>concurrency</code> concurrent calls, so the last write of a key is always stored last.
+ * </p>
+ *
+ * <p>
+ *  Writes of document references with a <code>DocumentCache</code> remove the document from the cache when the
+ *  write is buffered, and again when the write has completed.
+ * </p>
+ *
+ * <pre><code class="code">
+ * import io.nitric.api.document.BufferedDocumentWriter;
+ * import io.nitric.api.document.Documents;
+ * ...
+ *
+ * var stats = new Documents().collection("stats");
+ *
+ * try (var writer = BufferedDocumentWriter.newBuilder().flushInterval(Duration.ofMillis(200)).build()) {
+ *     for (Event event : events) {
+ *         writer.set(stats.doc(event.getAggregateId()), event.getTotals());
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @see DocumentRef
+ */
+public class BufferedDocumentWriter implements AutoCloseable {
+
+    /** The default number of buffered documents which triggers a flush. */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** The default interval between time based flushes. */
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    final int batchSize;
+    final Duration flushInterval;
+    final int concurrency;
+    final Object lock = new Object();
+    final ScheduledExecutorService scheduler;
+
+    Map<Key, Write> pending = new LinkedHashMap<>();
+    CompletableFuture<Void> lastFlush = CompletableFuture.completedFuture(null);
+    boolean closed;
+
+    // Constructor ------------------------------------------------------------
+
+    /*
+     * Enforce builder pattern.
+     */
+    BufferedDocumentWriter(Builder builder) {
+        this.batchSize = builder.batchSize;
+        this.flushInterval = builder.flushInterval;
+        this.concurrency = builder.concurrency;
+
+        if (!flushInterval.isZero()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "nitric-document-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            var nanos = flushInterval.toNanos();
+            scheduler.scheduleWithFixedDelay(this::flushAsync, nanos, nanos, TimeUnit.NANOSECONDS);
+
+        } else {
+            scheduler = null;
+        }
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * @return a new BufferedDocumentWriter builder object
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Buffer a write of the given document content. The content is encoded when the write is buffered, so later
+     * changes to the content object are not written.
+     *
+     * @param ref the document reference to write (required)
+     * @param content the document content to store (required)
+     * @param <T> the document content type
+     * @return a future which completes when the document has been stored
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public <T> CompletableFuture<Void> set(DocumentRef<T> ref, T content) {
+        Contracts.requireNonNull(ref, "ref");
+        Contracts.requireNonNull(content, "content");
+
+        return buffer(ref, ref.toContentStruct(content));
+    }
+
+    /**
+     * Buffer a delete of the given document.
+     *
+     * @param ref the document reference to delete (required)
+     * @return a future which completes when the document has been deleted
+     * @throws IllegalStateException if the writer has been closed
+     */
+    public CompletableFuture<Void> delete(DocumentRef<?> ref) {
+        Contracts.requireNonNull(ref, "ref");
+
+        return buffer(ref, null);
+    }
+
+    /**
+     * Flush the buffered writes, and wait until they and any earlier flushed writes have completed. Write failures
+     * are reported by the futures returned by the write methods.
+     */
+    public void flush() {
+        flushAsync().join();
+    }
+
+    /**
+     * Flush the buffered writes and close the writer, waiting until all the writes have completed. Further writes
+     * are rejected with an <code>IllegalStateException</code>.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        flush();
+    }
+
+    /**
+     * Return the string representation of this object.
+     *
+     * @return the string representation of this object
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName()
+                + "[batchSize=" + batchSize
+                + ", flushInterval=" + flushInterval
+                + ", concurrency=" + concurrency
+                + "]";
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Start a flush of the buffered writes, which runs after any earlier flush has completed.
+     *
+     * @return a future which completes when the flushed writes have completed
+     */
+    CompletableFuture<Void> flushAsync() {
+        synchronized (lock) {
+            if (!pending.isEmpty()) {
+                var writes = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+                lastFlush = lastFlush.thenCompose(previous -> write(writes, concurrency));
+            }
+            return lastFlush;
+        }
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private CompletableFuture<Void> buffer(DocumentRef<?> ref, Struct content) {
+        var key = ref.key;
+        boolean full;
+        CompletableFuture<Void> future;
+
+        // Cached reads must not return the document's content from before this write
+        if (ref.cache != null) {
+            ref.cache.invalidate(key);
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("writer is closed");
+            }
+
+            var write = pending.get(key);
+            if (write != null) {
+                // Replace the earlier buffered write, which shares this write's future
+                write.content = content;
+            } else {
+                write = new Write(key, content);
+                pending.put(key, write);
+            }
+            write.addCache(ref.cache);
+            future = write.future;
+            full = pending.size() >= batchSize;
+        }
+
+        if (full) {
+            flushAsync();
+        }
+        return future;
+    }
+
+    private static CompletableFuture<Void> write(List<Write> writes, int concurrency) {
+        var refs = new ArrayList<DocumentRef<?>>(writes.size());
+        for (Write write : writes) {
+            refs.add(new DocumentRef<>(write.key, Map.class));
+        }
+
+        return new DocumentBatch<>(refs, i -> writes.get(i).send())
+            .run(concurrency)
+            .thenAccept(results -> {
+                for (int i = 0; i < results.size(); i++) {
+                    writes.get(i).invalidateCaches();
+
+                    var result = results.get(i);
+                    if (result.isSuccess()) {
+                        writes.get(i).future.complete(null);
+                    } else {
+                        writes.get(i).future.completeExceptionally(result.getError());
+                    }
+                }
+            });
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a buffered document write, which is a set of the content or a delete if the content is null.
+     */
+    static class Write {
+
+        final Key key;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final List<DocumentCache> caches = new ArrayList<>(1);
+        Struct content;
+
+        Write(Key key, Struct content) {
+            this.key = key;
+            this.content = content;
+        }
+
+        void addCache(DocumentCache cache) {
+            if (cache != null && !caches.contains(cache)) {
+                caches.add(cache);
+            }
+        }
+
+        void invalidateCaches() {
+            for (DocumentCache cache : caches) {
+                cache.invalidate(key);
+            }
+        }
+
+        CompletableFuture<Void> send() {
+            if (content != null) {
+                var request = DocumentSetRequest.newBuilder()
+                        .setKey(key.toGrpcKey())
+                        .setContent(content)
+                        .build();
+
+                return GrpcFutures.toCompletableFuture(Documents.getFutureStub().set(request))
+                        .thenApply(response -> null);
+
+            } else {
+                var request = DocumentDeleteRequest.newBuilder()
+                        .setKey(key.toGrpcKey())
+                        .build();
+
+                return GrpcFutures.toCompletableFuture(Documents.getFutureStub().delete(request))
+                        .thenApply(response -> null);
+            }
+        }
+    }
+
+    /**
+     * Provides a BufferedDocumentWriter builder class.
+     */
+    public static class Builder {
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        Duration flushInterval = DEFAULT_FLUSH_INTERVAL;
+        int concurrency = Collection.BATCH_CONCURRENCY;
+
+        /*
+         * Enforce builder pattern.
+         */
+        Builder() {
+        }
+
+        // Public Methods ------------------------------------------------------
+
+        /**
+         * Set the number of buffered documents which triggers a flush, the default is 500.
+         *
+         * @param batchSize the number of buffered documents which triggers a flush, must be greater than 0
+         * @return the builder object
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be greater than 0");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Set the interval between time based flushes, the default is 1 second. A zero interval disables time based
+         * flushes.
+         *
+         * @param flushInterval the interval between time based flushes (required)
+         * @return the builder object
+         */
+        public Builder flushInterval(Duration flushInterval) {
+            Contracts.requireNonNull(flushInterval, "flushInterval");
+            if (flushInterval.isNegative()) {
+                throw new IllegalArgumentException("flushInterval must not be negative");
+            }
+            this.flushInterval = flushInterval;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of concurrent Document Service calls made by a flush, the default is 16.
+         *
+         * @param concurrency the maximum number of concurrent calls, must be greater than 0
+         * @return the builder object
+         */
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be greater than 0");
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @return a new BufferedDocumentWriter object
+         */
+        public BufferedDocumentWriter build() {
+            return new BufferedDocumentWriter(this);
+        }
+    }
+
+}
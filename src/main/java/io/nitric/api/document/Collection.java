@@ -20,6 +20,8 @@
 
 package io.nitric.api.document;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import io.nitric.util.Contracts;
@@ -35,6 +37,7 @@ import io.nitric.util.Contracts;
  *
  * <pre><code class="code">
  * import io.nitric.api.document.Documents;
+ * import java.util.List;
  * import java.util.Map;
  * ...
  *
@@ -53,10 +56,18 @@ import io.nitric.util.Contracts;
  *
  * // Delete a customer document
  * customers.doc("anne.smith@example.com").delete();
+ *
+ * // Get a batch of customer documents
+ * var results = customers.getAll(List.of("anne.smith@example.com", "john.doe@example.com"));
  * </code></pre>
  */
 public class Collection extends AbstractCollection {
 
+    /** The maximum number of concurrent Document Service calls made by a batch operation. */
+    public static final int BATCH_CONCURRENCY = 16;
+
+    DocumentCache cache;
+
     // Constructor ------------------------------------------------------------
 
     /*
@@ -78,7 +89,7 @@ public class Collection extends AbstractCollection {
         Contracts.requireNonBlank(id, "id");
 
         var key = new Key(this, id);
-        return new DocumentRef<>(key, Map.class);
+        return new DocumentRef<>(key, Map.class).cache(cache);
     }
 
     /**
@@ -92,7 +103,96 @@ public class Collection extends AbstractCollection {
         Contracts.requireNonBlank(id, "id");
 
         var key = new Key(this, id);
-        return new DocumentRef<>(key, type);
+        return new DocumentRef<>(key, type).cache(cache);
+    }
+
+    /**
+     * Set the document cache of the document references created by this collection. The batch get methods read
+     * through the cache, and the batch set and delete methods remove the written documents from the cache.
+     *
+     * @param cache the document cache, or null to use document references without a cache
+     * @return this collection
+     * @see DocumentRef#cache(DocumentCache)
+     */
+    public Collection cache(DocumentCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Return the content of the given documents as <code>Map</code> values. The documents are fetched with
+     * concurrent Document Service calls, with at most <code>BATCH_CONCURRENCY</code> calls in flight.
+     *
+     * @param ids the document unique ids (required)
+     * @return the batch results in document id order, which report the content or the error for each document
+     */
+    public List<BatchResult<Map>> getAll(List<String> ids) {
+        return getAll(ids, Map.class);
+    }
+
+    /**
+     * Return the content of the given documents as values of the given type. The documents are fetched with
+     * concurrent Document Service calls, with at most <code>BATCH_CONCURRENCY</code> calls in flight. A document
+     * which does not exist is reported with a <code>NotFoundException</code> error in its result.
+     *
+     * @param ids the document unique ids (required)
+     * @param type the document value type (required)
+     * @return the batch results in document id order, which report the content or the error for each document
+     */
+    public <T> List<BatchResult<T>> getAll(List<String> ids, Class<T> type) {
+        Contracts.requireNonNull(ids, "ids");
+        Contracts.requireNonNull(type, "type");
+
+        var refs = new ArrayList<DocumentRef<T>>(ids.size());
+        for (String id : ids) {
+            refs.add(doc(id, type));
+        }
+
+        return new DocumentBatch<>(refs, i -> refs.get(i).getAsync()).run(BATCH_CONCURRENCY).join();
+    }
+
+    /**
+     * Set the content of the given documents, which are keyed by document id. The documents are stored with
+     * concurrent Document Service calls, with at most <code>BATCH_CONCURRENCY</code> calls in flight.
+     *
+     * @param documents the document contents keyed by document unique id (required)
+     * @return the batch results in the map's iteration order, which report any error for each document
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<BatchResult<Void>> setAll(Map<String, T> documents) {
+        Contracts.requireNonNull(documents, "documents");
+
+        var refs = new ArrayList<DocumentRef<T>>(documents.size());
+        var contents = new ArrayList<T>(documents.size());
+        for (Map.Entry<String, T> entry : documents.entrySet()) {
+            var content = entry.getValue();
+            Contracts.requireNonNull(content, "content");
+
+            refs.add(doc(entry.getKey(), (Class<T>) content.getClass()));
+            contents.add(content);
+        }
+
+        return new DocumentBatch<>(refs, i -> refs.get(i).setAsync(contents.get(i)))
+            .run(BATCH_CONCURRENCY)
+            .join();
+    }
+
+    /**
+     * Delete the given documents if they exist. The documents are deleted with concurrent Document Service calls,
+     * with at most <code>BATCH_CONCURRENCY</code> calls in flight.
+     *
+     * @param ids the document unique ids (required)
+     * @return the batch results in document id order, which report any error for each document
+     */
+    public List<BatchResult<Void>> deleteAll(List<String> ids) {
+        Contracts.requireNonNull(ids, "ids");
+
+        var refs = new ArrayList<DocumentRef<Map>>(ids.size());
+        for (String id : ids) {
+            refs.add(doc(id));
+        }
+
+        return new DocumentBatch<>(refs, i -> refs.get(i).deleteAsync()).run(BATCH_CONCURRENCY).join();
     }
 
     /**
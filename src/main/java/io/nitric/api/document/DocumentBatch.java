@@ -0,0 +1,126 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Provides a document batch operation, which runs an async Document Service call for each document reference. At
+ * most <code>concurrency</code> calls are in flight at any time, and each completed call starts the next pending
+ * call, so large batches do not flood the membrane channel. Calls are started from a drain loop rather than
+ * recursively, so calls which complete immediately do not grow the stack.
+ *
+ * @param <R> the batch result content type
+ */
+class DocumentBatch<R> {
+
+    final List<? extends DocumentRef<?>> refs;
+    final IntFunction<CompletableFuture<R>> call;
+    final BatchResult<R>[] results;
+    final AtomicInteger inFlight = new AtomicInteger();
+    final AtomicInteger remaining;
+    final AtomicInteger drains = new AtomicInteger();
+    final CompletableFuture<List<BatchResult<R>>> future = new CompletableFuture<>();
+    int concurrency;
+    int next;
+
+    // Constructor ------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    DocumentBatch(List<? extends DocumentRef<?>> refs, IntFunction<CompletableFuture<R>> call) {
+        this.refs = refs;
+        this.call = call;
+        this.results = new BatchResult[refs.size()];
+        this.remaining = new AtomicInteger(refs.size());
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Run the batch calls with the given maximum number of concurrent calls, and return a future which completes
+     * with the results in document reference order. Failed calls are reported in their document's result, and do
+     * not fail the returned future.
+     *
+     * @param concurrency the maximum number of concurrent calls
+     * @return a future which completes with the results in document reference order
+     */
+    CompletableFuture<List<BatchResult<R>>> run(int concurrency) {
+        if (refs.isEmpty()) {
+            future.complete(new ArrayList<>());
+            return future;
+        }
+
+        this.concurrency = concurrency;
+        drain();
+        return future;
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private void drain() {
+        if (drains.getAndIncrement() != 0) {
+            // Another thread is draining, and will loop again to start the next calls
+            return;
+        }
+
+        do {
+            while (next < refs.size() && inFlight.get() < concurrency) {
+                inFlight.incrementAndGet();
+                call(next++);
+            }
+        } while (drains.decrementAndGet() != 0);
+    }
+
+    private void call(int index) {
+        var ref = refs.get(index);
+
+        CompletableFuture<R> callFuture;
+        try {
+            callFuture = call.apply(index);
+        } catch (RuntimeException re) {
+            callFuture = CompletableFuture.failedFuture(re);
+        }
+
+        callFuture.whenComplete((content, error) -> {
+            results[index] = (error == null)
+                ? new BatchResult<>(ref.key, content, null)
+                : new BatchResult<>(ref.key, null, unwrap(error));
+
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(Arrays.asList(results));
+            } else {
+                inFlight.decrementAndGet();
+                drain();
+            }
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+}
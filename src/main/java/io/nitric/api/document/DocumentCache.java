@@ -0,0 +1,310 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import com.google.protobuf.Struct;
+import io.nitric.util.Contracts;
+
+/**
+ * <p>
+ *  Provides a client side read-through Document Cache class. A document cache holds the content of documents read
+ *  by <code>DocumentRef.get()</code> and <code>getAsync()</code>, for document references configured with the
+ *  cache, so repeated reads of rarely changing documents do not make a Document Service call.
+ * </p>
+ *
+ * <p>
+ *  The cache holds up to <code>maximumSize</code> documents, evicting the least recently used document when full,
+ *  and cached documents expire <code>timeToLive</code> after they were read. Cached content is stored as immutable
+ *  <code>Struct</code> values, which are decoded on each read, so cached values are never shared between callers.
+ *  Document set and delete calls made through a cached document reference invalidate the cached document, and
+ *  content read by a concurrent get call which started before the invalidation is not cached. Changes made by other
+ *  processes are only seen after the cached document expires.
+ * </p>
+ *
+ * <pre><code class="code">
+ * import io.nitric.api.document.DocumentCache;
+ * import io.nitric.api.document.Documents;
+ * ...
+ *
+ * static final DocumentCache CACHE = DocumentCache.newBuilder()
+ *     .maximumSize(1000)
+ *     .timeToLive(Duration.ofMinutes(5))
+ *     .build();
+ *
+ * var country = new Documents().collection("countries").doc("AU").cache(CACHE).get();
+ * </code></pre>
+ *
+ * @see DocumentRef
+ */
+public class DocumentCache {
+
+    /** The default maximum number of cached documents. */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    /** The default time to live of cached documents. */
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+    final int maximumSize;
+    final Duration timeToLive;
+    final Map<Key, Entry> entries;
+    final Map<Key, Long> invalidations;
+
+    LongSupplier nanoClock = System::nanoTime;
+    long generation;
+    long evictedGeneration;
+    long hitCount;
+    long missCount;
+    long evictionCount;
+
+    // Constructor ------------------------------------------------------------
+
+    /*
+     * Enforce builder pattern.
+     */
+    DocumentCache(Builder builder) {
+        this.maximumSize = builder.maximumSize;
+        this.timeToLive = builder.timeToLive;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.invalidations = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Long> eldest) {
+                if (size() > maximumSize) {
+                    // Reads which started before the evicted invalidation can no longer be checked
+                    evictedGeneration = eldest.getValue();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * @return a new DocumentCache builder object
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Remove the given document from the cache.
+     *
+     * @param key the document key (required)
+     */
+    public synchronized void invalidate(Key key) {
+        Contracts.requireNonNull(key, "key");
+
+        entries.remove(key);
+        invalidations.remove(key);
+        invalidations.put(key, ++generation);
+    }
+
+    /**
+     * Remove all the documents from the cache.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        invalidations.clear();
+        evictedGeneration = ++generation;
+    }
+
+    /**
+     * @return the number of cached documents, including expired documents which have not been removed
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of document reads served from the cache
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of document reads not found in the cache
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of documents evicted from the cache because it was full
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Return the string representation of this object.
+     *
+     * @return the string representation of this object
+     */
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName()
+                + "[maximumSize=" + maximumSize
+                + ", timeToLive=" + timeToLive
+                + ", size=" + entries.size()
+                + ", hitCount=" + hitCount
+                + ", missCount=" + missCount
+                + ", evictionCount=" + evictionCount
+                + "]";
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return the cached content of the given document, or null if the document is not cached or has expired.
+     *
+     * @param key the document key
+     * @return the cached content of the given document, or null if not cached
+     */
+    synchronized Struct get(Key key) {
+        var entry = entries.get(key);
+        if (entry != null && nanoClock.getAsLong() - entry.expiresAt < 0) {
+            hitCount++;
+            return entry.content;
+        }
+
+        if (entry != null) {
+            entries.remove(key);
+        }
+        missCount++;
+        return null;
+    }
+
+    /**
+     * Return the cache invalidation generation, which is recorded before reading a document from the Document
+     * Service, and passed to <code>put()</code> with the document content.
+     *
+     * @return the cache invalidation generation
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Cache the content of the given document, unless the document has been invalidated since the given generation,
+     * in which case the content may be stale.
+     *
+     * @param key the document key
+     * @param content the document content
+     * @param readGeneration the cache generation recorded before the document was read
+     */
+    synchronized void put(Key key, Struct content, long readGeneration) {
+        if (readGeneration < evictedGeneration) {
+            return;
+        }
+        var invalidated = invalidations.get(key);
+        if (invalidated != null && invalidated > readGeneration) {
+            return;
+        }
+
+        entries.put(key, new Entry(content, nanoClock.getAsLong() + timeToLive.toNanos()));
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a cached document content entry.
+     */
+    static class Entry {
+
+        final Struct content;
+        final long expiresAt;
+
+        Entry(Struct content, long expiresAt) {
+            this.content = content;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Provides a DocumentCache builder class.
+     */
+    public static class Builder {
+
+        int maximumSize = DEFAULT_MAXIMUM_SIZE;
+        Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+
+        /*
+         * Enforce builder pattern.
+         */
+        Builder() {
+        }
+
+        // Public Methods ------------------------------------------------------
+
+        /**
+         * Set the maximum number of cached documents, the default is 1000.
+         *
+         * @param maximumSize the maximum number of cached documents, must be greater than 0
+         * @return the builder object
+         */
+        public Builder maximumSize(int maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("maximumSize must be greater than 0");
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Set the time to live of cached documents, the default is 1 minute.
+         *
+         * @param timeToLive the time to live of cached documents, must be greater than zero (required)
+         * @return the builder object
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            Contracts.requireNonNull(timeToLive, "timeToLive");
+            if (timeToLive.isZero() || timeToLive.isNegative()) {
+                throw new IllegalArgumentException("timeToLive must be greater than zero");
+            }
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * @return a new DocumentCache object
+         */
+        public DocumentCache build() {
+            return new DocumentCache(this);
+        }
+    }
+
+}
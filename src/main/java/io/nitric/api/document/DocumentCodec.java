@@ -0,0 +1,67 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import com.google.protobuf.Struct;
+
+/**
+ * Provides a document content codec, which converts between a document's protobuf <code>Struct</code> content and
+ * its value type.
+ *
+ * <p>
+ *  By default document references and queries use a <code>GsonDocumentCodec</code>. Custom codecs, such as a
+ *  Jackson or generated codec, can be set using the <code>codec()</code> methods.
+ * </p>
+ *
+ * <pre>
+ * var codec = new GsonDocumentCodec&lt;&gt;(Customer.class, new GsonBuilder().setDateFormat("yyyy-MM-dd"));
+ *
+ * Customer customer = new Documents().collection("customers").doc("anakin@example.com", Customer.class)
+ *     .codec(codec)
+ *     .get();
+ * </pre>
+ *
+ * <p>
+ *  Codecs must be thread-safe, as a codec may be shared by many document references and queries.
+ * </p>
+ *
+ * @param <T> the document value type
+ * @see GsonDocumentCodec
+ */
+public interface DocumentCodec<T> {
+
+    /**
+     * Return the value decoded from the given document content.
+     *
+     * @param content the document content (required)
+     * @return the value decoded from the given document content
+     */
+    T decode(Struct content);
+
+    /**
+     * Return the document content encoded from the given value.
+     *
+     * @param value the value to encode (required)
+     * @return the document content encoded from the given value
+     */
+    Struct encode(T value);
+
+}
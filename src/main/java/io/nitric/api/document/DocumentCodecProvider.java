@@ -0,0 +1,46 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+/**
+ * Provides a document codec service provider interface. Providers are loaded with the <code>ServiceLoader</code>
+ * and listed in <code>META-INF/services/io.nitric.api.document.DocumentCodecProvider</code> resources.
+ *
+ * <p>
+ *  Document references and queries which do not specify a codec or Gson builder use the first provided codec for
+ *  their value type, otherwise they use the default <code>GsonDocumentCodec</code>. Codecs generated for
+ *  <code>DocumentModel</code> classes are registered as providers.
+ * </p>
+ *
+ * @see DocumentModel
+ */
+public interface DocumentCodecProvider {
+
+    /**
+     * Return the codec for the given document value type, or null if this provider does not support the type.
+     *
+     * @param type the document value type
+     * @param <T> the document value type
+     * @return the codec for the given document value type, or null if not supported
+     */
+    <T> DocumentCodec<T> getCodec(Class<T> type);
+
+}
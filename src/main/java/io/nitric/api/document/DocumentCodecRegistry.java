@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Provides the registry of document codecs loaded from <code>DocumentCodecProvider</code> services. Providers are
+ * loaded on first use and the codec for each value type is cached.
+ */
+class DocumentCodecRegistry {
+
+    static List<DocumentCodecProvider> providers;
+
+    static final ClassValue<Optional<DocumentCodec<?>>> CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<DocumentCodec<?>> computeValue(Class<?> type) {
+            for (DocumentCodecProvider provider : getProviders()) {
+                DocumentCodec<?> codec = provider.getCodec(type);
+                if (codec != null) {
+                    return Optional.of(codec);
+                }
+            }
+            return Optional.empty();
+        }
+    };
+
+    /*
+     * Enforce static method usage
+     */
+    private DocumentCodecRegistry() {
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return the codec for the given Gson builder and type. If no Gson builder is specified the provided codec for
+     * the type is returned, otherwise the cached Gson codec is returned.
+     *
+     * @param gsonBuilder the Gson builder, or null for the provided or default Gson codec
+     * @param type the document value type (required)
+     * @param <T> the document value type
+     * @return the codec for the given Gson builder and type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> DocumentCodec<T> getCodec(GsonBuilder gsonBuilder, Class<T> type) {
+        if (gsonBuilder == null) {
+            var codec = CODECS.get(type);
+            if (codec.isPresent()) {
+                return (DocumentCodec<T>) codec.get();
+            }
+        }
+        return GsonCache.getCodec(gsonBuilder, type);
+    }
+
+    static synchronized List<DocumentCodecProvider> getProviders() {
+        if (providers == null) {
+            var loaded = new ArrayList<DocumentCodecProvider>();
+            ServiceLoader.load(DocumentCodecProvider.class).forEach(loaded::add);
+            providers = loaded;
+        }
+        return providers;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotates a document value class for which the <code>DocumentCodecProcessor</code> generates a reflection free
+ * <code>DocumentCodec</code>.
+ *
+ * <p>
+ *  The processor is optional and must be enabled in the application's build, for example using the Maven compiler
+ *  plugin's <code>annotationProcessors</code> configuration with the
+ *  <code>io.nitric.api.document.processor.DocumentCodecProcessor</code> class. A codec named
+ *  <code>&lt;ClassName&gt;DocumentCodec</code> is generated in the class's package, and registered as a
+ *  <code>DocumentCodecProvider</code> service so it is used by document references and queries of the class which
+ *  do not specify a Gson builder.
+ * </p>
+ *
+ * <pre>
+ * &#64;DocumentModel
+ * public class Customer {
+ *     private String email;
+ *     private boolean active;
+ *     private List&lt;Order&gt; orders;
+ *     ...
+ * }
+ * </pre>
+ *
+ * <p>
+ *  Generated codecs support the same field names, including <code>SerializedName</code> annotations, and the same
+ *  value conversions as the default Gson codec, for fields of primitive, boxed primitive, <code>String</code>,
+ *  enum, <code>List</code>, <code>Map&lt;String, Object&gt;</code> and other <code>DocumentModel</code> types.
+ *  Private fields are accessed through their getter and setter methods.
+ * </p>
+ *
+ * @see DocumentCodecProvider
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface DocumentModel {
+
+}
@@ -21,6 +21,7 @@
 package io.nitric.api.document;
 
 import com.google.gson.GsonBuilder;
+import com.google.protobuf.Struct;
 import io.nitric.api.NitricException;
 import io.nitric.api.NotFoundException;
 import io.nitric.proto.document.v1.DocumentDeleteRequest;
@@ -28,9 +29,13 @@ import io.nitric.proto.document.v1.DocumentGetRequest;
 import io.nitric.proto.document.v1.DocumentGetResponse;
 import io.nitric.proto.document.v1.DocumentSetRequest;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 import io.nitric.util.ProtoUtils;
+import io.nitric.util.StructMap;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Provides an Document Reference class.
@@ -40,6 +45,11 @@ public class DocumentRef<T> {
     final Key key;
     final Class<T> type;
     GsonBuilder gsonBuilder;
+    DocumentCodec<T> codec;
+    Projection projection;
+    DocumentCache cache;
+    boolean lazyMapContent;
+    boolean integralNumbers;
 
     // Constructor ------------------------------------------------------------
 
@@ -74,35 +84,57 @@ public class DocumentRef<T> {
      * @throws NitricException if a Document Service API error occurs
      */
     public T get() throws NotFoundException, NitricException {
+        long cacheGeneration = 0;
+        if (cache != null) {
+            var content = cache.get(key);
+            if (content != null) {
+                return toContent(content);
+            }
+            cacheGeneration = cache.generation();
+        }
+
         var request = DocumentGetRequest.newBuilder()
                 .setKey(key.toGrpcKey())
                 .build();
 
-            DocumentGetResponse response = null;
-            try {
-                response = Documents.getServiceStub().get(request);
-            } catch (io.grpc.StatusRuntimeException sre) {
-                throw NitricException.build(sre);
-            }
+        DocumentGetResponse response = null;
+        try {
+            response = Documents.getServiceStub().get(request);
+        } catch (io.grpc.StatusRuntimeException sre) {
+            throw NitricException.build(sre);
+        }
 
-            if (response.hasDocument()) {
-                var map = ProtoUtils.toMap(response.getDocument().getContent());
+        cacheContent(response, cacheGeneration);
+        return toContent(response);
+    }
 
-                if (type.isAssignableFrom(map.getClass())) {
-                    return (T) map;
+    /**
+     * Return a future which completes with the document reference content value. A failed Document Service call
+     * completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @return a future which completes with the document reference content value
+     */
+    public CompletableFuture<T> getAsync() {
+        long cacheGeneration;
+        if (cache != null) {
+            var content = cache.get(key);
+            if (content != null) {
+                return CompletableFuture.completedFuture(toContent(content));
+            }
+            cacheGeneration = cache.generation();
+        } else {
+            cacheGeneration = 0;
+        }
 
-                } else {
-                    if (gsonBuilder == null) {
-                        gsonBuilder = new GsonBuilder();
-                    }
-                    var gson = gsonBuilder.create();
-                    var jsonTree = gson.toJsonTree(map);
-                    return gson.fromJson(jsonTree, type);
-                }
+        var request = DocumentGetRequest.newBuilder()
+                .setKey(key.toGrpcKey())
+                .build();
 
-            } else {
-                return null;
-            }
+        return GrpcFutures.toCompletableFuture(Documents.getFutureStub().get(request))
+                .thenApply(response -> {
+                    cacheContent(response, cacheGeneration);
+                    return toContent(response);
+                });
     }
 
     /**
@@ -116,33 +148,41 @@ public class DocumentRef<T> {
     public void set(T content) throws NitricException {
         Contracts.requireNonNull(content, "content");
 
-        // Marshal content Struct
-        Map<String, Object> contentMap = null;
-        if (content instanceof Map) {
-            contentMap = (Map) content;
-
-        } else {
-            if (gsonBuilder == null) {
-                gsonBuilder = new GsonBuilder();
-            }
-            var gson = gsonBuilder.create();
-            var jsonTree = gson.toJsonTree(content);
-            contentMap = gson.fromJson(jsonTree, Map.class);
-        }
-        var contentStruct = ProtoUtils.toStruct(contentMap);
-
         var request = DocumentSetRequest.newBuilder()
                 .setKey(key.toGrpcKey())
-                .setContent(contentStruct)
+                .setContent(toContentStruct(content))
                 .build();
 
         try {
             Documents.getServiceStub().set(request);
         } catch (io.grpc.StatusRuntimeException sre) {
             throw NitricException.build(sre);
+        } finally {
+            invalidateCache();
         }
     }
 
+    /**
+     * Set the document content for this document reference in the database, returning a future which completes
+     * when the document has been stored. A failed Document Service call completes the future exceptionally with a
+     * <code>NitricException</code>.
+     *
+     * @param content the document content to store (required)
+     * @return a future which completes when the document has been stored
+     */
+    public CompletableFuture<Void> setAsync(T content) {
+        Contracts.requireNonNull(content, "content");
+
+        var request = DocumentSetRequest.newBuilder()
+                .setKey(key.toGrpcKey())
+                .setContent(toContentStruct(content))
+                .build();
+
+        return GrpcFutures.toCompletableFuture(Documents.getFutureStub().set(request))
+                .whenComplete((response, error) -> invalidateCache())
+                .thenApply(response -> null);
+    }
+
     /**
      * Delete this document reference from the database if it exists.
      *
@@ -157,9 +197,28 @@ public class DocumentRef<T> {
             Documents.getServiceStub().delete(request);
         } catch (io.grpc.StatusRuntimeException sre) {
             throw NitricException.build(sre);
+        } finally {
+            invalidateCache();
         }
     }
 
+    /**
+     * Delete this document reference from the database if it exists, returning a future which completes when the
+     * document has been deleted. A failed Document Service call completes the future exceptionally with a
+     * <code>NitricException</code>.
+     *
+     * @return a future which completes when the document has been deleted
+     */
+    public CompletableFuture<Void> deleteAsync() {
+        var request = DocumentDeleteRequest.newBuilder()
+                .setKey(key.toGrpcKey())
+                .build();
+
+        return GrpcFutures.toCompletableFuture(Documents.getFutureStub().delete(request))
+                .whenComplete((response, error) -> invalidateCache())
+                .thenApply(response -> null);
+    }
+
     /**
      * Create a new sub collection under this document.
      *
@@ -214,7 +273,9 @@ public class DocumentRef<T> {
     }
 
     /**
-     * Set the Document content object marshalling GsonBuilder.
+     * Set the Document content object marshalling GsonBuilder. The builder's Gson instance is created on first use
+     * and shared by all document references and queries using the same builder, so configure the builder before
+     * setting it.
      *
      * @param gsonBuilder the Document content object marshalling GsonBuilder
      * @return this Document Ref object
@@ -224,6 +285,75 @@ public class DocumentRef<T> {
         return this;
     }
 
+    /**
+     * Set the Document content codec. If not set, content is converted using the provided codec for the value
+     * type, or a <code>GsonDocumentCodec</code> if the Document Ref has a GsonBuilder or there is no provided codec.
+     * <code>Map</code> content is converted directly.
+     *
+     * @param codec the Document content codec
+     * @return this Document Ref object
+     */
+    public DocumentRef<T> codec(DocumentCodec<T> codec) {
+        this.codec = codec;
+        return this;
+    }
+
+    /**
+     * Select the document content fields returned by <code>get()</code> and <code>getAsync()</code>. Fields are top
+     * level field names, or dot separated paths of nested object fields. Only the selected fields are decoded into
+     * the content value, and unselected fields will have their default values in typed content. The Document Service
+     * does not support projections, so the whole document is still returned by the server.
+     *
+     * @param fields the document content fields to return, or no fields to return all fields
+     * @return this Document Ref object
+     */
+    public DocumentRef<T> select(String... fields) {
+        this.projection = Projection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set whether <code>Map</code> content values are lazy views. Lazy content values are read-only
+     * <code>StructMap</code> views, which convert and memoize field values when they are read, rather than copying
+     * the whole document into a new Map. This avoids converting large documents when only a few fields are read.
+     * Typed content values are not affected.
+     *
+     * @param lazyMapContent specify whether Map content values are lazy views
+     * @return this Document Ref object
+     */
+    public DocumentRef<T> lazyMapContent(boolean lazyMapContent) {
+        this.lazyMapContent = lazyMapContent;
+        return this;
+    }
+
+    /**
+     * Set whether integral numbers in <code>Map</code> content values are decoded as <code>Long</code> values.
+     * With integral numbers enabled, whole numbers which a double represents exactly are decoded as
+     * <code>Long</code> values, and other numbers remain <code>Double</code> values. Typed content values are not
+     * affected.
+     *
+     * @param integralNumbers specify whether integral numbers are decoded as Long values
+     * @return this Document Ref object
+     */
+    public DocumentRef<T> integralNumbers(boolean integralNumbers) {
+        this.integralNumbers = integralNumbers;
+        return this;
+    }
+
+    /**
+     * Set the document cache used by <code>get()</code> and <code>getAsync()</code>. Document content is read from
+     * the cache when present, and content read from the Document Service is added to the cache. The document is
+     * removed from the cache when it is set or deleted through this document reference, or written with a
+     * <code>BufferedDocumentWriter</code>.
+     *
+     * @param cache the document cache, or null to read without a cache
+     * @return this Document Ref object
+     */
+    public DocumentRef<T> cache(DocumentCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
     /**
      * Return the string representation of this object.
      *
@@ -238,4 +368,59 @@ public class DocumentRef<T> {
             + "]";
     }
 
+    // Package Private Methods ------------------------------------------------
+
+    T toContent(DocumentGetResponse response) {
+        if (!response.hasDocument()) {
+            return null;
+        }
+
+        return toContent(response.getDocument().getContent());
+    }
+
+    @SuppressWarnings("unchecked")
+    T toContent(Struct content) {
+        if (projection != null) {
+            content = projection.apply(content);
+        }
+
+        if (codec == null && lazyMapContent && type.isAssignableFrom(StructMap.class)) {
+            return (T) ProtoUtils.asMap(content, true, integralNumbers);
+
+        } else if (codec == null && type.isAssignableFrom(HashMap.class)) {
+            return (T) ProtoUtils.toMap(content, integralNumbers);
+
+        } else {
+            return getCodec().decode(content);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Struct toContentStruct(T content) {
+        if (codec == null && content instanceof Map) {
+            return ProtoUtils.toStruct((Map<String, Object>) content);
+
+        } else {
+            return getCodec().encode(content);
+        }
+    }
+
+    DocumentCodec<T> getCodec() {
+        return (codec != null) ? codec : DocumentCodecRegistry.getCodec(gsonBuilder, type);
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private void cacheContent(DocumentGetResponse response, long cacheGeneration) {
+        if (cache != null && response.hasDocument()) {
+            cache.put(key, response.getDocument().getContent(), cacheGeneration);
+        }
+    }
+
+    private void invalidateCache() {
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
 }
@@ -22,6 +22,8 @@ package io.nitric.api.document;
 
 import io.nitric.proto.document.v1.DocumentServiceGrpc;
 import io.nitric.proto.document.v1.DocumentServiceGrpc.DocumentServiceBlockingStub;
+import io.nitric.proto.document.v1.DocumentServiceGrpc.DocumentServiceFutureStub;
+import io.nitric.proto.document.v1.DocumentServiceGrpc.DocumentServiceStub;
 import io.nitric.util.GrpcChannelProvider;
 
 /**
@@ -118,6 +120,8 @@ import io.nitric.util.GrpcChannelProvider;
 public class Documents {
 
     static DocumentServiceBlockingStub serviceStub;
+    static DocumentServiceFutureStub futureStub;
+    static DocumentServiceStub streamStub;
 
     // Public Methods ---------------------------------------------------------
 
@@ -152,4 +156,48 @@ public class Documents {
     public static void setServiceStub(DocumentServiceBlockingStub stub) {
         serviceStub = stub;
     }
+
+    /**
+     * Return the Membrane GRPC Document Service Future Stub.
+     *
+     * @return the Membrane GRPC Document Service Future Stub
+     */
+    public static DocumentServiceFutureStub getFutureStub() {
+        if (futureStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            futureStub = DocumentServiceGrpc.newFutureStub(channel);
+        }
+        return futureStub;
+    }
+
+    /**
+     * Set the Membrane GRPC Document Service Future Stub.
+     *
+     * @param stub the Membrane GRPC Document Service Future Stub
+     */
+    public static void setFutureStub(DocumentServiceFutureStub stub) {
+        futureStub = stub;
+    }
+
+    /**
+     * Return the Membrane GRPC Document Service async Stub, which is used for streaming calls.
+     *
+     * @return the Membrane GRPC Document Service async Stub
+     */
+    public static DocumentServiceStub getStreamStub() {
+        if (streamStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            streamStub = DocumentServiceGrpc.newStub(channel);
+        }
+        return streamStub;
+    }
+
+    /**
+     * Set the Membrane GRPC Document Service async Stub, which is used for streaming calls.
+     *
+     * @param stub the Membrane GRPC Document Service async Stub
+     */
+    public static void setStreamStub(DocumentServiceStub stub) {
+        streamStub = stub;
+    }
 }
@@ -0,0 +1,177 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Provides a shared, thread-safe cache of document content <code>Gson</code> instances and their resolved
+ * <code>TypeAdapter</code> objects.
+ *
+ * <p>
+ *  Gson instances are cached per <code>GsonBuilder</code> object, as builders do not expose their configuration for
+ *  comparison. A builder's Gson is created when the builder is first used, so builders should be fully configured
+ *  before being set on a <code>DocumentRef</code> or <code>Query</code>. Document references and queries without a
+ *  builder share a default Gson instance.
+ * </p>
+ *
+ * <p>
+ *  Cached Gson instances support reading <code>Map</code> values from a <code>StructJsonReader</code>, which Gson's
+ *  own Map adapter cannot do as it accesses <code>JsonReader</code> internals to read map keys.
+ * </p>
+ */
+class GsonCache {
+
+    static final GsonEntry DEFAULT_ENTRY = new GsonEntry(new Gson());
+
+    static final Map<GsonBuilder, GsonEntry> ENTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /*
+     * Enforce static method usage
+     */
+    private GsonCache() {
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return the cached Gson instance for the given builder.
+     *
+     * @param gsonBuilder the Gson builder, or null for the default Gson instance
+     * @return the cached Gson instance for the given builder
+     */
+    static Gson getGson(GsonBuilder gsonBuilder) {
+        return getEntry(gsonBuilder).gson;
+    }
+
+    /**
+     * Return the cached Gson entry for the given builder.
+     *
+     * @param gsonBuilder the Gson builder, or null for the default Gson instance
+     * @return the cached Gson entry for the given builder
+     */
+    static GsonEntry getEntry(GsonBuilder gsonBuilder) {
+        if (gsonBuilder == null) {
+            return DEFAULT_ENTRY;
+        }
+        return ENTRIES.computeIfAbsent(gsonBuilder, builder -> new GsonEntry(builder.create()));
+    }
+
+    /**
+     * Return the cached TypeAdapter for the given builder and type.
+     *
+     * @param gsonBuilder the Gson builder, or null for the default Gson instance
+     * @param type the value type (required)
+     * @param <T> the value type
+     * @return the cached TypeAdapter for the given builder and type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> TypeAdapter<T> getAdapter(GsonBuilder gsonBuilder, Class<T> type) {
+        return (TypeAdapter<T>) getEntry(gsonBuilder).adapters.get(type);
+    }
+
+    /**
+     * Return the cached document codec for the given builder and type.
+     *
+     * @param gsonBuilder the Gson builder, or null for the default Gson instance
+     * @param type the document value type (required)
+     * @param <T> the document value type
+     * @return the cached document codec for the given builder and type
+     */
+    @SuppressWarnings("unchecked")
+    static <T> GsonDocumentCodec<T> getCodec(GsonBuilder gsonBuilder, Class<T> type) {
+        return (GsonDocumentCodec<T>) getEntry(gsonBuilder).codecs.get(type);
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a Gson instance with its resolved type adapters and document codecs. Adapters and codecs are held in
+     * a ClassValue so cached document types do not prevent their class loaders being unloaded.
+     */
+    static class GsonEntry {
+
+        final Gson gson;
+        final ClassValue<TypeAdapter<?>> adapters;
+        final ClassValue<GsonDocumentCodec<?>> codecs;
+
+        GsonEntry(Gson baseGson) {
+            this.gson = baseGson.newBuilder()
+                .registerTypeAdapterFactory(new StructMapAdapterFactory())
+                .create();
+            this.adapters = new ClassValue<>() {
+                @Override
+                protected TypeAdapter<?> computeValue(Class<?> type) {
+                    return gson.getAdapter(type);
+                }
+            };
+            this.codecs = new ClassValue<>() {
+                @Override
+                @SuppressWarnings({"unchecked", "rawtypes"})
+                protected GsonDocumentCodec<?> computeValue(Class<?> type) {
+                    return new GsonDocumentCodec(type, GsonEntry.this);
+                }
+            };
+        }
+    }
+
+    /**
+     * Provides Map type adapters which read a <code>StructJsonReader</code> value through a JSON tree, and
+     * otherwise delegate to the next Map adapter.
+     */
+    static class StructMapAdapterFactory implements TypeAdapterFactory {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+            if (!Map.class.isAssignableFrom(typeToken.getRawType())) {
+                return null;
+            }
+
+            var delegate = gson.getDelegateAdapter(this, typeToken);
+            return new TypeAdapter<>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    if (in instanceof StructJsonReader) {
+                        return delegate.fromJsonTree(((StructJsonReader) in).nextJsonElement());
+                    }
+                    return delegate.read(in);
+                }
+            };
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.protobuf.Struct;
+import io.nitric.util.Contracts;
+
+/**
+ * Provides a Gson document content codec. Content is decoded by reading the protobuf <code>Struct</code> directly
+ * with the value type's Gson <code>TypeAdapter</code>, and encoded by writing the value directly into a new
+ * <code>Struct</code>, without building intermediate <code>Map</code> or <code>JsonElement</code> object graphs.
+ *
+ * <p>
+ *  Codecs share the cached Gson instance of their <code>GsonBuilder</code>, so the builder should be fully
+ *  configured before creating the codec.
+ * </p>
+ *
+ * @param <T> the document value type
+ */
+public class GsonDocumentCodec<T> implements DocumentCodec<T> {
+
+    final Class<T> type;
+    final Gson gson;
+    final TypeAdapter<T> adapter;
+
+    // Constructors -----------------------------------------------------------
+
+    /**
+     * Create a Gson codec for the given type, using the default Gson configuration.
+     *
+     * @param type the document value type (required)
+     */
+    public GsonDocumentCodec(Class<T> type) {
+        this(type, GsonCache.DEFAULT_ENTRY);
+    }
+
+    /**
+     * Create a Gson codec for the given type, using the Gson configuration of the given builder.
+     *
+     * @param type the document value type (required)
+     * @param gsonBuilder the Gson builder, or null for the default Gson configuration
+     */
+    public GsonDocumentCodec(Class<T> type, GsonBuilder gsonBuilder) {
+        this(type, GsonCache.getEntry(gsonBuilder));
+    }
+
+    @SuppressWarnings("unchecked")
+    GsonDocumentCodec(Class<T> type, GsonCache.GsonEntry gsonEntry) {
+        Contracts.requireNonNull(type, "type");
+
+        this.type = type;
+        this.gson = gsonEntry.gson;
+        this.adapter = (TypeAdapter<T>) gsonEntry.adapters.get(type);
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * Return the value decoded from the given document content.
+     *
+     * @param content the document content (required)
+     * @return the value decoded from the given document content
+     * @throws com.google.gson.JsonParseException if the content cannot be decoded as the value type
+     */
+    @Override
+    public T decode(Struct content) {
+        Contracts.requireNonNull(content, "content");
+
+        var reader = new StructJsonReader(content, gson.serializeNulls());
+        reader.setLenient(true);
+        try {
+            return adapter.read(reader);
+        } catch (IOException ioe) {
+            throw new JsonIOException(ioe);
+        }
+    }
+
+    /**
+     * Return the document content encoded from the given value.
+     *
+     * @param value the value to encode (required)
+     * @return the document content encoded from the given value
+     * @throws IllegalStateException if the value is not encoded as a JSON object
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Struct encode(T value) {
+        Contracts.requireNonNull(value, "value");
+
+        // Encode subclass values with their runtime type adapter, as Gson does
+        var valueAdapter = (value.getClass() == type)
+            ? adapter
+            : (TypeAdapter<T>) gson.getAdapter(value.getClass());
+
+        var writer = new StructJsonWriter();
+        writer.setLenient(true);
+        writer.setSerializeNulls(gson.serializeNulls());
+        try {
+            valueAdapter.write(writer, value);
+        } catch (IOException ioe) {
+            throw new JsonIOException(ioe);
+        }
+        return writer.getStruct();
+    }
+
+    /**
+     * Return the string representation of this object.
+     *
+     * @return the string representation of this object
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[type=" + type + "]";
+    }
+
+}
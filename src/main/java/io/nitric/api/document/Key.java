@@ -20,6 +20,8 @@
 
 package io.nitric.api.document;
 
+import java.util.Objects;
+
 import io.nitric.util.Contracts;
 
 /**
@@ -64,6 +66,37 @@ public class Key {
         return id;
     }
 
+    /**
+     * Return true if the given object is a key for the same collection path and document id.
+     *
+     * @param object the object to compare
+     * @return true if the given object is a key for the same collection path and document id
+     */
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Key)) {
+            return false;
+        }
+
+        var key = (Key) object;
+        return id.equals(key.id)
+            && collection.name.equals(key.collection.name)
+            && Objects.equals(collection.parent, key.collection.parent);
+    }
+
+    /**
+     * Return the hash code of the key's collection path and document id.
+     *
+     * @return the hash code of the key's collection path and document id
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(collection.name, collection.parent, id);
+    }
+
     /**
      * Return the string representation of this object.
      *
@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.nitric.util.Contracts;
+
+/**
+ * Provides a document content projection, which selects the given fields from document content before it is
+ * decoded. Fields are top level field names, or dot separated paths of nested object fields, for example
+ * <code>"title"</code> or <code>"author.name"</code>.
+ *
+ * <p>
+ *  The Document Service does not support projections, so whole documents are still returned by the server. The
+ *  projection avoids decoding and allocating the content values which are not needed.
+ * </p>
+ */
+class Projection {
+
+    /** The selected field names, with the projection of nested fields or null to select the whole field. */
+    final Map<String, Projection> fields = new LinkedHashMap<>();
+
+    // Constructor ------------------------------------------------------------
+
+    private Projection() {
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return a new projection of the given fields, or null if no fields are given.
+     *
+     * @param fields the top level field names or dot separated field paths
+     * @return a new projection of the given fields, or null if no fields are given
+     */
+    static Projection of(String... fields) {
+        if (fields == null || fields.length == 0) {
+            return null;
+        }
+
+        var projection = new Projection();
+        for (String field : fields) {
+            Contracts.requireNonBlank(field, "field");
+
+            var node = projection;
+            var names = field.split("\\.");
+            for (int i = 0; i < names.length; i++) {
+                var name = names[i];
+                if (name.isBlank()) {
+                    throw new IllegalArgumentException("provide non-blank field path names: " + field);
+                }
+                if (node.fields.containsKey(name) && node.fields.get(name) == null) {
+                    // The whole field is already selected
+                    break;
+                }
+                if (i == names.length - 1) {
+                    node.fields.put(name, null);
+                } else {
+                    node = node.fields.computeIfAbsent(name, key -> new Projection());
+                }
+            }
+        }
+        return projection;
+    }
+
+    /**
+     * Return the given content with only the selected fields.
+     *
+     * @param content the document content (required)
+     * @return the given content with only the selected fields
+     */
+    Struct apply(Struct content) {
+        var builder = Struct.newBuilder();
+        for (Map.Entry<String, Projection> entry : fields.entrySet()) {
+            var value = content.getFieldsMap().get(entry.getKey());
+            if (value == null) {
+                continue;
+            }
+
+            var nested = entry.getValue();
+            if (nested == null) {
+                builder.putFields(entry.getKey(), value);
+
+            } else if (value.getKindCase() == Value.KindCase.STRUCT_VALUE) {
+                var nestedContent = nested.apply(value.getStructValue());
+                builder.putFields(entry.getKey(), Value.newBuilder().setStructValue(nestedContent).build());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Return the string representation of this object, which lists the selected field paths.
+     *
+     * @return the string representation of this object
+     */
+    @Override
+    public String toString() {
+        return paths("").collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private Stream<String> paths(String prefix) {
+        return fields.entrySet().stream()
+            .flatMap(entry -> (entry.getValue() == null)
+                ? Stream.of(prefix + entry.getKey())
+                : entry.getValue().paths(prefix + entry.getKey() + "."));
+    }
+
+}
@@ -21,6 +21,8 @@
 package io.nitric.api.document;
 
 import com.google.gson.GsonBuilder;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
 import io.nitric.proto.document.v1.Collection;
 import io.nitric.proto.document.v1.ExpressionValue;
 import io.nitric.util.Contracts;
@@ -28,8 +30,12 @@ import io.nitric.util.Contracts;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalDouble;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.DoubleStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -204,6 +210,11 @@ import java.util.stream.StreamSupport;
  * </code></pre>
  *
  * <p>
+ *  The <code>parallelStream()</code> methods return parallel streams, which decode and process result pages in
+ *  parallel, and can scan key range partitions of the results with a paging cursor per partition.
+ * </p>
+ *
+ * <p>
  *   The second option form processing large result sets is to use a paginated query where you pass pagingToken from
  *   the previous query results to the next query to continue. This technique is useful for paged user experiences.
  *   An example is provided below:
@@ -242,9 +253,18 @@ public class Query<T> {
     final io.nitric.proto.document.v1.Collection collection;
     final List<Expression> expressions = new ArrayList<>();
     int limit;
+    int pageSize = QueryResults.PAGE_SIZE;
+    int prefetch;
+    boolean streaming;
+    boolean lazyDecode;
+    boolean lazyMapContent;
+    boolean integralNumbers;
+    Projection projection;
     Map<String, String> pagingToken;
     final Class<T> type;
     GsonBuilder gsonBuilder;
+    DocumentCodec<T> codec;
+    Function<Struct, T> reader;
 
     // Constructor ------------------------------------------------------------
 
@@ -360,6 +380,131 @@ public class Query<T> {
         return this;
     }
 
+    /**
+     * Set the number of documents requested per result page when paginating through all results with the
+     * <code>stream()</code> and <code>parallelStream()</code> methods. The default page size is 1000. Smaller pages
+     * reduce the time to the first result and the memory used by each page, while larger pages need fewer Document
+     * Service round trips.
+     *
+     * @param pageSize the number of documents requested per result page
+     * @return the Query operation
+     */
+    public Query<T> pageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.pageSize = pageSize;
+        return this;
+    }
+
+    /**
+     * Select the document content fields to return. Fields are top level field names, or dot separated paths of
+     * nested object fields. Only the selected fields are decoded into the result values, which reduces the decoding
+     * time and memory of queries which need a few fields of large documents. Unselected fields are absent from the
+     * results, so they will have their default values in typed results.
+     *
+     * <p>
+     *  The Document Service does not support projections, so whole documents are still returned by the server.
+     * </p>
+     *
+     * <pre><code class="code">
+     *  Stream&lt;ResultDoc&lt;Map&gt;&gt; titles = new Documents().collection("articles")
+     *      .query()
+     *      .select("title", "published", "author.name")
+     *      .stream();
+     * </code></pre>
+     *
+     * @param fields the document content fields to return, or no fields to return all fields
+     * @return the Query operation
+     */
+    public Query<T> select(String... fields) {
+        this.projection = Projection.of(fields);
+        return this;
+    }
+
+    /**
+     * Set whether result documents are decoded lazily. Lazily decoded documents are decoded when they are reached by
+     * a results iterator, rather than when their result page is loaded, so the time to the first result does not
+     * depend on the page size. Lazily decoded results are not retained, so each iteration over fetched results
+     * decodes new content values.
+     *
+     * @param lazyDecode specify whether result documents are decoded lazily
+     * @return the Query operation
+     */
+    public Query<T> lazyDecode(boolean lazyDecode) {
+        this.lazyDecode = lazyDecode;
+        return this;
+    }
+
+    /**
+     * Set whether <code>Map</code> content values are lazy views. Lazy content values are read-only
+     * <code>StructMap</code> views, which convert and memoize field values when they are read, rather than copying
+     * the whole document into a new Map. This avoids converting large documents when only a few fields are read.
+     * Typed content values are not affected.
+     *
+     * @param lazyMapContent specify whether Map content values are lazy views
+     * @return the Query operation
+     */
+    public Query<T> lazyMapContent(boolean lazyMapContent) {
+        this.lazyMapContent = lazyMapContent;
+        return this;
+    }
+
+    /**
+     * Set whether integral numbers in <code>Map</code> content values are decoded as <code>Long</code> values.
+     * Document numbers are stored as doubles, so by default <code>Map</code> content numbers are
+     * <code>Double</code> values. With integral numbers enabled, whole numbers which a double represents exactly are
+     * decoded as <code>Long</code> values, and other numbers remain <code>Double</code> values. Typed content values
+     * are decoded using their field types, and are not affected.
+     *
+     * @param integralNumbers specify whether integral numbers are decoded as Long values
+     * @return the Query operation
+     */
+    public Query<T> integralNumbers(boolean integralNumbers) {
+        this.integralNumbers = integralNumbers;
+        return this;
+    }
+
+    /**
+     * Set the number of result pages the <code>stream()</code> method requests ahead of the page being consumed. Page
+     * requests are made asynchronously, so the stream's consumer does not wait on a Document Service round trip for
+     * each page. Each page holds up to <code>pageSize</code> documents, so the prefetch depth bounds the memory used
+     * by buffered pages. The default value is 0, which requests each page when the previous page has been consumed.
+     *
+     * <p>
+     *  Prefetching streams should be closed if they are not fully consumed, to cancel any outstanding requests.
+     * </p>
+     *
+     * @param prefetch the number of result pages to request ahead of the current page
+     * @return the Query operation
+     */
+    public Query<T> prefetch(int prefetch) {
+        if (prefetch < 0) {
+            throw new IllegalArgumentException("prefetch must not be negative: " + prefetch);
+        }
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Set whether the <code>stream()</code> method reads all results from the Document Service QueryStream call,
+     * rather than paging through the results with Document Service queries. The QueryStream call sends the results
+     * in a single server stream with flow control, buffering at most two pages of documents, so the scan does not
+     * wait on a Document Service round trip for each page. The default value is false.
+     *
+     * <p>
+     *  Streaming queries hold an open call until the stream is fully consumed, so they should be closed if they are
+     *  not fully consumed, to cancel the call.
+     * </p>
+     *
+     * @param streaming specify whether the stream reads results from the QueryStream call
+     * @return the Query operation
+     */
+    public Query<T> streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     /**
      * Perform the Query operation and return the fetched results. If a fetch limit is specified then only the
      * specified number of items will be returned. If a pagingToken is also specified then the results will be for the
@@ -373,8 +518,15 @@ public class Query<T> {
 
     /**
      * Perform the Query operation and return a Stream object. If no fetch limit is specified this stream()
-     * object will continue to perform Document Service queries until there are not more results available from the
-     * server.
+     * object will return all the results available from the server.
+     *
+     * <p>
+     *  A stream of all results pages through the results with Document Service queries, requesting the number of
+     *  pages ahead specified by <code>prefetch()</code>. If <code>streaming()</code> is enabled and no paging token
+     *  or prefetch is specified, the stream uses the Document Service QueryStream call instead, and closing the
+     *  stream cancels the call. If the membrane does not support the QueryStream call, the stream pages through the
+     *  results.
+     * </p>
      *
      * @return the Query operations fetched results
      */
@@ -382,15 +534,143 @@ public class Query<T> {
         // If no fetch limit specified then paginate all
         boolean paginateAll = (this.limit == 0);
 
-        // Note will replace with QueryStream service call when implemented
-        var iterator = new QueryResults<>(this, paginateAll).iterator();
-        var spliterators = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+        if (paginateAll && streaming && prefetch == 0 && (pagingToken == null || pagingToken.isEmpty())) {
+            var iterator = new QueryStreamIterator<>(this);
+            var spliterators = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+            return StreamSupport.stream(spliterators, false).onClose(iterator::close);
+        }
+
+        var results = new QueryResults<>(this, paginateAll);
+
+        if (paginateAll && prefetch > 0) {
+            var iterator = new QueryResults.PrefetchingIterator<>(results, prefetch);
+            var spliterators = Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED);
+
+            return StreamSupport.stream(spliterators, false).onClose(iterator::close);
+        }
+
+        var spliterators = Spliterators.spliteratorUnknownSize(results.iterator(), Spliterator.ORDERED);
 
         return StreamSupport.stream(spliterators, false);
     }
 
     /**
-     * Set the ResultDoc content object marshalling GsonBuilder.
+     * Perform the Query operation and return a parallel Stream object. The stream fetches result pages one after
+     * another, and decodes and processes each page's documents in parallel while the following page is fetched. If
+     * no fetch limit is specified the stream will continue to perform Document Service queries until there are no
+     * more results available from the server.
+     *
+     * @return the Query operation's parallel results stream
+     */
+    public Stream<ResultDoc<T>> parallelStream() {
+        return StreamSupport.stream(new QuerySpliterator<>(List.of(this)), true);
+    }
+
+    /**
+     * Perform the Query operation as a parallel scan of key range partitions and return a parallel Stream object.
+     * The given split points divide the operand's values into ranges, for example the split points
+     * <code>["g", "n", "t"]</code> give the partitions <code>operand &lt; "g"</code>,
+     * <code>"g" &lt;= operand &lt; "n"</code>, <code>"n" &lt;= operand &lt; "t"</code> and
+     * <code>operand &gt;= "t"</code>. Each partition is queried with its own paging cursor, so partitions are
+     * fetched and decoded at once.
+     *
+     * <p>
+     *  Split points should divide the results into partitions of similar size, and the operand should be a field
+     *  which can be range queried, such as a field included in each document's key. The stream's results are
+     *  ordered by partition. Partitioned scans do not support a fetch limit or paging token.
+     * </p>
+     *
+     * <pre><code class="code">
+     *  long count = new Documents().collection("customers")
+     *      .query(Customer.class)
+     *      .where("status", "==", "active")
+     *      .parallelStream("email", List.of("g", "n", "t"))
+     *      .filter(doc -&gt; doc.getContent().getOrders() &gt; 10)
+     *      .count();
+     * </code></pre>
+     *
+     * @param operand the partition key operand (required)
+     * @param splitPoints the ascending partition split point values, of type String, Double or Integer (required)
+     * @return the Query operation's parallel results stream
+     * @throws IllegalArgumentException if the Query has a fetch limit or paging token
+     */
+    public Stream<ResultDoc<T>> parallelStream(String operand, List<?> splitPoints) {
+        if (limit > 0) {
+            throw new IllegalArgumentException("limit is not supported by partitioned parallel streams");
+        }
+        if (pagingToken != null && !pagingToken.isEmpty()) {
+            throw new IllegalArgumentException("pagingToken is not supported by partitioned parallel streams");
+        }
+
+        return StreamSupport.stream(new QuerySpliterator<>(partition(operand, splitPoints)), true);
+    }
+
+    /**
+     * Return the number of documents matching the Query. The results are scanned with <code>stream()</code>, without
+     * decoding the document contents.
+     *
+     * <pre><code class="code">
+     *  long shipped = new Documents().collection("orders")
+     *      .query()
+     *      .where("status", "==", "shipped")
+     *      .count();
+     * </code></pre>
+     *
+     * @return the number of documents matching the Query
+     */
+    public long count() {
+        try (var values = scan(content -> Boolean.TRUE)) {
+            return values.count();
+        }
+    }
+
+    /**
+     * Return the sum of the given numeric field of the documents matching the Query. The results are scanned with
+     * <code>stream()</code>, and only the given field is read from each document's content. Documents where the
+     * field is missing or is not a number are ignored.
+     *
+     * @param field the top level field name or dot separated field path (required)
+     * @return the sum of the field values, or 0 if no documents have a numeric field value
+     */
+    public double sum(String field) {
+        try (var values = numberValues(field)) {
+            return values.sum();
+        }
+    }
+
+    /**
+     * Return the minimum of the given numeric field of the documents matching the Query. The results are scanned with
+     * <code>stream()</code>, and only the given field is read from each document's content. Documents where the
+     * field is missing or is not a number are ignored.
+     *
+     * @param field the top level field name or dot separated field path (required)
+     * @return the minimum field value, or an empty value if no documents have a numeric field value
+     */
+    public OptionalDouble min(String field) {
+        try (var values = numberValues(field)) {
+            return values.min();
+        }
+    }
+
+    /**
+     * Return the maximum of the given numeric field of the documents matching the Query. The results are scanned with
+     * <code>stream()</code>, and only the given field is read from each document's content. Documents where the
+     * field is missing or is not a number are ignored.
+     *
+     * @param field the top level field name or dot separated field path (required)
+     * @return the maximum field value, or an empty value if no documents have a numeric field value
+     */
+    public OptionalDouble max(String field) {
+        try (var values = numberValues(field)) {
+            return values.max();
+        }
+    }
+
+    /**
+     * Set the ResultDoc content object marshalling GsonBuilder. The builder's Gson instance is created on first use
+     * and shared by all document references and queries using the same builder, so configure the builder before
+     * setting it.
      *
      * @param gsonBuilder the ResultDoc content object marshalling GsonBuilder
      * @return the Query operation
@@ -400,6 +680,19 @@ public class Query<T> {
         return this;
     }
 
+    /**
+     * Set the ResultDoc content codec. If not set, content is converted using the provided codec for the value
+     * type, or a <code>GsonDocumentCodec</code> if the Query has a GsonBuilder or there is no provided codec.
+     * <code>Map</code> content is converted directly.
+     *
+     * @param codec the ResultDoc content codec
+     * @return the Query operation
+     */
+    public Query<T> codec(DocumentCodec<T> codec) {
+        this.codec = codec;
+        return this;
+    }
+
     /**
      * Return the string representation of this object.
      *
@@ -411,6 +704,13 @@ public class Query<T> {
                 + "[collection=" + collection
                 + ", expressions=" + expressions
                 + ", limit=" + limit
+                + ", pageSize=" + pageSize
+                + ", prefetch=" + prefetch
+                + ", streaming=" + streaming
+                + ", lazyDecode=" + lazyDecode
+                + ", lazyMapContent=" + lazyMapContent
+                + ", integralNumbers=" + integralNumbers
+                + ", projection=" + projection
                 + ", pagingToken=" + pagingToken
                 + ", type=" + type
                 + ", gsonBuilder=" + gsonBuilder
@@ -429,6 +729,106 @@ public class Query<T> {
         return this;
     }
 
+    List<Query<T>> partition(String operand, List<?> splitPoints) {
+        Contracts.requireNonBlank(operand, "operand");
+        Contracts.requireNonNull(splitPoints, "splitPoints");
+
+        var partitions = new ArrayList<Query<T>>(splitPoints.size() + 1);
+        Object lowerBound = null;
+        for (Object splitPoint : splitPoints) {
+            Contracts.requireNonNull(splitPoint, "splitPoint");
+
+            var partition = copyPartition();
+            if (lowerBound != null) {
+                partition.whereObj(operand, ">=", lowerBound);
+            }
+            partitions.add(partition.whereObj(operand, "<", splitPoint));
+            lowerBound = splitPoint;
+        }
+
+        var partition = copyPartition();
+        if (lowerBound != null) {
+            partition.whereObj(operand, ">=", lowerBound);
+        }
+        partitions.add(partition);
+
+        return partitions;
+    }
+
+    Query<T> copy() {
+        var query = new Query<>(collection, type);
+        query.expressions.addAll(expressions);
+        query.limit = limit;
+        query.pageSize = pageSize;
+        query.prefetch = prefetch;
+        query.streaming = streaming;
+        query.lazyDecode = lazyDecode;
+        query.lazyMapContent = lazyMapContent;
+        query.integralNumbers = integralNumbers;
+        query.projection = projection;
+        query.pagingToken = pagingToken;
+        query.gsonBuilder = gsonBuilder;
+        query.codec = codec;
+        query.reader = reader;
+        return query;
+    }
+
+    /**
+     * Return a stream of values read from the content of the documents matching the Query. The stream reads the
+     * results with <code>stream()</code>, and should be closed to cancel the query if it is not fully consumed.
+     *
+     * @param reader the document content value reader
+     * @return a stream of values read from the document contents
+     */
+    @SuppressWarnings("unchecked")
+    <R> Stream<R> scan(Function<Struct, R> reader) {
+        var query = (Query<R>) copy();
+        query.projection = null;
+        query.lazyDecode = false;
+        query.lazyMapContent = false;
+        query.codec = null;
+        query.reader = reader;
+
+        return query.stream().map(ResultDoc::getContent);
+    }
+
+    // Private Methods --------------------------------------------------------
+    /**
+     * Return a copy of this Query for a key range partition, which scans its range from the start without a limit.
+     */
+    private Query<T> copyPartition() {
+        var partition = copy();
+        partition.limit = 0;
+        partition.pagingToken = null;
+        return partition;
+    }
+
+    private DoubleStream numberValues(String field) {
+        Contracts.requireNonBlank(field, "field");
+
+        var path = field.split("\\.");
+        return scan(content -> numberValue(content, path))
+            .filter(Objects::nonNull)
+            .mapToDouble(Double::doubleValue);
+    }
+
+    private static Double numberValue(Struct content, String[] path) {
+        Value value = null;
+        var struct = content;
+        for (String name : path) {
+            if (struct == null) {
+                return null;
+            }
+            value = struct.getFieldsMap().get(name);
+            if (value == null) {
+                return null;
+            }
+            struct = (value.getKindCase() == Value.KindCase.STRUCT_VALUE) ? value.getStructValue() : null;
+        }
+
+        return (value.getKindCase() == Value.KindCase.NUMBER_VALUE) ? value.getNumberValue() : null;
+    }
+
     // Inner Classes ----------------------------------------------------------
 
     static class Expression {
@@ -20,18 +20,30 @@
 
 package io.nitric.api.document;
 
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+import com.google.protobuf.Struct;
 import io.nitric.api.NitricException;
 import io.nitric.proto.document.v1.Document;
 import io.nitric.proto.document.v1.DocumentQueryRequest;
 import io.nitric.proto.document.v1.DocumentQueryResponse;
+import io.nitric.util.GrpcFutures;
 import io.nitric.util.ProtoUtils;
+import io.nitric.util.StructMap;
 
 /**
  * Provides an iterable Query Result class.
@@ -41,11 +53,12 @@ import io.nitric.util.ProtoUtils;
  */
 public class QueryResults<T> implements Iterable<ResultDoc<T>> {
 
+    static final int PAGE_SIZE = 1000;
+
     final Query<T> query;
     final boolean paginateAll;
     Map<String, String> pagingToken;
     List<ResultDoc<T>> queryData;
-    GsonBuilder gsonBuilder;
 
     /**
      * Create a QueryResults object.
@@ -59,7 +72,6 @@ public class QueryResults<T> implements Iterable<ResultDoc<T>> {
         this.query = query;
         this.pagingToken = query.pagingToken;
         this.paginateAll = paginateAll;
-        this.gsonBuilder = query.gsonBuilder;
 
         // Perform initial query
         var request = buildDocQueryRequest(this.query.expressions);
@@ -101,7 +113,31 @@ public class QueryResults<T> implements Iterable<ResultDoc<T>> {
 
     // Protected Methods --------------------------------------------------
 
+    protected void loadPageData(DocumentQueryResponse response) {
+
+        // Marshall response data
+        queryData = toResultDocs(response);
+
+        this.pagingToken = response.getPagingTokenMap();
+    }
+
     protected DocumentQueryRequest buildDocQueryRequest(List<Query.Expression> expressions) {
+        return buildDocQueryRequest(expressions, this.pagingToken);
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    DocumentQueryRequest buildDocQueryRequest(List<Query.Expression> expressions, Map<String, String> pagingToken) {
+        int fetchLimit = (paginateAll) ? query.pageSize : query.limit;
+        return buildDocQueryRequest(query, expressions, fetchLimit, pagingToken);
+    }
+
+    static DocumentQueryRequest buildDocQueryRequest(
+        Query<?> query,
+        List<Query.Expression> expressions,
+        int fetchLimit,
+        Map<String, String> pagingToken) {
+
         var requestBuilder = DocumentQueryRequest.newBuilder()
                 .setCollection(query.collection);
 
@@ -114,46 +150,87 @@ public class QueryResults<T> implements Iterable<ResultDoc<T>> {
             requestBuilder.addExpressions(exp);
         });
 
-        int fetchLimit = (paginateAll) ? 1000 : query.limit;
         requestBuilder.setLimit(fetchLimit);
 
-        if (this.pagingToken != null) {
-            requestBuilder.putAllPagingToken(this.pagingToken);
+        if (pagingToken != null) {
+            requestBuilder.putAllPagingToken(pagingToken);
         }
 
         return requestBuilder.build();
     }
 
-    @SuppressWarnings({"unchecked"})
-    protected void loadPageData(DocumentQueryResponse response) {
+    List<ResultDoc<T>> toResultDocs(DocumentQueryResponse response) {
+        var decoder = newDecoder(query);
 
-        // Marshall response data
-        queryData = new ArrayList<>(response.getDocumentsCount());
-
-        // Cache gson object marshaller
-        Gson gson = null;
+        if (query.lazyDecode) {
+            return new LazyResultDocs<>(response.getDocumentsList(), decoder);
+        }
 
+        var resultDocs = new ArrayList<ResultDoc<T>>(response.getDocumentsCount());
         for (Document doc : response.getDocumentsList()) {
-            var key = Key.buildFromGrpcKey(doc.getKey());
-            var map = ProtoUtils.toMap(doc.getContent());
+            resultDocs.add(decoder.apply(doc));
+        }
 
-            if (query.type.isAssignableFrom(map.getClass())) {
-                queryData.add(new ResultDoc(key, map));
+        return resultDocs;
+    }
 
-            } else {
-                if (gson == null) {
-                    if (gsonBuilder == null) {
-                        gsonBuilder = new GsonBuilder();
-                    }
-                    gson = gsonBuilder.create();
-                }
-                var jsonTree = gson.toJsonTree(map);
-                var value = gson.fromJson(jsonTree, query.type);
-                queryData.add(new ResultDoc<>(key, value));
-            }
+    /**
+     * Return a function which decodes query result documents with the query's content reader or codec.
+     *
+     * @param query the query (required)
+     * @param <T> the query value type
+     * @return a function which decodes query result documents
+     */
+    @SuppressWarnings({"unchecked"})
+    static <T> Function<Document, ResultDoc<T>> newDecoder(Query<T> query) {
+        if (query.reader != null) {
+            return newDecoder(query, query.reader);
         }
 
-        this.pagingToken = response.getPagingTokenMap();
+        var projection = query.projection;
+        Function<Document, Struct> content = (projection != null)
+            ? doc -> projection.apply(doc.getContent())
+            : Document::getContent;
+
+        var integralNumbers = query.integralNumbers;
+        if (query.codec == null && query.lazyMapContent && query.type.isAssignableFrom(StructMap.class)) {
+            return doc -> new ResultDoc(
+                Key.buildFromGrpcKey(doc.getKey()),
+                ProtoUtils.asMap(content.apply(doc), true, integralNumbers)
+            );
+        }
+        if (query.codec == null && query.type.isAssignableFrom(HashMap.class)) {
+            return doc -> new ResultDoc(
+                Key.buildFromGrpcKey(doc.getKey()),
+                ProtoUtils.toMap(content.apply(doc), integralNumbers)
+            );
+        }
+
+        var codec = (query.codec != null)
+            ? query.codec
+            : DocumentCodecRegistry.getCodec(query.gsonBuilder, query.type);
+
+        return newDecoder(query, codec::decode);
+    }
+
+    /**
+     * Return a function which decodes query result documents with the given content reader.
+     *
+     * @param query the query (required)
+     * @param reader the document content reader (required)
+     * @param <T> the query value type
+     * @return a function which decodes query result documents
+     */
+    static <T> Function<Document, ResultDoc<T>> newDecoder(Query<T> query, Function<Struct, T> reader) {
+        var projection = query.projection;
+        if (projection != null) {
+            return doc -> new ResultDoc<>(
+                Key.buildFromGrpcKey(doc.getKey()),
+                reader.apply(projection.apply(doc.getContent()))
+            );
+        }
+
+        return doc -> new ResultDoc<>(Key.buildFromGrpcKey(doc.getKey()), reader.apply(doc.getContent()));
     }
 
     // Package Private Classes ------------------------------------------------
@@ -208,4 +285,143 @@ public class QueryResults<T> implements Iterable<ResultDoc<T>> {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Provides a query results iterator which requests the following result pages asynchronously while the current
+     * page is consumed. At most <code>prefetch</code> pages are requested or buffered ahead of the current page,
+     * which bounds the iterator's memory use.
+     *
+     * <p>
+     *  Each page request needs the paging token of the previous page, so prefetched pages are requested one after
+     *  another as each response arrives, and decoded on the gRPC executor.
+     * </p>
+     */
+    static class PrefetchingIterator<T> implements Iterator<ResultDoc<T>> {
+
+        private final QueryResults<T> queryResults;
+        private final int prefetch;
+        private final Deque<CompletableFuture<Page<T>>> pages = new ArrayDeque<>();
+        private final Queue<CompletableFuture<?>> requests = new ConcurrentLinkedQueue<>();
+        private CompletableFuture<Page<T>> tail;
+        private Page<T> page;
+        private int index = 0;
+        private volatile boolean closed;
+
+        PrefetchingIterator(QueryResults<T> queryResults, int prefetch) {
+            this.queryResults = queryResults;
+            this.prefetch = prefetch;
+            this.page = new Page<>(queryResults.queryData, queryResults.pagingToken);
+            this.tail = CompletableFuture.completedFuture(page);
+            fill();
+        }
+
+        @Override
+        public boolean hasNext() throws NitricException {
+            if (index < page.resultDocs.size()) {
+                return true;
+            }
+            if (!page.hasMore() || closed) {
+                return false;
+            }
+
+            try {
+                page = pages.remove().join();
+            } catch (CompletionException ce) {
+                close();
+                if (ce.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ce.getCause();
+                }
+                throw ce;
+            }
+            index = 0;
+            fill();
+
+            return !page.resultDocs.isEmpty();
+        }
+
+        @Override
+        public ResultDoc<T> next() {
+            // Note iterator is wrapped by Stream iterator which prevents NoSuchElementException
+            return page.resultDocs.get(index++);
+        }
+
+        /**
+         * Cancel any outstanding page requests.
+         */
+        void close() {
+            closed = true;
+            pages.clear();
+            CompletableFuture<?> request;
+            while ((request = requests.poll()) != null) {
+                request.cancel(true);
+            }
+        }
+
+        private void fill() {
+            while (pages.size() < prefetch && !closed) {
+                if (tail.isDone() && !tail.isCompletedExceptionally() && !tail.join().hasMore()) {
+                    return;
+                }
+                tail = tail.thenCompose(previous -> previous.hasMore()
+                    ? requestPage(previous.pagingToken)
+                    : CompletableFuture.completedFuture(new Page<>(List.of(), Map.of())));
+                pages.add(tail);
+            }
+        }
+
+        private CompletableFuture<Page<T>> requestPage(Map<String, String> pagingToken) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new CancellationException());
+            }
+
+            var request = queryResults.buildDocQueryRequest(queryResults.query.expressions, pagingToken);
+            var response = GrpcFutures.toCompletableFuture(Documents.getFutureStub().query(request));
+            requests.add(response);
+            response.whenComplete((r, t) -> requests.remove(response));
+
+            return response.thenApply(r -> new Page<>(queryResults.toResultDocs(r), r.getPagingTokenMap()));
+        }
+    }
+
+    /**
+     * Provides a list of query result documents which are decoded when accessed.
+     */
+    static class LazyResultDocs<T> extends AbstractList<ResultDoc<T>> implements RandomAccess {
+
+        private final List<Document> documents;
+        private final Function<Document, ResultDoc<T>> decoder;
+
+        LazyResultDocs(List<Document> documents, Function<Document, ResultDoc<T>> decoder) {
+            this.documents = documents;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public ResultDoc<T> get(int index) {
+            return decoder.apply(documents.get(index));
+        }
+
+        @Override
+        public int size() {
+            return documents.size();
+        }
+    }
+
+    /**
+     * Provides a page of query results with its paging continuation token.
+     */
+    static class Page<T> {
+
+        final List<ResultDoc<T>> resultDocs;
+        final Map<String, String> pagingToken;
+
+        Page(List<ResultDoc<T>> resultDocs, Map<String, String> pagingToken) {
+            this.resultDocs = resultDocs;
+            this.pagingToken = pagingToken;
+        }
+
+        boolean hasMore() {
+            return pagingToken != null && !pagingToken.isEmpty();
+        }
+    }
+
+}
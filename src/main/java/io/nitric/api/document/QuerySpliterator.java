@@ -0,0 +1,216 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import io.nitric.api.NitricException;
+import io.nitric.proto.document.v1.Document;
+
+/**
+ * Provides a query results Spliterator which supports parallel streams. The Spliterator scans one or more query
+ * partitions, each with its own paging cursor.
+ *
+ * <p>
+ *  Splitting first divides the unstarted partitions between Spliterators, so partitions are fetched and decoded at
+ *  once. A Spliterator with a single partition splits off the remaining documents of its current result page, so
+ *  the page is decoded and processed by other threads while the next page is fetched.
+ * </p>
+ */
+class QuerySpliterator<T> implements Spliterator<ResultDoc<T>> {
+
+    final Deque<Query<T>> partitions;
+    final Function<Document, ResultDoc<T>> decoder;
+
+    Query<T> partition;
+    Map<String, String> pagingToken;
+    List<Document> documents = List.of();
+    int index = 0;
+    boolean lastPage = false;
+
+    // Constructor ------------------------------------------------------------
+
+    /**
+     * Create a Spliterator over the results of the given query partitions. Partitions are fetched when the
+     * Spliterator is traversed.
+     *
+     * @param partitions the query partitions (required)
+     */
+    QuerySpliterator(List<Query<T>> partitions) {
+        this(new ArrayDeque<>(partitions), QueryResults.newDecoder(partitions.get(0)));
+    }
+
+    private QuerySpliterator(Deque<Query<T>> partitions, Function<Document, ResultDoc<T>> decoder) {
+        this.partitions = partitions;
+        this.decoder = decoder;
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResultDoc<T>> action) {
+        if (!loadPage()) {
+            return false;
+        }
+        action.accept(decoder.apply(documents.get(index++)));
+        return true;
+    }
+
+    @Override
+    public Spliterator<ResultDoc<T>> trySplit() {
+        if (partition != null && !partitions.isEmpty()) {
+            // Split off the started partition, which precedes the unstarted partitions
+            var split = new QuerySpliterator<>(new ArrayDeque<>(), decoder);
+            split.partition = partition;
+            split.pagingToken = pagingToken;
+            split.documents = documents;
+            split.index = index;
+            split.lastPage = lastPage;
+
+            partition = null;
+            documents = List.of();
+            index = 0;
+            return split;
+        }
+
+        if (partition == null && partitions.size() > 1) {
+            // Split off the first half of the unstarted partitions
+            var split = new ArrayDeque<Query<T>>();
+            for (int i = partitions.size() / 2; i > 0; i--) {
+                split.add(partitions.removeFirst());
+            }
+            return new QuerySpliterator<>(split, decoder);
+        }
+
+        if (!loadPage()) {
+            return null;
+        }
+
+        // Split off the remaining documents of the current page for another thread to decode
+        var split = new PageSpliterator<>(documents.subList(index, documents.size()), decoder);
+        index = documents.size();
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    /**
+     * Load result pages until there is an unread document, and return false if all partitions are exhausted.
+     */
+    private boolean loadPage() throws NitricException {
+        while (index >= documents.size()) {
+            if (partition == null || lastPage) {
+                if (partitions.isEmpty()) {
+                    return false;
+                }
+                partition = partitions.removeFirst();
+                pagingToken = partition.pagingToken;
+                lastPage = false;
+            }
+
+            int fetchLimit = (partition.limit > 0) ? partition.limit : partition.pageSize;
+            var request = QueryResults.buildDocQueryRequest(partition, partition.expressions, fetchLimit, pagingToken);
+
+            try {
+                var response = Documents.getServiceStub().query(request);
+                documents = response.getDocumentsList();
+                pagingToken = response.getPagingTokenMap();
+            } catch (io.grpc.StatusRuntimeException sre) {
+                throw NitricException.build(sre);
+            }
+
+            index = 0;
+            lastPage = partition.limit > 0 || pagingToken.isEmpty() || documents.isEmpty();
+        }
+        return true;
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a Spliterator over a page of result documents, which are decoded as they are traversed.
+     */
+    static class PageSpliterator<T> implements Spliterator<ResultDoc<T>> {
+
+        final List<Document> documents;
+        final Function<Document, ResultDoc<T>> decoder;
+        int index;
+        final int end;
+
+        PageSpliterator(List<Document> documents, Function<Document, ResultDoc<T>> decoder) {
+            this(documents, decoder, 0, documents.size());
+        }
+
+        PageSpliterator(List<Document> documents, Function<Document, ResultDoc<T>> decoder, int index, int end) {
+            this.documents = documents;
+            this.decoder = decoder;
+            this.index = index;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ResultDoc<T>> action) {
+            if (index >= end) {
+                return false;
+            }
+            action.accept(decoder.apply(documents.get(index++)));
+            return true;
+        }
+
+        @Override
+        public Spliterator<ResultDoc<T>> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            var split = new PageSpliterator<>(documents, decoder, index, mid);
+            index = mid;
+            return split;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+}
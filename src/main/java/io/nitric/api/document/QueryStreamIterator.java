@@ -0,0 +1,244 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentQueryStreamRequest;
+import io.nitric.proto.document.v1.DocumentQueryStreamResponse;
+import io.nitric.util.GrpcFutures;
+
+/**
+ * Provides a query results Iterator over the Document Service QueryStream server streaming call.
+ *
+ * <p>
+ *  The call uses manual flow control, with a window of twice the query's <code>pageSize</code> documents, so the
+ *  server keeps sending while the consumer processes documents, and at most two pages of documents are buffered.
+ *  Received documents are handed to the iterator in batches of half a page, and the iterator requests another batch
+ *  from the server as each batch is consumed. Closing the iterator cancels the call.
+ * </p>
+ *
+ * <p>
+ *  If the membrane does not implement the QueryStream call, the iterator falls back to paging through the results
+ *  with the Query call.
+ * </p>
+ */
+class QueryStreamIterator<T> implements Iterator<ResultDoc<T>> {
+
+    /** The end of stream marker. */
+    static final Object COMPLETED = new Object();
+
+    final Query<T> query;
+    final Function<Document, ResultDoc<T>> decoder;
+    final int window;
+    final int batchSize;
+    final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+
+    volatile ClientCallStreamObserver<DocumentQueryStreamRequest> call;
+    Iterator<ResultDoc<T>> fallback;
+    List<DocumentQueryStreamResponse> batch = List.of();
+    int index;
+    Object end;
+    boolean received;
+    boolean done;
+
+    // Constructor ------------------------------------------------------------
+
+    /**
+     * Create an iterator over the results of the given query, start the QueryStream call and wait for the first
+     * result.
+     *
+     * @param query the query to perform (required)
+     */
+    QueryStreamIterator(Query<T> query) {
+        this.query = query;
+        this.decoder = QueryResults.newDecoder(query);
+        this.batchSize = Math.max(1, query.pageSize / 2);
+        this.window = 4 * batchSize;
+
+        Documents.getStreamStub().queryStream(buildDocQueryStreamRequest(query), new ResponseObserver());
+
+        // Wait for the first result, so call errors are thrown when the stream is created like paged queries
+        hasNext();
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean hasNext() {
+        if (fallback != null) {
+            return fallback.hasNext();
+        }
+        if (index < batch.size()) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+
+        if (end == null) {
+            if (!batch.isEmpty()) {
+                // Replace the consumed batch in the flow control window
+                call.request(batch.size());
+                batch = List.of();
+                index = 0;
+            }
+            var next = take();
+            if (next instanceof List) {
+                batch = (List<DocumentQueryStreamResponse>) next;
+                received = true;
+                return true;
+            }
+            end = next;
+        }
+
+        done = true;
+        if (end == COMPLETED) {
+            return false;
+        }
+
+        var error = (Throwable) end;
+        if (!received && Status.fromThrowable(error).getCode() == Status.Code.UNIMPLEMENTED) {
+            // Membrane does not support QueryStream, so page through the results
+            fallback = new QueryResults<>(query, true).iterator();
+            return fallback.hasNext();
+        }
+
+        var apiException = GrpcFutures.toApiException(error);
+        throw (apiException instanceof RuntimeException)
+            ? (RuntimeException) apiException
+            : new RuntimeException(apiException);
+    }
+
+    @Override
+    public ResultDoc<T> next() {
+        // Note iterator is wrapped by Stream iterator which prevents NoSuchElementException
+        if (fallback != null) {
+            return fallback.next();
+        }
+
+        return decoder.apply(batch.get(index++).getDocument());
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Cancel the QueryStream call if it is still running.
+     */
+    void close() {
+        if (!done) {
+            done = true;
+            batch = List.of();
+            var call = this.call;
+            if (call != null) {
+                call.cancel("query stream closed", null);
+            }
+        }
+    }
+
+    static DocumentQueryStreamRequest buildDocQueryStreamRequest(Query<?> query) {
+        var requestBuilder = DocumentQueryStreamRequest.newBuilder()
+                .setCollection(query.collection)
+                .setLimit(query.limit);
+
+        query.expressions.forEach(e -> {
+            var exp = io.nitric.proto.document.v1.Expression.newBuilder()
+                    .setOperand(e.operand)
+                    .setOperator(e.operator)
+                    .setValue(e.toExpressionValue())
+                    .build();
+            requestBuilder.addExpressions(exp);
+        });
+
+        return requestBuilder.build();
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private Object take() {
+        try {
+            return queue.take();
+
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new CancellationException("query stream interrupted");
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides the QueryStream call response observer, which hands the received documents to the iterator in
+     * batches, so the iterator is only woken once per batch.
+     */
+    class ResponseObserver
+        implements ClientResponseObserver<DocumentQueryStreamRequest, DocumentQueryStreamResponse> {
+
+        List<DocumentQueryStreamResponse> received = new ArrayList<>(batchSize);
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<DocumentQueryStreamRequest> requestStream) {
+            call = requestStream;
+            requestStream.disableAutoRequestWithInitial(window);
+        }
+
+        @Override
+        public void onNext(DocumentQueryStreamResponse response) {
+            received.add(response);
+            if (received.size() == batchSize) {
+                queue.add(received);
+                received = new ArrayList<>(batchSize);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            flush();
+            queue.add(error);
+        }
+
+        @Override
+        public void onCompleted() {
+            flush();
+            queue.add(COMPLETED);
+        }
+
+        private void flush() {
+            if (!received.isEmpty()) {
+                queue.add(received);
+                received = List.of();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,452 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+/**
+ * Provides a Gson JsonReader which reads a protobuf <code>Struct</code> directly, so type adapters can decode
+ * document content without building intermediate <code>Map</code> or <code>JsonElement</code> object graphs.
+ *
+ * <p>
+ *  Number values are read with the same conversions as a Gson <code>JsonTreeReader</code> over a <code>Double</code>
+ *  primitive, which was how document content was decoded before this reader was added.
+ * </p>
+ */
+class StructJsonReader extends JsonReader {
+
+    private static final Reader UNREADABLE_READER = new Reader() {
+        @Override
+        public int read(char[] buffer, int offset, int count) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private static final Object SENTINEL_CLOSED = new Object();
+
+    private Object[] stack = new Object[32];
+    private int stackSize = 0;
+    private String[] pathNames = new String[32];
+    private int[] pathIndices = new int[32];
+    private final boolean readNullFields;
+
+    // Constructor ------------------------------------------------------------
+
+    /**
+     * Create a new reader for the given Struct.
+     *
+     * @param struct the Struct to read (required)
+     * @param readNullFields specify whether object fields with null values are read, otherwise they are skipped as
+     *     if absent
+     */
+    StructJsonReader(Struct struct, boolean readNullFields) {
+        super(UNREADABLE_READER);
+        this.readNullFields = readNullFields;
+        push(struct);
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(JsonToken.BEGIN_ARRAY);
+        var list = (ListValue) peekStack();
+        push(list.getValuesList().iterator());
+        pathIndices[stackSize - 1] = 0;
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(JsonToken.END_ARRAY);
+        popStack(); // empty iterator
+        popStack(); // list
+        incrementPathIndex();
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(JsonToken.BEGIN_OBJECT);
+        var struct = (Struct) peekStack();
+        push(new FieldIterator(struct, readNullFields));
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(JsonToken.END_OBJECT);
+        popStack(); // empty iterator
+        popStack(); // struct
+        incrementPathIndex();
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        var token = peek();
+        return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        if (stackSize == 0) {
+            return JsonToken.END_DOCUMENT;
+        }
+
+        var top = peekStack();
+        if (top instanceof Iterator) {
+            boolean isObject = stack[stackSize - 2] instanceof Struct;
+            var iterator = (Iterator<?>) top;
+            if (iterator.hasNext()) {
+                if (isObject) {
+                    return JsonToken.NAME;
+                } else {
+                    pushValue((Value) iterator.next());
+                    return peek();
+                }
+            } else {
+                return isObject ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+            }
+
+        } else if (top instanceof Struct) {
+            return JsonToken.BEGIN_OBJECT;
+
+        } else if (top instanceof ListValue) {
+            return JsonToken.BEGIN_ARRAY;
+
+        } else if (top instanceof Value) {
+            switch (((Value) top).getKindCase()) {
+                case STRING_VALUE:
+                    return JsonToken.STRING;
+                case NUMBER_VALUE:
+                    return JsonToken.NUMBER;
+                case BOOL_VALUE:
+                    return JsonToken.BOOLEAN;
+                default:
+                    return JsonToken.NULL;
+            }
+
+        } else if (top == SENTINEL_CLOSED) {
+            throw new IllegalStateException("JsonReader is closed");
+
+        } else {
+            throw new AssertionError();
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        expect(JsonToken.NAME);
+        var entry = nextEntry();
+        pathNames[stackSize - 1] = entry.getKey();
+        pushValue(entry.getValue());
+        return entry.getKey();
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        var token = peek();
+        if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+            throw new IllegalStateException("Expected STRING but was " + token + locationString());
+        }
+        var value = (Value) popStack();
+        incrementPathIndex();
+        return (token == JsonToken.STRING) ? value.getStringValue() : String.valueOf(value.getNumberValue());
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        expect(JsonToken.BOOLEAN);
+        var value = (Value) popStack();
+        incrementPathIndex();
+        return value.getBoolValue();
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(JsonToken.NULL);
+        popStack();
+        incrementPathIndex();
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        var value = peekNumber();
+        double result = value.getKindCase() == Value.KindCase.STRING_VALUE
+            ? Double.parseDouble(value.getStringValue())
+            : value.getNumberValue();
+        if (!isLenient() && (Double.isNaN(result) || Double.isInfinite(result))) {
+            throw new NumberFormatException("JSON forbids NaN and infinities: " + result);
+        }
+        popStack();
+        incrementPathIndex();
+        return result;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        var value = peekNumber();
+        long result = value.getKindCase() == Value.KindCase.STRING_VALUE
+            ? Long.parseLong(value.getStringValue())
+            : (long) value.getNumberValue();
+        popStack();
+        incrementPathIndex();
+        return result;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        var value = peekNumber();
+        int result = value.getKindCase() == Value.KindCase.STRING_VALUE
+            ? Integer.parseInt(value.getStringValue())
+            : (int) value.getNumberValue();
+        popStack();
+        incrementPathIndex();
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stack = new Object[] { SENTINEL_CLOSED };
+        stackSize = 1;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        if (peek() == JsonToken.NAME) {
+            nextName();
+            pathNames[stackSize - 2] = "null";
+        } else {
+            popStack();
+            if (stackSize > 0) {
+                pathNames[stackSize - 1] = "null";
+            }
+        }
+        incrementPathIndex();
+    }
+
+    @Override
+    public String getPath() {
+        var result = new StringBuilder().append('$');
+        for (int i = 0; i < stackSize; i++) {
+            if (stack[i] instanceof ListValue) {
+                if (i + 1 < stackSize && stack[++i] instanceof Iterator) {
+                    result.append('[').append(pathIndices[i]).append(']');
+                }
+            } else if (stack[i] instanceof Struct) {
+                if (i + 1 < stackSize && stack[++i] instanceof Iterator) {
+                    result.append('.');
+                    if (pathNames[i] != null) {
+                        result.append(pathNames[i]);
+                    }
+                }
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName();
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Read the next value as a JsonElement. This supports type adapters which require a JSON tree, such as Gson's
+     * Map adapter which accesses JsonReader internals to read map keys.
+     *
+     * @return the next value as a JsonElement
+     * @throws IOException if the reader is not positioned at a value
+     */
+    JsonElement nextJsonElement() throws IOException {
+        var token = peek();
+        if (token == JsonToken.NAME || token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY
+            || token == JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("Expected a value but was " + token + locationString());
+        }
+        var element = toJsonElement(popStack());
+        incrementPathIndex();
+        return element;
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private JsonElement toJsonElement(Object node) {
+        if (node instanceof Struct) {
+            var object = new JsonObject();
+            for (Map.Entry<String, Value> entry : ((Struct) node).getFieldsMap().entrySet()) {
+                if (readNullFields || entry.getValue().getKindCase() != Value.KindCase.NULL_VALUE) {
+                    object.add(entry.getKey(), toJsonElement(unwrap(entry.getValue())));
+                }
+            }
+            return object;
+
+        } else if (node instanceof ListValue) {
+            var array = new JsonArray();
+            for (Value value : ((ListValue) node).getValuesList()) {
+                array.add(toJsonElement(unwrap(value)));
+            }
+            return array;
+
+        } else {
+            var value = (Value) node;
+            switch (value.getKindCase()) {
+                case STRING_VALUE:
+                    return new JsonPrimitive(value.getStringValue());
+                case NUMBER_VALUE:
+                    return new JsonPrimitive(value.getNumberValue());
+                case BOOL_VALUE:
+                    return new JsonPrimitive(value.getBoolValue());
+                default:
+                    return JsonNull.INSTANCE;
+            }
+        }
+    }
+
+    private static Object unwrap(Value value) {
+        switch (value.getKindCase()) {
+            case STRUCT_VALUE:
+                return value.getStructValue();
+            case LIST_VALUE:
+                return value.getListValue();
+            default:
+                return value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map.Entry<String, Value> nextEntry() {
+        return ((Iterator<Map.Entry<String, Value>>) peekStack()).next();
+    }
+
+    private Value peekNumber() throws IOException {
+        var token = peek();
+        if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+            throw new IllegalStateException("Expected NUMBER but was " + token + locationString());
+        }
+        return (Value) peekStack();
+    }
+
+    private void expect(JsonToken expected) throws IOException {
+        var token = peek();
+        if (token != expected) {
+            throw new IllegalStateException("Expected " + expected + " but was " + token + locationString());
+        }
+    }
+
+    private Object peekStack() {
+        return stack[stackSize - 1];
+    }
+
+    private Object popStack() {
+        var result = stack[--stackSize];
+        stack[stackSize] = null;
+        return result;
+    }
+
+    private void pushValue(Value value) {
+        push(unwrap(value));
+    }
+
+    private void push(Object newTop) {
+        if (stackSize == stack.length) {
+            int newLength = stackSize * 2;
+            stack = Arrays.copyOf(stack, newLength);
+            pathIndices = Arrays.copyOf(pathIndices, newLength);
+            pathNames = Arrays.copyOf(pathNames, newLength);
+        }
+        stack[stackSize++] = newTop;
+    }
+
+    private void incrementPathIndex() {
+        if (stackSize > 0) {
+            pathIndices[stackSize - 1]++;
+        }
+    }
+
+    private String locationString() {
+        return " at path " + getPath();
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides an iterator over the fields of a Struct, which optionally skips fields with null values.
+     */
+    static class FieldIterator implements Iterator<Map.Entry<String, Value>> {
+
+        private final Iterator<Map.Entry<String, Value>> entries;
+        private final boolean includeNulls;
+        private Map.Entry<String, Value> next;
+
+        FieldIterator(Struct struct, boolean includeNulls) {
+            this.entries = struct.getFieldsMap().entrySet().iterator();
+            this.includeNulls = includeNulls;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, Value> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            var result = next;
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            next = null;
+            while (entries.hasNext()) {
+                var entry = entries.next();
+                if (includeNulls || entry.getValue().getKindCase() != Value.KindCase.NULL_VALUE) {
+                    next = entry;
+                    return;
+                }
+            }
+        }
+    }
+
+}
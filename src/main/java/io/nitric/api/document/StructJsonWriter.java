@@ -0,0 +1,304 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+/**
+ * Provides a Gson JsonWriter which builds a protobuf <code>Struct</code> directly, so type adapters can encode
+ * document content without building intermediate <code>JsonElement</code> or <code>Map</code> object graphs.
+ */
+class StructJsonWriter extends JsonWriter {
+
+    private static final Writer UNWRITABLE_WRITER = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void close() {
+            throw new AssertionError();
+        }
+    };
+
+    private static final Value NULL_VALUE = Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+
+    /** The Struct and ListValue builders under construction, outermost to innermost. */
+    private final List<Frame> stack = new ArrayList<>();
+
+    /** The name for the next object value. If non-null, the top of the stack is a Struct builder. */
+    private String pendingName;
+
+    /** The top level value produced by this writer. */
+    private Value product;
+
+    // Constructor ------------------------------------------------------------
+
+    StructJsonWriter() {
+        super(UNWRITABLE_WRITER);
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        stack.add(new Frame(takeName(), ListValue.newBuilder()));
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        var frame = popFrame(false);
+        put(Value.newBuilder().setListValue(frame.list).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        stack.add(new Frame(takeName(), Struct.newBuilder()));
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        var frame = popFrame(true);
+        put(Value.newBuilder().setStructValue(frame.struct).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (stack.isEmpty() || pendingName != null || peekFrame().struct == null) {
+            throw new IllegalStateException();
+        }
+        pendingName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        put(Value.newBuilder().setStringValue(value).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        put(Value.newBuilder().setBoolValue(value).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("JSON forbids NaN and infinities: " + value);
+        }
+        put(Value.newBuilder().setNumberValue(value).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        put(Value.newBuilder().setNumberValue(value).build());
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.doubleValue());
+    }
+
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeElement(JsonParser.parseString(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        put(NULL_VALUE);
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!stack.isEmpty()) {
+            throw new IOException("Incomplete document");
+        }
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return the Struct produced by this writer.
+     *
+     * @return the Struct produced by this writer
+     * @throws IllegalStateException if the writer is incomplete or did not write an object
+     */
+    Struct getStruct() {
+        if (!stack.isEmpty()) {
+            throw new IllegalStateException("Expected one JSON object but the document is incomplete");
+        }
+        if (product == null || product.getKindCase() != Value.KindCase.STRUCT_VALUE) {
+            throw new IllegalStateException("Expected a JSON object but was " + product);
+        }
+        return product.getStructValue();
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private String takeName() {
+        if (!stack.isEmpty() && peekFrame().struct != null && pendingName == null) {
+            throw new IllegalStateException("Expected a name before the object value");
+        }
+        var name = pendingName;
+        pendingName = null;
+        return name;
+    }
+
+    private Frame peekFrame() {
+        return stack.get(stack.size() - 1);
+    }
+
+    private Frame popFrame(boolean object) {
+        if (stack.isEmpty() || pendingName != null || (peekFrame().struct != null) != object) {
+            throw new IllegalStateException();
+        }
+        var frame = stack.remove(stack.size() - 1);
+        pendingName = frame.name;
+        return frame;
+    }
+
+    private void put(Value value) {
+        if (stack.isEmpty()) {
+            product = value;
+            return;
+        }
+
+        var frame = peekFrame();
+        if (frame.struct != null) {
+            if (pendingName == null) {
+                throw new IllegalStateException("Expected a name before the object value");
+            }
+            if (value != NULL_VALUE || getSerializeNulls()) {
+                frame.struct.putFields(pendingName, value);
+            }
+            pendingName = null;
+
+        } else {
+            frame.list.addValues(value);
+        }
+    }
+
+    private void writeElement(JsonElement element) throws IOException {
+        if (element.isJsonObject()) {
+            beginObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                name(entry.getKey());
+                writeElement(entry.getValue());
+            }
+            endObject();
+
+        } else if (element.isJsonArray()) {
+            beginArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                writeElement(item);
+            }
+            endArray();
+
+        } else if (element.isJsonNull()) {
+            nullValue();
+
+        } else {
+            var primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                value(primitive.getAsBoolean());
+            } else if (primitive.isNumber()) {
+                value(primitive.getAsNumber());
+            } else {
+                value(primitive.getAsString());
+            }
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a Struct or ListValue builder with the name it will be stored under in its parent object.
+     */
+    static class Frame {
+
+        final String name;
+        final Struct.Builder struct;
+        final ListValue.Builder list;
+
+        Frame(String name, Struct.Builder struct) {
+            this.name = name;
+            this.struct = struct;
+            this.list = null;
+        }
+
+        Frame(String name, ListValue.Builder list) {
+            this.name = name;
+            this.struct = null;
+            this.list = list;
+        }
+    }
+
+}
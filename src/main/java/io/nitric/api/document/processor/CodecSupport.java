@@ -0,0 +1,342 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.nitric.util.ProtoUtils;
+
+/**
+ * Provides the protobuf <code>Value</code> conversion functions used by generated document codecs. The conversions
+ * match those of the default <code>GsonDocumentCodec</code>: numbers may be read from numeric strings, integral
+ * types truncate fractional numbers, and strings may be read from numbers.
+ */
+public final class CodecSupport {
+
+    static final Value NULL_VALUE = Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build();
+
+    /*
+     * Enforce static method usage
+     */
+    private CodecSupport() {
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * Return true if the given field value is present and not null.
+     *
+     * @param value the field value, may be null
+     * @return true if the given field value is present and not null
+     */
+    public static boolean isPresent(Value value) {
+        return value != null && value.getKindCase() != Value.KindCase.NULL_VALUE;
+    }
+
+    /**
+     * Return the string of the given string or number value.
+     *
+     * @param value the value (required)
+     * @return the string of the given value
+     * @throws IllegalArgumentException if the value is not a string or number
+     */
+    public static String getString(Value value) {
+        switch (value.getKindCase()) {
+            case STRING_VALUE:
+                return value.getStringValue();
+            case NUMBER_VALUE:
+                return String.valueOf(value.getNumberValue());
+            default:
+                throw unexpected("STRING", value);
+        }
+    }
+
+    /**
+     * Return the double of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the double of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static double getDouble(Value value) {
+        switch (value.getKindCase()) {
+            case NUMBER_VALUE:
+                return value.getNumberValue();
+            case STRING_VALUE:
+                return parse(value, Double::parseDouble);
+            default:
+                throw unexpected("NUMBER", value);
+        }
+    }
+
+    /**
+     * Return the float of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the float of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static float getFloat(Value value) {
+        return (float) getDouble(value);
+    }
+
+    /**
+     * Return the long of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the long of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static long getLong(Value value) {
+        switch (value.getKindCase()) {
+            case NUMBER_VALUE:
+                return (long) value.getNumberValue();
+            case STRING_VALUE:
+                return parse(value, Long::parseLong);
+            default:
+                throw unexpected("NUMBER", value);
+        }
+    }
+
+    /**
+     * Return the int of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the int of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static int getInt(Value value) {
+        switch (value.getKindCase()) {
+            case NUMBER_VALUE:
+                return (int) value.getNumberValue();
+            case STRING_VALUE:
+                return parse(value, Integer::parseInt);
+            default:
+                throw unexpected("NUMBER", value);
+        }
+    }
+
+    /**
+     * Return the short of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the short of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static short getShort(Value value) {
+        return (short) getInt(value);
+    }
+
+    /**
+     * Return the byte of the given number or numeric string value.
+     *
+     * @param value the value (required)
+     * @return the byte of the given value
+     * @throws IllegalArgumentException if the value is not a number or numeric string
+     */
+    public static byte getByte(Value value) {
+        return (byte) getInt(value);
+    }
+
+    /**
+     * Return the boolean of the given boolean or string value.
+     *
+     * @param value the value (required)
+     * @return the boolean of the given value
+     * @throws IllegalArgumentException if the value is not a boolean or string
+     */
+    public static boolean getBoolean(Value value) {
+        switch (value.getKindCase()) {
+            case BOOL_VALUE:
+                return value.getBoolValue();
+            case STRING_VALUE:
+                return Boolean.parseBoolean(value.getStringValue());
+            default:
+                throw unexpected("BOOLEAN", value);
+        }
+    }
+
+    /**
+     * Return the enum constant named by the given value, or null if the enum has no constant with the name.
+     *
+     * @param value the value (required)
+     * @param type the enum type (required)
+     * @param <E> the enum type
+     * @return the enum constant named by the given value, or null
+     * @throws IllegalArgumentException if the value is not a string or number
+     */
+    public static <E extends Enum<E>> E getEnum(Value value, Class<E> type) {
+        var name = getString(value);
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the Struct of the given struct value.
+     *
+     * @param value the value (required)
+     * @return the Struct of the given value
+     * @throws IllegalArgumentException if the value is not a struct
+     */
+    public static Struct getStruct(Value value) {
+        if (value.getKindCase() != Value.KindCase.STRUCT_VALUE) {
+            throw unexpected("BEGIN_OBJECT", value);
+        }
+        return value.getStructValue();
+    }
+
+    /**
+     * Return a new Map of the given struct value.
+     *
+     * @param value the value (required)
+     * @return a new Map of the given value
+     * @throws IllegalArgumentException if the value is not a struct
+     */
+    public static Map<String, Object> getMap(Value value) {
+        return ProtoUtils.toMap(getStruct(value));
+    }
+
+    /**
+     * Return a new List of the given list value, with items converted by the given function. Null items are not
+     * converted.
+     *
+     * @param value the value (required)
+     * @param function the item conversion function (required)
+     * @param <E> the item type
+     * @return a new List of the given value
+     * @throws IllegalArgumentException if the value is not a list
+     */
+    public static <E> List<E> getList(Value value, Function<Value, E> function) {
+        if (value.getKindCase() != Value.KindCase.LIST_VALUE) {
+            throw unexpected("BEGIN_ARRAY", value);
+        }
+        var values = value.getListValue().getValuesList();
+        var list = new ArrayList<E>(values.size());
+        for (Value item : values) {
+            list.add(isPresent(item) ? function.apply(item) : null);
+        }
+        return list;
+    }
+
+    /**
+     * Return a string value.
+     *
+     * @param string the string (required)
+     * @return a string value
+     */
+    public static Value stringValue(String string) {
+        return Value.newBuilder().setStringValue(string).build();
+    }
+
+    /**
+     * Return a number value.
+     *
+     * @param number the number
+     * @return a number value
+     */
+    public static Value numberValue(double number) {
+        return Value.newBuilder().setNumberValue(number).build();
+    }
+
+    /**
+     * Return a boolean value.
+     *
+     * @param bool the boolean
+     * @return a boolean value
+     */
+    public static Value boolValue(boolean bool) {
+        return Value.newBuilder().setBoolValue(bool).build();
+    }
+
+    /**
+     * Return a string value of the given enum constant's name.
+     *
+     * @param constant the enum constant (required)
+     * @return a string value of the given enum constant's name
+     */
+    public static Value enumValue(Enum<?> constant) {
+        return stringValue(constant.name());
+    }
+
+    /**
+     * Return a struct value.
+     *
+     * @param struct the Struct (required)
+     * @return a struct value
+     */
+    public static Value structValue(Struct struct) {
+        return Value.newBuilder().setStructValue(struct).build();
+    }
+
+    /**
+     * Return a struct value of the given Map.
+     *
+     * @param map the Map (required)
+     * @return a struct value of the given Map
+     */
+    @SuppressWarnings("unchecked")
+    public static Value mapValue(Map<String, ?> map) {
+        return structValue(ProtoUtils.toStruct((Map<String, Object>) map));
+    }
+
+    /**
+     * Return a list value of the given List, with items converted by the given function. Null items are converted
+     * to null values.
+     *
+     * @param list the List (required)
+     * @param function the item conversion function (required)
+     * @param <E> the item type
+     * @return a list value of the given List
+     */
+    public static <E> Value listValue(List<E> list, Function<E, Value> function) {
+        var builder = ListValue.newBuilder();
+        for (E item : list) {
+            builder.addValues((item != null) ? function.apply(item) : NULL_VALUE);
+        }
+        return Value.newBuilder().setListValue(builder).build();
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private static <N> N parse(Value value, Function<String, N> parser) {
+        try {
+            return parser.apply(value.getStringValue());
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException("Expected NUMBER but was STRING: " + value.getStringValue(), nfe);
+        }
+    }
+
+    private static IllegalArgumentException unexpected(String expected, Value value) {
+        return new IllegalArgumentException("Expected " + expected + " but was " + value.getKindCase());
+    }
+
+}
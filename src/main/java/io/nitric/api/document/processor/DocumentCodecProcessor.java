@@ -0,0 +1,579 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Provides an annotation processor which generates reflection free <code>DocumentCodec</code> classes for
+ * <code>DocumentModel</code> annotated classes, and registers them as <code>DocumentCodecProvider</code> services.
+ *
+ * <p>
+ *  The processor is not registered for automatic discovery, and must be enabled in the application's build. For
+ *  example with the Maven compiler plugin:
+ * </p>
+ *
+ * <pre>
+ * &lt;configuration&gt;
+ *   &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;io.nitric.api.document.processor.DocumentCodecProcessor&lt;/annotationProcessor&gt;
+ *   &lt;/annotationProcessors&gt;
+ * &lt;/configuration&gt;
+ * </pre>
+ *
+ * <p>
+ *  Generated codecs avoid the Gson reflection and intermediate object graphs of the default codec, which reduces
+ *  the cold start time of functions, and they require no reflection configuration for GraalVM native images.
+ * </p>
+ *
+ * @see io.nitric.api.document.DocumentModel
+ */
+@SupportedAnnotationTypes(DocumentCodecProcessor.DOCUMENT_MODEL)
+public class DocumentCodecProcessor extends AbstractProcessor {
+
+    static final String DOCUMENT_MODEL = "io.nitric.api.document.DocumentModel";
+    static final String SERVICE_RESOURCE = "META-INF/services/io.nitric.api.document.DocumentCodecProvider";
+    static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    static final String CODEC_SUFFIX = "DocumentCodec";
+    static final String SUPPORT = "io.nitric.api.document.processor.CodecSupport";
+
+    final Set<String> codecNames = new TreeSet<>();
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * Return the latest supported source version.
+     *
+     * @return the latest supported source version
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generate codecs for the <code>DocumentModel</code> annotated classes of the round, and write the provider
+     * service resource when processing is over.
+     *
+     * @param annotations the annotation types of the round
+     * @param roundEnv the round environment
+     * @return true if the annotations are claimed by this processor
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!codecNames.isEmpty()) {
+                writeServiceResource();
+            }
+            return false;
+        }
+
+        var annotation = processingEnv.getElementUtils().getTypeElement(DOCUMENT_MODEL);
+        if (annotation == null) {
+            return false;
+        }
+
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            try {
+                var codecName = writeCodec(new ModelType(element));
+                codecNames.add(codecName);
+
+            } catch (ProcessorException pe) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, pe.getMessage(), pe.element);
+            }
+        }
+
+        return true;
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return the generated codec class name for the given model class, which is the class's nested simple names
+     * joined with underscores and suffixed with <code>DocumentCodec</code>.
+     *
+     * @param type the model class
+     * @return the generated codec class simple name
+     */
+    static String getCodecSimpleName(TypeElement type) {
+        var name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(CODEC_SUFFIX).toString();
+    }
+
+    String writeCodec(ModelType model) {
+        var packageName = processingEnv.getElementUtils().getPackageOf(model.type).getQualifiedName().toString();
+        var simpleName = getCodecSimpleName(model.type);
+        var qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        var typeName = model.type.getQualifiedName().toString();
+
+        var code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        if (processingEnv.getElementUtils().getTypeElement("javax.annotation.processing.Generated") != null) {
+            code.append("@javax.annotation.processing.Generated(\"")
+                .append(DocumentCodecProcessor.class.getName())
+                .append("\")\n");
+        }
+        code.append("public final class ").append(simpleName)
+            .append(" implements io.nitric.api.document.DocumentCodec<").append(typeName).append(">,")
+            .append(" io.nitric.api.document.DocumentCodecProvider {\n\n");
+
+        code.append("    public static final ").append(simpleName).append(" INSTANCE = new ")
+            .append(simpleName).append("();\n\n");
+
+        // decode
+        code.append("    @Override\n")
+            .append("    public ").append(typeName).append(" decode(com.google.protobuf.Struct content) {\n")
+            .append("        io.nitric.util.Contracts.requireNonNull(content, \"content\");\n\n")
+            .append("        java.util.Map<java.lang.String, com.google.protobuf.Value> fields = ")
+            .append("content.getFieldsMap();\n")
+            .append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n")
+            .append("        com.google.protobuf.Value field;\n");
+        for (Property property : model.properties) {
+            code.append("\n        field = fields.get(").append(literal(property.name)).append(");\n")
+                .append("        if (").append(SUPPORT).append(".isPresent(field)) {\n")
+                .append("            ").append(property.write("value", property.conversion.decode("field", 0)))
+                .append(";\n")
+                .append("        }\n");
+        }
+        code.append("\n        return value;\n")
+            .append("    }\n\n");
+
+        // encode
+        code.append("    @Override\n")
+            .append("    public com.google.protobuf.Struct encode(").append(typeName).append(" value) {\n")
+            .append("        io.nitric.util.Contracts.requireNonNull(value, \"value\");\n\n")
+            .append("        com.google.protobuf.Struct.Builder builder = com.google.protobuf.Struct.newBuilder();\n");
+        for (int i = 0; i < model.properties.size(); i++) {
+            var property = model.properties.get(i);
+            var read = property.read("value");
+            if (property.type.getKind().isPrimitive()) {
+                code.append("        builder.putFields(").append(literal(property.name)).append(", ")
+                    .append(property.conversion.encode(read, 0)).append(");\n");
+            } else {
+                var local = "field" + i;
+                code.append("\n        ").append(property.type).append(" ").append(local).append(" = ")
+                    .append(read).append(";\n")
+                    .append("        if (").append(local).append(" != null) {\n")
+                    .append("            builder.putFields(").append(literal(property.name)).append(", ")
+                    .append(property.conversion.encode(local, 0)).append(");\n")
+                    .append("        }\n");
+            }
+        }
+        code.append("\n        return builder.build();\n")
+            .append("    }\n\n");
+
+        // provider
+        code.append("    @Override\n")
+            .append("    @SuppressWarnings(\"unchecked\")\n")
+            .append("    public <T> io.nitric.api.document.DocumentCodec<T> getCodec(java.lang.Class<T> type) {\n")
+            .append("        return (type == ").append(typeName).append(".class) ")
+            .append("? (io.nitric.api.document.DocumentCodec<T>) this : null;\n")
+            .append("    }\n\n")
+            .append("}\n");
+
+        try {
+            var file = processingEnv.getFiler().createSourceFile(qualifiedName, model.type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(code.toString());
+            }
+        } catch (IOException ioe) {
+            throw new ProcessorException("Could not write " + qualifiedName + ": " + ioe, model.type);
+        }
+
+        return qualifiedName;
+    }
+
+    void writeServiceResource() {
+        var filer = processingEnv.getFiler();
+        var names = new TreeSet<>(codecNames);
+
+        // Merge the codecs registered by a previous compilation of the module
+        try {
+            var existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_RESOURCE);
+            try (var reader = new BufferedReader(new InputStreamReader(existing.openInputStream(),
+                StandardCharsets.UTF_8))) {
+
+                reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(names::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // No existing resource
+        }
+
+        try {
+            var resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_RESOURCE);
+            try (var writer = new OutputStreamWriter(resource.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String name : names) {
+                    writer.write(name);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ioe) {
+            processingEnv.getMessager()
+                .printMessage(Diagnostic.Kind.ERROR, "Could not write " + SERVICE_RESOURCE + ": " + ioe);
+        }
+    }
+
+    Conversion getConversion(TypeMirror type, Element field) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return new Conversion(SUPPORT + ".getBoolean(%s)", SUPPORT + ".boolValue(%s)");
+            case BYTE:
+                return number("getByte");
+            case SHORT:
+                return number("getShort");
+            case INT:
+                return number("getInt");
+            case LONG:
+                return number("getLong");
+            case FLOAT:
+                return number("getFloat");
+            case DOUBLE:
+                return number("getDouble");
+            case DECLARED:
+                break;
+            default:
+                throw unsupported(type, field);
+        }
+
+        var declaredType = (DeclaredType) type;
+        var element = (TypeElement) declaredType.asElement();
+        var name = element.getQualifiedName().toString();
+        var typeArguments = declaredType.getTypeArguments();
+
+        switch (name) {
+            case "java.lang.String":
+                return new Conversion(SUPPORT + ".getString(%s)", SUPPORT + ".stringValue(%s)");
+            case "java.lang.Boolean":
+                return getConversion(processingEnv.getTypeUtils().getPrimitiveType(TypeKind.BOOLEAN), field);
+            case "java.lang.Byte":
+            case "java.lang.Short":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Float":
+            case "java.lang.Double":
+                return getConversion(processingEnv.getTypeUtils().unboxedType(type), field);
+            case "java.util.List":
+                if (typeArguments.size() != 1) {
+                    throw unsupported(type, field);
+                }
+                return new Conversion(
+                    SUPPORT + ".getList(%s, %s -> %s)",
+                    SUPPORT + ".listValue(%s, %s -> %s)",
+                    getConversion(typeArguments.get(0), field));
+            case "java.util.Map":
+                if (!typeArguments.isEmpty() && (!isType(typeArguments.get(0), "java.lang.String")
+                    || !isType(typeArguments.get(1), "java.lang.Object"))) {
+                    throw unsupported(type, field);
+                }
+                return new Conversion(SUPPORT + ".getMap(%s)", SUPPORT + ".mapValue(%s)");
+            default:
+                break;
+        }
+
+        if (element.getKind() == ElementKind.ENUM) {
+            return new Conversion(SUPPORT + ".getEnum(%s, " + name + ".class)", SUPPORT + ".enumValue(%s)");
+        }
+
+        var isModel = element.getAnnotationMirrors().stream()
+            .anyMatch(m -> ((TypeElement) m.getAnnotationType().asElement()).getQualifiedName()
+                .contentEquals(DOCUMENT_MODEL));
+        if (isModel) {
+            var packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+            var codecName = (packageName.isEmpty() ? "" : packageName + ".") + getCodecSimpleName(element);
+            return new Conversion(
+                codecName + ".INSTANCE.decode(" + SUPPORT + ".getStruct(%s))",
+                SUPPORT + ".structValue(" + codecName + ".INSTANCE.encode(%s))");
+        }
+
+        throw unsupported(type, field);
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private static Conversion number(String getter) {
+        return new Conversion(SUPPORT + "." + getter + "(%s)", SUPPORT + ".numberValue(%s)");
+    }
+
+    private static boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED
+            && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private static ProcessorException unsupported(TypeMirror type, Element field) {
+        return new ProcessorException("@DocumentModel field " + field.getSimpleName() + " has unsupported type "
+            + type + ", use a GsonDocumentCodec for this class", field);
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a DocumentModel class with its document properties.
+     */
+    class ModelType {
+
+        final TypeElement type;
+        final List<Property> properties = new ArrayList<>();
+
+        ModelType(Element element) {
+            if (element.getKind() != ElementKind.CLASS) {
+                throw new ProcessorException("@DocumentModel must annotate a class", element);
+            }
+            this.type = (TypeElement) element;
+
+            var modifiers = type.getModifiers();
+            if (modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+                throw new ProcessorException("@DocumentModel class must not be abstract or private", type);
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+                throw new ProcessorException("@DocumentModel nested class must be static", type);
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                throw new ProcessorException("@DocumentModel class must be a top level or nested class", type);
+            }
+            if (!type.getTypeParameters().isEmpty()) {
+                throw new ProcessorException("@DocumentModel class must not have type parameters", type);
+            }
+            var hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+            if (!hasConstructor) {
+                throw new ProcessorException("@DocumentModel class must have a non-private no-arg constructor", type);
+            }
+
+            var names = new HashSet<String>();
+            TypeElement current = type;
+            while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+                for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                    var fieldModifiers = field.getModifiers();
+                    if (fieldModifiers.contains(Modifier.STATIC) || fieldModifiers.contains(Modifier.TRANSIENT)) {
+                        continue;
+                    }
+                    var property = new Property(this, field);
+                    if (!names.add(property.name)) {
+                        throw new ProcessorException(
+                            "@DocumentModel class declares multiple fields named " + property.name, field);
+                    }
+                    properties.add(property);
+                }
+
+                var superclass = current.getSuperclass();
+                current = (superclass.getKind() == TypeKind.DECLARED)
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+            }
+        }
+
+        boolean isAccessible(Element element) {
+            var modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (modifiers.contains(Modifier.PUBLIC)) {
+                return true;
+            }
+            var elements = processingEnv.getElementUtils();
+            return elements.getPackageOf(element).equals(elements.getPackageOf(type));
+        }
+
+        ExecutableElement findMethod(String name, TypeMirror parameterType) {
+            var types = processingEnv.getTypeUtils();
+            for (ExecutableElement method
+                : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+
+                if (!method.getSimpleName().contentEquals(name)
+                    || method.getModifiers().contains(Modifier.STATIC)
+                    || !isAccessible(method)) {
+                    continue;
+                }
+                if (parameterType == null && method.getParameters().isEmpty()) {
+                    return method;
+                }
+                if (parameterType != null && method.getParameters().size() == 1
+                    && types.isSameType(method.getParameters().get(0).asType(), parameterType)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Provides a document property of a DocumentModel class, which is backed by a field accessed directly or
+     * through its getter and setter methods.
+     */
+    class Property {
+
+        final VariableElement field;
+        final TypeMirror type;
+        final String name;
+        final Conversion conversion;
+        final String getter;
+        final String setter;
+
+        Property(ModelType model, VariableElement field) {
+            this.field = field;
+            this.type = field.asType();
+            this.name = getSerializedName(field);
+            this.conversion = getConversion(type, field);
+
+            if (model.isAccessible(field) && !field.getModifiers().contains(Modifier.FINAL)) {
+                this.getter = null;
+                this.setter = null;
+
+            } else {
+                var suffix = Character.toUpperCase(field.getSimpleName().charAt(0))
+                    + field.getSimpleName().toString().substring(1);
+
+                var getMethod = model.findMethod("get" + suffix, null);
+                if (getMethod == null && type.getKind() == TypeKind.BOOLEAN) {
+                    getMethod = model.findMethod("is" + suffix, null);
+                }
+                var setMethod = model.findMethod("set" + suffix, type);
+                if (getMethod == null || setMethod == null) {
+                    throw new ProcessorException("@DocumentModel field " + field.getSimpleName()
+                        + " must be accessible, or have accessible get" + suffix + "() and set" + suffix
+                        + "() methods", field);
+                }
+                this.getter = getMethod.getSimpleName().toString();
+                this.setter = setMethod.getSimpleName().toString();
+            }
+        }
+
+        String read(String target) {
+            return (getter != null)
+                ? target + "." + getter + "()"
+                : target + "." + field.getSimpleName();
+        }
+
+        String write(String target, String expression) {
+            return (setter != null)
+                ? target + "." + setter + "(" + expression + ")"
+                : target + "." + field.getSimpleName() + " = " + expression;
+        }
+
+        private String getSerializedName(VariableElement field) {
+            for (var mirror : field.getAnnotationMirrors()) {
+                var annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+                if (annotationType.getQualifiedName().contentEquals(SERIALIZED_NAME)) {
+                    for (var entry : mirror.getElementValues().entrySet()) {
+                        if (entry.getKey().getSimpleName().contentEquals("value")) {
+                            return entry.getValue().getValue().toString();
+                        }
+                    }
+                }
+            }
+            return field.getSimpleName().toString();
+        }
+    }
+
+    /**
+     * Provides the generated code which converts a property type to and from a protobuf <code>Value</code>.
+     */
+    static class Conversion {
+
+        final String decodeFormat;
+        final String encodeFormat;
+        final Conversion item;
+
+        Conversion(String decodeFormat, String encodeFormat) {
+            this(decodeFormat, encodeFormat, null);
+        }
+
+        Conversion(String decodeFormat, String encodeFormat, Conversion item) {
+            this.decodeFormat = decodeFormat;
+            this.encodeFormat = encodeFormat;
+            this.item = item;
+        }
+
+        String decode(String value, int depth) {
+            if (item != null) {
+                var itemName = "item" + depth;
+                return String.format(decodeFormat, value, itemName, item.decode(itemName, depth + 1));
+            }
+            return String.format(decodeFormat, value);
+        }
+
+        String encode(String expression, int depth) {
+            if (item != null) {
+                var itemName = "item" + depth;
+                return String.format(encodeFormat, expression, itemName, item.encode(itemName, depth + 1));
+            }
+            return String.format(encodeFormat, expression);
+        }
+    }
+
+    /**
+     * Provides a processor error for an element.
+     */
+    static class ProcessorException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        final transient Element element;
+
+        ProcessorException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+}
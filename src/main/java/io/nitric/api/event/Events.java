@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 import io.nitric.api.NitricException;
 import io.nitric.proto.event.v1.EventServiceGrpc;
 import io.nitric.proto.event.v1.EventServiceGrpc.EventServiceBlockingStub;
+import io.nitric.proto.event.v1.EventServiceGrpc.EventServiceFutureStub;
 import io.nitric.proto.event.v1.TopicListRequest;
 import io.nitric.proto.event.v1.TopicListResponse;
 import io.nitric.proto.event.v1.TopicServiceGrpc;
@@ -65,6 +66,7 @@ public class Events {
 
     static EventServiceGrpc.EventServiceBlockingStub eventServiceStub;
     static TopicServiceGrpc.TopicServiceBlockingStub topicServiceStub;
+    static EventServiceFutureStub eventFutureStub;
 
     // Public Methods ---------------------------------------------------------
 
@@ -125,6 +127,28 @@ public class Events {
         eventServiceStub = stub;
     }
 
+    /**
+     * Return the Membrane GRPC Event Service Future stub.
+     *
+     * @return the Membrane GRPC Event Service Future stub
+     */
+    public static EventServiceFutureStub getEventFutureStub() {
+        if (eventFutureStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            eventFutureStub = EventServiceGrpc.newFutureStub(channel);
+        }
+        return eventFutureStub;
+    }
+
+    /**
+     * Set the Membrane GRPC Event Service Future stub.
+     *
+     * @param stub the Membrane GRPC Event Service Future stub
+     */
+    public static void setEventFutureStub(EventServiceFutureStub stub) {
+        eventFutureStub = stub;
+    }
+
     /**
      * Return the Membrane GRPC Topic Service stub.
      *
@@ -20,9 +20,12 @@
 
 package io.nitric.api.event;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.nitric.api.NitricException;
 import io.nitric.proto.event.v1.EventPublishRequest;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 import io.nitric.util.ProtoUtils;
 
 /**
@@ -80,21 +83,7 @@ public class Topic {
     public void publish(Event event) throws NitricException {
         Contracts.requireNonNull(event, "event");
 
-        var struct = ProtoUtils.toStruct(event.payload);
-
-        var eventBuilder = io.nitric.proto.event.v1.NitricEvent.newBuilder().setPayload(struct);
-        if (event.getId() != null) {
-            eventBuilder.setId(event.getId());
-        }
-        if (event.getPayloadType() != null) {
-            eventBuilder.setPayloadType(event.getPayloadType());
-        }
-        var protoEvent = eventBuilder.build();
-
-        var request = EventPublishRequest.newBuilder()
-                .setTopic(this.name)
-                .setEvent(protoEvent)
-                .build();
+        var request = toPublishRequest(event);
 
         try {
             Events.getEventServiceStub().publish(request);
@@ -103,6 +92,22 @@ public class Topic {
         }
     }
 
+    /**
+     * Publish the given event to this topic, returning a future which completes when the event has been published.
+     * A failed Event Service call completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @param event the even to publish (required)
+     * @return a future which completes when the event has been published
+     */
+    public CompletableFuture<Void> publishAsync(Event event) {
+        Contracts.requireNonNull(event, "event");
+
+        var request = toPublishRequest(event);
+
+        return GrpcFutures.toCompletableFuture(Events.getEventFutureStub().publish(request))
+                .thenApply(response -> null);
+    }
+
     /**
      * Return the string representation of this object.
      *
@@ -113,4 +118,24 @@ public class Topic {
         return getClass().getSimpleName() + "[name=" + name + "]";
     }
 
+    // Package Private Methods ------------------------------------------------
+
+    EventPublishRequest toPublishRequest(Event event) {
+        var struct = ProtoUtils.toStruct(event.payload);
+
+        var eventBuilder = io.nitric.proto.event.v1.NitricEvent.newBuilder().setPayload(struct);
+        if (event.getId() != null) {
+            eventBuilder.setId(event.getId());
+        }
+        if (event.getPayloadType() != null) {
+            eventBuilder.setPayloadType(event.getPayloadType());
+        }
+        var protoEvent = eventBuilder.build();
+
+        return EventPublishRequest.newBuilder()
+                .setTopic(this.name)
+                .setEvent(protoEvent)
+                .build();
+    }
+
 }
\ No newline at end of file
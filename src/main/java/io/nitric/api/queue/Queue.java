@@ -22,14 +22,18 @@ package io.nitric.api.queue;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import com.google.protobuf.Struct;
 import io.nitric.api.NitricException;
 import io.nitric.proto.queue.v1.QueueReceiveRequest;
 import io.nitric.proto.queue.v1.QueueReceiveResponse;
 import io.nitric.proto.queue.v1.QueueSendBatchRequest;
 import io.nitric.proto.queue.v1.QueueSendBatchResponse;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 import io.nitric.util.ProtoUtils;
 
 /**
@@ -68,6 +72,7 @@ import io.nitric.util.ProtoUtils;
 public class Queue {
 
     final String name;
+    boolean lazyPayloads;
 
     // Constructor ------------------------------------------------------------
 
@@ -90,6 +95,20 @@ public class Queue {
         return name;
     }
 
+    /**
+     * Set whether received task payloads are decoded lazily. Lazily decoded payloads are read-only
+     * <code>StructMap</code> views, which convert and memoize payload values when they are read, rather than copying
+     * the whole payload into a new Map. Workers which route tasks on a few payload fields avoid converting large
+     * payloads. Lazily decoded payloads cannot be modified.
+     *
+     * @param lazyPayloads specify whether received task payloads are decoded lazily
+     * @return this queue object
+     */
+    public Queue lazyPayloads(boolean lazyPayloads) {
+        this.lazyPayloads = lazyPayloads;
+        return this;
+    }
+
     /**
      * Send the given task to the client queue.
      *
@@ -111,6 +130,21 @@ public class Queue {
         }
     }
 
+    /**
+     * Send the given task to the client queue, returning a future which completes with null if the task was
+     * successfully sent, or a failed task otherwise. A failed Queue Service call completes the future exceptionally
+     * with a <code>NitricException</code>.
+     *
+     * @param task the task to send to the queue (required)
+     * @return a future which completes with null if the task was successfully sent, or a failed task otherwise
+     */
+    public CompletableFuture<FailedTask> sendAsync(Task task) {
+        Contracts.requireNonNull(task, "task");
+
+        return sendBatchAsync(Collections.singletonList(task))
+                .thenApply(results -> results.isEmpty() ? null : results.get(0));
+    }
+
     /**
      * Send the given tasks to the client queue in a batch, and return any tasks which failed to send.
      *
@@ -125,11 +159,7 @@ public class Queue {
             return Collections.emptyList();
         }
 
-        var requestBuilder = QueueSendBatchRequest.newBuilder().setQueue(name);
-        for (Task task : tasks) {
-            requestBuilder.addTasks(toProtoTask(task));
-        }
-        var request = requestBuilder.build();
+        var request = toSendBatchRequest(tasks);
 
         QueueSendBatchResponse response = null;
         try {
@@ -138,10 +168,29 @@ public class Queue {
             throw NitricException.build(sre);
         }
 
-        return response.getFailedTasksList()
-                .stream()
-                .map(this::toApiFailedTask)
-                .collect(Collectors.toList());
+        return toApiFailedTasks(response);
+    }
+
+    /**
+     * Send the given tasks to the client queue in a batch, returning a future which completes with any tasks which
+     * failed to send. A failed Queue Service call completes the future exceptionally with a
+     * <code>NitricException</code>.
+     *
+     * @param tasks the list of task to send as a batch (required)
+     * @return a future which completes with the list of tasks which failed to send, or an empty list if all were
+     *     successfully sent
+     */
+    public CompletableFuture<List<FailedTask>> sendBatchAsync(List<Task> tasks) {
+        Contracts.requireNonNull(tasks, "tasks");
+
+        if (tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        var request = toSendBatchRequest(tasks);
+
+        return GrpcFutures.toCompletableFuture(Queues.getFutureStub().sendBatch(request))
+                .thenApply(this::toApiFailedTasks);
     }
 
     /**
@@ -152,10 +201,7 @@ public class Queue {
      * @throws NitricException if a Queue Service API error occurs
      */
     public List<ReceivedTask> receive(int limit) throws NitricException {
-        var request = QueueReceiveRequest.newBuilder()
-                .setQueue(name)
-                .setDepth(limit)
-                .build();
+        var request = toReceiveRequest(limit);
 
         QueueReceiveResponse response = null;
         try {
@@ -164,10 +210,21 @@ public class Queue {
             throw NitricException.build(sre);
         }
 
-        return response.getTasksList()
-                .stream()
-                .map(this::toApiTask)
-                .collect(Collectors.toList());
+        return toApiTasks(response);
+    }
+
+    /**
+     * Return a future which completes with a maximum specified number of tasks received from the queue. A failed
+     * Queue Service call completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @param limit the maximum number of tasks to receive from the queue
+     * @return a future which completes with the tasks from the client queue
+     */
+    public CompletableFuture<List<ReceivedTask>> receiveAsync(int limit) {
+        var request = toReceiveRequest(limit);
+
+        return GrpcFutures.toCompletableFuture(Queues.getFutureStub().receive(request))
+                .thenApply(this::toApiTasks);
     }
 
     /**
@@ -182,6 +239,35 @@ public class Queue {
 
     // Package Private Methods ------------------------------------------------
 
+    QueueSendBatchRequest toSendBatchRequest(List<Task> tasks) {
+        var requestBuilder = QueueSendBatchRequest.newBuilder().setQueue(name);
+        for (Task task : tasks) {
+            requestBuilder.addTasks(toProtoTask(task));
+        }
+        return requestBuilder.build();
+    }
+
+    QueueReceiveRequest toReceiveRequest(int limit) {
+        return QueueReceiveRequest.newBuilder()
+                .setQueue(name)
+                .setDepth(limit)
+                .build();
+    }
+
+    List<FailedTask> toApiFailedTasks(QueueSendBatchResponse response) {
+        return response.getFailedTasksList()
+                .stream()
+                .map(this::toApiFailedTask)
+                .collect(Collectors.toList());
+    }
+
+    List<ReceivedTask> toApiTasks(QueueReceiveResponse response) {
+        return response.getTasksList()
+                .stream()
+                .map(this::toApiTask)
+                .collect(Collectors.toList());
+    }
+
     io.nitric.proto.queue.v1.NitricTask toProtoTask(Task task) {
         var struct = ProtoUtils.toStruct(task.payload);
 
@@ -201,7 +287,7 @@ public class Queue {
         return new ReceivedTask(
             task.getId(),
             task.getPayloadType(),
-            ProtoUtils.toMap(task.getPayload()),
+            toApiPayload(task.getPayload()),
             task.getLeaseId(),
             getName());
     }
@@ -212,7 +298,7 @@ public class Queue {
         var task = new ReceivedTask(
             protoTask.getId(),
             protoTask.getPayloadType(),
-            ProtoUtils.toMap(protoTask.getPayload()),
+            toApiPayload(protoTask.getPayload()),
             protoTask.getLeaseId(),
             getName());
 
@@ -222,4 +308,8 @@ public class Queue {
                 .build();
     }
 
+    Map<String, Object> toApiPayload(Struct payload) {
+        return lazyPayloads ? ProtoUtils.asMap(payload, true) : ProtoUtils.toMap(payload);
+    }
+
 }
@@ -22,6 +22,7 @@ package io.nitric.api.queue;
 
 import io.nitric.proto.queue.v1.QueueServiceGrpc;
 import io.nitric.proto.queue.v1.QueueServiceGrpc.QueueServiceBlockingStub;
+import io.nitric.proto.queue.v1.QueueServiceGrpc.QueueServiceFutureStub;
 import io.nitric.util.Contracts;
 import io.nitric.util.GrpcChannelProvider;
 
@@ -64,6 +65,7 @@ import io.nitric.util.GrpcChannelProvider;
 public class Queues {
 
     static QueueServiceBlockingStub serviceStub;
+    static QueueServiceFutureStub futureStub;
 
     // Public Methods ---------------------------------------------------------
 
@@ -101,4 +103,26 @@ public class Queues {
         serviceStub = stub;
     }
 
+    /**
+     * Return the Membrane GRPC Queue Service Future Stub.
+     *
+     * @return the Membrane GRPC Queue Service Future Stub
+     */
+    public static QueueServiceFutureStub getFutureStub() {
+        if (futureStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            futureStub = QueueServiceGrpc.newFutureStub(channel);
+        }
+        return futureStub;
+    }
+
+    /**
+     * Set the Membrane GRPC Queue Service Future Stub.
+     *
+     * @param stub the Membrane GRPC Queue Service Future Stub
+     */
+    public static void setFutureStub(QueueServiceFutureStub stub) {
+        futureStub = stub;
+    }
+
 }
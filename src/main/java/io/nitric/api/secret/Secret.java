@@ -25,8 +25,10 @@ import io.nitric.api.NitricException;
 import io.nitric.proto.secret.v1.SecretPutRequest;
 import io.nitric.proto.secret.v1.SecretPutResponse;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Provides a named Secret class.
@@ -111,14 +113,7 @@ public class Secret {
     public SecretVersion put(byte[] value) throws NitricException {
         Contracts.requireNonNull(value, "value");
 
-        var secret = io.nitric.proto.secret.v1.Secret.newBuilder()
-            .setName(name)
-            .build();
-
-        var request = SecretPutRequest.newBuilder()
-                .setSecret(secret)
-                .setValue(ByteString.copyFrom(value))
-                .build();
+        var request = toPutRequest(value);
 
         SecretPutResponse response = null;
         try {
@@ -130,6 +125,22 @@ public class Secret {
         return new SecretVersion(this, response.getSecretVersion().getVersion());
     }
 
+    /**
+     * Store a new value for the Secret, returning a future which completes with the new SecretVersion object.
+     * A failed Secret Service call completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @param value the secret value to store (required)
+     * @return a future which completes with the new SecretVersion object
+     */
+    public CompletableFuture<SecretVersion> putAsync(byte[] value) {
+        Contracts.requireNonNull(value, "value");
+
+        var request = toPutRequest(value);
+
+        return GrpcFutures.toCompletableFuture(Secrets.getFutureStub().put(request))
+                .thenApply(response -> new SecretVersion(this, response.getSecretVersion().getVersion()));
+    }
+
     /**
      * <p>
      * Store a new text value for the Secret and return a new SecretVersion object.
@@ -161,4 +172,17 @@ public class Secret {
         return getClass().getSimpleName() + "[name=" + name + "]";
     }
 
+    // Private Methods --------------------------------------------------------
+
+    private SecretPutRequest toPutRequest(byte[] value) {
+        var secret = io.nitric.proto.secret.v1.Secret.newBuilder()
+            .setName(name)
+            .build();
+
+        return SecretPutRequest.newBuilder()
+                .setSecret(secret)
+                .setValue(ByteString.copyFrom(value))
+                .build();
+    }
+
 }
@@ -20,10 +20,13 @@
 
 package io.nitric.api.secret;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.nitric.api.NitricException;
 import io.nitric.proto.secret.v1.SecretAccessRequest;
 import io.nitric.proto.secret.v1.SecretAccessResponse;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 
 /**
  * <p>
@@ -95,18 +98,7 @@ public class SecretVersion {
      * @throws NitricException if a Secret Service API error occurs
      */
     public SecretValue access() throws NitricException {
-        var protoSecret = io.nitric.proto.secret.v1.Secret.newBuilder()
-            .setName(getSecret().getName())
-            .build();
-
-        var protoVersion = io.nitric.proto.secret.v1.SecretVersion.newBuilder()
-            .setSecret(protoSecret)
-            .setVersion(getVersion())
-            .build();
-
-        var request = SecretAccessRequest.newBuilder()
-                .setSecretVersion(protoVersion)
-                .build();
+        var request = toAccessRequest();
 
         SecretAccessResponse response = null;
         try {
@@ -115,14 +107,29 @@ public class SecretVersion {
             throw NitricException.build(sre);
         }
 
-        var secretVersion = new SecretVersion(
-            secret,
-            response.getSecretVersion().getVersion());
+        return toSecretValue(response);
+    }
 
-        var body = response.getValue();
-        var value = (!body.isEmpty()) ? body.toByteArray() : new byte[0];
+    /**
+     * <p>
+     * Return a future which completes with the version's secret value. A failed Secret Service call completes the
+     * future exceptionally with a <code>NitricException</code>.
+     * </p>
+     *
+     * <pre><code class="code">
+     * Secrets.secret("encryption.key")
+     *     .latest()
+     *     .accessAsync()
+     *     .thenAccept(secretValue -&gt; initCipher(secretValue.get()));
+     * </code></pre>
+     *
+     * @return a future which completes with the version's secret value
+     */
+    public CompletableFuture<SecretValue> accessAsync() {
+        var request = toAccessRequest();
 
-        return new SecretValue(secretVersion, value);
+        return GrpcFutures.toCompletableFuture(Secrets.getFutureStub().access(request))
+                .thenApply(this::toSecretValue);
     }
 
     /**
@@ -137,4 +144,32 @@ public class SecretVersion {
             + "]";
     }
 
+    // Private Methods --------------------------------------------------------
+
+    private SecretAccessRequest toAccessRequest() {
+        var protoSecret = io.nitric.proto.secret.v1.Secret.newBuilder()
+            .setName(getSecret().getName())
+            .build();
+
+        var protoVersion = io.nitric.proto.secret.v1.SecretVersion.newBuilder()
+            .setSecret(protoSecret)
+            .setVersion(getVersion())
+            .build();
+
+        return SecretAccessRequest.newBuilder()
+                .setSecretVersion(protoVersion)
+                .build();
+    }
+
+    private SecretValue toSecretValue(SecretAccessResponse response) {
+        var secretVersion = new SecretVersion(
+            secret,
+            response.getSecretVersion().getVersion());
+
+        var body = response.getValue();
+        var value = (!body.isEmpty()) ? body.toByteArray() : new byte[0];
+
+        return new SecretValue(secretVersion, value);
+    }
+
 }
\ No newline at end of file
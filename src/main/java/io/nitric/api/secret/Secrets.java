@@ -22,6 +22,7 @@ package io.nitric.api.secret;
 
 import io.nitric.proto.secret.v1.SecretServiceGrpc;
 import io.nitric.proto.secret.v1.SecretServiceGrpc.SecretServiceBlockingStub;
+import io.nitric.proto.secret.v1.SecretServiceGrpc.SecretServiceFutureStub;
 import io.nitric.util.GrpcChannelProvider;
 
 /**
@@ -114,6 +115,7 @@ import io.nitric.util.GrpcChannelProvider;
 public class Secrets {
 
     static SecretServiceBlockingStub serviceStub;
+    static SecretServiceFutureStub futureStub;
 
     // Public Methods ---------------------------------------------------------
 
@@ -149,4 +151,26 @@ public class Secrets {
         serviceStub = stub;
     }
 
+    /**
+     * Return the Membrane GRPC Secret Service Future Stub.
+     *
+     * @return the Membrane GRPC Secret Service Future Stub
+     */
+    public static SecretServiceFutureStub getFutureStub() {
+        if (futureStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            futureStub = SecretServiceGrpc.newFutureStub(channel);
+        }
+        return futureStub;
+    }
+
+    /**
+     * Set the Membrane GRPC Secret Service Future Stub.
+     *
+     * @param stub the Membrane GRPC Secret Service Future Stub
+     */
+    public static void setFutureStub(SecretServiceFutureStub stub) {
+        futureStub = stub;
+    }
+
 }
\ No newline at end of file
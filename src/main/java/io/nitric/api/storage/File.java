@@ -20,6 +20,8 @@
 
 package io.nitric.api.storage;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.google.protobuf.ByteString;
 import io.nitric.api.NitricException;
 import io.nitric.api.NotFoundException;
@@ -28,6 +30,7 @@ import io.nitric.proto.storage.v1.StorageReadRequest;
 import io.nitric.proto.storage.v1.StorageReadResponse;
 import io.nitric.proto.storage.v1.StorageWriteRequest;
 import io.nitric.util.Contracts;
+import io.nitric.util.GrpcFutures;
 
 /**
  * <p>
@@ -118,9 +121,24 @@ public class File {
             throw NitricException.build(sre);
         }
 
-        var body = response.getBody();
+        return toData(response);
+    }
 
-        return (!body.isEmpty()) ? body.toByteArray() : null;
+    /**
+     * Return a future which completes with the item data from the bucket with the given key, or null if the item
+     * has no data. A failed Storage Service call completes the future exceptionally with a
+     * <code>NitricException</code>, for example a <code>NotFoundException</code> if the bucket or item was not found.
+     *
+     * @return a future which completes with the storage item data
+     */
+    public CompletableFuture<byte[]> readAsync() {
+        var request = StorageReadRequest.newBuilder()
+                .setBucketName(bucket)
+                .setKey(key)
+                .build();
+
+        return GrpcFutures.toCompletableFuture(Storage.getFutureStub().read(request))
+                .thenApply(File::toData);
     }
 
     /**
@@ -150,6 +168,26 @@ public class File {
         }
     }
 
+    /**
+     * Store an item to a bucket with the given key, returning a future which completes when the item has been
+     * stored. A failed Storage Service call completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @param data the item data (required)
+     * @return a future which completes when the item has been stored
+     */
+    public CompletableFuture<Void> writeAsync(byte[] data) {
+        Contracts.requireNonNull(data, "data");
+
+        var request = StorageWriteRequest.newBuilder()
+                .setBucketName(bucket)
+                .setKey(key)
+                .setBody(ByteString.copyFrom(data))
+                .build();
+
+        return GrpcFutures.toCompletableFuture(Storage.getFutureStub().write(request))
+                .thenApply(response -> null);
+    }
+
     /**
      * Delete an item from a bucket with the given key if it exists.
      *
@@ -169,6 +207,22 @@ public class File {
         }
     }
 
+    /**
+     * Delete an item from a bucket with the given key, returning a future which completes when the item has been
+     * deleted. A failed Storage Service call completes the future exceptionally with a <code>NitricException</code>.
+     *
+     * @return a future which completes when the item has been deleted
+     */
+    public CompletableFuture<Void> deleteAsync() {
+        var request = StorageDeleteRequest.newBuilder()
+                .setBucketName(bucket)
+                .setKey(key)
+                .build();
+
+        return GrpcFutures.toCompletableFuture(Storage.getFutureStub().delete(request))
+                .thenApply(response -> null);
+    }
+
     /**
      * Return the string representation of this object.
      *
@@ -179,4 +233,12 @@ public class File {
         return getClass().getSimpleName() + "[bucket=" + bucket + ", key=" + key + "]";
     }
 
+    // Private Methods --------------------------------------------------------
+
+    private static byte[] toData(StorageReadResponse response) {
+        var body = response.getBody();
+
+        return (!body.isEmpty()) ? body.toByteArray() : null;
+    }
+
 }
@@ -22,6 +22,7 @@ package io.nitric.api.storage;
 
 import io.nitric.proto.storage.v1.StorageServiceGrpc;
 import io.nitric.proto.storage.v1.StorageServiceGrpc.StorageServiceBlockingStub;
+import io.nitric.proto.storage.v1.StorageServiceGrpc.StorageServiceFutureStub;
 import io.nitric.util.Contracts;
 import io.nitric.util.GrpcChannelProvider;
 
@@ -63,6 +64,7 @@ import io.nitric.util.GrpcChannelProvider;
 public class Storage {
 
     static StorageServiceBlockingStub serviceStub;
+    static StorageServiceFutureStub futureStub;
 
     // Public Methods ---------------------------------------------------------
 
@@ -91,4 +93,16 @@ public class Storage {
         serviceStub = stub;
     }
 
+    static StorageServiceFutureStub getFutureStub() {
+        if (futureStub == null) {
+            var channel = GrpcChannelProvider.getChannel();
+            futureStub = StorageServiceGrpc.newFutureStub(channel);
+        }
+        return futureStub;
+    }
+
+    static void setFutureStub(StorageServiceFutureStub stub) {
+        futureStub = stub;
+    }
+
 }
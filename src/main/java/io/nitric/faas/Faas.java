@@ -23,11 +23,20 @@ package io.nitric.faas;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.grpc.stub.StreamObserver;
+import io.nitric.faas.event.AsyncEventHandler;
+import io.nitric.faas.event.AsyncEventMiddleware;
 import io.nitric.faas.event.EventHandler;
 import io.nitric.faas.event.EventMiddleware;
+import io.nitric.faas.http.AsyncHttpHandler;
+import io.nitric.faas.http.AsyncHttpMiddleware;
 import io.nitric.faas.http.HttpHandler;
 import io.nitric.faas.http.HttpMiddleware;
 import io.nitric.faas.logger.Logger;
@@ -94,10 +103,51 @@ import io.nitric.util.GrpcChannelProvider;
  *     }
  * } </code></pre>
  *
+ * <h3>Concurrent Triggers</h3>
+ *
+ * <p>
+ *  By default triggers are processed one at a time on the gRPC stream thread. To process triggers concurrently
+ *  configure a dispatch executor, for example a fixed pool of worker threads:
+ * </p>
+ *
+ * <pre><code class="code">
+ * new Faas()
+ *     .http(handler)
+ *     .workerThreads(8)
+ *     .start();
+ * </code></pre>
+ *
+ * <p>
+ *  When triggers are dispatched concurrently your handlers and middleware must be thread safe. To bound the
+ *  number of triggers being processed, and buffered in memory, at any one time also set <code>maxInFlight()</code>.
+ * </p>
+ *
+ * <h3>Async Handlers</h3>
+ *
+ * <p>
+ *  Handlers which call other services can be registered with <code>httpAsync()</code> or <code>eventAsync()</code>
+ *  and return a <code>CompletionStage</code>. The trigger response is sent when the stage completes, so no thread
+ *  is blocked while the handler waits. Async middleware extend <code>AsyncHttpMiddleware</code> or
+ *  <code>AsyncEventMiddleware</code> and are registered with <code>http()</code> or <code>event()</code>.
+ * </p>
+ *
+ * <pre><code class="code">
+ * new Faas()
+ *     .httpAsync(context -&gt; customerService.findAsync(id).thenApply(customer -&gt; {
+ *         context.getResponse().text("Customer: %s", customer);
+ *         return context;
+ *     }))
+ *     .start();
+ * </code></pre>
+ *
  * @see EventHandler
  * @see EventMiddleware
  * @see HttpHandler
  * @see HttpMiddleware
+ * @see AsyncEventHandler
+ * @see AsyncEventMiddleware
+ * @see AsyncHttpHandler
+ * @see AsyncHttpMiddleware
  */
 public class Faas {
 
@@ -106,6 +156,10 @@ public class Faas {
     TriggerProcessor triggerProcessor = new TriggerProcessor();
     List<EventMiddleware> eventMiddlewares = new ArrayList<>();
     List<HttpMiddleware> httpMiddlewares = new ArrayList<>();
+    Executor executor;
+    int workerThreads;
+    boolean virtualThreads;
+    int maxInFlight;
 
     // Public Methods -------------------------------------------------------------------
 
@@ -137,6 +191,20 @@ public class Faas {
         return this;
     }
 
+    /**
+     * Add an asynchronous Event handler function. Event middleware and handler functions are processed
+     * in the order they are added to the Faas.
+     *
+     * @param handler the AsyncEventHandler to add (required)
+     * @return this chainable Faas object
+     */
+    public Faas eventAsync(AsyncEventHandler handler) {
+        Contracts.requireNonNull(handler, "handler");
+
+        eventMiddlewares.add(new AsyncEventMiddleware.HandlerAdapter(handler));
+        return this;
+    }
+
     /**
      * Add an HTTP handler function. HTTP middleware and handler functions are processed
      * in the order they are added to the Faas.
@@ -165,6 +233,20 @@ public class Faas {
         return this;
     }
 
+    /**
+     * Add an asynchronous HTTP handler function. HTTP middleware and handler functions are processed
+     * in the order they are added to the Faas.
+     *
+     * @param handler the AsyncHttpHandler to add (required)
+     * @return this chainable Faas object
+     */
+    public Faas httpAsync(AsyncHttpHandler handler) {
+        Contracts.requireNonNull(handler, "handler");
+
+        httpMiddlewares.add(new AsyncHttpMiddleware.HandlerAdapter(handler));
+        return this;
+    }
+
     /**
      * Configure the Faas server logger.
      *
@@ -191,6 +273,71 @@ public class Faas {
         return this;
     }
 
+    /**
+     * Configure the executor used to dispatch TriggerRequests off the gRPC stream thread. The executor
+     * is managed by the caller and will not be shutdown when the Faas server stops.
+     *
+     * @param executor the TriggerRequest dispatch executor (required)
+     * @return this chainable Faas object
+     */
+    public Faas executor(Executor executor) {
+        Contracts.requireNonNull(executor, "executor");
+
+        this.executor = executor;
+        this.workerThreads = 0;
+        this.virtualThreads = false;
+        return this;
+    }
+
+    /**
+     * Configure a fixed pool of worker threads to process TriggerRequests concurrently. The pool is
+     * created when the Faas server starts and is shutdown when it stops.
+     *
+     * @param threads the number of worker threads, must be greater than zero
+     * @return this chainable Faas object
+     */
+    public Faas workerThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("provide threads greater than zero");
+        }
+
+        this.executor = null;
+        this.workerThreads = threads;
+        this.virtualThreads = false;
+        return this;
+    }
+
+    /**
+     * Configure TriggerRequests to be processed concurrently with a new virtual thread per trigger. If the JVM
+     * does not support virtual threads (JDK 21+), a worker thread pool sized to the available processors will be
+     * used instead.
+     *
+     * @return this chainable Faas object
+     */
+    public Faas virtualThreads() {
+        this.executor = null;
+        this.workerThreads = 0;
+        this.virtualThreads = true;
+        return this;
+    }
+
+    /**
+     * Configure the maximum number of TriggerRequests to process at once. The Faas server will only request
+     * further triggers from the membrane when an in-flight trigger has completed, so bursts of triggers are
+     * held by the membrane rather than buffered on the heap. By default no limit is applied.
+     *
+     * @param maxInFlight the maximum number of in-flight triggers, or zero for no limit
+     * @return this chainable Faas object
+     */
+    public Faas maxInFlight(int maxInFlight) {
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("provide non-negative maxInFlight");
+        }
+
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
     /**
      * <p>
      * Start the FaaS server after configuring the given function.
@@ -213,9 +360,8 @@ public class Faas {
         // We only need to assert the FaasGrpc.newStub is called to cover this logic in
         // the case where the user has not provided a custom stub
         if (this.stub == null) {
-            // Create a default stub with the singleton channel
-            // TODO: Determine if we should use a dedicated channel for this FaaS loop?
-            this.stub = FaasServiceGrpc.newStub(GrpcChannelProvider.getChannel());
+            // Create a default stub with the FaaS channel, which is dedicated when configured
+            this.stub = FaasServiceGrpc.newStub(GrpcChannelProvider.getFaasChannel());
         }
 
         AtomicReference<StreamObserver<ClientMessage>> clientObserver = new AtomicReference<>();
@@ -223,7 +369,13 @@ public class Faas {
         // Add a latch to block on while the stream is running
         CountDownLatch finishedLatch = new CountDownLatch(1);
 
-        var fso = new FaasStreamObserver(triggerProcessor, clientObserver, finishedLatch, logger);
+        // Executors created here are owned by this server and shutdown when the stream terminates
+        ExecutorService ownedExecutor = createDispatchExecutor();
+        Executor dispatchExecutor = (executor != null) ? executor : ownedExecutor;
+
+        var fso = new FaasStreamObserver(
+            triggerProcessor, clientObserver, finishedLatch, logger, dispatchExecutor, maxInFlight
+        );
 
         // Support generating class list for AppCDS (JEP 310)
         var immediateShutdown = Boolean.parseBoolean(System.getProperty("appcds", "false"));
@@ -242,7 +394,7 @@ public class Faas {
             clientObserver.set(observer);
 
             // Send an init request to the server and let it know we're ready to receive work
-            observer.onNext(
+            fso.send(
                 ClientMessage
                         .newBuilder()
                         .setInitRequest(InitRequest.newBuilder().build())
@@ -259,13 +411,42 @@ public class Faas {
 
             } finally {
                 // Always ensure the client stream is closed
-                observer.onCompleted();
+                fso.complete();
             }
         }
+
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
     }
 
     // Protected Methods ------------------------------------------------------
 
+    /**
+     * Create the TriggerRequest dispatch executor configured with <code>workerThreads()</code> or
+     * <code>virtualThreads()</code>, or null if triggers are to be processed on the gRPC stream thread.
+     *
+     * @return a new TriggerRequest dispatch executor, or null if not configured
+     */
+    protected ExecutorService createDispatchExecutor() {
+        if (virtualThreads) {
+            var virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                return virtualExecutor;
+            }
+
+            var threads = Runtime.getRuntime().availableProcessors();
+            logger.info("virtual threads are not supported, using %s worker threads", threads);
+            return Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+
+        } else if (workerThreads > 0) {
+            return Executors.newFixedThreadPool(workerThreads, new WorkerThreadFactory());
+
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Set the gRPC stub to use for this FaaS instance.
      * Can be used to provide a connection on a new channel
@@ -278,4 +459,36 @@ public class Faas {
         return this;
     }
 
+    // Package Private Methods ------------------------------------------------
+
+    /*
+     * Return a new virtual thread per task executor if supported by the JVM, or null otherwise.
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+
+        } catch (ReflectiveOperationException roe) {
+            return null;
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a daemon worker thread factory for the TriggerRequest dispatch pool.
+     */
+    static class WorkerThreadFactory implements ThreadFactory {
+
+        final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "nitric-faas-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
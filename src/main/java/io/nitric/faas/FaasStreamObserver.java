@@ -20,11 +20,17 @@
 
 package io.nitric.faas;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.grpc.StatusRuntimeException;
 import io.grpc.Status.Code;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import io.nitric.faas.logger.Logger;
 import io.nitric.proto.faas.v1.ClientMessage;
@@ -34,19 +40,35 @@ import io.nitric.proto.faas.v1.TriggerResponse;
 import io.nitric.util.GrpcChannelProvider;
 
 /**
- * Provides the FaaS Nitric GRCP stream handler.
+ * Provides the FaaS Nitric GRCP stream handler. TriggerRequests are processed with the configured dispatch
+ * executor, and the responses are written back to the client stream one at a time as each trigger's
+ * processing stage completes. Asynchronous handlers therefore release the dispatch thread while they wait.
+ * Triggers which cannot be processed or dispatched are answered with an error response.
+ *
+ * <p>
+ * If a max in-flight limit is configured the stream uses gRPC manual flow control, so that the membrane is
+ * only asked for another message when a trigger slot becomes free.
+ * </p>
  */
-class FaasStreamObserver implements StreamObserver<ServerMessage> {
+class FaasStreamObserver implements ClientResponseObserver<ClientMessage, ServerMessage> {
+
+    /** Process triggers on the calling gRPC stream thread. */
+    static final Executor DIRECT_EXECUTOR = Runnable::run;
 
     final TriggerProcessor triggerProcessor;
     final AtomicReference<StreamObserver<ClientMessage>> clientObserver;
     final CountDownLatch finishedLatch;
     final Logger logger;
+    final Executor executor;
+    final int maxInFlight;
+    final Object writeLock = new Object();
+    ClientCallStreamObserver<ClientMessage> requestStream;
+    boolean completed;
 
     // Constructor ------------------------------------------------------------
 
     /**
-     * Create a new Faas Stream Observer object.
+     * Create a new Faas Stream Observer object which processes triggers on the gRPC stream thread.
      *
      * @param triggerProcessor the GRPC TriggerProcessor
      * @param clientObserver the client observer
@@ -58,15 +80,47 @@ class FaasStreamObserver implements StreamObserver<ServerMessage> {
         AtomicReference<StreamObserver<ClientMessage>> clientObserver,
         CountDownLatch finishedLatch,
         Logger logger
+    ) {
+        this(triggerProcessor, clientObserver, finishedLatch, logger, null, 0);
+    }
+
+    /**
+     * Create a new Faas Stream Observer object.
+     *
+     * @param triggerProcessor the GRPC TriggerProcessor
+     * @param clientObserver the client observer
+     * @param finishedLatch the finish latch
+     * @param logger the Faas logger
+     * @param executor the trigger dispatch executor, or null to process triggers on the gRPC stream thread
+     * @param maxInFlight the maximum number of triggers to process at once, or zero for no limit
+     */
+    protected FaasStreamObserver(
+        TriggerProcessor triggerProcessor,
+        AtomicReference<StreamObserver<ClientMessage>> clientObserver,
+        CountDownLatch finishedLatch,
+        Logger logger,
+        Executor executor,
+        int maxInFlight
     ) {
         this.triggerProcessor = triggerProcessor;
         this.clientObserver = clientObserver;
         this.finishedLatch = finishedLatch;
         this.logger = logger;
+        this.executor = (executor != null) ? executor : DIRECT_EXECUTOR;
+        this.maxInFlight = maxInFlight;
     }
 
     // Public Methods ---------------------------------------------------------
 
+    @Override
+    public void beforeStart(ClientCallStreamObserver<ClientMessage> requestStream) {
+        if (maxInFlight > 0) {
+            // Only buffer as many server messages as we have trigger slots for
+            requestStream.disableAutoRequestWithInitial(maxInFlight);
+            this.requestStream = requestStream;
+        }
+    }
+
     @Override
     public void onNext(ServerMessage serverMessage) {
         // We got a new message from the server
@@ -74,26 +128,16 @@ class FaasStreamObserver implements StreamObserver<ServerMessage> {
             case INIT_RESPONSE:
                 // We have an init ack from the membrane
                 // XXX: NO OP for now
+                requestNext();
                 break;
 
             case TRIGGER_REQUEST:
-                TriggerRequest request = serverMessage.getTriggerRequest();
-
-                TriggerResponse response = triggerProcessor.process(request);
-
-                if (response != null) {
-                    // Write back the response to the server
-                    clientObserver.get().onNext(
-                            ClientMessage
-                                    .newBuilder()
-                                    .setId(serverMessage.getId())
-                                    .setTriggerResponse(response)
-                                    .build());
-                }
+                dispatch(serverMessage.getId(), serverMessage.getTriggerRequest());
                 break;
 
             default:
                 logger.error("onNext() default case %s reached", serverMessage.getContentCase());
+                requestNext();
                 break;
         }
     }
@@ -119,4 +163,125 @@ class FaasStreamObserver implements StreamObserver<ServerMessage> {
         finishedLatch.countDown();
     }
 
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Write the given message to the client stream. Writes are serialized as gRPC stream observers are not
+     * thread safe, and messages are dropped once the client stream has completed.
+     *
+     * @param message the client message to write
+     */
+    void send(ClientMessage message) {
+        synchronized (writeLock) {
+            if (completed) {
+                logger.error("dropped message %s, client stream has completed", message.getId());
+                return;
+            }
+            clientObserver.get().onNext(message);
+        }
+    }
+
+    /**
+     * Complete the client stream.
+     */
+    void complete() {
+        synchronized (writeLock) {
+            if (!completed) {
+                completed = true;
+                clientObserver.get().onCompleted();
+            }
+        }
+    }
+
+    /**
+     * Request the next server message when using manual flow control.
+     */
+    void requestNext() {
+        if (requestStream != null) {
+            synchronized (writeLock) {
+                if (!completed) {
+                    requestStream.request(1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Dispatch the TriggerRequest to the executor for processing.
+     *
+     * @param id the server message id to correlate the response with
+     * @param request the trigger request to process
+     */
+    void dispatch(String id, TriggerRequest request) {
+        try {
+            executor.execute(() -> processTrigger(id, request));
+
+        } catch (RejectedExecutionException ree) {
+            try {
+                sendErrorResponse(id, request, ree);
+            } finally {
+                // Free the trigger slot
+                requestNext();
+            }
+        }
+    }
+
+    /**
+     * Process the TriggerRequest and write the response back to the server with the given message id, when
+     * the trigger processing stage completes.
+     *
+     * @param id the server message id to correlate the response with
+     * @param request the trigger request to process
+     */
+    void processTrigger(String id, TriggerRequest request) {
+        CompletionStage<TriggerResponse> stage;
+        try {
+            stage = triggerProcessor.processAsync(request);
+
+        } catch (Throwable error) {
+            stage = CompletableFuture.failedFuture(error);
+        }
+
+        stage.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    sendErrorResponse(id, request, error);
+
+                } else if (response != null) {
+                    // Write back the response to the server
+                    send(ClientMessage
+                            .newBuilder()
+                            .setId(id)
+                            .setTriggerResponse(response)
+                            .build());
+                }
+            } finally {
+                // Free the trigger slot
+                requestNext();
+            }
+        });
+    }
+
+    /**
+     * Write an error response back to the server with the given message id, so the membrane request does not wait
+     * for a response to a trigger which could not be processed.
+     *
+     * @param id the server message id to correlate the response with
+     * @param request the trigger request which could not be processed
+     * @param error the processing error
+     */
+    void sendErrorResponse(String id, TriggerRequest request, Throwable error) {
+        try {
+            send(ClientMessage
+                    .newBuilder()
+                    .setId(id)
+                    .setTriggerResponse(triggerProcessor.errorResponse(request, error))
+                    .build());
+
+        } catch (Throwable sendError) {
+            logger.error(error, "error processing trigger %s", id);
+            logger.error(sendError, "error sending trigger %s error response", id);
+        }
+    }
+
 }
\ No newline at end of file
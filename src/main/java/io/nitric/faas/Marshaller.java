@@ -20,15 +20,6 @@
 
 package io.nitric.faas;
 
-import java.sql.Array;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-
-import com.google.protobuf.ByteString;
-
 import io.nitric.faas.event.EventContext;
 import io.nitric.faas.http.HttpContext;
 import io.nitric.proto.faas.v1.HeaderValue;
@@ -65,8 +56,7 @@ public class Marshaller {
         var request = new EventContext.Request(
             trigger.getTopic().getTopic(),
             trigger.getMimeType(),
-            trigger.getData().toByteArray(),
-            null
+            trigger.getData()
         );
 
         var response = new EventContext.Response();
@@ -75,7 +65,8 @@ public class Marshaller {
     }
 
     /**
-     * Create a new HttpContext from the given GRPC HTTP TriggerRequest.
+     * Create a new HttpContext from the given GRPC HTTP TriggerRequest. The request headers and query parameters
+     * are read from the trigger on demand, rather than being copied up front.
      *
      * @param trigger the HTTP TriggerRequest (required)
      * @return a new HttpContext object
@@ -87,41 +78,7 @@ public class Marshaller {
             throw new IllegalArgumentException("trigger must be HTTP type: " + trigger);
         }
 
-        var http = trigger.getHttp();
-
-        // Marshall Proto HeaderValue into List<String> header values
-        final Map<String, List<String>> headers = new HashMap<>();
-        http.getHeadersMap().forEach((name, headerValue) -> {
-            List<String> valueList = headers.get(name);
-            if (valueList == null) {
-                valueList = new ArrayList<>();
-                headers.put(name, valueList);
-            }
-            for (int i = 0; i < headerValue.getValueCount(); i++) {
-                String value = headerValue.getValue(i);
-                if (!valueList.contains(value)) {
-                    valueList.add(value);
-                }
-            }
-        });
-
-        // Marshall Proto QueryParams into List<String>
-        final Map<String, List<String>> queryParams = new HashMap<>();
-        http.getQueryParamsMap().forEach((name, queryValue) -> {
-            var valueList = queryValue.getValueList().stream().collect(Collectors.toList());
-            queryParams.put(name, valueList);
-        });
-
-        var request = new HttpContext.Request(
-                http.getMethod(),
-                http.getPath(),
-                headers,
-                queryParams,
-                trigger.getMimeType(),
-                trigger.getData().toByteArray(),
-                null,
-                null
-        );
+        var request = new ProtoHttpRequest(trigger);
 
         var response = new HttpContext.Response();
 
@@ -139,8 +96,9 @@ public class Marshaller {
 
         var trBuilder = TriggerResponse.newBuilder();
 
-        if (response.getData() != null) {
-            trBuilder.setData(ByteString.copyFrom(response.getData()));
+        var data = response.getDataAsByteString();
+        if (data != null) {
+            trBuilder.setData(data);
         }
 
         var topicCtxBuilder = TopicResponseContext.newBuilder().setSuccess(response.isSuccess());
@@ -159,8 +117,9 @@ public class Marshaller {
     public static TriggerResponse toHttpTriggerResponse(HttpContext.Response response) {
         var trBuilder = TriggerResponse.newBuilder();
 
-        if (response.getData() != null) {
-            trBuilder.setData(ByteString.copyFrom(response.getData()));
+        var data = response.getDataAsByteString();
+        if (data != null) {
+            trBuilder.setData(data);
         }
 
         var httpCtxBuilder = HttpResponseContext.newBuilder();
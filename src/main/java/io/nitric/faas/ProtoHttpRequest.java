@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import io.nitric.faas.http.HttpContext;
+import io.nitric.proto.faas.v1.HeaderValue;
+import io.nitric.proto.faas.v1.HttpTriggerContext;
+import io.nitric.proto.faas.v1.TriggerRequest;
+import io.nitric.util.Contracts;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides a HTTP request backed directly by the GRPC HttpTriggerContext. The header and query parameter maps
+ * are only materialized on first access, and single value lookups read the proto maps without copying.
+ */
+class ProtoHttpRequest extends HttpContext.Request {
+
+    final HttpTriggerContext http;
+    volatile Map<String, List<String>> headerMap;
+    volatile Map<String, List<String>> queryParamMap;
+
+    // Constructors -----------------------------------------------------------
+
+    /**
+     * Create a new HTTP request from the given HTTP TriggerRequest.
+     *
+     * @param trigger the HTTP TriggerRequest (required)
+     */
+    ProtoHttpRequest(TriggerRequest trigger) {
+        super(
+            trigger.getHttp().getMethod(),
+            trigger.getHttp().getPath(),
+            null,
+            null,
+            trigger.getMimeType(),
+            trigger.getData()
+        );
+        this.http = trigger.getHttp();
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * Return the first HTTP header value for the given name, or null not found. The header name is matched
+     * exactly first, and then ignoring case.
+     *
+     * @param name the HTTP header name (required)
+     * @return the first HTTP header value for the given name, or null not found.
+     */
+    @Override
+    public String getHeader(String name) {
+        Contracts.requireNonBlank(name, "name");
+
+        var headerValue = http.getHeadersOrDefault(name, null);
+        if (headerValue == null) {
+            for (Map.Entry<String, HeaderValue> entry : http.getHeadersMap().entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    headerValue = entry.getValue();
+                    break;
+                }
+            }
+        }
+
+        return (headerValue != null && headerValue.getValueCount() > 0) ? headerValue.getValue(0) : null;
+    }
+
+    /**
+     * Return an immutable map of HTTP request header values, which is created on first access. Duplicate
+     * header values are removed.
+     *
+     * @return map of HTTP request header values
+     */
+    @Override
+    public Map<String, List<String>> getHeaders() {
+        var headers = headerMap;
+        if (headers == null) {
+            var map = new HashMap<String, List<String>>(capacity(http.getHeadersCount()));
+            http.getHeadersMap().forEach((name, headerValue) -> {
+                map.put(name, toValueList(headerValue.getValueList(), true));
+            });
+            headers = Collections.unmodifiableMap(map);
+            headerMap = headers;
+        }
+        return headers;
+    }
+
+    /**
+     * Return the first HTTP query parameter value for the given name, or null not found.
+     *
+     * @param name the HTTP query parameter name (required)
+     * @return the first HTTP query parameter value for the given name, or null not found.
+     */
+    @Override
+    public String getQueryParam(String name) {
+        Contracts.requireNonBlank(name, "name");
+
+        var queryValue = http.getQueryParamsOrDefault(name, null);
+        return (queryValue != null && queryValue.getValueCount() > 0) ? queryValue.getValue(0) : null;
+    }
+
+    /**
+     * Return an immutable map of HTTP request query parameters, which is created on first access.
+     *
+     * @return an immutable map of HTTP request query parameter values
+     */
+    @Override
+    public Map<String, List<String>> getQueryParams() {
+        var queryParams = queryParamMap;
+        if (queryParams == null) {
+            var map = new HashMap<String, List<String>>(capacity(http.getQueryParamsCount()));
+            http.getQueryParamsMap().forEach((name, queryValue) -> {
+                map.put(name, toValueList(queryValue.getValueList(), false));
+            });
+            queryParams = Collections.unmodifiableMap(map);
+            queryParamMap = queryParams;
+        }
+        return queryParams;
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private static List<String> toValueList(List<String> values, boolean distinct) {
+        if (distinct && values.size() > 1) {
+            return new ArrayList<>(new LinkedHashSet<>(values));
+        }
+        return new ArrayList<>(values);
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+}
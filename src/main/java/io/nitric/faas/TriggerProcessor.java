@@ -21,8 +21,10 @@
 package io.nitric.faas;
 
 import com.google.protobuf.ByteString;
+import io.nitric.faas.event.AsyncEventMiddleware;
 import io.nitric.faas.event.EventContext;
 import io.nitric.faas.event.EventMiddleware;
+import io.nitric.faas.http.AsyncHttpMiddleware;
 import io.nitric.faas.http.HttpContext;
 import io.nitric.faas.http.HttpMiddleware;
 import io.nitric.proto.faas.v1.HeaderValue;
@@ -35,9 +37,22 @@ import io.nitric.util.Contracts;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Provides a Nitric TriggerRequest processor class.
+ *
+ * <p>
+ * The middleware chains are built once when the middlewares are set, and are then shared by all requests. The
+ * chains are never modified after they are built, so triggers can be processed concurrently.
+ * </p>
+ *
+ * <p>
+ * The <code>processAsync()</code> method supports asynchronous middleware and handlers, completing the
+ * TriggerResponse when the middleware chain stage completes rather than blocking the calling thread.
+ * </p>
  */
 public class TriggerProcessor {
 
@@ -45,26 +60,34 @@ public class TriggerProcessor {
 
     List<EventMiddleware> eventMiddlewares;
     List<HttpMiddleware> httpMiddlewares;
+    volatile EventMiddleware eventMiddlewareChain;
+    volatile HttpMiddleware httpMiddlewareChain;
     Logger logger;
 
     // Protected --------------------------------------------------------------
 
     /**
-     * Set the Topic TriggerRequest EventMiddlewares.
+     * Set the Topic TriggerRequest EventMiddlewares and build the Event middleware chain.
      *
      * @param eventMiddlewares the list of Topic TriggerRequest EventMiddleware objects
      */
     protected void setEventMiddlewares(List<EventMiddleware> eventMiddlewares) {
         this.eventMiddlewares = eventMiddlewares;
+        this.eventMiddlewareChain = (eventMiddlewares != null && !eventMiddlewares.isEmpty())
+            ? buildEventMiddlewareChain()
+            : null;
     }
 
     /**
-     * Set the HTTP TriggerRequest HttpMiddlewares.
+     * Set the HTTP TriggerRequest HttpMiddlewares and build the HTTP middleware chain.
      *
      * @param httpMiddlewares the list of HTTP TriggerRequest HttpMiddleware objects
      */
     protected void setHttpMiddlewares(List<HttpMiddleware> httpMiddlewares) {
         this.httpMiddlewares = httpMiddlewares;
+        this.httpMiddlewareChain = (httpMiddlewares != null && !httpMiddlewares.isEmpty())
+            ? buildHttpMiddlewareChain()
+            : null;
     }
 
     /**
@@ -106,6 +129,36 @@ public class TriggerProcessor {
         }
     }
 
+    /**
+     * Process the given gRPC TriggerRequest asynchronously, returning a stage which completes with the
+     * TriggerResponse once the middleware chain completes.
+     *
+     * @param triggerRequest the gRPC TriggerRequest object (required)
+     * @return a stage completing with the gRPC TriggerResponse object
+     */
+    protected CompletionStage<TriggerResponse> processAsync(TriggerRequest triggerRequest) {
+        Contracts.requireNonNull(triggerRequest, "triggerRequest");
+
+        if (triggerRequest.hasHttp()) {
+            if (httpMiddlewares == null || httpMiddlewares.isEmpty()) {
+                throw new IllegalStateException("No HTTP handler or middlewares have been registered");
+            }
+
+            return processHttpTriggerAsync(triggerRequest);
+
+        } else if (triggerRequest.hasTopic()) {
+            if (eventMiddlewares == null || eventMiddlewares.isEmpty()) {
+                throw new IllegalStateException("No Event handler or middlewares have been registered");
+            }
+
+            return processTopicTriggerAsync(triggerRequest);
+
+        } else {
+            String msg = "Trigger type is not supported: " + triggerRequest;
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
     /**
      * Process the gRPC HTTP TriggerRequest and return a TriggerResponse.
      *
@@ -117,7 +170,7 @@ public class TriggerProcessor {
 
         var context = Marshaller.toHttpContext(triggerRequest);
 
-        var middleware = buildHttpMiddlewareChain();
+        var middleware = (httpMiddlewareChain != null) ? httpMiddlewareChain : buildHttpMiddlewareChain();
 
         try {
             var resultCtx = middleware.handle(context, middleware.getNext());
@@ -125,24 +178,31 @@ public class TriggerProcessor {
             return Marshaller.toHttpTriggerResponse(resultCtx.getResponse());
 
         } catch (Throwable error) {
-            logger.error(error,
-                    "error handling Trigger HTTP %s '%s' with: %s",
-                    context.getRequest().getMethod(),
-                    context.getRequest().getPath(),
-                    middlewareThreadLocal.get());
-
-            var httpContext = HttpResponseContext.newBuilder()
-                    .setStatus(500)
-                    .putHeaders("Content-Type", HeaderValue.newBuilder().addValue("text/plain").build())
-                    .build();
-
-            return TriggerResponse.newBuilder()
-                    .setHttp(httpContext)
-                    .setData(ByteString.copyFrom("Error occurred see logs for details.", StandardCharsets.UTF_8))
-                    .build();
+            return httpErrorResponse(context, error);
         }
     }
 
+    /**
+     * Process the gRPC HTTP TriggerRequest asynchronously and return a stage completing with the TriggerResponse.
+     *
+     * @param triggerRequest HTTP TriggerRequest (required)
+     * @return a stage completing with the HTTP TriggerResponse
+     */
+    protected CompletionStage<TriggerResponse> processHttpTriggerAsync(TriggerRequest triggerRequest) {
+        Contracts.requireNonNull(triggerRequest, "triggerRequest");
+
+        var context = Marshaller.toHttpContext(triggerRequest);
+
+        var middleware = (httpMiddlewareChain != null) ? httpMiddlewareChain : buildHttpMiddlewareChain();
+
+        return AsyncHttpMiddleware.invokeAsync(middleware, context).handle((resultCtx, error) -> {
+            if (error != null) {
+                return httpErrorResponse(context, error);
+            }
+            return Marshaller.toHttpTriggerResponse(resultCtx.getResponse());
+        });
+    }
+
     /**
      * Process the gRPC Topic TriggerRequest and return a Topic TriggerResponse.
      *
@@ -154,7 +214,7 @@ public class TriggerProcessor {
 
         var context = Marshaller.toEventContext(triggerRequest);
 
-        var middleware = buildEventMiddlewareChain();
+        var middleware = (eventMiddlewareChain != null) ? eventMiddlewareChain : buildEventMiddlewareChain();
 
         try {
             var resultCtx = middleware.handle(context, middleware.getNext());
@@ -162,69 +222,198 @@ public class TriggerProcessor {
             return Marshaller.toTopicTriggerResponse(resultCtx.getResponse());
 
         } catch (Throwable error) {
-            logger.error(error,
-                    "error handling Trigger Topic '%s' with: %s",
-                    context.getRequest().getTopic(),
-                    middlewareThreadLocal.get());
-
-            return TriggerResponse.newBuilder()
-                    .setTopic(TopicResponseContext.newBuilder().setSuccess(false))
-                    .build();
+            return topicErrorResponse(context, error);
         }
     }
 
     /**
-     * Build a EventMiddleware chain from the configured eventMiddlewares, or null if none defined.
+     * Process the gRPC Topic TriggerRequest asynchronously and return a stage completing with the Topic
+     * TriggerResponse.
+     *
+     * @param triggerRequest Topic TriggerRequest (required)
+     * @return a stage completing with the Topic TriggerResponse
+     */
+    protected CompletionStage<TriggerResponse> processTopicTriggerAsync(TriggerRequest triggerRequest) {
+        Contracts.requireNonNull(triggerRequest, "triggerRequest");
+
+        var context = Marshaller.toEventContext(triggerRequest);
+
+        var middleware = (eventMiddlewareChain != null) ? eventMiddlewareChain : buildEventMiddlewareChain();
+
+        return AsyncEventMiddleware.invokeAsync(middleware, context).handle((resultCtx, error) -> {
+            if (error != null) {
+                return topicErrorResponse(context, error);
+            }
+            return Marshaller.toTopicTriggerResponse(resultCtx.getResponse());
+        });
+    }
+
+    /**
+     * Build a EventMiddleware chain from the configured eventMiddlewares. The chain is built from the last
+     * middleware to the first, so each wrapper is fully linked when it is created.
      *
      * @return a new EventMiddleware chain from the configured eventMiddlewares.
      */
     protected EventMiddleware buildEventMiddlewareChain() {
         if (eventMiddlewares == null || eventMiddlewares.isEmpty()) {
-            throw new IllegalStateException("no httpMiddlewares have been configured");
+            throw new IllegalStateException("no eventMiddlewares have been configured");
         }
 
-        EventMiddleware firstMiddleware = new EventMiddlewareWrapper(eventMiddlewares.get(0));
-
-        var middleware = firstMiddleware;
+        EventMiddleware middleware = null;
 
-        for (int i = 1; i < eventMiddlewares.size(); i++) {
-            var next = new EventMiddlewareWrapper(eventMiddlewares.get(i));
-            middleware.setNext(next);
-            middleware = next;
+        for (int i = eventMiddlewares.size() - 1; i >= 0; i--) {
+            middleware = new EventMiddlewareWrapper(eventMiddlewares.get(i), middleware);
         }
 
-        return firstMiddleware;
+        return middleware;
     }
 
     /**
-     * Build a HttpMiddleware chain from the configured eventMiddlewares, or null if none defined.
+     * Build a HttpMiddleware chain from the configured httpMiddlewares. The chain is built from the last
+     * middleware to the first, so each wrapper is fully linked when it is created.
      *
-     * @return a new HttpMiddleware chain from the configured eventMiddlewares.
+     * @return a new HttpMiddleware chain from the configured httpMiddlewares.
      */
     protected HttpMiddleware buildHttpMiddlewareChain() {
         if (httpMiddlewares == null || httpMiddlewares.isEmpty()) {
             throw new IllegalStateException("no httpMiddlewares have been configured");
         }
 
-        HttpMiddleware firstMiddleware = new HttpMiddlewareWrapper(httpMiddlewares.get(0));
+        HttpMiddleware middleware = null;
+
+        for (int i = httpMiddlewares.size() - 1; i >= 0; i--) {
+            middleware = new HttpMiddlewareWrapper(httpMiddlewares.get(i), middleware);
+        }
+
+        return middleware;
+    }
+
+    // Package Private Methods ------------------------------------------------------
+
+    /**
+     * Return an error TriggerResponse for a TriggerRequest which could not be processed, an HTTP 500 response for
+     * HTTP triggers, or an unsuccessful Topic response otherwise. The error is logged.
+     *
+     * @param triggerRequest the TriggerRequest which could not be processed (required)
+     * @param error the processing error (required)
+     * @return the error TriggerResponse
+     */
+    TriggerResponse errorResponse(TriggerRequest triggerRequest, Throwable error) {
+        if (triggerRequest.hasHttp()) {
+            return httpErrorResponse(Marshaller.toHttpContext(triggerRequest), error);
+
+        } else if (triggerRequest.hasTopic()) {
+            return topicErrorResponse(Marshaller.toEventContext(triggerRequest), error);
+
+        } else {
+            logger.error(unwrap(error), "error handling Trigger");
+
+            return TriggerResponse.newBuilder()
+                    .setTopic(TopicResponseContext.newBuilder().setSuccess(false))
+                    .build();
+        }
+    }
+
+    // Private Methods --------------------------------------------------------------
+
+    private TriggerResponse httpErrorResponse(HttpContext context, Throwable error) {
+        var cause = unwrap(error);
+        logger.error(cause,
+                "error handling Trigger HTTP %s '%s' with: %s",
+                context.getRequest().getMethod(),
+                context.getRequest().getPath(),
+                middlewareName(error));
+
+        var httpContext = HttpResponseContext.newBuilder()
+                .setStatus(500)
+                .putHeaders("Content-Type", HeaderValue.newBuilder().addValue("text/plain").build())
+                .build();
+
+        return TriggerResponse.newBuilder()
+                .setHttp(httpContext)
+                .setData(ByteString.copyFrom("Error occurred see logs for details.", StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private TriggerResponse topicErrorResponse(EventContext context, Throwable error) {
+        logger.error(unwrap(error),
+                "error handling Trigger Topic '%s' with: %s",
+                context.getRequest().getTopic(),
+                middlewareName(error));
+
+        return TriggerResponse.newBuilder()
+                .setTopic(TopicResponseContext.newBuilder().setSuccess(false))
+                .build();
+    }
+
+    /**
+     * Return the name of the middleware which raised the given error. Errors raised asynchronously are tagged
+     * with the middleware name by the middleware wrappers, otherwise the name is read from the thread local.
+     */
+    private static String middlewareName(Throwable error) {
+        var cause = unwrapCompletion(error);
+        if (cause instanceof MiddlewareException) {
+            return ((MiddlewareException) cause).middleware;
+        }
+        return middlewareThreadLocal.get();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        var cause = unwrapCompletion(error);
+        return (cause instanceof MiddlewareException) ? cause.getCause() : cause;
+    }
 
-        var middleware = firstMiddleware;
+    private static Throwable unwrapCompletion(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
 
-        for (int i = 1; i < httpMiddlewares.size(); i++) {
-            var next = new HttpMiddlewareWrapper(httpMiddlewares.get(i));
-            middleware.setNext(next);
-            middleware = next;
+    /**
+     * Complete the given middleware stage, tagging errors with the middleware name and rejecting null contexts.
+     */
+    private static <T> CompletionStage<T> completeMiddleware(CompletionStage<T> stage, String middleware) {
+        if (stage == null) {
+            return CompletableFuture.failedFuture(
+                new MiddlewareException(middleware, new IllegalStateException("invoked handleAsync() returned null"))
+            );
         }
 
-        return firstMiddleware;
+        return stage.handle((resultCtx, error) -> {
+            if (error != null) {
+                var cause = unwrapCompletion(error);
+                if (cause instanceof MiddlewareException) {
+                    throw (MiddlewareException) cause;
+                }
+                throw new MiddlewareException(middleware, cause);
+            }
+            if (resultCtx == null) {
+                throw new MiddlewareException(
+                    middleware, new IllegalStateException("invoked handle() method returned null context")
+                );
+            }
+            return resultCtx;
+        });
     }
 
     // Inner Classes -----------------------------------------------------------------
 
+    /**
+     * Provides an exception tagging an asynchronous middleware error with the name of the middleware which
+     * raised it, as the middleware thread local is not available when stages complete on other threads.
+     */
+    static class MiddlewareException extends RuntimeException {
+
+        final String middleware;
+
+        MiddlewareException(String middleware, Throwable cause) {
+            super(cause.toString(), cause, false, false);
+            this.middleware = middleware;
+        }
+    }
+
     /**
      * Provides an EventMiddleware wrapper to accurately report processing errors.
      */
-    public static class EventMiddlewareWrapper extends EventMiddleware {
+    public static class EventMiddlewareWrapper extends AsyncEventMiddleware {
 
         final EventMiddleware target;
 
@@ -234,8 +423,19 @@ public class TriggerProcessor {
          * @param target the target middleware to process (required)
          */
         public EventMiddlewareWrapper(EventMiddleware target) {
+            this(target, null);
+        }
+
+        /**
+         * Create new EventMiddleware wrapper object with given target and next middleware.
+         *
+         * @param target the target middleware to process (required)
+         * @param next the next middleware in the chain, or null if the target is the last middleware
+         */
+        public EventMiddlewareWrapper(EventMiddleware target, EventMiddleware next) {
             Contracts.requireNonNull(target, "target");
             this.target = target;
+            this.next = next;
         }
 
         /**
@@ -248,12 +448,7 @@ public class TriggerProcessor {
         @Override
         public EventContext handle(EventContext context, EventMiddleware next) {
             // Stash the target name for error reporting
-            if (target instanceof EventMiddleware.HandlerAdapter) {
-                var adapter = (EventMiddleware.HandlerAdapter) target;
-                middlewareThreadLocal.set(adapter.getHandler().getClass().getName());
-            } else {
-                middlewareThreadLocal.set(target.getClass().getName());
-            }
+            middlewareThreadLocal.set(getTargetName());
 
             var resultCtx = target.handle(context, next);
             if (resultCtx == null) {
@@ -263,6 +458,37 @@ public class TriggerProcessor {
             return resultCtx;
         }
 
+        /**
+         * Handle the Event request asynchronously delegating to the target middleware. Errors are tagged with
+         * the target name for error reporting.
+         *
+         * @param context the Event request/response context
+         * @param next the next Event Middleware handler to invoke in the chain
+         * @return a stage completing with the processed Event context
+         */
+        @Override
+        public CompletionStage<EventContext> handleAsync(EventContext context, EventMiddleware next) {
+            var targetName = getTargetName();
+            middlewareThreadLocal.set(targetName);
+
+            CompletionStage<EventContext> stage;
+            try {
+                if (target instanceof AsyncEventMiddleware) {
+                    stage = ((AsyncEventMiddleware) target).handleAsync(context, next);
+                } else {
+                    stage = CompletableFuture.completedFuture(target.handle(context, next));
+                }
+
+            } catch (Throwable error) {
+                // Synchronous errors are reported against the innermost middleware invoked on this thread
+                stage = CompletableFuture.failedFuture((error instanceof MiddlewareException)
+                    ? error
+                    : new MiddlewareException(middlewareThreadLocal.get(), error));
+            }
+
+            return completeMiddleware(stage, targetName);
+        }
+
         /**
          * Return the wrapped target middleware.
          *
@@ -271,12 +497,27 @@ public class TriggerProcessor {
         public EventMiddleware getTarget() {
             return target;
         }
+
+        /**
+         * Return the wrapped target handler or middleware class name, for error reporting.
+         *
+         * @return the wrapped target handler or middleware class name
+         */
+        String getTargetName() {
+            if (target instanceof EventMiddleware.HandlerAdapter) {
+                return ((EventMiddleware.HandlerAdapter) target).getHandler().getClass().getName();
+            }
+            if (target instanceof AsyncEventMiddleware.HandlerAdapter) {
+                return ((AsyncEventMiddleware.HandlerAdapter) target).getHandler().getClass().getName();
+            }
+            return target.getClass().getName();
+        }
     }
 
     /**
      * Provides an HttpMiddleware wrapper to accurately report processing errors.
      */
-    public static class HttpMiddlewareWrapper extends HttpMiddleware {
+    public static class HttpMiddlewareWrapper extends AsyncHttpMiddleware {
 
         final HttpMiddleware target;
 
@@ -286,8 +527,19 @@ public class TriggerProcessor {
          * @param target the target middleware to process (required)
          */
         public HttpMiddlewareWrapper(HttpMiddleware target) {
+            this(target, null);
+        }
+
+        /**
+         * Create new HttpMiddleware wrapper object with given target and next middleware.
+         *
+         * @param target the target middleware to process (required)
+         * @param next the next middleware in the chain, or null if the target is the last middleware
+         */
+        public HttpMiddlewareWrapper(HttpMiddleware target, HttpMiddleware next) {
             Contracts.requireNonNull(target, "target");
             this.target = target;
+            this.next = next;
         }
 
         /**
@@ -300,12 +552,7 @@ public class TriggerProcessor {
         @Override
         public HttpContext handle(HttpContext context, HttpMiddleware next) {
             // Stash the target name for error reporting
-            if (target instanceof HttpMiddleware.HandlerAdapter) {
-                var adapter = (HttpMiddleware.HandlerAdapter) target;
-                middlewareThreadLocal.set(adapter.getHandler().getClass().getName());
-            } else {
-                middlewareThreadLocal.set(target.getClass().getName());
-            }
+            middlewareThreadLocal.set(getTargetName());
 
             var resultCtx = target.handle(context, next);
             if (resultCtx == null) {
@@ -315,6 +562,37 @@ public class TriggerProcessor {
             return resultCtx;
         }
 
+        /**
+         * Handle the HTTP request asynchronously delegating to the target middleware. Errors are tagged with
+         * the target name for error reporting.
+         *
+         * @param context the HTTP request/response context
+         * @param next the next HttpMiddleware handler to invoke in the chain
+         * @return a stage completing with the processed HTTP context
+         */
+        @Override
+        public CompletionStage<HttpContext> handleAsync(HttpContext context, HttpMiddleware next) {
+            var targetName = getTargetName();
+            middlewareThreadLocal.set(targetName);
+
+            CompletionStage<HttpContext> stage;
+            try {
+                if (target instanceof AsyncHttpMiddleware) {
+                    stage = ((AsyncHttpMiddleware) target).handleAsync(context, next);
+                } else {
+                    stage = CompletableFuture.completedFuture(target.handle(context, next));
+                }
+
+            } catch (Throwable error) {
+                // Synchronous errors are reported against the innermost middleware invoked on this thread
+                stage = CompletableFuture.failedFuture((error instanceof MiddlewareException)
+                    ? error
+                    : new MiddlewareException(middlewareThreadLocal.get(), error));
+            }
+
+            return completeMiddleware(stage, targetName);
+        }
+
         /**
          * Return the wrapped target middleware.
          *
@@ -323,6 +601,21 @@ public class TriggerProcessor {
         public HttpMiddleware getTarget() {
             return target;
         }
+
+        /**
+         * Return the wrapped target handler or middleware class name, for error reporting.
+         *
+         * @return the wrapped target handler or middleware class name
+         */
+        String getTargetName() {
+            if (target instanceof HttpMiddleware.HandlerAdapter) {
+                return ((HttpMiddleware.HandlerAdapter) target).getHandler().getClass().getName();
+            }
+            if (target instanceof AsyncHttpMiddleware.HandlerAdapter) {
+                return ((AsyncHttpMiddleware.HandlerAdapter) target).getHandler().getClass().getName();
+            }
+            return target.getClass().getName();
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas.event;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>
+ * Provides an asynchronous Event Handler interface. The trigger response is sent when the returned stage
+ * completes, so the handler does not need to block a thread while waiting on other services.
+ * </p>
+ *
+ * <pre><code class="code">
+ * new Faas()
+ *     .eventAsync(context -&gt; {
+ *         var saved = orderService.saveAsync(context.getRequest().getDataAsText());
+ *
+ *         return saved.thenApply(order -&gt; {
+ *             context.getResponse().success(true);
+ *             return context;
+ *         });
+ *     })
+ *     .start();
+ * </code></pre>
+ *
+ * @see EventContext
+ * @see AsyncEventMiddleware
+ */
+public interface AsyncEventHandler {
+
+    /**
+     * Handle the event asynchronously.
+     *
+     * @param context the event/response context
+     * @return a stage completing with the EventContext response
+     */
+    public CompletionStage<EventContext> handle(EventContext context);
+
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas.event;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import io.nitric.util.Contracts;
+
+/**
+ * <p>
+ * Provides an asynchronous Event Middleware handler class. Async middleware return a stage which completes with
+ * the context, and should invoke the next middleware in the chain with <code>invokeAsync(next, context)</code>.
+ * </p>
+ *
+ * <p>
+ * Async middleware can be mixed with synchronous middleware in the same chain. When an async middleware is
+ * invoked through the synchronous <code>handle()</code> method, the calling thread waits for the stage to complete.
+ * </p>
+ *
+ * <pre><code class="code">
+ * public class AuditMiddleware extends AsyncEventMiddleware {
+ *
+ *     public CompletionStage&lt;EventContext&gt; handleAsync(EventContext context, EventMiddleware next) {
+ *         return auditService.recordAsync(context)
+ *             .thenCompose(id -&gt; invokeAsync(next, context));
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @see EventContext
+ * @see AsyncEventHandler
+ */
+public abstract class AsyncEventMiddleware extends EventMiddleware {
+
+    /**
+     * Handle the Event asynchronously and invoke the next handler in the chain.
+     *
+     * @param context the Event request/response context
+     * @param next the next EventMiddleware handler to invoke in the chain
+     * @return a stage completing with the context object returned by the next handler
+     */
+    public abstract CompletionStage<EventContext> handleAsync(EventContext context, EventMiddleware next);
+
+    /**
+     * Handle the Event and invoke the next handler in the chain, waiting for the
+     * <code>handleAsync()</code> stage to complete.
+     *
+     * @param context the Event request/response context
+     * @param next the next EventMiddleware handler to invoke in the chain
+     * @return the context object returned by the next handler
+     */
+    @Override
+    public EventContext handle(EventContext context, EventMiddleware next) {
+        try {
+            return handleAsync(context, next).toCompletableFuture().join();
+
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ce.getCause();
+            }
+            if (ce.getCause() instanceof Error) {
+                throw (Error) ce.getCause();
+            }
+            throw ce;
+        }
+    }
+
+    /**
+     * Invoke the given middleware with its next middleware asynchronously. Synchronous middleware are invoked on
+     * the calling thread, and their result or error returned as a completed stage.
+     *
+     * @param middleware the middleware to invoke (required)
+     * @param context the Event request/response context
+     * @return a stage completing with the context object returned by the middleware
+     */
+    public static CompletionStage<EventContext> invokeAsync(EventMiddleware middleware, EventContext context) {
+        Contracts.requireNonNull(middleware, "middleware");
+
+        try {
+            if (middleware instanceof AsyncEventMiddleware) {
+                return ((AsyncEventMiddleware) middleware).handleAsync(context, middleware.getNext());
+            }
+            return CompletableFuture.completedFuture(middleware.handle(context, middleware.getNext()));
+
+        } catch (Throwable error) {
+            return CompletableFuture.failedFuture(error);
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides an AsyncEventHandler to EventMiddleware adapter class.
+     */
+    public static class HandlerAdapter extends AsyncEventMiddleware {
+
+        /** The AsyncEventHandler to adapt. */
+        protected final AsyncEventHandler handler;
+
+        /**
+         * Create a new EventMiddleware adapter from the given AsyncEventHandler object.
+         *
+         * @param handler the AsyncEventHandler to adapt to middleware
+         */
+        public HandlerAdapter(AsyncEventHandler handler) {
+            Contracts.requireNonNull(handler, "handler");
+
+            this.handler = handler;
+        }
+
+        /**
+         * Handle the Event asynchronously and invoke the next handler in the chain when the handler stage
+         * completes.
+         *
+         * @param context the Event request/response context
+         * @param next the next EventMiddleware handler to invoke in the chain
+         * @return a stage completing with the context object returned by the next handler
+         */
+        @Override
+        public CompletionStage<EventContext> handleAsync(EventContext context, EventMiddleware next) {
+            var stage = handler.handle(context);
+            if (stage == null) {
+                throw new IllegalStateException("invoked handle() method returned null stage");
+            }
+
+            return stage.thenCompose(ctx -> invokeAsync(next, ctx));
+        }
+
+        /**
+         * Return the wrapped AsyncEventHandler object.
+         *
+         * @return the wrapped AsyncEventHandler object
+         */
+        public AsyncEventHandler getHandler() {
+            return handler;
+        }
+    }
+
+}
@@ -20,11 +20,15 @@
 
 package io.nitric.faas.event;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.nitric.util.Contracts;
 
 /**
@@ -177,6 +181,7 @@ public class EventContext {
         String topic;
         String mimeType;
         byte[] data;
+        ByteString body;
         Map<String, Object> extras;
 
         /**
@@ -209,6 +214,19 @@ public class EventContext {
          */
         public Builder data(byte[] data) {
             this.data = data;
+            this.body = null;
+            return this;
+        }
+
+        /**
+         * Set the Event request body data, without copying.
+         *
+         * @param data the Event request body data
+         * @return this chainable builder object
+         */
+        public Builder data(ByteString data) {
+            this.data = null;
+            this.body = data;
             return this;
         }
 
@@ -223,6 +241,7 @@ public class EventContext {
             Contracts.requireNonBlank(text, "text");
 
             this.data = text.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
             return this;
         }
 
@@ -252,7 +271,7 @@ public class EventContext {
          * @return a new EventContext object
          */
         public EventContext build() {
-            var request = new EventContext.Request(topic, mimeType, data, extras);
+            var request = new EventContext.Request(topic, mimeType, data, body, extras);
             var response = new EventContext.Response();
             return new EventContext(request, response);
         }
@@ -260,12 +279,19 @@ public class EventContext {
 
     /**
      * Provides a Event request object.
+     *
+     * <p>
+     * The request data is held as a protobuf <code>ByteString</code>, which can be read without copying using
+     * <code>getDataAsByteString()</code>, <code>getDataAsByteBuffer()</code> or <code>getDataAsStream()</code>.
+     * The <code>getData()</code> method copies the data into a byte array on first access.
+     * </p>
      */
     public static class Request {
 
         final String topic;
         final String mimeType;
-        final byte[] data;
+        final ByteString body;
+        volatile byte[] data;
         final Map<String, Object> extras;
 
         // Constructors -----------------------------------------------------------
@@ -278,9 +304,25 @@ public class EventContext {
          * @param extras the request extra attributes
          */
         public Request(String topic, String mimeType, byte[] data,  Map<String, Object> extras) {
+            this(topic, mimeType, data, null, extras);
+        }
+
+        /**
+         * Create a new Request object with the given event data, which is not copied.
+         *
+         * @param topic the event topic
+         * @param mimeType the event mime-type
+         * @param data the event request data
+         */
+        public Request(String topic, String mimeType, ByteString data) {
+            this(topic, mimeType, null, data, null);
+        }
+
+        private Request(String topic, String mimeType, byte[] data, ByteString body, Map<String, Object> extras) {
             this.topic = topic;
             this.mimeType = mimeType;
             this.data = data;
+            this.body = (body == null && data != null) ? UnsafeByteOperations.unsafeWrap(data) : body;
             this.extras = (extras != null) ? Collections.unmodifiableMap(extras) : Collections.emptyMap();
         }
 
@@ -305,12 +347,47 @@ public class EventContext {
         }
 
         /**
-         * Get the trigger data.
+         * Get the trigger data. The data is copied into the returned array on first access, use
+         * <code>getDataAsByteString()</code>, <code>getDataAsByteBuffer()</code> or <code>getDataAsStream()</code>
+         * to avoid copying large payloads.
          *
          * @return the data of the trigger
          */
         public byte[] getData() {
-            return this.data;
+            var bytes = data;
+            if (bytes == null && body != null) {
+                bytes = body.toByteArray();
+                data = bytes;
+            }
+            return bytes;
+        }
+
+        /**
+         * Get the trigger data as a ByteString, without copying. If no data is present an empty ByteString will be
+         * returned.
+         *
+         * @return the trigger data as a ByteString
+         */
+        public ByteString getDataAsByteString() {
+            return (body != null) ? body : ByteString.EMPTY;
+        }
+
+        /**
+         * Get a read-only ByteBuffer view of the trigger data, without copying.
+         *
+         * @return a read-only ByteBuffer view of the trigger data
+         */
+        public ByteBuffer getDataAsByteBuffer() {
+            return getDataAsByteString().asReadOnlyByteBuffer();
+        }
+
+        /**
+         * Get a new InputStream reading the trigger data, without copying.
+         *
+         * @return a new InputStream reading the trigger data
+         */
+        public InputStream getDataAsStream() {
+            return getDataAsByteString().newInput();
         }
 
         /**
@@ -319,7 +396,7 @@ public class EventContext {
          * @return the trigger data as UTF-8 encode text, or an empty string if not defined
          */
         public String getDataAsText() {
-            return (data != null) ? new String(data, StandardCharsets.UTF_8) : "";
+            return (body != null) ? body.toStringUtf8() : "";
         }
 
         /**
@@ -340,7 +417,7 @@ public class EventContext {
         @Override
         public String toString() {
             String dataSample = "";
-            if (data != null) {
+            if (body != null) {
                 dataSample = getDataAsText();
                 if (dataSample.length() > 40) {
                     dataSample = dataSample.substring(0, 40) + "...";
@@ -362,6 +439,7 @@ public class EventContext {
 
         boolean success = true;
         byte[] data;
+        ByteString body;
 
         // Constructors -----------------------------------------------------------
 
@@ -377,6 +455,7 @@ public class EventContext {
         public Response(Response response) {
             success = response.isSuccess();
             data = response.data;
+            body = response.body;
         }
 
         // Public Methods ---------------------------------------------------------
@@ -400,31 +479,75 @@ public class EventContext {
         }
 
         /**
-         * Return the response data, or null if not defined.
+         * Return the response data, or null if not defined. Data set as a ByteString or ByteBuffer is copied
+         * into the returned array.
          *
          * @return the response data, or null if not defined
          */
         public byte[] getData() {
+            if (data == null && body != null) {
+                data = body.toByteArray();
+            }
             return data;
         }
 
+        /**
+         * Return the response data as a ByteString without copying, or null if not defined.
+         *
+         * @return the response data as a ByteString, or null if not defined
+         */
+        public ByteString getDataAsByteString() {
+            if (body != null) {
+                return body;
+            }
+            return (data != null) ? UnsafeByteOperations.unsafeWrap(data) : null;
+        }
+
         /**
          * Get the data contained in the response as UTF-8 encode text, or null if not define.
          *
          * @return the response data as UTF-8 encoded text, or null if not defined
          */
         public String getDataAsText() {
-            return (data != null) ? new String(data, StandardCharsets.UTF_8) : null;
+            var bytes = getDataAsByteString();
+            return (bytes != null) ? bytes.toStringUtf8() : null;
         }
 
         /**
-         * Set the data for this response.
+         * Set the data for this response. The array is not copied when the response is sent, so it must not be
+         * modified after the handler returns.
          *
          * @param data The data as an array of bytes
          * @return this chainable Response object
          */
         public Response data(byte[] data) {
             this.data = data;
+            this.body = null;
+            return this;
+        }
+
+        /**
+         * Set the data for this response, without copying.
+         *
+         * @param data the response data
+         * @return this chainable Response object
+         */
+        public Response data(ByteString data) {
+            this.data = null;
+            this.body = data;
+            return this;
+        }
+
+        /**
+         * Set the data for this response from the remaining bytes of the given buffer, without copying. The
+         * buffer must not be modified after the handler returns.
+         *
+         * @param data the response data buffer
+         * @return this chainable Response object
+         */
+        public Response data(ByteBuffer data) {
+            this.data = null;
+            this.body = (data != null) ? UnsafeByteOperations.unsafeWrap(data) : null;
             return this;
         }
 
@@ -437,6 +560,7 @@ public class EventContext {
         public Response text(String text) {
             Contracts.requireNonNull(text, "text");
             this.data = text.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
             return this;
         }
 
@@ -456,6 +580,7 @@ public class EventContext {
 
             var resp = String.format(text, args);
             this.data = resp.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
 
             return this;
         }
@@ -468,7 +593,7 @@ public class EventContext {
         @Override
         public String toString() {
             String dataSample = "null";
-            if (data != null) {
+            if (data != null || body != null) {
                 dataSample = getDataAsText();
                 if (dataSample.length() > 40) {
                     dataSample = dataSample.substring(0, 40) + "...";
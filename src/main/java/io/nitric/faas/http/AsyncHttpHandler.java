@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas.http;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * <p>
+ * Provides an asynchronous HTTP Handler interface. The trigger response is sent when the returned stage
+ * completes, so the handler does not need to block a thread while waiting on other services.
+ * </p>
+ *
+ * <pre><code class="code">
+ * new Faas()
+ *     .httpAsync(context -&gt; {
+ *         var customer = customerService.findAsync(context.getRequest().getQueryParam("id"));
+ *
+ *         return customer.thenApply(c -&gt; {
+ *             context.getResponse().text("Customer: %s", c);
+ *             return context;
+ *         });
+ *     })
+ *     .start();
+ * </code></pre>
+ *
+ * @see HttpContext
+ * @see AsyncHttpMiddleware
+ */
+public interface AsyncHttpHandler {
+
+    /**
+     * Handle the HTTP request asynchronously.
+     *
+     * @param context the HTTP request/response context
+     * @return a stage completing with the HttpContext response
+     */
+    public CompletionStage<HttpContext> handle(HttpContext context);
+
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import io.nitric.util.Contracts;
+
+/**
+ * <p>
+ * Provides an asynchronous HTTP Middleware handler class. Async middleware return a stage which completes with
+ * the context, and should invoke the next middleware in the chain with <code>invokeAsync(next, context)</code>.
+ * </p>
+ *
+ * <p>
+ * Async middleware can be mixed with synchronous middleware in the same chain. When an async middleware is
+ * invoked through the synchronous <code>handle()</code> method, the calling thread waits for the stage to complete.
+ * </p>
+ *
+ * <pre><code class="code">
+ * public class AuditMiddleware extends AsyncHttpMiddleware {
+ *
+ *     public CompletionStage&lt;HttpContext&gt; handleAsync(HttpContext context, HttpMiddleware next) {
+ *         return auditService.recordAsync(context)
+ *             .thenCompose(id -&gt; invokeAsync(next, context));
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @see HttpContext
+ * @see AsyncHttpHandler
+ */
+public abstract class AsyncHttpMiddleware extends HttpMiddleware {
+
+    /**
+     * Handle the Http Request asynchronously and invoke the next handler in the chain.
+     *
+     * @param context the HTTP request/response context
+     * @param next the next HttpMiddleware handler to invoke in the chain
+     * @return a stage completing with the context object returned by the next handler
+     */
+    public abstract CompletionStage<HttpContext> handleAsync(HttpContext context, HttpMiddleware next);
+
+    /**
+     * Handle the Http Request and invoke the next handler in the chain, waiting for the
+     * <code>handleAsync()</code> stage to complete.
+     *
+     * @param context the HTTP request/response context
+     * @param next the next HttpMiddleware handler to invoke in the chain
+     * @return the context object returned by the next handler
+     */
+    @Override
+    public HttpContext handle(HttpContext context, HttpMiddleware next) {
+        try {
+            return handleAsync(context, next).toCompletableFuture().join();
+
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ce.getCause();
+            }
+            if (ce.getCause() instanceof Error) {
+                throw (Error) ce.getCause();
+            }
+            throw ce;
+        }
+    }
+
+    /**
+     * Invoke the given middleware with its next middleware asynchronously. Synchronous middleware are invoked on
+     * the calling thread, and their result or error returned as a completed stage.
+     *
+     * @param middleware the middleware to invoke (required)
+     * @param context the HTTP request/response context
+     * @return a stage completing with the context object returned by the middleware
+     */
+    public static CompletionStage<HttpContext> invokeAsync(HttpMiddleware middleware, HttpContext context) {
+        Contracts.requireNonNull(middleware, "middleware");
+
+        try {
+            if (middleware instanceof AsyncHttpMiddleware) {
+                return ((AsyncHttpMiddleware) middleware).handleAsync(context, middleware.getNext());
+            }
+            return CompletableFuture.completedFuture(middleware.handle(context, middleware.getNext()));
+
+        } catch (Throwable error) {
+            return CompletableFuture.failedFuture(error);
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides an AsyncHttpHandler to HttpMiddleware adapter class.
+     */
+    public static class HandlerAdapter extends AsyncHttpMiddleware {
+
+        /** The AsyncHttpHandler to adapt. */
+        protected final AsyncHttpHandler handler;
+
+        /**
+         * Create a new HttpMiddleware adapter from the given AsyncHttpHandler object.
+         *
+         * @param handler the AsyncHttpHandler to adapt to middleware
+         */
+        public HandlerAdapter(AsyncHttpHandler handler) {
+            Contracts.requireNonNull(handler, "handler");
+
+            this.handler = handler;
+        }
+
+        /**
+         * Handle the Http Request asynchronously and invoke the next handler in the chain when the handler stage
+         * completes.
+         *
+         * @param context the HTTP request/response context
+         * @param next the next HttpMiddleware handler to invoke in the chain
+         * @return a stage completing with the context object returned by the next handler
+         */
+        @Override
+        public CompletionStage<HttpContext> handleAsync(HttpContext context, HttpMiddleware next) {
+            var stage = handler.handle(context);
+            if (stage == null) {
+                throw new IllegalStateException("invoked handle() method returned null stage");
+            }
+
+            return stage.thenCompose(ctx -> invokeAsync(next, ctx));
+        }
+
+        /**
+         * Return the wrapped AsyncHttpHandler object.
+         *
+         * @return the wrapped AsyncHttpHandler object
+         */
+        public AsyncHttpHandler getHandler() {
+            return handler;
+        }
+    }
+
+}
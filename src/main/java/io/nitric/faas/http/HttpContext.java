@@ -20,8 +20,12 @@
 
 package io.nitric.faas.http;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
 import io.nitric.util.Contracts;
 
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -185,6 +189,7 @@ public class HttpContext {
         Map<String, List<String>> queryParams = new HashMap<>();
         String mimeType;
         byte[] data;
+        ByteString body;
         Map<String, String> pathParams;
         Map<String, Object> extras;
 
@@ -203,6 +208,7 @@ public class HttpContext {
             queryParams.putAll(request.getQueryParams());
             mimeType = request.mimeType;
             data = request.data;
+            body = request.body;
             pathParams = request.pathParams;
             extras = request.extras;
             return this;
@@ -299,6 +305,19 @@ public class HttpContext {
          */
         public Builder data(byte[] data) {
             this.data = data;
+            this.body = null;
+            return this;
+        }
+
+        /**
+         * Set the HTTP request body data, without copying.
+         *
+         * @param data the HTTP request body data
+         * @return this chainable builder object
+         */
+        public Builder data(ByteString data) {
+            this.data = null;
+            this.body = data;
             return this;
         }
 
@@ -313,6 +332,7 @@ public class HttpContext {
             Contracts.requireNonBlank(text, "text");
 
             this.data = text.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
             return this;
         }
 
@@ -369,6 +389,7 @@ public class HttpContext {
                     queryParams,
                     mimeType,
                     data,
+                    body,
                     pathParams,
                     extras
             );
@@ -379,6 +400,12 @@ public class HttpContext {
 
     /**
      * Provides a HTTP request object.
+     *
+     * <p>
+     * The request body is held as a protobuf <code>ByteString</code>, which can be read without copying using
+     * <code>getDataAsByteString()</code>, <code>getDataAsByteBuffer()</code> or <code>getDataAsStream()</code>.
+     * The <code>getData()</code> method copies the body into a byte array on first access.
+     * </p>
      */
     public static class Request {
 
@@ -387,7 +414,8 @@ public class HttpContext {
         final Map<String, List<String>> headers;
         final Map<String, List<String>> queryParams;
         final String mimeType;
-        final byte[] data;
+        final ByteString body;
+        volatile byte[] data;
         final Map<String, String> pathParams;
         final Map<String, Object> extras;
 
@@ -414,6 +442,41 @@ public class HttpContext {
             byte[] data,
             Map<String, String> pathParams,
             Map<String, Object> extras
+        ) {
+            this(method, path, headers, queryParams, mimeType, data, null, pathParams, extras);
+        }
+
+        /**
+         * Create a new Request object with the given HTTP body data, which is not copied.
+         *
+         * @param method the method of the HTTP request
+         * @param path the path of the HTTP request
+         * @param headers the headers of the HTTP request
+         * @param queryParams the query parameters of the HTTP request
+         * @param mimeType the request mime-type
+         * @param data the HTTP body data
+         */
+        public Request(
+            String method,
+            String path,
+            Map<String, List<String>> headers,
+            Map<String, List<String>> queryParams,
+            String mimeType,
+            ByteString data
+        ) {
+            this(method, path, headers, queryParams, mimeType, null, data, null, null);
+        }
+
+        private Request(
+            String method,
+            String path,
+            Map<String, List<String>> headers,
+            Map<String, List<String>> queryParams,
+            String mimeType,
+            byte[] data,
+            ByteString body,
+            Map<String, String> pathParams,
+            Map<String, Object> extras
         ) {
             this.method = method;
             this.path = path;
@@ -421,6 +484,7 @@ public class HttpContext {
             this.queryParams = queryParams;
             this.mimeType = mimeType;
             this.data = data;
+            this.body = (body == null && data != null) ? UnsafeByteOperations.unsafeWrap(data) : body;
             this.pathParams = (pathParams != null) ? Collections.unmodifiableMap(pathParams) : Collections.emptyMap();
             this.extras = (extras != null) ? Collections.unmodifiableMap(extras) : Collections.emptyMap();
         }
@@ -446,7 +510,8 @@ public class HttpContext {
         }
 
         /**
-         * Return the first HTTP header value for the given name, or null not found.
+         * Return the first HTTP header value for the given name, or null not found. The header name is matched
+         * exactly first, and then ignoring case.
          *
          * @param name the HTTP header name (required)
          * @return the first HTTP header value for the given name, or null not found.
@@ -456,6 +521,14 @@ public class HttpContext {
 
             if (headers != null) {
                 List<String> values = headers.get(name);
+                if (values == null) {
+                    for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                        if (entry.getKey().equalsIgnoreCase(name)) {
+                            values = entry.getValue();
+                            break;
+                        }
+                    }
+                }
                 return (values != null && values.size() > 0) ? values.get(0) : null;
 
             } else {
@@ -520,11 +593,46 @@ public class HttpContext {
 
         /**
          * Return the HTTP request body data. If no data is present a zero length array will be returned.
+         * The body is copied into the returned array on first access, use <code>getDataAsByteString()</code>,
+         * <code>getDataAsByteBuffer()</code> or <code>getDataAsStream()</code> to avoid copying large bodies.
          *
          * @return the HTTP request body data
          */
         public byte[] getData() {
-            return data;
+            var bytes = data;
+            if (bytes == null && body != null) {
+                bytes = body.toByteArray();
+                data = bytes;
+            }
+            return bytes;
+        }
+
+        /**
+         * Return the HTTP request body data as a ByteString, without copying. If no data is present an empty
+         * ByteString will be returned.
+         *
+         * @return the HTTP request body data as a ByteString
+         */
+        public ByteString getDataAsByteString() {
+            return (body != null) ? body : ByteString.EMPTY;
+        }
+
+        /**
+         * Return a read-only ByteBuffer view of the HTTP request body data, without copying.
+         *
+         * @return a read-only ByteBuffer view of the HTTP request body data
+         */
+        public ByteBuffer getDataAsByteBuffer() {
+            return getDataAsByteString().asReadOnlyByteBuffer();
+        }
+
+        /**
+         * Return a new InputStream reading the HTTP request body data, without copying.
+         *
+         * @return a new InputStream reading the HTTP request body data
+         */
+        public InputStream getDataAsStream() {
+            return getDataAsByteString().newInput();
         }
 
         /**
@@ -533,7 +641,7 @@ public class HttpContext {
          * @return the HTTP request body data (UTF-8 encoded) as text, or an empty string if not defined.
          */
         public String getDataAsText() {
-            return (data != null) ? new String(data, StandardCharsets.UTF_8) : "";
+            return (body != null) ? body.toStringUtf8() : "";
         }
 
         /**
@@ -564,18 +672,18 @@ public class HttpContext {
         @Override
         public String toString() {
             String dataSample = "";
-            if (data != null) {
+            if (body != null) {
                 dataSample = getDataAsText();
                 if (dataSample.length() > 40) {
                     dataSample = dataSample.substring(0, 40) + "...";
                 }
             }
 
-            return getClass().getSimpleName()
+            return Request.class.getSimpleName()
                     + "[method=" + method
                     + ", path=" + path
-                    + ", headers=" + headers
-                    + ", queryParams=" + queryParams
+                    + ", headers=" + getHeaders()
+                    + ", queryParams=" + getQueryParams()
                     + ", mimeType=" + mimeType
                     + ", data=" + dataSample
                     + ", pathParams=" + pathParams
@@ -592,6 +700,7 @@ public class HttpContext {
         int status = 200;
         Map<String, List<String>> headers = new HashMap<>();
         byte[] data;
+        ByteString body;
 
         // Constructors -----------------------------------------------------------
 
@@ -612,6 +721,7 @@ public class HttpContext {
             this.status = response.status;
             this.headers = new HashMap<>(response.headers);
             this.data = response.data;
+            this.body = response.body;
         }
 
         // Public Methods ---------------------------------------------------------
@@ -694,31 +804,75 @@ public class HttpContext {
         }
 
         /**
-         * Return the response data, or null if not defined.
+         * Return the response data, or null if not defined. Data set as a ByteString or ByteBuffer is copied
+         * into the returned array.
          *
          * @return the response data, or null if not defined
          */
         public byte[] getData() {
+            if (data == null && body != null) {
+                data = body.toByteArray();
+            }
             return data;
         }
 
+        /**
+         * Return the response data as a ByteString without copying, or null if not defined.
+         *
+         * @return the response data as a ByteString, or null if not defined
+         */
+        public ByteString getDataAsByteString() {
+            if (body != null) {
+                return body;
+            }
+            return (data != null) ? UnsafeByteOperations.unsafeWrap(data) : null;
+        }
+
         /**
          * Get the data (UTF-8 encoded) contained in the response as text, or null if not define.
          *
          * @return the response data (UTF-8 encoded) as text, or null if not defined
          */
         public String getDataAsText() {
-            return (data != null) ? new String(data, StandardCharsets.UTF_8) : null;
+            var bytes = getDataAsByteString();
+            return (bytes != null) ? bytes.toStringUtf8() : null;
         }
 
         /**
-         * Set the HTTP response body data.
+         * Set the HTTP response body data. The array is not copied when the response is sent, so it must not be
+         * modified after the handler returns.
          *
          * @param data The data as an array of bytes
          * @return this chainable Response object
          */
         public Response data(byte[] data) {
             this.data = data;
+            this.body = null;
+            return this;
+        }
+
+        /**
+         * Set the HTTP response body data, without copying.
+         *
+         * @param data the response body data
+         * @return this chainable Response object
+         */
+        public Response data(ByteString data) {
+            this.data = null;
+            this.body = data;
+            return this;
+        }
+
+        /**
+         * Set the HTTP response body data from the remaining bytes of the given buffer, without copying. The
+         * buffer must not be modified after the handler returns.
+         *
+         * @param data the response body data buffer
+         * @return this chainable Response object
+         */
+        public Response data(ByteBuffer data) {
+            this.data = null;
+            this.body = (data != null) ? UnsafeByteOperations.unsafeWrap(data) : null;
             return this;
         }
 
@@ -731,6 +885,7 @@ public class HttpContext {
         public Response text(String text) {
             Contracts.requireNonNull(text, "text");
             this.data = text.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
             return this;
         }
 
@@ -750,6 +905,7 @@ public class HttpContext {
 
             var resp = String.format(text, args);
             this.data = resp.getBytes(StandardCharsets.UTF_8);
+            this.body = null;
 
             return this;
         }
@@ -762,7 +918,7 @@ public class HttpContext {
         @Override
         public String toString() {
             String dataSample = "null";
-            if (data != null) {
+            if (data != null || body != null) {
                 dataSample = getDataAsText();
                 if (dataSample.length() > 40) {
                     dataSample = dataSample.substring(0, 42) + "...";
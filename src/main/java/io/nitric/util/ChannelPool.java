@@ -0,0 +1,142 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+
+/**
+ * Provides a ManagedChannel which distributes calls across a fixed pool of channels in round-robin order. Each pooled
+ * channel holds its own HTTP/2 connection, so a single cached service stub can spread its calls across connections.
+ */
+class ChannelPool extends ManagedChannel {
+
+    final ManagedChannel[] channels;
+    final AtomicInteger index = new AtomicInteger();
+
+    // Constructor ------------------------------------------------------------
+
+    /*
+     * Enforce package builder patterns.
+     */
+    ChannelPool(List<ManagedChannel> channels) {
+        Contracts.requireNonNull(channels, "channels");
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("provide non-empty channels");
+        }
+        this.channels = channels.toArray(new ManagedChannel[0]);
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    @Override
+    public <RequestT, ResponseT> ClientCall<RequestT, ResponseT> newCall(
+            MethodDescriptor<RequestT, ResponseT> method,
+            CallOptions callOptions) {
+
+        return nextChannel().newCall(method, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channels[0].authority();
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        for (ManagedChannel channel : channels) {
+            if (!channel.isShutdown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for (ManagedChannel channel : channels) {
+            if (!channel.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        for (ManagedChannel channel : channels) {
+            channel.shutdownNow();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ManagedChannel channel : channels) {
+            long remaining = deadline - System.nanoTime();
+            if (!channel.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the number of pooled channels.
+     *
+     * @return the number of pooled channels
+     */
+    public int size() {
+        return channels.length;
+    }
+
+    /**
+     * Return the string representation of this object.
+     *
+     * @return the string representation of this object
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[size=" + channels.length + ", authority=" + authority() + "]";
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    ManagedChannel nextChannel() {
+        return channels[Math.floorMod(index.getAndIncrement(), channels.length)];
+    }
+
+}
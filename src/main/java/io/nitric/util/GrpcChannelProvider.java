@@ -20,8 +20,16 @@
 
 package io.nitric.util;
 
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.okhttp.OkHttpChannelBuilder;
 
 /**
  * <p>
@@ -31,7 +39,41 @@ import io.grpc.ManagedChannelBuilder;
  * <p>
  *  The default host and port values are '127.0.0.1' and 50051 respectively. To change these
  *  default values set the respective Environment Variables: <code>NITRIC_SERVICE_HOST</code> and
- *  <code>NITRIC_SERVICE_PORT</code>.
+ *  <code>NITRIC_SERVICE_PORT</code>. When the membrane listens on a Unix domain socket set
+ *  <code>NITRIC_SERVICE_SOCKET</code> to the socket path instead, which requires the Netty transport below.
+ * </p>
+ *
+ * <p>
+ *  The channel settings below may also be configured with Environment Variables. Unset variables use the gRPC
+ *  transport defaults.
+ * </p>
+ *
+ * <ul>
+ *  <li><code>NITRIC_CHANNEL_POOL_SIZE</code> - the number of connections calls are distributed across in
+ *  round-robin order, default 1</li>
+ *  <li><code>NITRIC_CHANNEL_KEEPALIVE_TIME_MS</code> - the keepalive ping interval in milliseconds</li>
+ *  <li><code>NITRIC_CHANNEL_KEEPALIVE_TIMEOUT_MS</code> - the keepalive ping acknowledgement timeout in
+ *  milliseconds</li>
+ *  <li><code>NITRIC_CHANNEL_MAX_INBOUND_MESSAGE_SIZE</code> - the maximum inbound message size in bytes</li>
+ *  <li><code>NITRIC_CHANNEL_FLOW_CONTROL_WINDOW</code> - the HTTP/2 flow control window in bytes</li>
+ *  <li><code>NITRIC_CHANNEL_IDLE_TIMEOUT_MS</code> - the idle time in milliseconds before a connection is
+ *  released</li>
+ *  <li><code>NITRIC_CHANNEL_EXECUTOR_THREADS</code> - the number of threads in a shared call executor, default
+ *  uses the gRPC cached thread pool</li>
+ *  <li><code>NITRIC_CHANNEL_DIRECT_EXECUTOR</code> - set to <code>true</code> to run call callbacks on the
+ *  transport threads instead of handing them to an executor, default false</li>
+ *  <li><code>NITRIC_CHANNEL_TRANSPORT</code> - the channel transport, one of <code>default</code> (the gRPC
+ *  provider found on the classpath), <code>okhttp</code>, <code>netty</code> (epoll when available, otherwise NIO)
+ *  or <code>epoll</code> (fails if native epoll is not available), default <code>default</code></li>
+ *  <li><code>NITRIC_CHANNEL_EVENT_LOOP_THREADS</code> - the number of threads in the event loop group shared by
+ *  all Netty channels, default uses the Netty default</li>
+ *  <li><code>NITRIC_FAAS_DEDICATED_CHANNEL</code> - set to <code>true</code> to run the FaaS trigger stream on its
+ *  own connection, default false</li>
+ * </ul>
+ *
+ * <p>
+ *  The <code>netty</code> and <code>epoll</code> transports and Unix domain sockets require the optional
+ *  <code>io.grpc:grpc-netty-shaded</code> dependency.
  * </p>
  */
 public class GrpcChannelProvider {
@@ -42,8 +84,27 @@ public class GrpcChannelProvider {
     protected static final String NITRIC_SERVICE_PORT_DEFAULT  = "50051";
     protected static final String NITRIC_SERVICE_HOST_ENV_VAR_NAME = "NITRIC_SERVICE_HOST";
     protected static final String NITRIC_SERVICE_PORT_ENV_VAR_NAME = "NITRIC_SERVICE_PORT";
+    protected static final String NITRIC_SERVICE_SOCKET_ENV_VAR_NAME = "NITRIC_SERVICE_SOCKET";
+    protected static final String NITRIC_CHANNEL_POOL_SIZE_ENV_VAR_NAME = "NITRIC_CHANNEL_POOL_SIZE";
+    protected static final String NITRIC_CHANNEL_KEEPALIVE_TIME_ENV_VAR_NAME = "NITRIC_CHANNEL_KEEPALIVE_TIME_MS";
+    protected static final String NITRIC_CHANNEL_KEEPALIVE_TIMEOUT_ENV_VAR_NAME =
+        "NITRIC_CHANNEL_KEEPALIVE_TIMEOUT_MS";
+    protected static final String NITRIC_CHANNEL_MAX_INBOUND_MESSAGE_SIZE_ENV_VAR_NAME =
+        "NITRIC_CHANNEL_MAX_INBOUND_MESSAGE_SIZE";
+    protected static final String NITRIC_CHANNEL_FLOW_CONTROL_WINDOW_ENV_VAR_NAME =
+        "NITRIC_CHANNEL_FLOW_CONTROL_WINDOW";
+    protected static final String NITRIC_CHANNEL_IDLE_TIMEOUT_ENV_VAR_NAME = "NITRIC_CHANNEL_IDLE_TIMEOUT_MS";
+    protected static final String NITRIC_CHANNEL_EXECUTOR_THREADS_ENV_VAR_NAME = "NITRIC_CHANNEL_EXECUTOR_THREADS";
+    protected static final String NITRIC_CHANNEL_DIRECT_EXECUTOR_ENV_VAR_NAME = "NITRIC_CHANNEL_DIRECT_EXECUTOR";
+    protected static final String NITRIC_CHANNEL_TRANSPORT_ENV_VAR_NAME = "NITRIC_CHANNEL_TRANSPORT";
+    protected static final String NITRIC_CHANNEL_EVENT_LOOP_THREADS_ENV_VAR_NAME = "NITRIC_CHANNEL_EVENT_LOOP_THREADS";
+    protected static final String NITRIC_FAAS_DEDICATED_CHANNEL_ENV_VAR_NAME = "NITRIC_FAAS_DEDICATED_CHANNEL";
 
     protected static ManagedChannel channel;
+    protected static ManagedChannel faasChannel;
+    protected static ExecutorService executor;
+
+    static Function<String, String> envLookup = System::getenv;
 
     /*
      * Enforce static method usage
@@ -54,35 +115,79 @@ public class GrpcChannelProvider {
     // Public Methods ---------------------------------------------------------
 
     /**
+     * Return the Nitric gRPC Managed Channel shared by the API clients. When a channel pool size greater than 1 is
+     * configured the returned channel distributes calls across the pooled connections in round-robin order.
+     *
      * @return the Nitric gRPC Managed Channel.
      */
     public static ManagedChannel getChannel() {
 
-        if (channel != null && !channel.isShutdown() && !channel.isTerminated()) {
+        if (isActive(channel)) {
             return channel;
         }
 
         synchronized (LOCK) {
-            if (channel == null || channel.isShutdown() || channel.isTerminated()) {
-                channel = ManagedChannelBuilder.forTarget(getTarget())
-                        .usePlaintext()
-                        .build();
+            if (!isActive(channel)) {
+                channel = newPooledChannel(getPoolSize());
             }
         }
 
         return channel;
     }
 
+    /**
+     * Return the Nitric gRPC Managed Channel used by the FaaS trigger stream. This is a dedicated channel if
+     * <code>NITRIC_FAAS_DEDICATED_CHANNEL</code> is <code>true</code>, so the long lived trigger stream does not
+     * share a connection with API client calls, or the shared API client channel otherwise.
+     *
+     * @return the Nitric gRPC FaaS Managed Channel.
+     */
+    public static ManagedChannel getFaasChannel() {
+        if (!Boolean.parseBoolean(getEnvVar(NITRIC_FAAS_DEDICATED_CHANNEL_ENV_VAR_NAME, "false"))) {
+            return getChannel();
+        }
+
+        if (isActive(faasChannel)) {
+            return faasChannel;
+        }
+
+        synchronized (LOCK) {
+            if (!isActive(faasChannel)) {
+                faasChannel = newChannel();
+            }
+        }
+
+        return faasChannel;
+    }
+
     /**
      * Return the Membrane Server connection target.
      *
      * @return the Membrane Server connection target.
      */
     public static String getTarget() {
+        var socketPath = getSocketPath();
+        if (socketPath != null) {
+            return "unix:" + socketPath;
+        }
+
         return getEnvVar(NITRIC_SERVICE_HOST_ENV_VAR_NAME, NITRIC_SERVICE_HOST_DEFAULT)
             + ":" + getEnvVar(NITRIC_SERVICE_PORT_ENV_VAR_NAME, NITRIC_SERVICE_PORT_DEFAULT);
     }
 
+    /**
+     * Return the number of connections in the shared API client channel pool.
+     *
+     * @return the number of connections in the shared API client channel pool
+     */
+    public static int getPoolSize() {
+        int poolSize = getEnvInt(NITRIC_CHANNEL_POOL_SIZE_ENV_VAR_NAME, 1);
+        if (poolSize < 1) {
+            throw new IllegalArgumentException(NITRIC_CHANNEL_POOL_SIZE_ENV_VAR_NAME + " must be greater than 0");
+        }
+        return poolSize;
+    }
+
     // Protected Methods ------------------------------------------------------
 
     /**
@@ -97,7 +202,190 @@ public class GrpcChannelProvider {
         Contracts.requireNonBlank(varName, "varName");
         Contracts.requireNonBlank(defaultValue, "defaultValue");
 
-        return (System.getenv(varName) != null) ? System.getenv(varName) : defaultValue;
+        var value = envLookup.apply(varName);
+        return (value != null) ? value : defaultValue;
+    }
+
+    /**
+     * Return the environment variable integer value if defined or the default value otherwise.
+     *
+     * @param varName the environmental variable name (required)
+     * @param defaultValue the default fallback value
+     * @return the environment variable integer value or default if not defined
+     * @throws IllegalArgumentException if the environment variable is not an integer, or is out of the int range
+     */
+    protected static int getEnvInt(String varName, int defaultValue) {
+        long value = getEnvLong(varName, defaultValue);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(varName + " is out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Return the environment variable long value if defined or the default value otherwise.
+     *
+     * @param varName the environmental variable name (required)
+     * @param defaultValue the default fallback value
+     * @return the environment variable long value or default if not defined
+     * @throws IllegalArgumentException if the environment variable is not an integer
+     */
+    protected static long getEnvLong(String varName, long defaultValue) {
+        var value = getEnvVar(varName, String.valueOf(defaultValue));
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(varName + " is not an integer: " + value);
+        }
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    static ManagedChannel newPooledChannel(int poolSize) {
+        if (poolSize == 1) {
+            return newChannel();
+        }
+
+        var channels = new ArrayList<ManagedChannel>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            channels.add(newChannel());
+        }
+        return new ChannelPool(channels);
+    }
+
+    static ManagedChannel newChannel() {
+        return newChannelBuilder().build();
+    }
+
+    static ManagedChannelBuilder<?> newChannelBuilder() {
+        int flowControlWindow = getEnvInt(NITRIC_CHANNEL_FLOW_CONTROL_WINDOW_ENV_VAR_NAME, 0);
+        var builder = newTransportChannelBuilder(flowControlWindow);
+
+        long keepAliveTime = getEnvLong(NITRIC_CHANNEL_KEEPALIVE_TIME_ENV_VAR_NAME, 0);
+        if (keepAliveTime > 0) {
+            builder.keepAliveTime(keepAliveTime, TimeUnit.MILLISECONDS);
+        }
+        long keepAliveTimeout = getEnvLong(NITRIC_CHANNEL_KEEPALIVE_TIMEOUT_ENV_VAR_NAME, 0);
+        if (keepAliveTimeout > 0) {
+            builder.keepAliveTimeout(keepAliveTimeout, TimeUnit.MILLISECONDS);
+        }
+        int maxInboundMessageSize = getEnvInt(NITRIC_CHANNEL_MAX_INBOUND_MESSAGE_SIZE_ENV_VAR_NAME, 0);
+        if (maxInboundMessageSize > 0) {
+            builder.maxInboundMessageSize(maxInboundMessageSize);
+        }
+        long idleTimeout = getEnvLong(NITRIC_CHANNEL_IDLE_TIMEOUT_ENV_VAR_NAME, 0);
+        if (idleTimeout > 0) {
+            builder.idleTimeout(idleTimeout, TimeUnit.MILLISECONDS);
+        }
+        int executorThreads = getEnvInt(NITRIC_CHANNEL_EXECUTOR_THREADS_ENV_VAR_NAME, 0);
+        if (Boolean.parseBoolean(getEnvVar(NITRIC_CHANNEL_DIRECT_EXECUTOR_ENV_VAR_NAME, "false"))) {
+            builder.directExecutor();
+
+        } else if (executorThreads > 0) {
+            builder.executor(getExecutor(executorThreads));
+        }
+
+        return builder;
+    }
+
+    static void reset() {
+        synchronized (LOCK) {
+            if (channel != null) {
+                channel.shutdownNow();
+                channel = null;
+            }
+            if (faasChannel != null) {
+                faasChannel.shutdownNow();
+                faasChannel = null;
+            }
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
+            if (isNettyAvailable()) {
+                NettyTransport.reset();
+            }
+        }
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private static ManagedChannelBuilder<?> newTransportChannelBuilder(int flowControlWindow) {
+        int eventLoopThreads = getEnvInt(NITRIC_CHANNEL_EVENT_LOOP_THREADS_ENV_VAR_NAME, 0);
+
+        var socketPath = getSocketPath();
+        if (socketPath != null) {
+            requireNetty(NITRIC_SERVICE_SOCKET_ENV_VAR_NAME);
+            return NettyTransport.newDomainSocketChannelBuilder(socketPath, eventLoopThreads, flowControlWindow);
+        }
+
+        var transport = getEnvVar(NITRIC_CHANNEL_TRANSPORT_ENV_VAR_NAME, "default").trim().toLowerCase();
+        switch (transport) {
+            case "default":
+                var builder = ManagedChannelBuilder.forTarget(getTarget()).usePlaintext();
+                if (flowControlWindow > 0 && builder instanceof OkHttpChannelBuilder) {
+                    ((OkHttpChannelBuilder) builder).flowControlWindow(flowControlWindow);
+
+                } else if (flowControlWindow > 0 && isNettyAvailable()) {
+                    NettyTransport.flowControlWindow(builder, flowControlWindow);
+                }
+                return builder;
+
+            case "okhttp":
+                var okHttpBuilder = OkHttpChannelBuilder.forTarget(getTarget()).usePlaintext();
+                if (flowControlWindow > 0) {
+                    okHttpBuilder.flowControlWindow(flowControlWindow);
+                }
+                return okHttpBuilder;
+
+            case "netty":
+            case "epoll":
+                requireNetty(NITRIC_CHANNEL_TRANSPORT_ENV_VAR_NAME + "=" + transport);
+                return NettyTransport.newTcpChannelBuilder(
+                    getTarget(), "epoll".equals(transport), eventLoopThreads, flowControlWindow);
+
+            default:
+                throw new IllegalArgumentException(NITRIC_CHANNEL_TRANSPORT_ENV_VAR_NAME
+                    + " must be one of default, okhttp, netty or epoll: " + transport);
+        }
+    }
+
+    private static String getSocketPath() {
+        var socketPath = envLookup.apply(NITRIC_SERVICE_SOCKET_ENV_VAR_NAME);
+        return (socketPath != null && !socketPath.isBlank()) ? socketPath.trim() : null;
+    }
+
+    private static boolean isNettyAvailable() {
+        try {
+            Class.forName("io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder");
+            return true;
+        } catch (ClassNotFoundException cnfe) {
+            return false;
+        }
+    }
+
+    private static void requireNetty(String setting) {
+        if (!isNettyAvailable()) {
+            throw new IllegalStateException(setting + " requires the io.grpc:grpc-netty-shaded dependency");
+        }
+    }
+
+    private static boolean isActive(ManagedChannel channel) {
+        return channel != null && !channel.isShutdown() && !channel.isTerminated();
+    }
+
+    private static ExecutorService getExecutor(int threads) {
+        synchronized (LOCK) {
+            if (executor == null) {
+                var threadCount = new AtomicInteger();
+                executor = Executors.newFixedThreadPool(threads, runnable -> {
+                    var thread = new Thread(runnable, "nitric-grpc-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            return executor;
+        }
     }
 
 }
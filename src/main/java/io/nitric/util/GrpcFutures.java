@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import io.grpc.StatusRuntimeException;
+import io.nitric.api.NitricException;
+
+/**
+ * <p>
+ *  Provides helper methods for adapting gRPC future stub results to <code>CompletableFuture</code> objects.
+ * </p>
+ *
+ * <p>
+ *  Failed gRPC calls complete the returned future exceptionally with a <code>NitricException</code> built from the
+ *  call's <code>StatusRuntimeException</code>, so async API callers see the same exception types as blocking callers.
+ * </p>
+ */
+public class GrpcFutures {
+
+    /*
+     * Enforce static method usage
+     */
+    private GrpcFutures() {
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * Return a new CompletableFuture which completes with the result of the given gRPC future. Cancelling the
+     * returned future will cancel the underlying gRPC call.
+     *
+     * @param future the gRPC future stub call result (required)
+     * @param <T> the call response type
+     * @return a new CompletableFuture completed by the gRPC future
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(ListenableFuture<T> future) {
+        Contracts.requireNonNull(future, "future");
+
+        var result = new CompletableFuture<T>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                future.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+
+        future.addListener(() -> {
+            try {
+                result.complete(future.get());
+
+            } catch (ExecutionException ee) {
+                result.completeExceptionally(toApiException(ee.getCause()));
+
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }, Runnable::run);
+
+        return result;
+    }
+
+    /**
+     * Return the Nitric API exception for the given gRPC call failure, or the failure itself if it is not a
+     * <code>StatusRuntimeException</code>.
+     *
+     * @param error the gRPC call failure (required)
+     * @return the Nitric API exception for a gRPC status failure, or the given failure otherwise
+     */
+    public static Throwable toApiException(Throwable error) {
+        Contracts.requireNonNull(error, "error");
+
+        return (error instanceof StatusRuntimeException)
+            ? NitricException.build((StatusRuntimeException) error)
+            : error;
+    }
+
+}
@@ -0,0 +1,181 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+
+/**
+ * Provides Netty channel builders for the membrane connection. This class references the optional
+ * <code>io.grpc:grpc-netty-shaded</code> dependency, so callers must check the dependency is on the classpath before
+ * loading it.
+ *
+ * <p>
+ *  All Netty channels share a single event loop group, so pooled and dedicated channels do not each start their
+ *  own I/O threads.
+ * </p>
+ */
+class NettyTransport {
+
+    private static final Object LOCK = new Object();
+
+    static EventLoopGroup eventLoopGroup;
+
+    /*
+     * Enforce static method usage
+     */
+    private NettyTransport() {
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    /**
+     * Return true if the native epoll transport can be used on this platform.
+     *
+     * @return true if the native epoll transport can be used on this platform
+     */
+    static boolean isEpollAvailable() {
+        return Epoll.isAvailable();
+    }
+
+    /**
+     * Return a new TCP channel builder for the given target. The native epoll transport is used when it is
+     * available, otherwise the NIO transport is used unless epoll is required.
+     *
+     * @param target the membrane host:port target (required)
+     * @param requireEpoll true if the native epoll transport must be used
+     * @param eventLoopThreads the number of shared event loop threads, or 0 for the Netty default
+     * @param flowControlWindow the HTTP/2 flow control window in bytes, or 0 for the transport default
+     * @return a new TCP channel builder
+     */
+    static ManagedChannelBuilder<?> newTcpChannelBuilder(
+            String target,
+            boolean requireEpoll,
+            int eventLoopThreads,
+            int flowControlWindow) {
+
+        Contracts.requireNonBlank(target, "target");
+        if (requireEpoll) {
+            requireEpoll();
+        }
+
+        var group = getEventLoopGroup(eventLoopThreads);
+        var builder = NettyChannelBuilder.forTarget(target)
+            .eventLoopGroup(group)
+            .channelType((group instanceof EpollEventLoopGroup) ? EpollSocketChannel.class : NioSocketChannel.class)
+            .usePlaintext();
+
+        if (flowControlWindow > 0) {
+            builder.flowControlWindow(flowControlWindow);
+        }
+        return builder;
+    }
+
+    /**
+     * Return a new Unix domain socket channel builder for the given socket path. Unix domain sockets require the
+     * native epoll transport.
+     *
+     * @param socketPath the membrane Unix domain socket path (required)
+     * @param eventLoopThreads the number of shared event loop threads, or 0 for the Netty default
+     * @param flowControlWindow the HTTP/2 flow control window in bytes, or 0 for the transport default
+     * @return a new Unix domain socket channel builder
+     */
+    static ManagedChannelBuilder<?> newDomainSocketChannelBuilder(
+            String socketPath,
+            int eventLoopThreads,
+            int flowControlWindow) {
+
+        Contracts.requireNonBlank(socketPath, "socketPath");
+        requireEpoll();
+
+        var builder = NettyChannelBuilder.forAddress(new DomainSocketAddress(socketPath))
+            .eventLoopGroup(getEventLoopGroup(eventLoopThreads))
+            .channelType(EpollDomainSocketChannel.class)
+            .overrideAuthority("localhost")
+            .usePlaintext();
+
+        if (flowControlWindow > 0) {
+            builder.flowControlWindow(flowControlWindow);
+        }
+        return builder;
+    }
+
+    /**
+     * Set the HTTP/2 flow control window if the given builder is a Netty channel builder.
+     *
+     * @param builder the channel builder (required)
+     * @param flowControlWindow the HTTP/2 flow control window in bytes
+     * @return true if the builder is a Netty channel builder
+     */
+    static boolean flowControlWindow(ManagedChannelBuilder<?> builder, int flowControlWindow) {
+        if (builder instanceof NettyChannelBuilder) {
+            ((NettyChannelBuilder) builder).flowControlWindow(flowControlWindow);
+            return true;
+        }
+        return false;
+    }
+
+    static void reset() {
+        synchronized (LOCK) {
+            if (eventLoopGroup != null) {
+                eventLoopGroup.shutdownGracefully();
+                eventLoopGroup = null;
+            }
+        }
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private static void requireEpoll() {
+        if (!Epoll.isAvailable()) {
+            throw new IllegalStateException("native epoll transport is not available", Epoll.unavailabilityCause());
+        }
+    }
+
+    private static EventLoopGroup getEventLoopGroup(int threads) {
+        synchronized (LOCK) {
+            if (eventLoopGroup == null) {
+                var threadCount = new AtomicInteger();
+                ThreadFactory threadFactory = runnable -> {
+                    var thread = new Thread(runnable, "nitric-netty-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+                eventLoopGroup = Epoll.isAvailable()
+                    ? new EpollEventLoopGroup(threads, threadFactory)
+                    : new NioEventLoopGroup(threads, threadFactory);
+            }
+            return eventLoopGroup;
+        }
+    }
+
+}
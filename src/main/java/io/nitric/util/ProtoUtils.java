@@ -20,11 +20,10 @@
 
 package io.nitric.util;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collector;
-import java.util.stream.Collectors;
 
 import com.google.protobuf.ListValue;
 import com.google.protobuf.NullValue;
@@ -42,6 +41,9 @@ import com.google.protobuf.Value;
  */
 public class ProtoUtils {
 
+    /** The largest integer magnitude which every smaller integer can be exactly represented as a double. */
+    static final double MAX_SAFE_INTEGER = (1L << 53) - 1;
+
     /*
      * Enforce static method usage.
      */
@@ -59,25 +61,65 @@ public class ProtoUtils {
     public static Map<String, Object> toMap(Struct struct) {
         Contracts.requireNonNull(struct, "struct");
 
-        return struct
-                .getFieldsMap()
-                .entrySet()
-                .stream()
-                .collect(
-                        toMapNullFriendly(
-                                Map.Entry::getKey,
-                                entry -> {
-                                    Value value = entry.getValue();
-                                    switch (value.getKindCase()) {
-                                        case STRUCT_VALUE:
-                                            return toMap(value.getStructValue());
-                                        case LIST_VALUE:
-                                            return toList(value.getListValue());
-                                        default:
-                                            return getScalarValue(value);
-                                    }
-                                }));
+        return structToMap(struct, false);
+    }
+
+    /**
+     * Return a new Map built from the given struct, optionally decoding integral numbers as <code>Long</code>
+     * values. Protobuf Struct numbers are doubles, so by default all numbers are returned as <code>Double</code>
+     * values. With integral numbers enabled, a number which is a whole value within the exact integer range of a
+     * double (&plusmn;2<sup>53</sup> - 1) is returned as a <code>Long</code>, and other numbers, which may not
+     * represent the stored value exactly, are returned as <code>Double</code> values.
+     *
+     * @param struct the protobuf Struct object (required)
+     * @param integralNumbers specify whether integral numbers are returned as Long values
+     * @return a Map object.
+     */
+    public static Map<String, Object> toMap(Struct struct, boolean integralNumbers) {
+        Contracts.requireNonNull(struct, "struct");
+
+        return structToMap(struct, integralNumbers);
+    }
+
+    /**
+     * Return a read-only Map view of the given struct. Field values are converted when they are read, so reading a
+     * few fields of a large struct does not convert the whole struct. Nested structs and lists are returned as
+     * views, and numbers can be read without boxing with <code>StructMap.getDouble()</code> and
+     * <code>getLong()</code>.
+     *
+     * @param struct the protobuf Struct object (required)
+     * @return a read-only Map view of the struct
+     */
+    public static StructMap asMap(Struct struct) {
+        return asMap(struct, false);
+    }
+
+    /**
+     * Return a read-only Map view of the given struct, which optionally memoizes the converted field values. A
+     * memoized view converts each value once, and returns the same value objects on repeated reads.
+     *
+     * @param struct the protobuf Struct object (required)
+     * @param memoize specify whether the view keeps converted values
+     * @return a read-only Map view of the struct
+     */
+    public static StructMap asMap(Struct struct, boolean memoize) {
+        return asMap(struct, memoize, false);
+    }
+
+    /**
+     * Return a read-only Map view of the given struct, which optionally memoizes the converted field values and
+     * returns integral numbers as <code>Long</code> values, using the same number conversions as
+     * <code>toMap(Struct, boolean)</code>.
+     *
+     * @param struct the protobuf Struct object (required)
+     * @param memoize specify whether the view keeps converted values
+     * @param integralNumbers specify whether integral numbers are returned as Long values
+     * @return a read-only Map view of the struct
+     */
+    public static StructMap asMap(Struct struct, boolean memoize, boolean integralNumbers) {
+        Contracts.requireNonNull(struct, "struct");
 
+        return new StructMap(struct, memoize, integralNumbers);
     }
 
     /**
@@ -89,6 +131,9 @@ public class ProtoUtils {
     public static Struct toStruct(Map<String, Object> map) {
         Contracts.requireNonNull(map, "map");
 
+        if (map instanceof StructMap) {
+            return ((StructMap) map).struct;
+        }
         return mapToStructBuilder(map).build();
     }
 
@@ -99,6 +144,10 @@ public class ProtoUtils {
     }
 
     static Object getScalarValue(Value value) {
+        return getScalarValue(value, false);
+    }
+
+    static Object getScalarValue(Value value, boolean integralNumbers) {
         switch (value.getKindCase()) {
             case STRUCT_VALUE:
             case LIST_VALUE:
@@ -106,9 +155,9 @@ public class ProtoUtils {
             case BOOL_VALUE:
                 return value.getBoolValue();
             case NUMBER_VALUE:
-                // Note: this assumes all numbers are doubles. Downstream code that have access to the
-                // schema can convert this number to the correct number type.
-                return value.getNumberValue();
+                // Note: unless integral numbers are enabled this assumes all numbers are doubles. Downstream code
+                // that have access to the schema can convert this number to the correct number type.
+                return integralNumbers ? toNumber(value.getNumberValue()) : value.getNumberValue();
             case STRING_VALUE:
                 return value.getStringValue();
             case NULL_VALUE:
@@ -119,14 +168,49 @@ public class ProtoUtils {
         return value;
     }
 
-    static List<Object> toList(ListValue listValue) {
-        return listValue
-                .getValuesList()
-                .stream()
-                .map(value -> Value.KindCase.STRUCT_VALUE.equals(value.getKindCase())
-                        ? toMap(value.getStructValue())
-                        : getScalarValue(value))
-                .collect(Collectors.toList());
+    static List<Object> toList(ListValue listValue, boolean integralNumbers) {
+        var count = listValue.getValuesCount();
+        var list = new ArrayList<Object>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(toObject(listValue.getValues(i), integralNumbers));
+        }
+        return list;
+    }
+
+    static Map<String, Object> structToMap(Struct struct, boolean integralNumbers) {
+        var fields = struct.getFieldsMap();
+        var map = new HashMap<String, Object>(capacity(fields.size()));
+        for (Map.Entry<String, Value> entry : fields.entrySet()) {
+            map.put(entry.getKey(), toObject(entry.getValue(), integralNumbers));
+        }
+        return map;
+    }
+
+    static Object toObject(Value value, boolean integralNumbers) {
+        switch (value.getKindCase()) {
+            case STRUCT_VALUE:
+                return structToMap(value.getStructValue(), integralNumbers);
+            case LIST_VALUE:
+                return toList(value.getListValue(), integralNumbers);
+            default:
+                return getScalarValue(value, integralNumbers);
+        }
+    }
+
+    /**
+     * Return the given number as a Long if it is a whole number which a double represents exactly, otherwise as a
+     * Double. Negative zero is returned as a Double to preserve its sign.
+     *
+     * @param number the number value
+     * @return the given number as a Long or Double
+     */
+    static Number toNumber(double number) {
+        if (number == (long) number
+            && Math.abs(number) <= MAX_SAFE_INTEGER
+            && (number != 0 || Double.doubleToRawLongBits(number) == 0)) {
+            return (long) number;
+        }
+        return number;
     }
 
     static Struct.Builder mapToStructBuilder(Map<String, Object> map) {
@@ -139,7 +223,14 @@ public class ProtoUtils {
     }
 
     static Value value(Object value) {
-        if (value instanceof Map) {
+        if (value instanceof StructMap) {
+            // Unchanged Struct views are stored without conversion
+            return Value.newBuilder().setStructValue(((StructMap) value).struct).build();
+
+        } else if (value instanceof StructMap.ListView) {
+            return Value.newBuilder().setListValue(((StructMap.ListView) value).listValue).build();
+
+        } else if (value instanceof Map) {
             @SuppressWarnings("unchecked")
             Map<String, Object> map = (Map<String, Object>) value;
             return Value.newBuilder().setStructValue(toStructNullFriendly(map)).build();
@@ -178,18 +269,13 @@ public class ProtoUtils {
         return Value.newBuilder().setListValue(listValue.build()).build();
     }
 
-    static <T, K, U> Collector<T, ?, Map<K, U>> toMapNullFriendly(
-            Function<? super T, ? extends K> keyMapper,
-            Function<? super T, ? extends U> valueMapper) {
+    // Private Methods --------------------------------------------------------
 
-        @SuppressWarnings("unchecked")
-        U none = (U) new Object();
-        return Collectors.collectingAndThen(
-                Collectors.<T, K, U>toMap(keyMapper,
-                        valueMapper.andThen(v -> v == null ? none : v)), map -> {
-                    map.replaceAll((k, v) -> v == none ? null : v);
-                    return map;
-                });
+    /*
+     * Return the HashMap capacity which holds the given number of entries without resizing.
+     */
+    private static int capacity(int size) {
+        return (size < 3) ? size + 1 : (int) (size / 0.75f + 1.0f);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,331 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+
+/**
+ * <p>
+ *  Provides a read-only Map view of a protobuf Struct. Field values are converted when they are read, rather than
+ *  converting the whole Struct up front like <code>ProtoUtils.toMap()</code>, so reading a few fields of a large
+ *  document is cheap. Nested structs are returned as StructMap views and lists as read-only List views.
+ * </p>
+ *
+ * <p>
+ *  Numbers are returned as <code>Double</code> values like <code>ProtoUtils.toMap()</code>, or with integral numbers
+ *  enabled, exact whole numbers are returned as <code>Long</code> values. The primitive accessors
+ *  <code>getDouble()</code>, <code>getLong()</code> and <code>getBoolean()</code> read values without boxing.
+ * </p>
+ *
+ * <p>
+ *  By default values are converted on each read. A memoized view keeps each converted value, including nested
+ *  views, so values which are read many times are only converted once, and repeated reads return the same objects.
+ *  Memoized views are safe to read from multiple threads.
+ * </p>
+ *
+ * <pre><code class="code">
+ *  StructMap order = ProtoUtils.asMap(document.getContent(), true);
+ *
+ *  double total = order.getDouble("total", 0);
+ *  String status = order.getString("status");
+ *  StructMap address = order.getMap("address");
+ * </code></pre>
+ *
+ * @see ProtoUtils
+ */
+public class StructMap extends AbstractMap<String, Object> {
+
+    /** The memoized null value marker. */
+    static final Object NULL = new Object();
+
+    final Struct struct;
+    final boolean memoize;
+    final boolean integralNumbers;
+    volatile Map<String, Object> memo;
+
+    // Constructor ------------------------------------------------------------
+
+    /*
+     * Enforce package builder patterns.
+     */
+    StructMap(Struct struct, boolean memoize, boolean integralNumbers) {
+        this.struct = struct;
+        this.memoize = memoize;
+        this.integralNumbers = integralNumbers;
+    }
+
+    // Public Methods ---------------------------------------------------------
+
+    /**
+     * @return the Struct viewed by this map
+     */
+    public Struct getStruct() {
+        return struct;
+    }
+
+    /**
+     * Return the converted value of the given field, or null if the field is missing or is a null value.
+     *
+     * @param key the field name
+     * @return the converted value of the given field, or null if the field is missing or is a null value
+     */
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        var value = struct.getFieldsMap().get(key);
+        if (value == null) {
+            return null;
+        }
+        return memoize ? memoized((String) key, value) : toObject(value, false, integralNumbers);
+    }
+
+    /**
+     * @return true if this view keeps converted values
+     */
+    public boolean isMemoized() {
+        return memoize;
+    }
+
+    /**
+     * @return true if this view returns exact whole numbers as Long values
+     */
+    public boolean isIntegralNumbers() {
+        return integralNumbers;
+    }
+
+    /**
+     * Return the number value of the given field, or the default value if the field is missing or is not a number.
+     *
+     * @param key the field name
+     * @param defaultValue the value to return if the field is missing or is not a number
+     * @return the number value of the given field, or the default value
+     */
+    public double getDouble(String key, double defaultValue) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.NUMBER_VALUE)
+            ? value.getNumberValue()
+            : defaultValue;
+    }
+
+    /**
+     * Return the number value of the given field as a long, or the default value if the field is missing or is not
+     * a number. Fractional numbers are truncated.
+     *
+     * @param key the field name
+     * @param defaultValue the value to return if the field is missing or is not a number
+     * @return the number value of the given field as a long, or the default value
+     */
+    public long getLong(String key, long defaultValue) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.NUMBER_VALUE)
+            ? (long) value.getNumberValue()
+            : defaultValue;
+    }
+
+    /**
+     * Return the boolean value of the given field, or the default value if the field is missing or is not a boolean.
+     *
+     * @param key the field name
+     * @param defaultValue the value to return if the field is missing or is not a boolean
+     * @return the boolean value of the given field, or the default value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.BOOL_VALUE)
+            ? value.getBoolValue()
+            : defaultValue;
+    }
+
+    /**
+     * Return the string value of the given field, or null if the field is missing or is not a string.
+     *
+     * @param key the field name
+     * @return the string value of the given field, or null
+     */
+    public String getString(String key) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.STRING_VALUE)
+            ? value.getStringValue()
+            : null;
+    }
+
+    /**
+     * Return a view of the given struct field, or null if the field is missing or is not a struct.
+     *
+     * @param key the field name
+     * @return a view of the given struct field, or null
+     */
+    public StructMap getMap(String key) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.STRUCT_VALUE)
+            ? (StructMap) (memoize ? memoized(key, value) : toObject(value, false, integralNumbers))
+            : null;
+    }
+
+    /**
+     * Return a view of the given list field, or null if the field is missing or is not a list.
+     *
+     * @param key the field name
+     * @return a view of the given list field, or null
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> getList(String key) {
+        var value = struct.getFieldsMap().get(key);
+        return (value != null && value.getKindCase() == Value.KindCase.LIST_VALUE)
+            ? (List<Object>) (memoize ? memoized(key, value) : toObject(value, false, integralNumbers))
+            : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key instanceof String) && struct.containsFields((String) key);
+    }
+
+    @Override
+    public int size() {
+        return struct.getFieldsCount();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                var fields = struct.getFieldsMap().entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return fields.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<String, Object> next() {
+                        var field = fields.next();
+                        var value = memoize
+                            ? memoized(field.getKey(), field.getValue())
+                            : toObject(field.getValue(), false, integralNumbers);
+                        return new SimpleImmutableEntry<>(field.getKey(), value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return struct.getFieldsCount();
+            }
+        };
+    }
+
+    // Package Private Methods ------------------------------------------------
+
+    static Object toObject(Value value, boolean memoize, boolean integralNumbers) {
+        switch (value.getKindCase()) {
+            case STRUCT_VALUE:
+                return new StructMap(value.getStructValue(), memoize, integralNumbers);
+            case LIST_VALUE:
+                return new ListView(value.getListValue(), memoize, integralNumbers);
+            default:
+                return ProtoUtils.getScalarValue(value, integralNumbers);
+        }
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private Object memoized(String key, Value value) {
+        var memo = this.memo;
+        if (memo == null) {
+            synchronized (this) {
+                memo = this.memo;
+                if (memo == null) {
+                    memo = new ConcurrentHashMap<>();
+                    this.memo = memo;
+                }
+            }
+        }
+
+        var result = memo.get(key);
+        if (result == null) {
+            var converted = toObject(value, true, integralNumbers);
+            result = memo.putIfAbsent(key, (converted != null) ? converted : NULL);
+            if (result == null) {
+                return converted;
+            }
+        }
+        return (result != NULL) ? result : null;
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a read-only List view of a protobuf ListValue, which converts values when they are read.
+     */
+    static class ListView extends AbstractList<Object> implements RandomAccess {
+
+        final ListValue listValue;
+        final boolean integralNumbers;
+        final AtomicReferenceArray<Object> memo;
+
+        ListView(ListValue listValue, boolean memoize, boolean integralNumbers) {
+            this.listValue = listValue;
+            this.integralNumbers = integralNumbers;
+            this.memo = memoize ? new AtomicReferenceArray<>(listValue.getValuesCount()) : null;
+        }
+
+        @Override
+        public Object get(int index) {
+            var value = listValue.getValues(index);
+            if (memo == null) {
+                return toObject(value, false, integralNumbers);
+            }
+
+            var result = memo.get(index);
+            if (result == null) {
+                var converted = toObject(value, true, integralNumbers);
+                result = memo.compareAndExchange(index, null, (converted != null) ? converted : NULL);
+                if (result == null) {
+                    return converted;
+                }
+            }
+            return (result != NULL) ? result : null;
+        }
+
+        @Override
+        public int size() {
+            return listValue.getValuesCount();
+        }
+    }
+
+}
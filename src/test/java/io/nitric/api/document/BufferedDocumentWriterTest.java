@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.Futures;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.nitric.api.NitricException;
+import io.nitric.proto.document.v1.DocumentDeleteRequest;
+import io.nitric.proto.document.v1.DocumentDeleteResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.DocumentSetRequest;
+import io.nitric.proto.document.v1.DocumentSetResponse;
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class BufferedDocumentWriterTest {
+
+    DocumentServiceGrpc.DocumentServiceFutureStub mock;
+
+    @BeforeEach
+    public void setUp() {
+        mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Documents.setFutureStub(null);
+    }
+
+    @Test
+    public void test_builder() {
+        var writer = BufferedDocumentWriter.newBuilder().build();
+        assertEquals(BufferedDocumentWriter.DEFAULT_BATCH_SIZE, writer.batchSize);
+        assertEquals(BufferedDocumentWriter.DEFAULT_FLUSH_INTERVAL, writer.flushInterval);
+        assertEquals(Collection.BATCH_CONCURRENCY, writer.concurrency);
+        assertEquals("BufferedDocumentWriter[batchSize=500, flushInterval=PT1S, concurrency=16]", writer.toString());
+        writer.close();
+
+        try {
+            BufferedDocumentWriter.newBuilder().batchSize(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("batchSize must be greater than 0", iae.getMessage());
+        }
+        try {
+            BufferedDocumentWriter.newBuilder().flushInterval(Duration.ofSeconds(-1));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("flushInterval must not be negative", iae.getMessage());
+        }
+        try {
+            BufferedDocumentWriter.newBuilder().concurrency(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("concurrency must be greater than 0", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_coalesce() {
+        var stats = new Documents().collection("stats");
+        var writer = BufferedDocumentWriter.newBuilder().flushInterval(Duration.ZERO).build();
+
+        var future1 = writer.set(stats.doc("aggregate-1"), Map.of("count", 1));
+        var future2 = writer.set(stats.doc("aggregate-1"), Map.of("count", 2));
+        var future3 = writer.set(stats.doc("aggregate-2"), Map.of("count", 1));
+        var future4 = writer.delete(stats.doc("aggregate-3"));
+        assertSame(future1, future2);
+        assertFalse(future1.isDone());
+        Mockito.verifyNoInteractions(mock);
+
+        writer.flush();
+        assertTrue(future1.isDone());
+        assertTrue(future3.isDone());
+        assertTrue(future4.isDone());
+
+        var captor = ArgumentCaptor.forClass(DocumentSetRequest.class);
+        Mockito.verify(mock, Mockito.times(2)).set(captor.capture());
+        assertEquals("aggregate-1", captor.getAllValues().get(0).getKey().getId());
+        assertEquals(2.0, ProtoUtils.toMap(captor.getAllValues().get(0).getContent()).get("count"));
+        assertEquals("aggregate-2", captor.getAllValues().get(1).getKey().getId());
+
+        var deleteCaptor = ArgumentCaptor.forClass(DocumentDeleteRequest.class);
+        Mockito.verify(mock).delete(deleteCaptor.capture());
+        assertEquals("aggregate-3", deleteCaptor.getValue().getKey().getId());
+
+        // A set followed by a delete of the same key only deletes
+        writer.set(stats.doc("aggregate-1"), Map.of("count", 3));
+        writer.delete(stats.doc("aggregate-1"));
+        writer.close();
+        Mockito.verify(mock, Mockito.times(2)).set(Mockito.any());
+        Mockito.verify(mock, Mockito.times(2)).delete(Mockito.any());
+
+        try {
+            writer.set(stats.doc("aggregate-1"), Map.of("count", 4));
+            fail();
+        } catch (IllegalStateException ise) {
+            assertEquals("writer is closed", ise.getMessage());
+        }
+    }
+
+    @Test
+    public void test_batchSize() {
+        var stats = new Documents().collection("stats");
+        var writer = BufferedDocumentWriter.newBuilder().batchSize(2).flushInterval(Duration.ZERO).build();
+
+        var future1 = writer.set(stats.doc("aggregate-1"), Map.of("count", 1));
+        writer.set(stats.doc("aggregate-1"), Map.of("count", 2));
+        assertFalse(future1.isDone());
+
+        writer.set(stats.doc("aggregate-2"), Map.of("count", 1)).join();
+        assertTrue(future1.isDone());
+        Mockito.verify(mock, Mockito.times(2)).set(Mockito.any());
+
+        writer.close();
+    }
+
+    @Test
+    public void test_flushInterval() throws Exception {
+        var stats = new Documents().collection("stats");
+        var writer = BufferedDocumentWriter.newBuilder().flushInterval(Duration.ofMillis(10)).build();
+
+        writer.set(stats.doc("aggregate-1"), Map.of("count", 1)).get(5, TimeUnit.SECONDS);
+        Mockito.verify(mock).set(Mockito.any());
+
+        writer.close();
+        assertTrue(writer.scheduler.isShutdown());
+    }
+
+    @Test
+    public void test_failure() {
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFailedFuture(new StatusRuntimeException(Status.UNAVAILABLE))
+        );
+
+        var stats = new Documents().collection("stats");
+        var writer = BufferedDocumentWriter.newBuilder().flushInterval(Duration.ZERO).build();
+
+        var failed = writer.set(stats.doc("aggregate-1"), Map.of("count", 1));
+        var deleted = writer.delete(stats.doc("aggregate-2"));
+        writer.flush();
+
+        try {
+            failed.join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NitricException);
+        }
+        assertNull(deleted.join());
+
+        writer.close();
+    }
+
+}
@@ -0,0 +1,208 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.util.concurrent.Futures;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.nitric.api.NotFoundException;
+import io.nitric.api.document.model.Customer;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentDeleteRequest;
+import io.nitric.proto.document.v1.DocumentDeleteResponse;
+import io.nitric.proto.document.v1.DocumentGetRequest;
+import io.nitric.proto.document.v1.DocumentGetResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.DocumentSetRequest;
+import io.nitric.proto.document.v1.DocumentSetResponse;
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class CollectionTest {
+
+    @AfterEach
+    public void tearDown() {
+        Documents.setFutureStub(null);
+    }
+
+    @Test
+    public void test_getAll() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenAnswer(invocation -> {
+            DocumentGetRequest request = invocation.getArgument(0);
+            var id = request.getKey().getId();
+            if (id.equals("missing")) {
+                return Futures.immediateFailedFuture(new StatusRuntimeException(Status.NOT_FOUND));
+            }
+            var content = ProtoUtils.toStruct(Map.of("email", id + "@example.com"));
+            return Futures.immediateFuture(
+                DocumentGetResponse.newBuilder().setDocument(Document.newBuilder().setContent(content)).build()
+            );
+        });
+        Documents.setFutureStub(mock);
+
+        var customers = new Documents().collection("customers");
+
+        var results = customers.getAll(List.of("anne", "missing", "john"), Customer.class);
+        assertEquals(3, results.size());
+
+        assertEquals("anne", results.get(0).getKey().getId());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("anne@example.com", results.get(0).getContent().getEmail());
+
+        assertEquals("missing", results.get(1).getKey().getId());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getContent());
+        assertTrue(results.get(1).getError() instanceof NotFoundException);
+
+        assertEquals("john@example.com", results.get(2).getContent().getEmail());
+
+        var mapResults = customers.getAll(List.of("anne"));
+        assertEquals(Map.of("email", "anne@example.com"), mapResults.get(0).getContent());
+
+        assertTrue(customers.getAll(List.of()).isEmpty());
+
+        try {
+            customers.getAll(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-null ids", iae.getMessage());
+        }
+        try {
+            customers.getAll(List.of("anne", " "));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-blank id", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_setAll() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+
+        var anne = new Customer();
+        anne.setEmail("anne@example.com");
+        var john = new Customer();
+        john.setEmail("john@example.com");
+
+        var documents = new LinkedHashMap<String, Customer>();
+        documents.put("anne", anne);
+        documents.put("john", john);
+
+        var results = new Documents().collection("customers").setAll(documents);
+        assertEquals(2, results.size());
+        assertEquals("anne", results.get(0).getKey().getId());
+        assertEquals("john", results.get(1).getKey().getId());
+        assertTrue(results.stream().allMatch(BatchResult::isSuccess));
+
+        var captor = ArgumentCaptor.forClass(DocumentSetRequest.class);
+        Mockito.verify(mock, Mockito.times(2)).set(captor.capture());
+        var requests = captor.getAllValues();
+        assertEquals("anne", requests.get(0).getKey().getId());
+        assertEquals(Map.of("email", "anne@example.com"), ProtoUtils.toMap(requests.get(0).getContent()));
+        assertEquals(Map.of("email", "john@example.com"), ProtoUtils.toMap(requests.get(1).getContent()));
+
+        Map<String, Object> mapDocuments = Map.of("anne", Map.of("email", "anne@example.com"));
+        results = new Documents().collection("customers").setAll(mapDocuments);
+        assertTrue(results.get(0).isSuccess());
+    }
+
+    @Test
+    public void test_deleteAll() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.delete(Mockito.any())).thenAnswer(invocation -> {
+            DocumentDeleteRequest request = invocation.getArgument(0);
+            if (request.getKey().getId().equals("locked")) {
+                return Futures.immediateFailedFuture(new StatusRuntimeException(Status.INTERNAL));
+            }
+            return Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build());
+        });
+        Documents.setFutureStub(mock);
+
+        var results = new Documents().collection("customers").deleteAll(List.of("anne", "locked"));
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("locked", results.get(1).getKey().getId());
+        assertNotNull(results.get(1).getError());
+    }
+
+    @Test
+    public void test_batch_concurrency() {
+        var customers = new Documents().collection("customers");
+        var refs = new ArrayList<DocumentRef<Map>>();
+        for (int i = 0; i < 10; i++) {
+            refs.add(customers.doc("customer-" + i));
+        }
+
+        var futures = new ArrayList<CompletableFuture<String>>();
+        var batch = new DocumentBatch<>(refs, i -> {
+            var future = new CompletableFuture<String>();
+            futures.add(future);
+            return future;
+        });
+
+        var result = batch.run(3);
+        assertEquals(3, futures.size());
+
+        futures.get(1).complete("1");
+        assertEquals(4, futures.size());
+
+        futures.get(0).completeExceptionally(new IllegalStateException("failed"));
+        assertEquals(5, futures.size());
+
+        for (int i = 2; i < 10; i++) {
+            futures.get(i).complete(String.valueOf(i));
+        }
+        assertEquals(10, futures.size());
+
+        var results = result.join();
+        assertEquals(10, results.size());
+        assertTrue(results.get(0).getError() instanceof IllegalStateException);
+        for (int i = 1; i < 10; i++) {
+            assertEquals("customer-" + i, results.get(i).getKey().getId());
+            assertEquals(String.valueOf(i), results.get(i).getContent());
+        }
+
+        // Immediately completed calls do not recurse
+        refs.clear();
+        for (int i = 0; i < 50000; i++) {
+            refs.add(customers.doc("customer-" + i));
+        }
+        results = new DocumentBatch<>(refs, i -> CompletableFuture.completedFuture("done")).run(4).join();
+        assertEquals(50000, results.size());
+    }
+
+}
@@ -0,0 +1,331 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.Futures;
+import io.nitric.api.document.model.Customer;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentDeleteResponse;
+import io.nitric.proto.document.v1.DocumentGetResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.DocumentSetResponse;
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class DocumentCacheTest {
+
+    @AfterEach
+    public void tearDown() {
+        Documents.setServiceStub(null);
+        Documents.setFutureStub(null);
+    }
+
+    @Test
+    public void test_builder() {
+        var cache = DocumentCache.newBuilder().build();
+        assertEquals(DocumentCache.DEFAULT_MAXIMUM_SIZE, cache.maximumSize);
+        assertEquals(DocumentCache.DEFAULT_TIME_TO_LIVE, cache.timeToLive);
+        assertEquals(
+            "DocumentCache[maximumSize=1000, timeToLive=PT1M, size=0, hitCount=0, missCount=0, evictionCount=0]",
+            cache.toString()
+        );
+
+        try {
+            DocumentCache.newBuilder().maximumSize(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("maximumSize must be greater than 0", iae.getMessage());
+        }
+        try {
+            DocumentCache.newBuilder().timeToLive(Duration.ZERO);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("timeToLive must be greater than zero", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_eviction_expiry() {
+        var clock = new AtomicLong();
+        var cache = DocumentCache.newBuilder().maximumSize(2).timeToLive(Duration.ofSeconds(10)).build();
+        cache.nanoClock = clock::get;
+
+        var countries = new Documents().collection("countries");
+        var au = countries.doc("AU").getKey();
+        var nz = countries.doc("NZ").getKey();
+        var us = countries.doc("US").getKey();
+        var content = ProtoUtils.toStruct(Map.of("name", "Country"));
+
+        cache.put(au, content, cache.generation());
+        cache.put(nz, content, cache.generation());
+        assertSame(content, cache.get(au));
+
+        // NZ is least recently used
+        cache.put(us, content, cache.generation());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get(nz));
+        assertSame(content, cache.get(countries.doc("US").getKey()));
+
+        clock.set(Duration.ofSeconds(10).toNanos());
+        assertNull(cache.get(au));
+        assertEquals(1, cache.size());
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+
+        cache.invalidate(us);
+        assertEquals(0, cache.size());
+        cache.put(us, content, cache.generation());
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_put_invalidated() {
+        var cache = DocumentCache.newBuilder().maximumSize(1).build();
+
+        var countries = new Documents().collection("countries");
+        var au = countries.doc("AU").getKey();
+        var nz = countries.doc("NZ").getKey();
+        var content = ProtoUtils.toStruct(Map.of("name", "Country"));
+
+        // Content read before an invalidation of the same document is not cached
+        var generation = cache.generation();
+        cache.invalidate(au);
+        cache.put(au, content, generation);
+        assertEquals(0, cache.size());
+
+        cache.put(nz, content, generation);
+        assertEquals(1, cache.size());
+
+        // Content read before an evicted invalidation is not cached
+        cache.invalidate(nz);
+        cache.put(au, content, generation);
+        assertEquals(0, cache.size());
+
+        generation = cache.generation();
+        cache.invalidateAll();
+        cache.put(au, content, generation);
+        assertEquals(0, cache.size());
+
+        cache.put(au, content, cache.generation());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void test_get_set_interleaved() throws Exception {
+        var getStarted = new CountDownLatch(1);
+        var setDone = new CountDownLatch(1);
+
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenAnswer(invocation -> {
+            // Slow get, which reads the old content and completes after the set
+            getStarted.countDown();
+            assertTrue(setDone.await(5, TimeUnit.SECONDS));
+            return DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("email", "a@b.com"))))
+                .build();
+        });
+        Mockito.when(mock.set(Mockito.any())).thenReturn(DocumentSetResponse.newBuilder().build());
+        Documents.setServiceStub(mock);
+
+        var cache = DocumentCache.newBuilder().build();
+        var docRef = new Documents().collection("customers").doc("customer-1").cache(cache);
+
+        var get = CompletableFuture.supplyAsync(docRef::get);
+        assertTrue(getStarted.await(5, TimeUnit.SECONDS));
+        docRef.set(Map.of("email", "c@d.com"));
+        setDone.countDown();
+
+        assertEquals(Map.of("email", "a@b.com"), get.get(5, TimeUnit.SECONDS));
+
+        // The stale content is not cached, so the next get reads the document again
+        assertEquals(0, cache.size());
+        docRef.get();
+        Mockito.verify(mock, Mockito.times(2)).get(Mockito.any());
+    }
+
+    @Test
+    public void test_get_invalidate() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("email", "a@b.com"))))
+                .build()
+        );
+        Mockito.when(mock.set(Mockito.any())).thenReturn(DocumentSetResponse.newBuilder().build());
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(DocumentDeleteResponse.newBuilder().build());
+        Documents.setServiceStub(mock);
+
+        var cache = DocumentCache.newBuilder().build();
+        var customers = new Documents().collection("customers");
+
+        var customer = customers.doc("customer-1", Customer.class).cache(cache).get();
+        assertEquals("a@b.com", customer.getEmail());
+
+        // Cached values are decoded on each read
+        var cached = customers.doc("customer-1", Customer.class).cache(cache).get();
+        assertEquals("a@b.com", cached.getEmail());
+        assertNotSame(customer, cached);
+        assertEquals(Map.of("email", "a@b.com"), customers.doc("customer-1").cache(cache).get());
+        Mockito.verify(mock, Mockito.times(1)).get(Mockito.any());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+
+        customers.doc("customer-1").cache(cache).set(Map.of("email", "c@d.com"));
+        assertEquals(0, cache.size());
+
+        customers.doc("customer-1").cache(cache).get();
+        assertEquals(1, cache.size());
+        customers.doc("customer-1").cache(cache).delete();
+        assertEquals(0, cache.size());
+
+        // No cache
+        customers.doc("customer-1").get();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_writer_invalidate() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(Futures.immediateFuture(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("email", "a@b.com"))))
+                .build()
+        ));
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+
+        var cache = DocumentCache.newBuilder().build();
+        var docRef = new Documents().collection("customers").doc("customer-1").cache(cache);
+        var writer = BufferedDocumentWriter.newBuilder().flushInterval(Duration.ZERO).build();
+
+        // Buffered set invalidates the cached document
+        docRef.getAsync().join();
+        assertEquals(1, cache.size());
+        var write = writer.set(docRef, Map.of("email", "c@d.com"));
+        assertEquals(0, cache.size());
+
+        // Content cached before the buffered write is sent is invalidated when the write completes
+        docRef.getAsync().join();
+        assertEquals(1, cache.size());
+        writer.flush();
+        assertTrue(write.isDone());
+        assertEquals(0, cache.size());
+
+        // Buffered delete invalidates the cached document
+        docRef.getAsync().join();
+        writer.delete(docRef);
+        assertEquals(0, cache.size());
+        docRef.getAsync().join();
+        writer.close();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void test_collection_batch_invalidate() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(Futures.immediateFuture(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("email", "a@b.com"))))
+                .build()
+        ));
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+
+        var cache = DocumentCache.newBuilder().build();
+        var customers = new Documents().collection("customers").cache(cache);
+        var ids = List.of("customer-1", "customer-2");
+
+        // Batch gets read through the cache
+        customers.getAll(ids);
+        customers.getAll(ids);
+        assertEquals(2, cache.size());
+        Mockito.verify(mock, Mockito.times(2)).get(Mockito.any());
+
+        // Batch set invalidates the cached documents
+        customers.setAll(Map.of("customer-1", Map.of("email", "c@d.com")));
+        assertEquals(1, cache.size());
+
+        // Batch delete invalidates the cached documents
+        customers.deleteAll(ids);
+        assertEquals(0, cache.size());
+
+        // References created by the collection share its cache
+        assertSame(cache, customers.doc("customer-1").cache);
+        assertNull(new Documents().collection("customers").doc("customer-1").cache);
+    }
+
+    @Test
+    public void test_getAsync_invalidate() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(Futures.immediateFuture(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("email", "a@b.com"))))
+                .build()
+        ));
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(
+            Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+
+        var cache = DocumentCache.newBuilder().build();
+        var docRef = new Documents().collection("customers").doc("customer-1").cache(cache);
+
+        assertEquals(Map.of("email", "a@b.com"), docRef.getAsync().join());
+        assertEquals(Map.of("email", "a@b.com"), docRef.getAsync().join());
+        Mockito.verify(mock, Mockito.times(1)).get(Mockito.any());
+
+        docRef.setAsync(Map.of("email", "c@d.com")).join();
+        assertEquals(0, cache.size());
+
+        docRef.getAsync().join();
+        docRef.deleteAsync().join();
+        assertEquals(0, cache.size());
+    }
+
+}
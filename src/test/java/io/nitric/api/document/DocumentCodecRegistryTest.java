@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import com.google.gson.GsonBuilder;
+import com.google.protobuf.Struct;
+import io.nitric.api.document.model.Customer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides DocumentCodecRegistry test case.
+ */
+public class DocumentCodecRegistryTest {
+
+    @AfterEach
+    public void tearDown() {
+        DocumentCodecRegistry.providers = null;
+    }
+
+    @Test
+    public void test_getProviders() {
+        DocumentCodecRegistry.providers = null;
+        var providers = DocumentCodecRegistry.getProviders();
+        assertNotNull(providers);
+        assertSame(providers, DocumentCodecRegistry.getProviders());
+    }
+
+    @Test
+    public void test_getCodec() {
+        var widgetCodec = new WidgetCodec();
+        DocumentCodecRegistry.providers = List.of(new DocumentCodecProvider() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> DocumentCodec<T> getCodec(Class<T> type) {
+                return (type == Widget.class) ? (DocumentCodec<T>) widgetCodec : null;
+            }
+        });
+
+        assertSame(widgetCodec, DocumentCodecRegistry.getCodec(null, Widget.class));
+        assertSame(widgetCodec, DocumentCodecRegistry.getCodec(null, Widget.class));
+
+        // A Gson builder selects the Gson codec
+        var gsonBuilder = new GsonBuilder();
+        assertSame(GsonCache.getCodec(gsonBuilder, Widget.class), DocumentCodecRegistry.getCodec(gsonBuilder,
+            Widget.class));
+
+        // Types without a provided codec use the default Gson codec
+        assertSame(GsonCache.getCodec(null, Customer.class), DocumentCodecRegistry.getCodec(null, Customer.class));
+
+        var docRef = new Documents().collection("widgets").doc("widget-1", Widget.class);
+        assertSame(widgetCodec, docRef.getCodec());
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    static class Widget {
+        String name;
+    }
+
+    static class WidgetCodec implements DocumentCodec<Widget> {
+
+        @Override
+        public Widget decode(Struct content) {
+            return new Widget();
+        }
+
+        @Override
+        public Struct encode(Widget value) {
+            return Struct.getDefaultInstance();
+        }
+    }
+
+}
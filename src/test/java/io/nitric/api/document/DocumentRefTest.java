@@ -22,7 +22,9 @@ package io.nitric.api.document;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.gson.GsonBuilder;
+import com.google.protobuf.Struct;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.nitric.api.NitricException;
@@ -38,11 +40,14 @@ import io.nitric.proto.document.v1.DocumentServiceGrpc;
 import io.nitric.proto.document.v1.DocumentSetRequest;
 import io.nitric.proto.document.v1.DocumentSetResponse;
 import io.nitric.util.ProtoUtils;
+import io.nitric.util.StructMap;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -298,4 +303,178 @@ public class DocumentRefTest {
         assertSame(gsonBuilder, docRef.gsonBuilder);
     }
 
+    @Test
+    public void test_codec() {
+        var docRef = new Documents().collection("customers").doc("customer-1", Customer.class);
+        assertNull(docRef.codec);
+        assertSame(GsonCache.getCodec(null, Customer.class), docRef.getCodec());
+
+        var gsonBuilder = new GsonBuilder();
+        docRef.gsonBuilder(gsonBuilder);
+        assertSame(GsonCache.getCodec(gsonBuilder, Customer.class), docRef.getCodec());
+
+        var codec = new DocumentCodec<Customer>() {
+            @Override
+            public Customer decode(Struct content) {
+                var customer = new Customer();
+                customer.setEmail(content.getFieldsOrThrow("mail").getStringValue());
+                return customer;
+            }
+
+            @Override
+            public Struct encode(Customer value) {
+                return ProtoUtils.toStruct(Map.of("mail", value.getEmail()));
+            }
+        };
+        docRef.codec(codec);
+        assertSame(codec, docRef.getCodec());
+
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("mail", "a@b.com"))))
+                .build()
+        );
+        Mockito.when(mock.set(Mockito.any())).thenReturn(DocumentSetResponse.newBuilder().build());
+        Documents.setServiceStub(mock);
+
+        assertEquals("a@b.com", docRef.get().getEmail());
+
+        var customer = new Customer();
+        customer.setEmail("c@d.com");
+        docRef.set(customer);
+
+        var captor = ArgumentCaptor.forClass(DocumentSetRequest.class);
+        Mockito.verify(mock).set(captor.capture());
+        assertEquals("c@d.com", captor.getValue().getContent().getFieldsOrThrow("mail").getStringValue());
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_select() {
+        Map<String, Object> custMap = Map.of(
+            "email", "test@server.com",
+            "address", Map.of("street", "1 Example St", "city", "Sydney")
+        );
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(custMap)))
+                .build()
+        );
+        Documents.setServiceStub(mock);
+
+        var content = new Documents().collection("customers").doc("customer-1").select("address.city").get();
+        assertEquals(Map.of("address", Map.of("city", "Sydney")), content);
+
+        var customer = new Documents().collection("customers").doc("customer-1", Customer.class)
+            .select("address")
+            .get();
+        assertNull(customer.getEmail());
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_lazyMapContent() {
+        Map<String, Object> custMap = Map.of("email", "test@server.com", "address", Map.of("city", "Sydney"));
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(custMap)))
+                .build()
+        );
+        Documents.setServiceStub(mock);
+
+        var docRef = new Documents().collection("customers").doc("customer-1");
+        assertFalse(docRef.get() instanceof StructMap);
+
+        var content = docRef.lazyMapContent(true).get();
+        assertTrue(content instanceof StructMap);
+        assertEquals(custMap, content);
+        assertSame(content.get("address"), content.get("address"));
+
+        // Typed content is not affected
+        var customer = new Documents().collection("customers").doc("customer-1", Customer.class)
+            .lazyMapContent(true)
+            .get();
+        assertEquals("test@server.com", customer.getEmail());
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_integralNumbers() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+            DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(Map.of("visits", 12, "score", 0.5))))
+                .build()
+        );
+        Documents.setServiceStub(mock);
+
+        var docRef = new Documents().collection("customers").doc("customer-1");
+        assertEquals(12.0, docRef.get().get("visits"));
+
+        var content = docRef.integralNumbers(true).get();
+        assertEquals(12L, content.get("visits"));
+        assertEquals(0.5, content.get("score"));
+        assertEquals(12L, docRef.lazyMapContent(true).get().get("visits"));
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_collection_doc_async() {
+        Documents.setFutureStub(null);
+        assertNotNull(Documents.getFutureStub());
+
+        Map<String, Object> custMap = Map.of("email", "test@server.com");
+        var getResponse = DocumentGetResponse.newBuilder()
+                .setDocument(Document.newBuilder().setContent(ProtoUtils.toStruct(custMap)).build())
+                .build();
+
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(mock.get(Mockito.any())).thenReturn(Futures.immediateFuture(getResponse));
+        Mockito.when(mock.set(Mockito.any())).thenReturn(
+                Futures.immediateFuture(DocumentSetResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any())).thenReturn(
+                Futures.immediateFuture(DocumentDeleteResponse.newBuilder().build())
+        );
+        Documents.setFutureStub(mock);
+        assertSame(mock, Documents.getFutureStub());
+
+        var docRef = new Documents().collection("customers").doc("id", Customer.class);
+
+        var customer = docRef.getAsync().join();
+        assertEquals("test@server.com", customer.getEmail());
+
+        docRef.setAsync(customer).join();
+        var setRequest = ArgumentCaptor.forClass(DocumentSetRequest.class);
+        Mockito.verify(mock).set(setRequest.capture());
+        assertEquals(custMap, ProtoUtils.toMap(setRequest.getValue().getContent()));
+
+        assertNull(docRef.deleteAsync().join());
+        Mockito.verify(mock).delete(Mockito.any());
+
+        try {
+            docRef.setAsync(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.get(Mockito.any())).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.NOT_FOUND))
+        );
+        try {
+            docRef.getAsync().join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NotFoundException);
+        }
+    }
+
 }
@@ -0,0 +1,67 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.GsonBuilder;
+import io.nitric.api.document.model.Customer;
+import org.junit.jupiter.api.Test;
+
+public class GsonCacheTest {
+
+    @Test
+    public void test_getGson() {
+        var defaultGson = GsonCache.getGson(null);
+        assertNotNull(defaultGson);
+        assertSame(defaultGson, GsonCache.getGson(null));
+
+        var gsonBuilder = new GsonBuilder();
+        var gson = GsonCache.getGson(gsonBuilder);
+        assertNotNull(gson);
+        assertNotSame(defaultGson, gson);
+        assertSame(gson, GsonCache.getGson(gsonBuilder));
+
+        assertNotSame(gson, GsonCache.getGson(new GsonBuilder()));
+    }
+
+    @Test
+    public void test_getAdapter() {
+        var adapter = GsonCache.getAdapter(null, Customer.class);
+        assertNotNull(adapter);
+        assertSame(adapter, GsonCache.getAdapter(null, Customer.class));
+
+        var customer = adapter.fromJsonTree(GsonCache.getGson(null).toJsonTree(Map.of("email", "test@server.com")));
+        assertEquals("test@server.com", customer.getEmail());
+
+        var gsonBuilder = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE);
+        var upperAdapter = GsonCache.getAdapter(gsonBuilder, Customer.class);
+        assertNotSame(adapter, upperAdapter);
+        assertSame(upperAdapter, GsonCache.getAdapter(gsonBuilder, Customer.class));
+
+        customer = upperAdapter.fromJsonTree(GsonCache.getGson(null).toJsonTree(Map.of("Email", "test@server.com")));
+        assertEquals("test@server.com", customer.getEmail());
+    }
+
+}
@@ -0,0 +1,251 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonSyntaxException;
+import io.nitric.api.document.model.Customer;
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provides GsonDocumentCodec test case.
+ */
+public class GsonDocumentCodecTest {
+
+    @Test
+    public void test_constructor() {
+        try {
+            new GsonDocumentCodec<>(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        var codec = new GsonDocumentCodec<>(Customer.class);
+        assertEquals("GsonDocumentCodec[type=class io.nitric.api.document.model.Customer]", codec.toString());
+        assertSame(GsonCache.getCodec(null, Customer.class).adapter, codec.adapter);
+    }
+
+    @Test
+    public void test_decode() {
+        var content = ProtoUtils.toStruct(Map.of(
+            "name", "Anakin",
+            "age", 22,
+            "balance", 1234.5,
+            "active", true,
+            "tags", List.of("jedi", "pilot"),
+            "address", Map.of("city", "Mos Espa", "postcode", "4000"),
+            "attributes", Map.of("rank", "knight", "level", 7),
+            "orders", List.of(Map.of("sku", "POD-1", "quantity", 2), Map.of("sku", "POD-2", "quantity", 1))
+        ));
+
+        var profile = new GsonDocumentCodec<>(Profile.class).decode(content);
+
+        assertEquals("Anakin", profile.name);
+        assertEquals(22, profile.age);
+        assertEquals(1234.5, profile.balance);
+        assertTrue(profile.active);
+        assertEquals(List.of("jedi", "pilot"), profile.tags);
+        assertEquals("Mos Espa", profile.address.city);
+        assertEquals(4000, profile.address.postcode);
+        assertEquals(Map.of("rank", "knight", "level", 7.0), profile.attributes);
+        assertEquals(2, profile.orders.size());
+        assertEquals("POD-2", profile.orders.get(1).sku);
+        assertEquals(1L, profile.orders.get(1).quantity);
+
+        try {
+            new GsonDocumentCodec<>(Profile.class).decode(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_decode_nulls() {
+        var map = new HashMap<String, Object>();
+        map.put("name", null);
+        map.put("age", null);
+        map.put("attributes", null);
+        var content = ProtoUtils.toStruct(map);
+
+        // Null fields are skipped, leaving field initializer values
+        var profile = new GsonDocumentCodec<>(Profile.class).decode(content);
+        assertEquals("unknown", profile.name);
+        assertEquals(-1, profile.age);
+        assertNull(profile.attributes);
+
+        var nullsBuilder = new GsonBuilder().serializeNulls();
+        profile = new GsonDocumentCodec<>(Profile.class, nullsBuilder).decode(content);
+        assertNull(profile.name);
+        assertEquals(-1, profile.age);
+    }
+
+    @Test
+    public void test_decode_matches_json_tree() {
+        var content = ProtoUtils.toStruct(Map.of(
+            "name", 42,
+            "age", "23",
+            "balance", 9.99,
+            "tags", List.of(1, "two")
+        ));
+
+        var gson = GsonCache.getGson(null);
+        var expected = gson.fromJson(gson.toJsonTree(ProtoUtils.toMap(content)), Profile.class);
+        var profile = new GsonDocumentCodec<>(Profile.class).decode(content);
+
+        assertEquals(expected.name, profile.name);
+        assertEquals("42.0", profile.name);
+        assertEquals(expected.age, profile.age);
+        assertEquals(expected.balance, profile.balance);
+        assertEquals(expected.tags, profile.tags);
+    }
+
+    @Test
+    public void test_decode_invalid() {
+        var content = ProtoUtils.toStruct(Map.of("address", "Mos Espa"));
+
+        try {
+            new GsonDocumentCodec<>(Profile.class).decode(content);
+            fail();
+        } catch (JsonSyntaxException jse) {
+            assertTrue(jse.getMessage().contains("$.address"), jse.getMessage());
+        }
+    }
+
+    @Test
+    public void test_encode() {
+        var profile = new Profile();
+        profile.name = "Padme";
+        profile.age = 27;
+        profile.balance = 10.25;
+        profile.active = false;
+        profile.tags = List.of("senator");
+        profile.address = new Address();
+        profile.address.city = "Theed";
+        profile.address.postcode = 5000;
+        profile.attributes = Map.of("planet", "Naboo");
+        var order = new Order();
+        order.sku = "SHIP-1";
+        order.quantity = 3L;
+        profile.orders = List.of(order);
+
+        var content = new GsonDocumentCodec<>(Profile.class).encode(profile);
+
+        var gson = GsonCache.getGson(null);
+        Map<String, Object> expected = gson.fromJson(gson.toJsonTree(profile), Map.class);
+        assertEquals(ProtoUtils.toStruct(expected), content);
+
+        assertEquals("Padme", content.getFieldsOrThrow("name").getStringValue());
+        assertEquals(27, content.getFieldsOrThrow("age").getNumberValue());
+        assertEquals("Theed", content.getFieldsOrThrow("address").getStructValue()
+            .getFieldsOrThrow("city").getStringValue());
+        assertEquals("Naboo", content.getFieldsOrThrow("attributes").getStructValue()
+            .getFieldsOrThrow("planet").getStringValue());
+        assertEquals(3, content.getFieldsOrThrow("orders").getListValue().getValues(0).getStructValue()
+            .getFieldsOrThrow("quantity").getNumberValue());
+
+        try {
+            new GsonDocumentCodec<>(Profile.class).encode(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_encode_nulls() {
+        var profile = new Profile();
+        profile.name = null;
+
+        var content = new GsonDocumentCodec<>(Profile.class).encode(profile);
+        assertFalse(content.containsFields("name"));
+        assertFalse(content.containsFields("address"));
+
+        content = new GsonDocumentCodec<>(Profile.class, new GsonBuilder().serializeNulls()).encode(profile);
+        assertTrue(content.containsFields("name"));
+        assertTrue(content.containsFields("address"));
+    }
+
+    @Test
+    public void test_encode_subclass() {
+        var profile = new AdminProfile();
+        profile.role = "admin";
+
+        var content = new GsonDocumentCodec<>(Profile.class).encode(profile);
+        assertEquals("admin", content.getFieldsOrThrow("role").getStringValue());
+    }
+
+    @Test
+    public void test_encode_not_object() {
+        try {
+            new GsonDocumentCodec<>(String.class).encode("value");
+            fail();
+        } catch (IllegalStateException ise) {
+        }
+    }
+
+    @Test
+    public void test_round_trip_gsonBuilder() {
+        var gsonBuilder = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.UPPER_CAMEL_CASE);
+        var codec = new GsonDocumentCodec<>(Customer.class, gsonBuilder);
+
+        var customer = new Customer();
+        customer.setEmail("test@server.com");
+
+        var content = codec.encode(customer);
+        assertEquals("test@server.com", content.getFieldsOrThrow("Email").getStringValue());
+        assertEquals("test@server.com", codec.decode(content).getEmail());
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    static class Profile {
+        String name = "unknown";
+        int age = -1;
+        Double balance;
+        Boolean active;
+        List<String> tags;
+        Address address;
+        Map<String, Object> attributes;
+        List<Order> orders;
+    }
+
+    static class AdminProfile extends Profile {
+        String role;
+    }
+
+    static class Address {
+        String city;
+        int postcode;
+    }
+
+    static class Order {
+        String sku;
+        Long quantity;
+    }
+
+}
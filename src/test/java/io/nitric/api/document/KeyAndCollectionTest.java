@@ -83,4 +83,24 @@ public class KeyAndCollectionTest {
         assertFalse(subcollection.getParent().getCollection().hasParent());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void test_key_equals() {
+        var key = new Key(new Collection("users", null), "user-1");
+        assertEquals(key, new Key(new Collection("users", null), "user-1"));
+        assertEquals(key.hashCode(), new Key(new Collection("users", null), "user-1").hashCode());
+        assertNotEquals(key, new Key(new Collection("users", null), "user-2"));
+        assertNotEquals(key, new Key(new Collection("admins", null), "user-1"));
+        assertNotEquals(key, null);
+
+        var parentKey = new Key(new Collection("customers", null), "customer-1");
+        var subKey = new Key(new Collection("users", parentKey), "user-1");
+        assertNotEquals(key, subKey);
+        var otherParentKey = new Key(new Collection("customers", null), "customer-2");
+        assertEquals(subKey, new Key(new Collection("users", parentKey), "user-1"));
+        assertNotEquals(subKey, new Key(new Collection("users", otherParentKey), "user-1"));
+
+        assertEquals(key, Key.buildFromGrpcKey(key.toGrpcKey()));
+        assertEquals(subKey, Key.buildFromGrpcKey(subKey.toGrpcKey()));
+    }
+
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.Test;
+
+public class ProjectionTest {
+
+    @Test
+    public void test_of() {
+        assertNull(Projection.of());
+        assertNull(Projection.of((String[]) null));
+
+        var projection = Projection.of("title", "author.name", "author.email", "title");
+        assertEquals("[title, author.name, author.email]", projection.toString());
+
+        projection = Projection.of("author.name", "author", "author.email");
+        assertEquals("[author]", projection.toString());
+
+        try {
+            Projection.of("title", " ");
+            assertTrue(false);
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-blank field", iae.getMessage());
+        }
+
+        try {
+            Projection.of("author..name");
+            assertTrue(false);
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-blank field path names: author..name", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_apply() {
+        var content = ProtoUtils.toStruct(Map.of(
+            "title", "Projections",
+            "pages", 12,
+            "tags", List.of("query", "document"),
+            "author", Map.of("name", "Jane", "email", "jane@example.com", "address", Map.of("city", "Sydney")),
+            "reviewer", "John"
+        ));
+
+        var result = ProtoUtils.toMap(Projection.of("title", "tags").apply(content));
+        assertEquals(Map.of("title", "Projections", "tags", List.of("query", "document")), result);
+
+        result = ProtoUtils.toMap(Projection.of("author.name", "author.address.city", "missing").apply(content));
+        assertEquals(Map.of("author", Map.of("name", "Jane", "address", Map.of("city", "Sydney"))), result);
+
+        // Nested paths of non-object values are not selected
+        result = ProtoUtils.toMap(Projection.of("title.length", "reviewer").apply(content));
+        assertEquals(Map.of("reviewer", "John"), result);
+    }
+
+}
@@ -0,0 +1,382 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.nitric.api.NitricException;
+import io.nitric.proto.document.v1.Document;
+import io.nitric.proto.document.v1.DocumentQueryRequest;
+import io.nitric.proto.document.v1.DocumentQueryResponse;
+import io.nitric.proto.document.v1.DocumentQueryStreamRequest;
+import io.nitric.proto.document.v1.DocumentQueryStreamResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import io.nitric.proto.document.v1.Key;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Provide a QueryStream test case, against an in-process membrane Document Service stand-in.
+ */
+public class QueryStreamTest {
+
+    Server server;
+    ManagedChannel channel;
+    DocumentServiceStandIn service;
+
+    @AfterEach
+    public void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        Documents.setStreamStub(null);
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_stream() {
+        start(new DocumentServiceStandIn(2500));
+
+        var ids = new Documents().collection("orders").query().pageSize(100).streaming(true).stream()
+            .map(doc -> doc.getContent().get("id"))
+            .collect(Collectors.toList());
+
+        assertEquals(2500, ids.size());
+        assertEquals("0", ids.get(0));
+        assertEquals("2499", ids.get(2499));
+        assertEquals(1, service.streamCalls.get());
+        assertEquals(0, service.queryCalls.get());
+
+        var request = service.streamRequest;
+        assertEquals("orders", request.getCollection().getName());
+        assertEquals(0, request.getLimit());
+    }
+
+    @Test
+    public void test_stream_expressions() {
+        start(new DocumentServiceStandIn(10));
+
+        var count = new Documents().collection("orders").query()
+            .where("status", "==", "shipped")
+            .streaming(true)
+            .stream()
+            .count();
+
+        assertEquals(10, count);
+        var expression = service.streamRequest.getExpressions(0);
+        assertEquals("status", expression.getOperand());
+        assertEquals("==", expression.getOperator());
+        assertEquals("shipped", expression.getValue().getStringValue());
+    }
+
+    @Test
+    public void test_stream_flowControl_close() throws Exception {
+        start(new DocumentServiceStandIn(100_000));
+
+        var stream = new Documents().collection("orders").query().pageSize(100).streaming(true).stream();
+        var iterator = stream.iterator();
+
+        // The server only sends the flow control window of two pages ahead of the consumed documents
+        for (int i = 0; i < 500; i++) {
+            assertEquals(String.valueOf(i), iterator.next().getContent().get("id"));
+        }
+        assertTrue(service.sent.get() <= 700, "sent " + service.sent.get());
+
+        stream.close();
+        assertTrue(service.cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(service.sent.get() < 100_000);
+    }
+
+    @Test
+    public void test_stream_error() {
+        start(new DocumentServiceStandIn(10) {
+            @Override
+            public void queryStream(
+                DocumentQueryStreamRequest request,
+                StreamObserver<DocumentQueryStreamResponse> responseObserver) {
+
+                responseObserver.onError(Status.INVALID_ARGUMENT.withDescription("bad query").asRuntimeException());
+            }
+        });
+
+        try {
+            new Documents().collection("orders").query().streaming(true).stream();
+            fail();
+        } catch (NitricException ne) {
+            assertTrue(ne.getMessage().contains("bad query"));
+        }
+    }
+
+    @Test
+    public void test_stream_fallback() {
+        start(new DocumentServiceStandIn(2500) {
+            @Override
+            public void queryStream(
+                DocumentQueryStreamRequest request,
+                StreamObserver<DocumentQueryStreamResponse> responseObserver) {
+
+                responseObserver.onError(Status.UNIMPLEMENTED.asRuntimeException());
+            }
+        });
+
+        var count = new Documents().collection("orders").query().pageSize(1000).streaming(true).stream().count();
+        assertEquals(2500, count);
+        assertEquals(3, service.queryCalls.get());
+    }
+
+    @Test
+    public void test_stream_paged_default() {
+        start(new DocumentServiceStandIn(2500));
+
+        var count = new Documents().collection("orders").query().pageSize(1000).stream().count();
+
+        assertEquals(2500, count);
+        assertEquals(0, service.streamCalls.get());
+        assertEquals(3, service.queryCalls.get());
+    }
+
+    @Test
+    public void test_aggregates() {
+        start(new DocumentServiceStandIn(1000));
+
+        var query = new Documents().collection("orders").query().where("status", "==", "shipped").streaming(true);
+        assertEquals(1000, query.count());
+        assertEquals(499500.0, query.sum("total"));
+        assertEquals(0.0, query.min("total").getAsDouble());
+        assertEquals(999.0, query.max("total").getAsDouble());
+        assertEquals(4500.0, query.sum("item.weight"));
+        assertEquals(9.0, query.max("item.weight").getAsDouble());
+
+        // Missing and non-numeric fields are ignored
+        assertEquals(0.0, query.sum("missing"));
+        assertFalse(query.min("item.sku").isPresent());
+        assertFalse(query.max("id.length").isPresent());
+
+        assertEquals(9, service.streamCalls.get());
+        assertEquals(0, service.queryCalls.get());
+
+        try {
+            query.sum(" ");
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-blank field", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_aggregates_fallback() {
+        start(new DocumentServiceStandIn(2500) {
+            @Override
+            public void queryStream(
+                DocumentQueryStreamRequest request,
+                StreamObserver<DocumentQueryStreamResponse> responseObserver) {
+
+                responseObserver.onError(Status.UNIMPLEMENTED.asRuntimeException());
+            }
+        });
+
+        var query = new Documents().collection("orders").query().streaming(true);
+        assertEquals(2500, query.count());
+        assertEquals(3123750.0, query.sum("total"));
+        assertEquals(6, service.queryCalls.get());
+    }
+
+    @Test
+    public void test_stream_vs_paged_scan() {
+        // Simulate a membrane round trip latency of 2ms for each Query and QueryStream call
+        var documentCount = 20_000;
+        start(new DocumentServiceStandIn(documentCount, 2));
+
+        var query = new Documents().collection("orders").query(String.class).codec(new IdCodec()).pageSize(100);
+        var streamQuery = query.copy().streaming(true);
+        var pagedQuery = query.copy().prefetch(1);
+
+        // Compare the fastest of several scans, so JIT compilation is not included
+        long streamNanos = Long.MAX_VALUE;
+        long pagedNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            var start = System.nanoTime();
+            assertEquals(documentCount, streamQuery.stream().count());
+            streamNanos = Math.min(streamNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            assertEquals(documentCount, pagedQuery.stream().count());
+            pagedNanos = Math.min(pagedNanos, System.nanoTime() - start);
+        }
+
+        // The stream has no page round trips, so it is faster than paging with a prefetched page
+        assertTrue(streamNanos < pagedNanos,
+            "stream " + streamNanos / 1_000_000 + " ms, paged with prefetch " + pagedNanos / 1_000_000 + " ms");
+        assertEquals(3, service.streamCalls.get());
+        assertEquals(3 * documentCount / 100, service.queryCalls.get());
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private void start(DocumentServiceStandIn service) {
+        try {
+            this.service = service;
+            var name = InProcessServerBuilder.generateName();
+            server = InProcessServerBuilder.forName(name).addService(service).build().start();
+            channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+
+            Documents.setStreamStub(DocumentServiceGrpc.newStub(channel));
+            Documents.setServiceStub(DocumentServiceGrpc.newBlockingStub(channel));
+            Documents.setFutureStub(DocumentServiceGrpc.newFutureStub(channel));
+
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    /**
+     * Provides a codec for order documents which reads and writes only the <code>id</code> field.
+     */
+    static class IdCodec implements DocumentCodec<String> {
+
+        @Override
+        public String decode(Struct content) {
+            return content.getFieldsOrThrow("id").getStringValue();
+        }
+
+        @Override
+        public Struct encode(String value) {
+            return Struct.newBuilder()
+                .putFields("id", Value.newBuilder().setStringValue(value).build())
+                .build();
+        }
+    }
+
+    /**
+     * Provides a membrane DocumentService stand-in, which returns the given number of order documents from both
+     * the paged Query call and the flow controlled QueryStream call, after an optional call latency.
+     */
+    static class DocumentServiceStandIn extends DocumentServiceGrpc.DocumentServiceImplBase {
+
+        final int documentCount;
+        final long latencyMillis;
+        final AtomicInteger queryCalls = new AtomicInteger();
+        final AtomicInteger streamCalls = new AtomicInteger();
+        final AtomicInteger sent = new AtomicInteger();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        volatile DocumentQueryStreamRequest streamRequest;
+
+        DocumentServiceStandIn(int documentCount) {
+            this(documentCount, 0);
+        }
+
+        DocumentServiceStandIn(int documentCount, long latencyMillis) {
+            this.documentCount = documentCount;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public void query(DocumentQueryRequest request, StreamObserver<DocumentQueryResponse> responseObserver) {
+            queryCalls.incrementAndGet();
+            delay();
+
+            var offset = Integer.parseInt(request.getPagingTokenMap().getOrDefault("offset", "0"));
+            var end = Math.min(documentCount, offset + request.getLimit());
+
+            var documents = new ArrayList<Document>(end - offset);
+            for (int i = offset; i < end; i++) {
+                documents.add(newDocument(request.getCollection().getName(), i));
+            }
+
+            var response = DocumentQueryResponse.newBuilder().addAllDocuments(documents);
+            if (end < documentCount) {
+                response.putAllPagingToken(Map.of("offset", String.valueOf(end)));
+            }
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void queryStream(
+            DocumentQueryStreamRequest request,
+            StreamObserver<DocumentQueryStreamResponse> responseObserver) {
+
+            streamCalls.incrementAndGet();
+            streamRequest = request;
+            delay();
+
+            var serverObserver = (ServerCallStreamObserver<DocumentQueryStreamResponse>) responseObserver;
+            var next = new AtomicInteger();
+            serverObserver.setOnCancelHandler(cancelled::countDown);
+            serverObserver.setOnReadyHandler(() -> {
+                while (serverObserver.isReady() && !serverObserver.isCancelled()) {
+                    var index = next.getAndIncrement();
+                    if (index >= documentCount) {
+                        if (index == documentCount) {
+                            serverObserver.onCompleted();
+                        }
+                        return;
+                    }
+                    serverObserver.onNext(DocumentQueryStreamResponse.newBuilder()
+                        .setDocument(newDocument(request.getCollection().getName(), index))
+                        .build());
+                    sent.incrementAndGet();
+                }
+            });
+        }
+
+        private void delay() {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static Document newDocument(String collection, int index) {
+            var id = String.valueOf(index);
+            return Document.newBuilder()
+                .setKey(Key.newBuilder()
+                    .setCollection(io.nitric.proto.document.v1.Collection.newBuilder().setName(collection))
+                    .setId(id))
+                .setContent(Struct.newBuilder()
+                    .putFields("id", Value.newBuilder().setStringValue(id).build())
+                    .putFields("total", Value.newBuilder().setNumberValue(index).build())
+                    .putFields("item", Value.newBuilder().setStructValue(Struct.newBuilder()
+                        .putFields("weight", Value.newBuilder().setNumberValue(index % 10).build())
+                        .putFields("sku", Value.newBuilder().setStringValue("ABC-" + index).build())).build()))
+                .build();
+        }
+    }
+
+}
@@ -27,12 +27,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.GsonBuilder;
+import com.google.protobuf.Struct;
 import io.nitric.api.NitricException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -45,6 +50,7 @@ import io.nitric.proto.document.v1.DocumentQueryRequest;
 import io.nitric.proto.document.v1.DocumentQueryResponse;
 import io.nitric.proto.document.v1.DocumentServiceGrpc;
 import io.nitric.util.ProtoUtils;
+import io.nitric.util.StructMap;
 
 /**
  * Provide a query test case.
@@ -277,6 +283,434 @@ public class QueryTest {
         }
     }
 
+    @Test
+    public void test_stream_prefetch() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse("2"));
+        Documents.setServiceStub(mock);
+
+        var page2 = SettableFuture.<DocumentQueryResponse>create();
+        var page3 = SettableFuture.<DocumentQueryResponse>create();
+        var futureMock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(futureMock.query(Mockito.any())).thenAnswer(invocation -> {
+            DocumentQueryRequest request = invocation.getArgument(0);
+            return "2".equals(request.getPagingTokenMap().get("page")) ? page2 : page3;
+        });
+        Documents.setFutureStub(futureMock);
+
+        // The next page is requested when the stream is created
+        var stream = newOrderQuery().prefetch(1).stream();
+        var captor = ArgumentCaptor.forClass(DocumentQueryRequest.class);
+        Mockito.verify(futureMock, Mockito.times(1)).query(captor.capture());
+        assertEquals(Map.of("page", "2"), captor.getValue().getPagingTokenMap());
+        assertEquals(1000, captor.getValue().getLimit());
+
+        // Prefetching is bounded by the prefetch depth
+        page2.set(createOrdersQueryResponse("3"));
+        Mockito.verify(futureMock, Mockito.times(1)).query(Mockito.any());
+
+        var iterator = stream.iterator();
+        for (int i = 0; i < 12; i++) {
+            assertTrue(iterator.hasNext());
+            assertNotNull(iterator.next().getContent());
+        }
+        Mockito.verify(futureMock, Mockito.times(1)).query(Mockito.any());
+
+        // Consuming page 2 requests page 3
+        assertTrue(iterator.hasNext());
+        Mockito.verify(futureMock, Mockito.times(2)).query(captor.capture());
+        assertEquals(Map.of("page", "3"), captor.getValue().getPagingTokenMap());
+
+        page3.set(createOrdersQueryResponse(null));
+        var count = 0;
+        while (iterator.hasNext()) {
+            assertNotNull(iterator.next().getKey());
+            count++;
+        }
+        assertEquals(24, count);
+        Mockito.verify(futureMock, Mockito.times(2)).query(Mockito.any());
+
+        // Deeper prefetching requests pages as each response arrives
+        Mockito.reset(futureMock);
+        Mockito.when(futureMock.query(Mockito.any())).thenAnswer(invocation -> {
+            DocumentQueryRequest request = invocation.getArgument(0);
+            var page = Integer.parseInt(request.getPagingTokenMap().get("page"));
+            var next = (page < 4) ? String.valueOf(page + 1) : null;
+            return Futures.immediateFuture(createOrdersQueryResponse(next));
+        });
+        assertEquals(48, newOrderQuery().prefetch(3).stream().count());
+        Mockito.verify(futureMock, Mockito.times(3)).query(Mockito.any());
+
+        Documents.setServiceStub(null);
+        Documents.setFutureStub(null);
+    }
+
+    @Test
+    public void test_stream_prefetch_error() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse("2"));
+        Documents.setServiceStub(mock);
+
+        var futureMock = Mockito.mock(DocumentServiceGrpc.DocumentServiceFutureStub.class);
+        Mockito.when(futureMock.query(Mockito.any())).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.INTERNAL))
+        );
+        Documents.setFutureStub(futureMock);
+
+        var stream = newOrderQuery().prefetch(2).stream();
+        try {
+            stream.count();
+            fail();
+        } catch (NitricException ne) {
+        }
+
+        // Closing the stream cancels outstanding requests
+        var page2 = SettableFuture.<DocumentQueryResponse>create();
+        Mockito.reset(futureMock);
+        Mockito.when(futureMock.query(Mockito.any())).thenReturn(page2);
+
+        stream = newOrderQuery().prefetch(2).stream();
+        assertEquals(12, stream.limit(12).count());
+        stream.close();
+        assertTrue(page2.isCancelled());
+
+        try {
+            newOrderQuery().prefetch(-1);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        Documents.setServiceStub(null);
+        Documents.setFutureStub(null);
+    }
+
+    @Test
+    public void test_parallelStream() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenAnswer(invocation -> {
+            DocumentQueryRequest request = invocation.getArgument(0);
+            var page = request.getPagingTokenMap().getOrDefault("page", "1");
+            return createOrdersQueryResponse("3".equals(page) ? null : String.valueOf(Integer.parseInt(page) + 1));
+        });
+        Documents.setServiceStub(mock);
+
+        var ids = newOrderQuery().parallelStream()
+                .map(doc -> doc.getContent().getId())
+                .collect(Collectors.toList());
+        assertEquals(36, ids.size());
+        Mockito.verify(mock, Mockito.times(3)).query(Mockito.any());
+
+        // Ordered results
+        var expected = new ArrayList<String>();
+        for (int page = 0; page < 3; page++) {
+            for (int i = 0; i < 12; i++) {
+                expected.add(String.valueOf(i));
+            }
+        }
+        assertEquals(expected, ids);
+
+        // Limited query fetches one page
+        Mockito.reset(mock);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse("2"));
+        assertEquals(12, newOrderQuery().limit(12).parallelStream().count());
+        var captor = ArgumentCaptor.forClass(DocumentQueryRequest.class);
+        Mockito.verify(mock, Mockito.times(1)).query(captor.capture());
+        assertEquals(12, captor.getValue().getLimit());
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.query(Mockito.any())).thenThrow(new StatusRuntimeException(Status.INTERNAL));
+        try {
+            newOrderQuery().parallelStream().count();
+            fail();
+        } catch (NitricException ne) {
+        }
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_parallelStream_partitions() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        var stream = newOrderQuery()
+                .where("status", "==", "active")
+                .parallelStream("id", List.of("g", "n", "t"));
+        assertTrue(stream.isParallel());
+        assertEquals(48, stream.count());
+
+        var captor = ArgumentCaptor.forClass(DocumentQueryRequest.class);
+        Mockito.verify(mock, Mockito.times(4)).query(captor.capture());
+
+        var partitions = captor.getAllValues().stream()
+                .map(request -> request.getExpressionsList().stream()
+                        .map(e -> e.getOperand() + e.getOperator() + e.getValue().getStringValue())
+                        .collect(Collectors.joining(" ")))
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(
+                "sku==BYD EA-1 status==active id<g",
+                "sku==BYD EA-1 status==active id>=g id<n",
+                "sku==BYD EA-1 status==active id>=n id<t",
+                "sku==BYD EA-1 status==active id>=t"
+        ), partitions);
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_parallelStream_partitions_limit() {
+        try {
+            newOrderQuery().limit(100).parallelStream("id", List.of("g", "n", "t"));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("limit is not supported by partitioned parallel streams", iae.getMessage());
+        }
+
+        var partitions = newOrderQuery().limit(100).partition("id", List.of("g", "n", "t"));
+        partitions.forEach(partition -> assertEquals(0, partition.limit));
+    }
+
+    @Test
+    public void test_parallelStream_partitions_pagingToken() {
+        try {
+            newOrderQuery().pagingFrom(Map.of("page", "2")).parallelStream("id", List.of("g", "n", "t"));
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("pagingToken is not supported by partitioned parallel streams", iae.getMessage());
+        }
+
+        var partitions = newOrderQuery().pagingFrom(Map.of("page", "2")).partition("id", List.of("g", "n", "t"));
+        partitions.forEach(partition -> assertNull(partition.pagingToken));
+
+        // An empty paging token does not resume a previous page
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        assertEquals(48, newOrderQuery().pagingFrom(Map.of()).parallelStream("id", List.of("g", "n", "t")).count());
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_querySpliterator() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        var partitions = newOrderQuery().partition("number", List.of(10, 20, 30));
+        assertEquals(4, partitions.size());
+
+        // Unstarted partitions split in half
+        var spliterator = new QuerySpliterator<>(partitions);
+        var prefix = spliterator.trySplit();
+        assertTrue(prefix instanceof QuerySpliterator);
+        assertEquals(2, ((QuerySpliterator<Order>) prefix).partitions.size());
+        assertEquals(2, spliterator.partitions.size());
+        Mockito.verify(mock, Mockito.never()).query(Mockito.any());
+
+        // A started partition splits off before the unstarted partitions
+        assertTrue(spliterator.tryAdvance(doc -> assertEquals("0", doc.getContent().getId())));
+        var started = spliterator.trySplit();
+        assertTrue(started instanceof QuerySpliterator);
+        assertNull(spliterator.partition);
+        assertEquals(1, spliterator.partitions.size());
+
+        final var count = new AtomicInteger();
+        started.forEachRemaining(doc -> count.incrementAndGet());
+        assertEquals(11, count.get());
+
+        // A single partition splits off the remaining documents of its current page
+        var page = spliterator.trySplit();
+        assertTrue(page instanceof QuerySpliterator.PageSpliterator);
+        assertEquals(12, page.estimateSize());
+        assertEquals(6, page.trySplit().estimateSize());
+        assertFalse(spliterator.tryAdvance(doc -> fail()));
+
+        try {
+            newOrderQuery().partition(null, List.of(1));
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_pageSize() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        var query = newOrderQuery();
+        assertEquals(1000, query.pageSize);
+
+        assertEquals(12, query.pageSize(250).stream().count());
+        assertEquals(12, query.parallelStream().count());
+        var captor = ArgumentCaptor.forClass(DocumentQueryRequest.class);
+        Mockito.verify(mock, Mockito.times(2)).query(captor.capture());
+        captor.getAllValues().forEach(request -> assertEquals(250, request.getLimit()));
+
+        // Fetch limit overrides page size
+        query.limit(10).fetch();
+        Mockito.verify(mock, Mockito.times(3)).query(captor.capture());
+        assertEquals(10, captor.getValue().getLimit());
+
+        try {
+            query.pageSize(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_lazyDecode() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        final var decodeCount = new AtomicInteger();
+        var codec = new DocumentCodec<Order>() {
+            @Override
+            public Order decode(Struct content) {
+                decodeCount.incrementAndGet();
+                return GsonCache.getCodec(null, Order.class).decode(content);
+            }
+
+            @Override
+            public Struct encode(Order value) {
+                return GsonCache.getCodec(null, Order.class).encode(value);
+            }
+        };
+
+        // Eager decode
+        var results = newOrderQuery().codec(codec).fetch();
+        assertEquals(12, decodeCount.get());
+
+        // Lazy decode
+        decodeCount.set(0);
+        results = newOrderQuery().codec(codec).lazyDecode(true).fetch();
+        assertTrue(results.queryData instanceof QueryResults.LazyResultDocs);
+        assertEquals(0, decodeCount.get());
+
+        var iterator = results.iterator();
+        assertEquals("0", iterator.next().getContent().getId());
+        assertEquals("1", iterator.next().getContent().getId());
+        assertEquals(2, decodeCount.get());
+
+        assertEquals(12, newOrderQuery().codec(codec).lazyDecode(true).stream().count());
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_lazyMapContent() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        var query = new Documents().collection("orders").query().limit(10);
+        assertFalse(query.fetch().iterator().next().getContent() instanceof StructMap);
+
+        // Lazily decoded documents are not lazy views
+        var content = query.lazyDecode(true).fetch().iterator().next().getContent();
+        assertFalse(content instanceof StructMap);
+        content.put("status", "shipped");
+
+        content = query.lazyDecode(false).lazyMapContent(true).fetch().iterator().next().getContent();
+        assertTrue(content instanceof StructMap);
+        assertEquals("0", content.get("id"));
+        assertTrue(query.copy().lazyMapContent);
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_integralNumbers() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(
+            DocumentQueryResponse.newBuilder()
+                .addDocuments(Document.newBuilder()
+                    .setKey(io.nitric.proto.document.v1.Key.newBuilder()
+                        .setCollection(io.nitric.proto.document.v1.Collection.newBuilder().setName("orders"))
+                        .setId("order-1"))
+                    .setContent(ProtoUtils.toStruct(Map.of("quantity", 3, "total", 12.5))))
+                .build()
+        );
+        Documents.setServiceStub(mock);
+
+        var query = new Documents().collection("orders").query().limit(10);
+        assertEquals(3.0, query.fetch().iterator().next().getContent().get("quantity"));
+
+        var content = query.integralNumbers(true).fetch().iterator().next().getContent();
+        assertEquals(3L, content.get("quantity"));
+        assertEquals(12.5, content.get("total"));
+
+        content = query.lazyMapContent(true).fetch().iterator().next().getContent();
+        assertTrue(content instanceof StructMap);
+        assertEquals(3L, content.get("quantity"));
+
+        assertTrue(query.copy().integralNumbers);
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_select() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        var query = newOrderQuery().select("id", "sku");
+        assertEquals("[id, sku]", query.projection.toString());
+        assertNotNull(query.copy().projection);
+        assertNull(newOrderQuery().select().projection);
+
+        var results = query.fetch();
+        var order = results.iterator().next().getContent();
+        assertEquals("0", order.getId());
+        assertNotNull(order.getSku());
+        assertNull(order.getNumber());
+        assertNull(order.getPrice());
+
+        var mapQuery = new Documents().collection("orders").query().select("id").limit(10);
+        mapQuery.stream().forEach(doc -> assertEquals(Collections.singleton("id"), doc.getContent().keySet()));
+
+        Documents.setServiceStub(null);
+    }
+
+    @Test
+    public void test_count() {
+        var mock = Mockito.mock(DocumentServiceGrpc.DocumentServiceBlockingStub.class);
+        Mockito.when(mock.query(Mockito.any())).thenReturn(createOrdersQueryResponse());
+        Documents.setServiceStub(mock);
+
+        final var decodeCount = new AtomicInteger();
+        var codec = new DocumentCodec<Order>() {
+            @Override
+            public Order decode(Struct content) {
+                decodeCount.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public Struct encode(Order value) {
+                return null;
+            }
+        };
+
+        // Contents are not decoded by the query codec
+        assertEquals(12, newOrderQuery().codec(codec).count());
+        assertEquals(0, decodeCount.get());
+        assertFalse(newOrderQuery().max("sku").isPresent());
+
+        Documents.setServiceStub(null);
+    }
+
     @Test
     public void test_objectMapper() {
         var collection = new Collection("customers", null);
@@ -294,7 +728,7 @@ public class QueryTest {
         Documents.setServiceStub(mock);
 
         var results = newOrderQuery().gsonBuilder(gsonBuilder).fetch();
-        assertSame(gsonBuilder, results.gsonBuilder);
+        assertSame(gsonBuilder, results.query.gsonBuilder);
     }
 
     @Test
@@ -406,6 +840,14 @@ public class QueryTest {
         return DocumentQueryResponse.newBuilder().addAllDocuments(newOrders()).build();
     }
 
+    private DocumentQueryResponse createOrdersQueryResponse(String nextPage) {
+        var builder = DocumentQueryResponse.newBuilder().addAllDocuments(newOrders());
+        if (nextPage != null) {
+            builder.putPagingToken("page", nextPage);
+        }
+        return builder.build();
+    }
+
     private DocumentQueryResponse createCustomersQueryResponse() {
         return DocumentQueryResponse.newBuilder()
                 .addAllDocuments(newCustomers())
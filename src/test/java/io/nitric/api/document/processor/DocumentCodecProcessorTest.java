@@ -0,0 +1,260 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.api.document.processor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import com.google.gson.Gson;
+import com.google.protobuf.Struct;
+import io.nitric.api.document.DocumentCodec;
+import io.nitric.api.document.DocumentCodecProvider;
+import io.nitric.api.document.DocumentModel;
+import io.nitric.api.document.GsonDocumentCodec;
+import io.nitric.util.ProtoUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Provides DocumentCodecProcessor test case.
+ */
+public class DocumentCodecProcessorTest {
+
+    static final String ACCOUNT_SOURCE = String.join("\n",
+        "package sample;",
+        "",
+        "import java.util.List;",
+        "import java.util.Map;",
+        "import com.google.gson.annotations.SerializedName;",
+        "import io.nitric.api.document.DocumentModel;",
+        "",
+        "@DocumentModel",
+        "public class Account {",
+        "    public enum Status { ACTIVE, CLOSED }",
+        "    static String constant = \"constant\";",
+        "    private String email;",
+        "    int age = -1;",
+        "    public Double balance;",
+        "    boolean active;",
+        "    @SerializedName(\"status_code\") Status status;",
+        "    List<String> tags;",
+        "    List<List<Integer>> matrix;",
+        "    Map<String, Object> attributes;",
+        "    Address address;",
+        "    List<Address> history;",
+        "    transient String cache = \"cache\";",
+        "    public String getEmail() { return email; }",
+        "    public void setEmail(String email) { this.email = email; }",
+        "",
+        "    @DocumentModel",
+        "    public static class Address {",
+        "        String city;",
+        "        long postcode;",
+        "    }",
+        "}");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_generated_codec() throws Exception {
+        var diagnostics = compile(Map.of("sample/Account.java", ACCOUNT_SOURCE));
+        assertTrue(diagnostics.getDiagnostics().stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR),
+            diagnostics.getDiagnostics().toString());
+
+        var services = tempDir.resolve("classes/META-INF/services/io.nitric.api.document.DocumentCodecProvider");
+        assertEquals(List.of("sample.AccountDocumentCodec", "sample.Account_AddressDocumentCodec"),
+            Files.readAllLines(services));
+
+        try (var loader = new URLClassLoader(new URL[] { tempDir.resolve("classes").toUri().toURL() },
+            getClass().getClassLoader())) {
+
+            var accountClass = loader.loadClass("sample.Account");
+            var providers = new ArrayList<DocumentCodecProvider>();
+            ServiceLoader.load(DocumentCodecProvider.class, loader).forEach(providers::add);
+            assertEquals(2, providers.size());
+
+            DocumentCodec codec = providers.stream()
+                .map(p -> p.getCodec(accountClass))
+                .filter(c -> c != null)
+                .findFirst()
+                .orElseThrow();
+            assertEquals("sample.AccountDocumentCodec", codec.getClass().getName());
+
+            var content = ProtoUtils.toStruct(Map.of(
+                "email", "anakin@example.com",
+                "age", "22",
+                "balance", 1234.5,
+                "active", true,
+                "status_code", "ACTIVE",
+                "tags", List.of("jedi", "pilot"),
+                "matrix", List.of(List.of(1, 2), List.of(3.7)),
+                "attributes", Map.of("rank", "knight", "level", 7),
+                "address", Map.of("city", "Mos Espa", "postcode", 4000),
+                "history", List.of(Map.of("city", "Coruscant"), Map.of("postcode", "12"))
+            ));
+
+            // The generated codec decodes and encodes content the same as the Gson codec
+            var gsonCodec = new GsonDocumentCodec(accountClass);
+            Object account = codec.decode(content);
+            Struct encoded = codec.encode(account);
+            assertEquals(gsonCodec.encode(gsonCodec.decode(content)), encoded);
+            assertEquals(new Gson().toJsonTree(gsonCodec.decode(content)), new Gson().toJsonTree(account));
+
+            assertEquals("anakin@example.com", encoded.getFieldsOrThrow("email").getStringValue());
+            assertEquals(22, encoded.getFieldsOrThrow("age").getNumberValue());
+            assertEquals("ACTIVE", encoded.getFieldsOrThrow("status_code").getStringValue());
+            assertEquals(3, encoded.getFieldsOrThrow("matrix").getListValue().getValues(1).getListValue()
+                .getValues(0).getNumberValue());
+            assertFalse(encoded.containsFields("cache"));
+            assertFalse(encoded.containsFields("constant"));
+
+            // Absent and null fields keep their initial values, and null fields are not encoded
+            var empty = codec.decode(ProtoUtils.toStruct(Map.of("email", "a@b.com")));
+            encoded = codec.encode(empty);
+            assertEquals(Struct.newBuilder()
+                .putFields("email", CodecSupport.stringValue("a@b.com"))
+                .putFields("age", CodecSupport.numberValue(-1))
+                .putFields("active", CodecSupport.boolValue(false))
+                .build(), encoded);
+        }
+    }
+
+    @Test
+    public void test_unsupported_field() throws Exception {
+        var source = String.join("\n",
+            "package sample;",
+            "",
+            "@io.nitric.api.document.DocumentModel",
+            "public class Event {",
+            "    java.util.Date created;",
+            "}");
+
+        var diagnostics = compile(Map.of("sample/Event.java", source));
+        var errors = errors(diagnostics);
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("field created has unsupported type java.util.Date"), errors.get(0));
+    }
+
+    @Test
+    public void test_inaccessible_field() throws Exception {
+        var source = String.join("\n",
+            "package sample;",
+            "",
+            "@io.nitric.api.document.DocumentModel",
+            "public class Secret {",
+            "    private String value;",
+            "    public String getValue() { return value; }",
+            "}");
+
+        var errors = errors(compile(Map.of("sample/Secret.java", source)));
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("must be accessible, or have accessible getValue() and setValue()"),
+            errors.get(0));
+    }
+
+    @Test
+    public void test_invalid_class() throws Exception {
+        var source = String.join("\n",
+            "package sample;",
+            "",
+            "@io.nitric.api.document.DocumentModel",
+            "public abstract class Base {",
+            "}");
+
+        var errors = errors(compile(Map.of("sample/Base.java", source)));
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("must not be abstract"), errors.get(0));
+
+        source = String.join("\n",
+            "package sample;",
+            "",
+            "@io.nitric.api.document.DocumentModel",
+            "public class Point {",
+            "    public Point(int x) { }",
+            "}");
+
+        errors = errors(compile(Map.of("sample/Point.java", source)));
+        assertEquals(1, errors.size(), errors.toString());
+        assertTrue(errors.get(0).contains("no-arg constructor"), errors.get(0));
+    }
+
+    // Private Methods --------------------------------------------------------
+
+    private DiagnosticCollector<JavaFileObject> compile(Map<String, String> sources) throws Exception {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        var classesDir = Files.createDirectories(tempDir.resolve("classes"));
+
+        var files = new ArrayList<File>();
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            var file = sourceDir.resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, entry.getValue());
+            files.add(file.toFile());
+        }
+
+        var classPath = Stream.of(DocumentModel.class, Struct.class, Gson.class)
+            .map(type -> {
+                try {
+                    return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .collect(Collectors.joining(File.pathSeparator));
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            var task = compiler.getTask(null, fileManager, diagnostics, List.of("-classpath", classPath,
+                "-d", classesDir.toString(), "-s", sourceDir.toString()), null,
+                fileManager.getJavaFileObjectsFromFiles(files));
+            task.setProcessors(List.of(new DocumentCodecProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    private static List<String> errors(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(null))
+            .collect(Collectors.toList());
+    }
+
+}
@@ -22,6 +22,7 @@ package io.nitric.api.event;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.google.common.util.concurrent.Futures;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.nitric.api.NitricException;
@@ -40,6 +41,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @ExtendWith(MockitoExtension.class)
 public class EventsTest {
@@ -155,4 +157,41 @@ public class EventsTest {
         }
     }
 
+    @Test
+    public void test_publishAsync() {
+        Events.setEventFutureStub(null);
+        assertNotNull(Events.getEventFutureStub());
+
+        var mock = Mockito.mock(EventServiceGrpc.EventServiceFutureStub.class);
+        Mockito.when(mock.publish(Mockito.any(EventPublishRequest.class))).thenReturn(
+                Futures.immediateFuture(EventPublishResponse.newBuilder().setId("id").build())
+        );
+        Events.setEventFutureStub(mock);
+        assertSame(mock, Events.getEventFutureStub());
+
+        var topic = new Events().topic("orders");
+        var event = Event.build(Map.of("status", "completed"));
+
+        assertNull(topic.publishAsync(event).join());
+        Mockito.verify(mock).publish(Mockito.any(EventPublishRequest.class));
+
+        try {
+            topic.publishAsync(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-null event", iae.getMessage());
+        }
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.publish(Mockito.any(EventPublishRequest.class))).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.INTERNAL))
+        );
+        try {
+            topic.publishAsync(event).join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NitricException);
+        }
+    }
+
 }
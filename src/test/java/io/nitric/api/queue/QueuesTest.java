@@ -22,6 +22,7 @@ package io.nitric.api.queue;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.google.common.util.concurrent.Futures;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.nitric.api.NitricException;
@@ -36,6 +37,7 @@ import io.nitric.proto.queue.v1.QueueSendBatchResponse;
 import io.nitric.proto.queue.v1.QueueServiceGrpc;
 import io.nitric.proto.queue.v1.QueueServiceGrpc.QueueServiceBlockingStub;
 import io.nitric.util.ProtoUtils;
+import io.nitric.util.StructMap;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
@@ -44,6 +46,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 
 @ExtendWith(MockitoExtension.class)
 public class QueuesTest {
@@ -200,6 +203,36 @@ public class QueuesTest {
         }
     }
 
+    @Test
+    public void test_receive_lazyPayloads() {
+        var mock = Mockito.mock(QueueServiceGrpc.QueueServiceBlockingStub.class);
+        Mockito.when(mock.receive(Mockito.any())).thenReturn(
+                QueueReceiveResponse
+                        .newBuilder()
+                        .addTasks(
+                            NitricTask
+                                .newBuilder()
+                                .setId("id")
+                                .setLeaseId("leaseId")
+                                .setPayload(ProtoUtils.toStruct(Map.of("type", "ship", "order", Map.of("id", "1"))))
+                                .build()
+                        )
+                        .build()
+        );
+        Queues.setServiceStub(mock);
+
+        var queue = new Queues().queue("queue");
+        assertSame(queue, queue.lazyPayloads(true));
+
+        var payload = queue.receive(10).get(0).getPayload();
+        assertTrue(payload instanceof StructMap);
+        assertEquals("ship", payload.get("type"));
+        assertSame(payload.get("order"), payload.get("order"));
+        assertEquals(Map.of("type", "ship", "order", Map.of("id", "1")), payload);
+
+        assertFalse(queue.lazyPayloads(false).receive(10).get(0).getPayload() instanceof StructMap);
+    }
+
     @Test
     public void test_complete() {
         var mock = Mockito.mock(QueueServiceGrpc.QueueServiceBlockingStub.class);
@@ -233,4 +266,59 @@ public class QueuesTest {
         }
     }
 
+    @Test
+    public void test_async() {
+        Queues.setFutureStub(null);
+        assertNotNull(Queues.getFutureStub());
+
+        var mock = Mockito.mock(QueueServiceGrpc.QueueServiceFutureStub.class);
+        Queues.setFutureStub(mock);
+        assertSame(mock, Queues.getFutureStub());
+
+        var protoTask = NitricTask.newBuilder()
+                .setId("id")
+                .setLeaseId("leaseId")
+                .setPayload(ProtoUtils.toStruct(Map.of("key", "value")))
+                .build();
+        var failedTask = FailedTask.newBuilder().setTask(protoTask).setMessage("failed").build();
+
+        Mockito.when(mock.sendBatch(Mockito.any(QueueSendBatchRequest.class))).thenReturn(
+                Futures.immediateFuture(QueueSendBatchResponse.newBuilder().build())
+        );
+
+        var queue = new Queues().queue("orders");
+        var task = Task.newBuilder().payload(Map.of("key", "value")).build();
+
+        assertNull(queue.sendAsync(task).join());
+        assertTrue(queue.sendBatchAsync(Collections.emptyList()).join().isEmpty());
+        Mockito.verify(mock, Mockito.times(1)).sendBatch(Mockito.any());
+
+        Mockito.when(mock.sendBatch(Mockito.any(QueueSendBatchRequest.class))).thenReturn(
+                Futures.immediateFuture(QueueSendBatchResponse.newBuilder().addFailedTasks(failedTask).build())
+        );
+        var failedTasks = queue.sendBatchAsync(Collections.singletonList(task)).join();
+        assertEquals(1, failedTasks.size());
+        assertEquals("failed", failedTasks.get(0).getMessage());
+        assertEquals("id", queue.sendAsync(task).join().getTask().getId());
+
+        Mockito.when(mock.receive(Mockito.any(QueueReceiveRequest.class))).thenReturn(
+                Futures.immediateFuture(QueueReceiveResponse.newBuilder().addTasks(protoTask).build())
+        );
+        var tasks = queue.receiveAsync(10).join();
+        assertEquals(1, tasks.size());
+        assertEquals("id", tasks.get(0).getId());
+        assertEquals("orders", tasks.get(0).getQueue());
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.receive(Mockito.any(QueueReceiveRequest.class))).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.INTERNAL))
+        );
+        try {
+            queue.receiveAsync(10).join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NitricException);
+        }
+    }
+
 }
@@ -22,6 +22,7 @@ package io.nitric.api.secret;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -37,6 +38,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
 
 @ExtendWith(MockitoExtension.class)
 public class SecretsTest {
@@ -259,4 +261,49 @@ public class SecretsTest {
 
         // Use the encryption key to decrypt the records PII data
     }
+    @Test
+    public void test_secret_async() {
+        Secrets.setFutureStub(null);
+        assertNotNull(Secrets.getFutureStub());
+
+        var protoVersion = io.nitric.proto.secret.v1.SecretVersion.newBuilder()
+                .setSecret(io.nitric.proto.secret.v1.Secret.newBuilder().setName("name").build())
+                .setVersion("2")
+                .build();
+
+        var mock = Mockito.mock(SecretServiceGrpc.SecretServiceFutureStub.class);
+        Mockito.when(mock.put(Mockito.any(SecretPutRequest.class))).thenReturn(
+                Futures.immediateFuture(SecretPutResponse.newBuilder().setSecretVersion(protoVersion).build())
+        );
+        Mockito.when(mock.access(Mockito.any(SecretAccessRequest.class))).thenReturn(
+                Futures.immediateFuture(SecretAccessResponse.newBuilder()
+                        .setSecretVersion(protoVersion)
+                        .setValue(ByteString.copyFromUtf8("value"))
+                        .build())
+        );
+        Secrets.setFutureStub(mock);
+        assertSame(mock, Secrets.getFutureStub());
+
+        var secret = new Secrets().secret("name");
+
+        var version = secret.putAsync("value".getBytes(StandardCharsets.UTF_8)).join();
+        assertEquals("2", version.getVersion());
+        assertSame(secret, version.getSecret());
+
+        var value = secret.latest().accessAsync().join();
+        assertEquals("value", value.getAsText());
+        assertEquals("2", value.getSecretVersion().getVersion());
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.access(Mockito.any(SecretAccessRequest.class))).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.INTERNAL))
+        );
+        try {
+            secret.latest().accessAsync().join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NitricException);
+        }
+    }
+
 }
@@ -23,7 +23,9 @@ package io.nitric.api.storage;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
 
+import com.google.common.util.concurrent.Futures;
 import com.google.protobuf.ByteString;
 
 import io.nitric.api.NitricException;
@@ -194,4 +196,50 @@ public class StorageTest {
         }
     }
 
+    @Test
+    public void test_bucket_file_async() {
+        Storage.setFutureStub(null);
+        assertNotNull(Storage.getFutureStub());
+
+        var mock = Mockito.mock(StorageServiceGrpc.StorageServiceFutureStub.class);
+        Mockito.when(mock.read(Mockito.any(StorageReadRequest.class))).thenReturn(
+                Futures.immediateFuture(StorageReadResponse.newBuilder().setBody(KNOWN_BS).build())
+        );
+        Mockito.when(mock.write(Mockito.any(StorageWriteRequest.class))).thenReturn(
+                Futures.immediateFuture(StorageWriteResponse.newBuilder().build())
+        );
+        Mockito.when(mock.delete(Mockito.any(StorageDeleteRequest.class))).thenReturn(
+                Futures.immediateFuture(StorageDeleteResponse.newBuilder().build())
+        );
+        Storage.setFutureStub(mock);
+
+        var file = new Storage().bucket("bucket").file(KNOWN_KEY);
+
+        assertEquals(KNOWN_TEXT, new String(file.readAsync().join()));
+
+        assertNull(file.writeAsync(KNOWN_BS.toByteArray()).join());
+        Mockito.verify(mock).write(Mockito.any(StorageWriteRequest.class));
+
+        assertNull(file.deleteAsync().join());
+        Mockito.verify(mock).delete(Mockito.any(StorageDeleteRequest.class));
+
+        try {
+            file.writeAsync(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-null data", iae.getMessage());
+        }
+
+        // Verify GRPC Failure Mode
+        Mockito.when(mock.read(Mockito.any(StorageReadRequest.class))).thenReturn(
+                Futures.immediateFailedFuture(new StatusRuntimeException(Status.NOT_FOUND))
+        );
+        try {
+            file.readAsync().join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NotFoundException);
+        }
+    }
+
 }
\ No newline at end of file
@@ -23,15 +23,21 @@ package io.nitric.faas;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.google.protobuf.ByteString;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
+import io.nitric.faas.event.AsyncEventMiddleware;
 import io.nitric.faas.event.EventContext;
 import io.nitric.faas.event.EventHandler;
 import io.nitric.faas.event.EventMiddleware;
+import io.nitric.faas.http.AsyncHttpHandler;
+import io.nitric.faas.http.AsyncHttpMiddleware;
 import io.nitric.faas.http.HttpContext;
 import io.nitric.faas.http.HttpHandler;
 import io.nitric.faas.http.HttpMiddleware;
 import io.nitric.proto.faas.v1.ClientMessage;
 import io.nitric.proto.faas.v1.FaasServiceGrpc;
+import io.nitric.proto.faas.v1.HttpTriggerContext;
 import io.nitric.proto.faas.v1.ServerMessage;
 import io.nitric.proto.faas.v1.TopicTriggerContext;
 import io.nitric.proto.faas.v1.TriggerRequest;
@@ -40,8 +46,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -173,9 +183,329 @@ public class FaasTest {
         } catch (Throwable t) {
             t.printStackTrace();
             fail();
+        } finally {
+            System.clearProperty("appcds");
         }
     }
 
+    @Test
+    public void test_dispatchExecutor() {
+        var faas = new Faas();
+        assertNull(faas.createDispatchExecutor());
+
+        faas.workerThreads(2);
+        var pool = faas.createDispatchExecutor();
+        assertNotNull(pool);
+        pool.shutdown();
+
+        faas.virtualThreads();
+        assertEquals(0, faas.workerThreads);
+        var virtual = faas.createDispatchExecutor();
+        assertNotNull(virtual);
+        virtual.shutdown();
+
+        var executor = Executors.newSingleThreadExecutor();
+        faas.executor(executor);
+        assertSame(executor, faas.executor);
+        assertFalse(faas.virtualThreads);
+        assertNull(faas.createDispatchExecutor());
+        executor.shutdown();
+
+        try {
+            faas.workerThreads(0);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+        try {
+            faas.executor(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_concurrentTriggers() throws Exception {
+        // The slow handler blocks until the fast trigger response has been written
+        var slowRelease = new CountDownLatch(1);
+        final HttpHandler handler = context -> {
+            if (context.getRequest().getPath().equals("/slow")) {
+                try {
+                    slowRelease.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            context.getResponse().text(context.getRequest().getPath());
+            return context;
+        };
+
+        var mockStub = Mockito.mock(FaasServiceGrpc.FaasServiceStub.class);
+        StreamObserver<ClientMessage> mockServerStream = Mockito.mock(StreamObserver.class);
+
+        AtomicReference<StreamObserver<ServerMessage>> clientStreamReference = new AtomicReference<>();
+        Mockito.when(mockStub.triggerStream(Mockito.any())).then(invocation -> {
+            clientStreamReference.set(invocation.getArgument(0));
+            return mockServerStream;
+        });
+
+        var responseIds = new java.util.concurrent.CopyOnWriteArrayList<String>();
+        CountDownLatch initRecievedLatch = new CountDownLatch(1);
+        CountDownLatch responsesLatch = new CountDownLatch(2);
+        Mockito.doAnswer((Answer<Object>) invocationOnMock -> {
+            ClientMessage message = invocationOnMock.getArgument(0);
+            if (message.hasInitRequest()) {
+                initRecievedLatch.countDown();
+            } else {
+                responseIds.add(message.getId());
+                slowRelease.countDown();
+                responsesLatch.countDown();
+            }
+            return null;
+        }).when(mockServerStream).onNext(Mockito.any());
+
+        var faas = new Faas().stub(mockStub).http(handler).workerThreads(2);
+
+        CountDownLatch functionCompleteLatch = new CountDownLatch(1);
+        Executors.newCachedThreadPool().submit(() -> {
+            faas.start();
+            functionCompleteLatch.countDown();
+        });
+
+        assertTrue(initRecievedLatch.await(5, TimeUnit.SECONDS));
+
+        var observer = clientStreamReference.get();
+        observer.onNext(httpTrigger("1", "/slow"));
+        observer.onNext(httpTrigger("2", "/fast"));
+
+        // The fast trigger is not queued behind the slow handler
+        assertTrue(responsesLatch.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("2", "1"), responseIds);
+
+        observer.onCompleted();
+        assertTrue(functionCompleteLatch.await(5, TimeUnit.SECONDS));
+        Mockito.verify(mockServerStream).onCompleted();
+    }
+
+    @Test
+    public void test_maxInFlight() throws Exception {
+        try {
+            new Faas().maxInFlight(-1);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        var mockStub = Mockito.mock(FaasServiceGrpc.FaasServiceStub.class);
+        ClientCallStreamObserver<ClientMessage> mockServerStream = Mockito.mock(ClientCallStreamObserver.class);
+
+        // Emulate the gRPC runtime invoking beforeStart() on the response observer
+        AtomicReference<ClientResponseObserver<ClientMessage, ServerMessage>> clientStreamReference =
+            new AtomicReference<>();
+        Mockito.when(mockStub.triggerStream(Mockito.any())).then(invocation -> {
+            ClientResponseObserver<ClientMessage, ServerMessage> clientStream = invocation.getArgument(0);
+            clientStream.beforeStart(mockServerStream);
+            clientStreamReference.set(clientStream);
+            return mockServerStream;
+        });
+
+        CountDownLatch initRecievedLatch = new CountDownLatch(1);
+        CountDownLatch responseLatch = new CountDownLatch(1);
+        Mockito.doAnswer((Answer<Object>) invocationOnMock -> {
+            ClientMessage message = invocationOnMock.getArgument(0);
+            if (message.hasInitRequest()) {
+                initRecievedLatch.countDown();
+            } else {
+                responseLatch.countDown();
+            }
+            return null;
+        }).when(mockServerStream).onNext(Mockito.any());
+
+        final HttpHandler handler = context -> context;
+        var faas = new Faas().stub(mockStub).http(handler).workerThreads(2).maxInFlight(2);
+
+        CountDownLatch functionCompleteLatch = new CountDownLatch(1);
+        Executors.newCachedThreadPool().submit(() -> {
+            faas.start();
+            functionCompleteLatch.countDown();
+        });
+
+        assertTrue(initRecievedLatch.await(5, TimeUnit.SECONDS));
+        Mockito.verify(mockServerStream).disableAutoRequestWithInitial(2);
+
+        // The init response slot is returned immediately
+        var observer = clientStreamReference.get();
+        observer.onNext(ServerMessage.newBuilder()
+                .setInitResponse(io.nitric.proto.faas.v1.InitResponse.newBuilder())
+                .build());
+        Mockito.verify(mockServerStream, Mockito.times(1)).request(1);
+
+        // The trigger slot is returned once the response has been written
+        observer.onNext(httpTrigger("1", "/"));
+        assertTrue(responseLatch.await(5, TimeUnit.SECONDS));
+        Mockito.verify(mockServerStream, Mockito.timeout(5000).times(2)).request(1);
+
+        observer.onCompleted();
+        assertTrue(functionCompleteLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_errorResponses() throws Exception {
+        // No HTTP handler registered
+        final EventHandler eventHandler = context -> context;
+        var response = triggerResponse(new Faas().event(eventHandler), httpTrigger("1", "/"));
+        assertEquals("1", response.getId());
+        assertEquals(500, response.getTriggerResponse().getHttp().getStatus());
+
+        // No Event handler registered
+        final HttpHandler httpHandler = context -> context;
+        response = triggerResponse(new Faas().http(httpHandler), ServerMessage.newBuilder()
+                .setId("2")
+                .setTriggerRequest(TriggerRequest.newBuilder()
+                        .setTopic(TopicTriggerContext.newBuilder().setTopic("test")))
+                .build());
+        assertEquals("2", response.getId());
+        assertFalse(response.getTriggerResponse().getTopic().getSuccess());
+
+        // Trigger rejected by the dispatch executor
+        var faas = new Faas().http(httpHandler).executor(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        response = triggerResponse(faas, httpTrigger("3", "/"));
+        assertEquals("3", response.getId());
+        assertEquals(500, response.getTriggerResponse().getHttp().getStatus());
+    }
+
+    @Test
+    public void test_asyncHandlers() {
+        var faas = new Faas()
+            .httpAsync(context -> CompletableFuture.completedFuture(context))
+            .eventAsync(context -> CompletableFuture.completedFuture(context));
+
+        assertTrue(faas.httpMiddlewares.get(0) instanceof AsyncHttpMiddleware.HandlerAdapter);
+        assertTrue(faas.eventMiddlewares.get(0) instanceof AsyncEventMiddleware.HandlerAdapter);
+
+        try {
+            faas.httpAsync(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+
+        try {
+            faas.eventAsync(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_asyncTriggers() throws Exception {
+        // The slow handler completes after the fast trigger response has been written, without a worker thread
+        var slowResult = new CompletableFuture<Void>();
+        final AsyncHttpHandler handler = context -> {
+            context.getResponse().text(context.getRequest().getPath());
+            if (context.getRequest().getPath().equals("/slow")) {
+                return slowResult.thenApply(v -> context);
+            }
+            return CompletableFuture.completedFuture(context);
+        };
+
+        var mockStub = Mockito.mock(FaasServiceGrpc.FaasServiceStub.class);
+        StreamObserver<ClientMessage> mockServerStream = Mockito.mock(StreamObserver.class);
+
+        AtomicReference<StreamObserver<ServerMessage>> clientStreamReference = new AtomicReference<>();
+        Mockito.when(mockStub.triggerStream(Mockito.any())).then(invocation -> {
+            clientStreamReference.set(invocation.getArgument(0));
+            return mockServerStream;
+        });
+
+        var responses = new java.util.concurrent.CopyOnWriteArrayList<ClientMessage>();
+        CountDownLatch initRecievedLatch = new CountDownLatch(1);
+        CountDownLatch responsesLatch = new CountDownLatch(2);
+        Mockito.doAnswer((Answer<Object>) invocationOnMock -> {
+            ClientMessage message = invocationOnMock.getArgument(0);
+            if (message.hasInitRequest()) {
+                initRecievedLatch.countDown();
+            } else {
+                responses.add(message);
+                responsesLatch.countDown();
+            }
+            return null;
+        }).when(mockServerStream).onNext(Mockito.any());
+
+        var faas = new Faas().stub(mockStub).httpAsync(handler);
+
+        CountDownLatch functionCompleteLatch = new CountDownLatch(1);
+        Executors.newCachedThreadPool().submit(() -> {
+            faas.start();
+            functionCompleteLatch.countDown();
+        });
+
+        assertTrue(initRecievedLatch.await(5, TimeUnit.SECONDS));
+
+        var observer = clientStreamReference.get();
+        observer.onNext(httpTrigger("1", "/slow"));
+        observer.onNext(httpTrigger("2", "/fast"));
+
+        assertEquals(1, responses.size());
+        assertEquals("2", responses.get(0).getId());
+
+        slowResult.complete(null);
+
+        assertTrue(responsesLatch.await(5, TimeUnit.SECONDS));
+        assertEquals("1", responses.get(1).getId());
+        assertEquals("/slow", responses.get(1).getTriggerResponse().getData().toStringUtf8());
+
+        observer.onCompleted();
+        assertTrue(functionCompleteLatch.await(5, TimeUnit.SECONDS));
+    }
+
+    private static ClientMessage triggerResponse(Faas faas, ServerMessage trigger) throws Exception {
+        var mockStub = Mockito.mock(FaasServiceGrpc.FaasServiceStub.class);
+        StreamObserver<ClientMessage> mockServerStream = Mockito.mock(StreamObserver.class);
+
+        AtomicReference<StreamObserver<ServerMessage>> clientStreamReference = new AtomicReference<>();
+        Mockito.when(mockStub.triggerStream(Mockito.any())).then(invocation -> {
+            clientStreamReference.set(invocation.getArgument(0));
+            return mockServerStream;
+        });
+
+        CountDownLatch initRecievedLatch = new CountDownLatch(1);
+        var responses = new LinkedBlockingQueue<ClientMessage>();
+        Mockito.doAnswer((Answer<Object>) invocationOnMock -> {
+            ClientMessage message = invocationOnMock.getArgument(0);
+            if (message.hasInitRequest()) {
+                initRecievedLatch.countDown();
+            } else {
+                responses.add(message);
+            }
+            return null;
+        }).when(mockServerStream).onNext(Mockito.any());
+
+        CountDownLatch functionCompleteLatch = new CountDownLatch(1);
+        Executors.newCachedThreadPool().submit(() -> {
+            faas.stub(mockStub).start();
+            functionCompleteLatch.countDown();
+        });
+
+        assertTrue(initRecievedLatch.await(5, TimeUnit.SECONDS));
+        clientStreamReference.get().onNext(trigger);
+        var response = responses.poll(5, TimeUnit.SECONDS);
+
+        clientStreamReference.get().onCompleted();
+        assertTrue(functionCompleteLatch.await(5, TimeUnit.SECONDS));
+
+        assertNotNull(response, "no response written for trigger " + trigger.getId());
+        return response;
+    }
+
+    private static ServerMessage httpTrigger(String id, String path) {
+        return ServerMessage.newBuilder()
+                .setId(id)
+                .setTriggerRequest(TriggerRequest.newBuilder()
+                        .setHttp(HttpTriggerContext.newBuilder().setMethod("GET").setPath(path))
+                        .build())
+                .build();
+    }
+
     @Test
     public void handleTopicTrigger() {
         final EventHandler handler = Mockito.mock(EventHandler.class);
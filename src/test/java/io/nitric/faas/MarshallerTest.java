@@ -174,6 +174,33 @@ public class MarshallerTest {
         assertEquals(0, htr2.getHeadersCount());
     }
 
+    @Test
+    public void test_zeroCopyData() {
+        var data = ByteString.copyFrom(LONG_DATA, StandardCharsets.UTF_8);
+
+        var httpTrigger = TriggerRequest.newBuilder()
+                .setData(data)
+                .setHttp(HttpTriggerContext.newBuilder().setMethod("POST"))
+                .build();
+
+        var httpCtx = Marshaller.toHttpContext(httpTrigger);
+        assertSame(httpTrigger.getData(), httpCtx.getRequest().getDataAsByteString());
+
+        httpCtx.getResponse().data(data);
+        assertSame(data, Marshaller.toHttpTriggerResponse(httpCtx.getResponse()).getData());
+
+        var topicTrigger = TriggerRequest.newBuilder()
+                .setData(data)
+                .setTopic(TopicTriggerContext.newBuilder().setTopic("topic"))
+                .build();
+
+        var eventCtx = Marshaller.toEventContext(topicTrigger);
+        assertSame(topicTrigger.getData(), eventCtx.getRequest().getDataAsByteString());
+
+        eventCtx.getResponse().data(data);
+        assertSame(data, Marshaller.toTopicTriggerResponse(eventCtx.getResponse()).getData());
+    }
+
     @Test void test_toTopicContext() {
         var triggerContext = TopicTriggerContext.newBuilder()
                 .setTopic("topic");
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas;
+
+import com.google.protobuf.ByteString;
+import io.nitric.faas.http.HttpContext;
+import io.nitric.proto.faas.v1.HeaderValue;
+import io.nitric.proto.faas.v1.HttpTriggerContext;
+import io.nitric.proto.faas.v1.QueryValue;
+import io.nitric.proto.faas.v1.TriggerRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Provides a ProtoHttpRequest unit test.
+ */
+public class ProtoHttpRequestTest {
+
+    @Test
+    public void test_headers() {
+        var request = new ProtoHttpRequest(trigger());
+
+        assertEquals("application/json", request.getHeader("Content-Type"));
+        assertEquals("application/json", request.getHeader("content-type"));
+        assertEquals("application/json", request.getHeader("CONTENT-TYPE"));
+        assertEquals("a", request.getHeader("X-Forwarded-For"));
+        assertNull(request.getHeader("Authorization"));
+        assertNull(request.getHeader("X-Empty"));
+
+        // Headers map is only created on first access
+        assertNull(request.headerMap);
+
+        var headers = request.getHeaders();
+        assertEquals(List.of("a", "b"), headers.get("X-Forwarded-For"));
+        assertEquals(List.of(), headers.get("X-Empty"));
+        assertEquals(3, headers.size());
+        assertSame(headers, request.getHeaders());
+
+        try {
+            headers.put("name", List.of());
+            fail();
+        } catch (UnsupportedOperationException uoe) {
+        }
+
+        try {
+            request.getHeader(" ");
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_queryParams() {
+        var request = new ProtoHttpRequest(trigger());
+
+        assertEquals("1", request.getQueryParam("id"));
+        assertNull(request.getQueryParam("ID"));
+        assertNull(request.getQueryParam("missing"));
+
+        assertNull(request.queryParamMap);
+
+        var queryParams = request.getQueryParams();
+        assertEquals(List.of("1", "1", "2"), queryParams.get("id"));
+        assertSame(queryParams, request.getQueryParams());
+    }
+
+    @Test
+    public void test_request() {
+        var request = new ProtoHttpRequest(trigger());
+
+        assertEquals("POST", request.getMethod());
+        assertEquals("/orders", request.getPath());
+        assertEquals("text/plain", request.getMimeType());
+        assertEquals("body", request.getDataAsText());
+        assertTrue(request.getPathParams().isEmpty());
+        assertTrue(request.getExtras().isEmpty());
+        assertTrue(request.toString().startsWith("Request[method=POST, path=/orders, headers={"));
+
+        // Builder copies the materialized headers
+        var copy = HttpContext.newBuilder().request(request).build().getRequest();
+        assertEquals(request.getHeaders(), copy.getHeaders());
+        assertEquals(request.getQueryParams(), copy.getQueryParams());
+        assertEquals("application/json", copy.getHeader("content-type"));
+    }
+
+    private TriggerRequest trigger() {
+        var http = HttpTriggerContext.newBuilder()
+            .setMethod("POST")
+            .setPath("/orders")
+            .putHeaders("Content-Type", HeaderValue.newBuilder().addValue("application/json").build())
+            .putHeaders("X-Forwarded-For", HeaderValue.newBuilder().addValue("a").addValue("b").addValue("a").build())
+            .putHeaders("X-Empty", HeaderValue.newBuilder().build())
+            .putQueryParams("id", QueryValue.newBuilder().addValue("1").addValue("1").addValue("2").build());
+
+        return TriggerRequest.newBuilder()
+            .setMimeType("text/plain")
+            .setData(ByteString.copyFromUtf8("body"))
+            .setHttp(http)
+            .build();
+    }
+
+}
@@ -24,13 +24,17 @@ import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.nitric.api.NitricException;
 import io.nitric.api.NotFoundException;
+import io.nitric.faas.event.AsyncEventMiddleware;
 import io.nitric.faas.event.EventContext;
 import io.nitric.faas.event.EventHandler;
 import io.nitric.faas.event.EventMiddleware;
+import io.nitric.faas.http.AsyncHttpHandler;
+import io.nitric.faas.http.AsyncHttpMiddleware;
 import io.nitric.faas.http.HttpContext;
 import io.nitric.faas.http.HttpHandler;
 import io.nitric.faas.http.HttpMiddleware;
 import io.nitric.faas.logger.JUtilLogger;
+import io.nitric.faas.logger.Logger;
 import io.nitric.proto.error.v1.ErrorDetails;
 import io.nitric.proto.error.v1.ErrorScope;
 import io.nitric.proto.faas.v1.HttpTriggerContext;
@@ -38,7 +42,10 @@ import io.nitric.proto.faas.v1.TopicTriggerContext;
 import io.nitric.proto.faas.v1.TriggerRequest;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -66,6 +73,46 @@ public class TriggerProcessorTest {
         assertSame(httpMiddleware, processor.httpMiddlewares.get(0));
     }
 
+    @Test
+    public void test_cachedMiddlewareChains() {
+        var processor = new TriggerProcessor();
+        assertNull(processor.eventMiddlewareChain);
+        assertNull(processor.httpMiddlewareChain);
+
+        var eventMiddleware1 = new TestEventMiddleware();
+        var eventMiddleware2 = new TestEventMiddleware();
+        processor.setEventMiddlewares(List.of(eventMiddleware1, eventMiddleware2));
+
+        var eventChain = processor.eventMiddlewareChain;
+        assertNotNull(eventChain);
+        assertSame(eventMiddleware1, ((TriggerProcessor.EventMiddlewareWrapper) eventChain).getTarget());
+        var eventNext = (TriggerProcessor.EventMiddlewareWrapper) eventChain.getNext();
+        assertSame(eventMiddleware2, eventNext.getTarget());
+        assertSame(EventMiddleware.FINAL_MIDDLEWARE, eventNext.getNext());
+
+        var httpMiddleware1 = new TestHttpMiddleware();
+        var httpMiddleware2 = new TestHttpMiddleware();
+        processor.setHttpMiddlewares(List.of(httpMiddleware1, httpMiddleware2));
+
+        var httpChain = processor.httpMiddlewareChain;
+        assertNotNull(httpChain);
+        assertSame(httpMiddleware1, ((TriggerProcessor.HttpMiddlewareWrapper) httpChain).getTarget());
+        var httpNext = (TriggerProcessor.HttpMiddlewareWrapper) httpChain.getNext();
+        assertSame(httpMiddleware2, httpNext.getTarget());
+        assertSame(HttpMiddleware.FINAL_MIDDLEWARE, httpNext.getNext());
+
+        // Chains are reused across requests
+        var request = TriggerRequest.newBuilder()
+            .setHttp(HttpTriggerContext.newBuilder().setMethod("GET"))
+            .build();
+        processor.processHttpTrigger(request);
+        processor.processHttpTrigger(request);
+        assertSame(httpChain, processor.httpMiddlewareChain);
+
+        processor.setHttpMiddlewares(List.of());
+        assertNull(processor.httpMiddlewareChain);
+    }
+
     @Test
     public void test_buildEventMiddlewareChain() {
         var processor = new TriggerProcessor();
@@ -382,6 +429,101 @@ public class TriggerProcessorTest {
         assertTrue(eventMiddleware.invokedTime > 0);
     }
 
+    @Test
+    public void test_processAsync() {
+        var triggerProcessor = new TriggerProcessor();
+        var logger = new TestLogger();
+        triggerProcessor.setLogger(logger);
+
+        // Mixed async and sync HTTP chain, with the async handler completing later on another thread
+        var pending = new CompletableFuture<Void>();
+        AsyncHttpHandler asyncHandler = context -> pending.thenApplyAsync(v -> {
+            context.getResponse().addHeader("async", "true").text("async");
+            return context;
+        });
+        triggerProcessor.setHttpMiddlewares(List.of(
+            new TestAsyncHttpMiddleware(),
+            new AsyncHttpMiddleware.HandlerAdapter(asyncHandler),
+            new TestHttpMiddleware()
+        ));
+
+        var httpRequest = TriggerRequest.newBuilder()
+                .setHttp(HttpTriggerContext.newBuilder().setMethod("GET"))
+                .build();
+
+        var stage = triggerProcessor.processAsync(httpRequest).toCompletableFuture();
+        assertFalse(stage.isDone());
+
+        pending.complete(null);
+
+        var res1 = stage.join();
+        assertEquals(200, res1.getHttp().getStatus());
+        assertEquals(TestHttpMiddleware.class.getSimpleName(), res1.getData().toStringUtf8());
+        assertTrue(res1.getHttp().getHeadersMap().containsKey("async"));
+        assertTrue(res1.getHttp().getHeadersMap().containsKey(TestAsyncHttpMiddleware.class.getSimpleName()));
+
+        // Sync process() waits for async middleware
+        var res2 = triggerProcessor.process(httpRequest);
+        assertEquals(TestHttpMiddleware.class.getSimpleName(), res2.getData().toStringUtf8());
+        assertTrue(res2.getHttp().getHeadersMap().containsKey("async"));
+
+        // Async handler errors are reported against the handler
+        AsyncHttpHandler errorHandler = context -> CompletableFuture.supplyAsync(() -> {
+            throw new IllegalArgumentException("async error");
+        });
+        triggerProcessor.setHttpMiddlewares(List.of(
+            new TestAsyncHttpMiddleware(), new AsyncHttpMiddleware.HandlerAdapter(errorHandler)
+        ));
+
+        var res3 = triggerProcessor.processAsync(httpRequest).toCompletableFuture().join();
+        assertEquals(500, res3.getHttp().getStatus());
+        assertEquals(HTTP_ERROR_MSG, res3.getData().toStringUtf8());
+        assertTrue(logger.errors.get(0) instanceof IllegalArgumentException);
+        assertEquals(errorHandler.getClass().getName(), logger.middlewares.get(0));
+
+        // Sync errors in a sync middleware are reported against that middleware
+        triggerProcessor.setHttpMiddlewares(List.of(
+            new TestAsyncHttpMiddleware(), new ErrorHttpMiddleware()
+        ));
+        var res4 = triggerProcessor.processAsync(httpRequest).toCompletableFuture().join();
+        assertEquals(500, res4.getHttp().getStatus());
+        assertEquals(ErrorHttpMiddleware.class.getName(), logger.middlewares.get(1));
+
+        // Null context
+        triggerProcessor.setHttpMiddlewares(List.of(new NullHttpMiddleware()));
+        var res5 = triggerProcessor.processAsync(httpRequest).toCompletableFuture().join();
+        assertEquals(500, res5.getHttp().getStatus());
+        assertTrue(logger.errors.get(2) instanceof IllegalStateException);
+
+        // Async Event chain
+        triggerProcessor.setEventMiddlewares(List.of(
+            new AsyncEventMiddleware.HandlerAdapter(context -> CompletableFuture.supplyAsync(() -> {
+                context.getResponse().success(true).text("event");
+                return context;
+            }))
+        ));
+
+        var topicRequest = TriggerRequest.newBuilder()
+                .setTopic(TopicTriggerContext.newBuilder().setTopic("orders"))
+                .build();
+
+        var res6 = triggerProcessor.processAsync(topicRequest).toCompletableFuture().join();
+        assertTrue(res6.getTopic().getSuccess());
+        assertEquals("event", res6.getData().toStringUtf8());
+
+        triggerProcessor.setEventMiddlewares(List.of(
+            new AsyncEventMiddleware.HandlerAdapter(context -> CompletableFuture.failedFuture(new Exception("failed")))
+        ));
+        var res7 = triggerProcessor.processAsync(topicRequest).toCompletableFuture().join();
+        assertFalse(res7.getTopic().getSuccess());
+
+        try {
+            triggerProcessor.processAsync(TriggerRequest.newBuilder().build());
+            fail();
+        } catch (UnsupportedOperationException uoe) {
+        }
+    }
+
     // Package Private Methods ------------------------------------------------
 
     static NitricException createNitricException() {
@@ -405,6 +547,33 @@ public class TriggerProcessorTest {
 
     // Inner Classes ----------------------------------------------------------
 
+    public static class TestAsyncHttpMiddleware extends AsyncHttpMiddleware {
+        @Override
+        public CompletionStage<HttpContext> handleAsync(HttpContext context, HttpMiddleware next) {
+            context.getResponse().addHeader(getClass().getSimpleName(), "true");
+            return invokeAsync(next, context);
+        }
+    }
+
+    public static class TestLogger implements Logger {
+        final List<Throwable> errors = new ArrayList<>();
+        final List<String> middlewares = new ArrayList<>();
+
+        @Override
+        public void info(String format, Object... args) {
+        }
+
+        @Override
+        public void error(String format, Object... args) {
+        }
+
+        @Override
+        public void error(Throwable error, String format, Object... args) {
+            errors.add(error);
+            middlewares.add(String.valueOf(args[args.length - 1]));
+        }
+    }
+
     public static class TestEventHandler implements EventHandler {
         int invokedCount;
         long invokedTime;
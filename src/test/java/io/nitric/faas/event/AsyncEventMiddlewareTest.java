@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.faas.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Provides an AsyncEventMiddleware test case.
+ */
+public class AsyncEventMiddlewareTest {
+
+    @Test
+    public void test_adapter_handleAsync() {
+        AsyncEventHandler handler = context -> CompletableFuture.supplyAsync(() -> {
+            context.getResponse().text("async");
+            return context;
+        });
+
+        var middlewareAdapter = new AsyncEventMiddleware.HandlerAdapter(handler);
+        assertSame(handler, middlewareAdapter.getHandler());
+
+        var context = EventContext.newBuilder().build();
+
+        var ctx = middlewareAdapter.handleAsync(context, EventMiddleware.FINAL_MIDDLEWARE).toCompletableFuture().join();
+        assertSame(context, ctx);
+        assertEquals("async", ctx.getResponse().getDataAsText());
+
+        // Synchronous handle() waits for the stage
+        var ctx2 = middlewareAdapter.handle(EventContext.newBuilder().build(), EventMiddleware.FINAL_MIDDLEWARE);
+        assertEquals("async", ctx2.getResponse().getDataAsText());
+
+        try {
+            new AsyncEventMiddleware.HandlerAdapter(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_handle_error() {
+        var middleware = new TestAsyncEventMiddleware(CompletableFuture.failedFuture(new IllegalStateException("x")));
+
+        try {
+            middleware.handle(EventContext.newBuilder().build(), EventMiddleware.FINAL_MIDDLEWARE);
+            fail();
+        } catch (IllegalStateException ise) {
+            assertEquals("x", ise.getMessage());
+        }
+    }
+
+    @Test
+    public void test_invokeAsync() {
+        var context = EventContext.newBuilder().build();
+
+        // Synchronous middleware are adapted to completed stages
+        var stage = AsyncEventMiddleware.invokeAsync(EventMiddleware.FINAL_MIDDLEWARE, context);
+        assertSame(context, stage.toCompletableFuture().join());
+
+        var errorMiddleware = new EventMiddleware() {
+            @Override
+            public EventContext handle(EventContext context, EventMiddleware next) {
+                throw new IllegalArgumentException("error");
+            }
+        };
+        var errorStage = AsyncEventMiddleware.invokeAsync(errorMiddleware, context).toCompletableFuture();
+        assertTrue(errorStage.isCompletedExceptionally());
+
+        // Async middleware invoke the next middleware
+        var middleware = new TestAsyncEventMiddleware(null);
+        middleware.setNext(new EventMiddleware.HandlerAdapter(ctx -> {
+            ctx.getResponse().text("next");
+            return ctx;
+        }));
+        var ctx = AsyncEventMiddleware.invokeAsync(middleware, context).toCompletableFuture().join();
+        assertEquals("next", ctx.getResponse().getDataAsText());
+    }
+
+    // Inner Classes ----------------------------------------------------------
+
+    public static class TestAsyncEventMiddleware extends AsyncEventMiddleware {
+
+        final CompletionStage<EventContext> result;
+
+        TestAsyncEventMiddleware(CompletionStage<EventContext> result) {
+            this.result = result;
+        }
+
+        @Override
+        public CompletionStage<EventContext> handleAsync(EventContext context, EventMiddleware next) {
+            return (result != null) ? result : invokeAsync(next, context);
+        }
+    }
+
+}
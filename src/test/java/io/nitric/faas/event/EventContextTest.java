@@ -20,15 +20,20 @@
 
 package io.nitric.faas.event;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
+import com.google.protobuf.ByteString;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -60,6 +65,42 @@ public class EventContextTest {
                      request.toString());
     }
 
+    @Test
+    public void test_requestDataViews() throws IOException {
+        var request = new EventContext.Request(null, null, null, null);
+        assertSame(ByteString.EMPTY, request.getDataAsByteString());
+        assertEquals(0, request.getDataAsByteBuffer().remaining());
+
+        var body = ByteString.copyFrom(longData);
+        var request2 = new EventContext.Request("topic", "mimeType", body);
+        assertSame(body, request2.getDataAsByteString());
+        assertTrue(request2.getDataAsByteBuffer().isReadOnly());
+        assertArrayEquals(longData, request2.getDataAsStream().readAllBytes());
+        assertEquals(new String(longData), request2.getDataAsText());
+        assertTrue(request2.getExtras().isEmpty());
+
+        var bytes = request2.getData();
+        assertArrayEquals(longData, bytes);
+        assertSame(bytes, request2.getData());
+
+        var request3 = EventContext.newBuilder().data(body).build().getRequest();
+        assertSame(body, request3.getDataAsByteString());
+    }
+
+    @Test
+    public void test_responseDataViews() {
+        var body = ByteString.copyFrom(longData);
+        var response = new EventContext.Response().data(body);
+        assertSame(body, response.getDataAsByteString());
+        assertEquals(new String(longData), response.getDataAsText());
+        assertArrayEquals(longData, response.getData());
+
+        var response2 = new EventContext.Response().data(ByteBuffer.wrap(longData));
+        assertEquals(body, response2.getDataAsByteString());
+
+        assertNull(new EventContext.Response().getDataAsByteString());
+    }
+
     @Test
     public void test_response() {
         var response = new EventContext.Response();
@@ -20,16 +20,21 @@
 
 package io.nitric.faas.http;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
+import com.google.protobuf.ByteString;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -69,6 +74,7 @@ public class HttpContextTest {
         assertEquals("A third-party OAuth application (JetBrains IDE Integration) with gist, read:org, repo", new String(request2.getData()));
         assertEquals("A third-party OAuth application (JetBrains IDE Integration) with gist, read:org, repo", request2.getDataAsText());
         assertEquals("value1", request2.getHeader("header"));
+        assertEquals("value1", request2.getHeader("HEADER"));
         assertEquals("{header=[value1, value2]}", request2.getHeaders().toString());
         assertEquals("value", request2.getQueryParam("param"));
         assertEquals("{param=[value]}", request2.getQueryParams().toString());
@@ -79,6 +85,62 @@ public class HttpContextTest {
                      request2.toString());
     }
 
+    @Test
+    public void test_requestDataViews() throws IOException {
+        var request = new HttpContext.Request(null, null, null, null, null, null, null, null);
+        assertSame(ByteString.EMPTY, request.getDataAsByteString());
+        assertEquals(0, request.getDataAsByteBuffer().remaining());
+        assertEquals(-1, request.getDataAsStream().read());
+
+        var body = ByteString.copyFrom(longData);
+        var request2 = new HttpContext.Request("POST", "/path", headers, paramsList, "text/plain", body);
+        assertSame(body, request2.getDataAsByteString());
+        assertTrue(request2.getDataAsByteBuffer().isReadOnly());
+        assertEquals(ByteBuffer.wrap(longData), request2.getDataAsByteBuffer());
+        assertArrayEquals(longData, request2.getDataAsStream().readAllBytes());
+        assertEquals(new String(longData), request2.getDataAsText());
+        assertTrue(request2.getPathParams().isEmpty());
+
+        // Byte array is copied once on first access
+        var bytes = request2.getData();
+        assertArrayEquals(longData, bytes);
+        assertSame(bytes, request2.getData());
+
+        // Byte array requests are viewed without copying
+        var request3 = new HttpContext.Request(null, null, null, null, null, longData, null, null);
+        assertSame(longData, request3.getData());
+        assertEquals(ByteString.copyFrom(longData), request3.getDataAsByteString());
+
+        var request4 = HttpContext.newBuilder().request(request2).build().getRequest();
+        assertSame(body, request4.getDataAsByteString());
+
+        var request5 = HttpContext.newBuilder().data(body).build().getRequest();
+        assertSame(body, request5.getDataAsByteString());
+    }
+
+    @Test
+    public void test_responseDataViews() {
+        var body = ByteString.copyFrom(longData);
+        var response = new HttpContext.Response().data(body);
+        assertSame(body, response.getDataAsByteString());
+        assertEquals(new String(longData), response.getDataAsText());
+        assertArrayEquals(longData, response.getData());
+        assertSame(body, new HttpContext.Response(response).getDataAsByteString());
+
+        var response2 = new HttpContext.Response().data(ByteBuffer.wrap(longData, 2, 5));
+        assertEquals(ByteString.copyFrom(longData, 2, 5), response2.getDataAsByteString());
+
+        var response3 = new HttpContext.Response().data(longData);
+        assertEquals(ByteString.copyFrom(longData), response3.getDataAsByteString());
+        assertSame(longData, response3.getData());
+
+        response3.text("text");
+        assertEquals("text", response3.getDataAsByteString().toStringUtf8());
+
+        assertNull(new HttpContext.Response().getDataAsByteString());
+        assertNull(new HttpContext.Response().data((ByteBuffer) null).getData());
+    }
+
     @Test
     public void test_response() {
         var response = new HttpContext.Response();
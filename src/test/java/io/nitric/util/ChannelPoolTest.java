@@ -0,0 +1,93 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class ChannelPoolTest {
+
+    @Test
+    public void test_newCall() {
+        var channel1 = Mockito.mock(ManagedChannel.class);
+        var channel2 = Mockito.mock(ManagedChannel.class);
+        var pool = new ChannelPool(List.of(channel1, channel2));
+        assertEquals(2, pool.size());
+
+        var method = DocumentServiceGrpc.getGetMethod();
+        for (int i = 0; i < 4; i++) {
+            pool.newCall(method, CallOptions.DEFAULT);
+        }
+        Mockito.verify(channel1, Mockito.times(2)).newCall(method, CallOptions.DEFAULT);
+        Mockito.verify(channel2, Mockito.times(2)).newCall(method, CallOptions.DEFAULT);
+
+        try {
+            new ChannelPool(Collections.emptyList());
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-empty channels", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_lifecycle() throws InterruptedException {
+        var channel1 = Mockito.mock(ManagedChannel.class);
+        var channel2 = Mockito.mock(ManagedChannel.class);
+        var pool = new ChannelPool(List.of(channel1, channel2));
+
+        Mockito.when(channel1.authority()).thenReturn("127.0.0.1:50051");
+        assertEquals("127.0.0.1:50051", pool.authority());
+        assertEquals("ChannelPool[size=2, authority=127.0.0.1:50051]", pool.toString());
+
+        assertSame(pool, pool.shutdown());
+        Mockito.verify(channel1).shutdown();
+        Mockito.verify(channel2).shutdown();
+
+        assertSame(pool, pool.shutdownNow());
+        Mockito.verify(channel1).shutdownNow();
+        Mockito.verify(channel2).shutdownNow();
+
+        Mockito.when(channel1.isShutdown()).thenReturn(true);
+        assertFalse(pool.isShutdown());
+        Mockito.when(channel2.isShutdown()).thenReturn(true);
+        assertTrue(pool.isShutdown());
+
+        Mockito.when(channel1.isTerminated()).thenReturn(true);
+        assertFalse(pool.isTerminated());
+        Mockito.when(channel2.isTerminated()).thenReturn(true);
+        assertTrue(pool.isTerminated());
+
+        Mockito.when(channel1.awaitTermination(Mockito.anyLong(), Mockito.any())).thenReturn(true);
+        assertFalse(pool.awaitTermination(1, TimeUnit.SECONDS));
+        Mockito.when(channel2.awaitTermination(Mockito.anyLong(), Mockito.any())).thenReturn(true);
+        assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+}
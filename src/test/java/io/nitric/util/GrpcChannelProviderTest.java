@@ -22,10 +22,25 @@ package io.nitric.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.okhttp.OkHttpChannelBuilder;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 public class GrpcChannelProviderTest {
 
+    final Map<String, String> env = new HashMap<>();
+
+    @AfterEach
+    public void reset() {
+        GrpcChannelProvider.envLookup = System::getenv;
+        GrpcChannelProvider.reset();
+    }
+
     @Test
     public void test_getChannel() {
         var channel = GrpcChannelProvider.getChannel();
@@ -44,4 +59,144 @@ public class GrpcChannelProviderTest {
         var value = GrpcChannelProvider.getEnvVar("unknown", "default");
         assertEquals("default", value);
     }
+
+    @Test
+    public void test_getChannel_pool() {
+        GrpcChannelProvider.envLookup = env::get;
+        assertEquals(1, GrpcChannelProvider.getPoolSize());
+
+        env.put("NITRIC_CHANNEL_POOL_SIZE", "3");
+        assertEquals(3, GrpcChannelProvider.getPoolSize());
+
+        var channel = GrpcChannelProvider.getChannel();
+        assertTrue(channel instanceof ChannelPool);
+        assertEquals(3, ((ChannelPool) channel).size());
+        assertSame(channel, GrpcChannelProvider.getChannel());
+
+        channel.shutdownNow();
+        assertNotSame(channel, GrpcChannelProvider.getChannel());
+
+        env.put("NITRIC_CHANNEL_POOL_SIZE", "0");
+        try {
+            GrpcChannelProvider.getPoolSize();
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("NITRIC_CHANNEL_POOL_SIZE must be greater than 0", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_getFaasChannel() {
+        GrpcChannelProvider.envLookup = env::get;
+        assertSame(GrpcChannelProvider.getChannel(), GrpcChannelProvider.getFaasChannel());
+
+        env.put("NITRIC_FAAS_DEDICATED_CHANNEL", "true");
+        var faasChannel = GrpcChannelProvider.getFaasChannel();
+        assertNotSame(GrpcChannelProvider.getChannel(), faasChannel);
+        assertSame(faasChannel, GrpcChannelProvider.getFaasChannel());
+    }
+
+    @Test
+    public void test_newChannelBuilder() {
+        GrpcChannelProvider.envLookup = env::get;
+        env.put("NITRIC_SERVICE_HOST", "membrane");
+        env.put("NITRIC_SERVICE_PORT", "9001");
+        env.put("NITRIC_CHANNEL_KEEPALIVE_TIME_MS", "30000");
+        env.put("NITRIC_CHANNEL_KEEPALIVE_TIMEOUT_MS", "5000");
+        env.put("NITRIC_CHANNEL_MAX_INBOUND_MESSAGE_SIZE", "16777216");
+        env.put("NITRIC_CHANNEL_FLOW_CONTROL_WINDOW", "4194304");
+        env.put("NITRIC_CHANNEL_IDLE_TIMEOUT_MS", "60000");
+        env.put("NITRIC_CHANNEL_EXECUTOR_THREADS", "2");
+        env.put("NITRIC_CHANNEL_TRANSPORT", "okhttp");
+
+        var builder = GrpcChannelProvider.newChannelBuilder();
+        assertTrue(builder instanceof OkHttpChannelBuilder);
+        assertNotNull(GrpcChannelProvider.executor);
+
+        var channel = builder.build();
+        assertEquals("membrane:9001", channel.authority());
+        channel.shutdownNow();
+
+        env.put("NITRIC_CHANNEL_IDLE_TIMEOUT_MS", "1m");
+        try {
+            GrpcChannelProvider.newChannelBuilder();
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("NITRIC_CHANNEL_IDLE_TIMEOUT_MS is not an integer: 1m", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_getEnvLong() {
+        GrpcChannelProvider.envLookup = env::get;
+        assertEquals(10L, GrpcChannelProvider.getEnvLong("NITRIC_TEST", 10));
+
+        env.put("NITRIC_TEST", " 20 ");
+        assertEquals(20L, GrpcChannelProvider.getEnvLong("NITRIC_TEST", 10));
+        assertEquals(20, GrpcChannelProvider.getEnvInt("NITRIC_TEST", 10));
+    }
+
+    @Test
+    public void test_getEnvInt_range() {
+        GrpcChannelProvider.envLookup = env::get;
+        env.put("NITRIC_TEST", String.valueOf(Integer.MAX_VALUE));
+        assertEquals(Integer.MAX_VALUE, GrpcChannelProvider.getEnvInt("NITRIC_TEST", 10));
+
+        env.put("NITRIC_CHANNEL_POOL_SIZE", "4294967297");
+        try {
+            GrpcChannelProvider.getPoolSize();
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("NITRIC_CHANNEL_POOL_SIZE is out of range: 4294967297", iae.getMessage());
+        }
+
+        env.put("NITRIC_TEST", "-2147483649");
+        try {
+            GrpcChannelProvider.getEnvInt("NITRIC_TEST", 10);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("NITRIC_TEST is out of range: -2147483649", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_newChannelBuilder_transport() {
+        GrpcChannelProvider.envLookup = env::get;
+        env.put("NITRIC_CHANNEL_FLOW_CONTROL_WINDOW", "4194304");
+        env.put("NITRIC_CHANNEL_DIRECT_EXECUTOR", "true");
+        env.put("NITRIC_CHANNEL_EXECUTOR_THREADS", "2");
+
+        env.put("NITRIC_CHANNEL_TRANSPORT", "netty");
+        assertTrue(GrpcChannelProvider.newChannelBuilder() instanceof NettyChannelBuilder);
+        assertNull(GrpcChannelProvider.executor);
+
+        env.put("NITRIC_CHANNEL_TRANSPORT", "OkHttp");
+        assertTrue(GrpcChannelProvider.newChannelBuilder() instanceof OkHttpChannelBuilder);
+
+        env.put("NITRIC_CHANNEL_TRANSPORT", "epoll");
+        if (Epoll.isAvailable()) {
+            assertTrue(GrpcChannelProvider.newChannelBuilder() instanceof NettyChannelBuilder);
+        } else {
+            assertThrows(IllegalStateException.class, GrpcChannelProvider::newChannelBuilder);
+        }
+
+        env.put("NITRIC_CHANNEL_TRANSPORT", "quic");
+        try {
+            GrpcChannelProvider.newChannelBuilder();
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("NITRIC_CHANNEL_TRANSPORT must be one of default, okhttp, netty or epoll: quic",
+                         iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_getTarget_socket() {
+        GrpcChannelProvider.envLookup = env::get;
+        env.put("NITRIC_SERVICE_SOCKET", "/tmp/nitric.sock");
+        assertEquals("unix:/tmp/nitric.sock", GrpcChannelProvider.getTarget());
+
+        env.put("NITRIC_SERVICE_SOCKET", " ");
+        assertEquals("127.0.0.1:50051", GrpcChannelProvider.getTarget());
+    }
 }
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.nitric.api.NitricException;
+import io.nitric.api.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+public class GrpcFuturesTest {
+
+    @Test
+    public void test_toCompletableFuture() {
+        var future = SettableFuture.<String>create();
+        var result = GrpcFutures.toCompletableFuture(future);
+        assertFalse(result.isDone());
+
+        future.set("value");
+        assertTrue(result.isDone());
+        assertEquals("value", result.join());
+
+        try {
+            GrpcFutures.toCompletableFuture(null);
+            fail();
+        } catch (IllegalArgumentException iae) {
+            assertEquals("provide non-null future", iae.getMessage());
+        }
+    }
+
+    @Test
+    public void test_toCompletableFuture_failure() {
+        var future = SettableFuture.<String>create();
+        var result = GrpcFutures.toCompletableFuture(future);
+
+        future.setException(new StatusRuntimeException(Status.NOT_FOUND));
+        try {
+            result.join();
+            fail();
+        } catch (CompletionException ce) {
+            assertTrue(ce.getCause() instanceof NotFoundException);
+        }
+
+        var error = new IllegalStateException("error");
+        future = SettableFuture.create();
+        result = GrpcFutures.toCompletableFuture(future);
+
+        future.setException(error);
+        try {
+            result.join();
+            fail();
+        } catch (CompletionException ce) {
+            assertSame(error, ce.getCause());
+        }
+    }
+
+    @Test
+    public void test_toCompletableFuture_cancel() {
+        var future = SettableFuture.<String>create();
+        var result = GrpcFutures.toCompletableFuture(future);
+
+        result.cancel(true);
+        assertTrue(future.isCancelled());
+        assertTrue(result.isCancelled());
+
+        future = SettableFuture.create();
+        result = GrpcFutures.toCompletableFuture(future);
+
+        future.cancel(false);
+        try {
+            result.join();
+            fail();
+        } catch (CancellationException ce) {
+        }
+    }
+
+    @Test
+    public void test_toApiException() {
+        var apiError = GrpcFutures.toApiException(new StatusRuntimeException(Status.INTERNAL));
+        assertTrue(apiError instanceof NitricException);
+        assertEquals(NitricException.Code.INTERNAL, ((NitricException) apiError).getCode());
+
+        var error = new RuntimeException();
+        assertSame(error, GrpcFutures.toApiException(error));
+    }
+
+}
@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.unix.DomainSocketAddress;
+import io.grpc.stub.StreamObserver;
+import io.nitric.proto.document.v1.DocumentGetRequest;
+import io.nitric.proto.document.v1.DocumentGetResponse;
+import io.nitric.proto.document.v1.DocumentServiceGrpc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class NettyTransportTest {
+
+    Server server;
+    ManagedChannel channel;
+
+    @AfterEach
+    public void shutdown() {
+        if (channel != null) {
+            channel.shutdownNow();
+        }
+        if (server != null) {
+            server.shutdownNow();
+        }
+        NettyTransport.reset();
+    }
+
+    @Test
+    public void test_newTcpChannelBuilder() throws IOException {
+        server = NettyServerBuilder.forPort(0)
+            .addService(new TestDocumentService())
+            .build()
+            .start();
+
+        channel = NettyTransport.newTcpChannelBuilder("127.0.0.1:" + server.getPort(), false, 1, 1 << 20)
+            .directExecutor()
+            .build();
+
+        var response = DocumentServiceGrpc.newBlockingStub(channel).get(DocumentGetRequest.getDefaultInstance());
+        assertNotNull(response);
+        assertNotNull(NettyTransport.eventLoopGroup);
+    }
+
+    @Test
+    public void test_newDomainSocketChannelBuilder() throws IOException {
+        assumeTrue(Epoll.isAvailable());
+
+        var socketFile = Files.createTempFile("nitric", ".sock");
+        Files.delete(socketFile);
+        socketFile.toFile().deleteOnExit();
+
+        var group = new EpollEventLoopGroup(1);
+        server = NettyServerBuilder.forAddress(new DomainSocketAddress(socketFile.toString()))
+            .channelType(EpollServerDomainSocketChannel.class)
+            .bossEventLoopGroup(group)
+            .workerEventLoopGroup(group)
+            .addService(new TestDocumentService())
+            .build()
+            .start();
+
+        try {
+            channel = NettyTransport.newDomainSocketChannelBuilder(socketFile.toString(), 1, 0).build();
+
+            var response = DocumentServiceGrpc.newBlockingStub(channel).get(DocumentGetRequest.getDefaultInstance());
+            assertNotNull(response);
+
+        } finally {
+            server.shutdownNow();
+            group.shutdownGracefully();
+        }
+    }
+
+    static class TestDocumentService extends DocumentServiceGrpc.DocumentServiceImplBase {
+        @Override
+        public void get(DocumentGetRequest request, StreamObserver<DocumentGetResponse> responseObserver) {
+            responseObserver.onNext(DocumentGetResponse.getDefaultInstance());
+            responseObserver.onCompleted();
+        }
+    }
+
+}
@@ -22,6 +22,7 @@ package io.nitric.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import java.util.Map;
 
 import com.google.protobuf.NullValue;
@@ -67,6 +68,78 @@ public class ProtoUtilsTest {
         }
     }
 
+    @Test
+    public void test_toMap_nested() {
+        Map<String, Object> map = Map.of(
+            "name", "order",
+            "total", 12.5,
+            "address", Map.of("city", "Sydney"),
+            "items", List.of(Map.of("sku", "ABC"), List.of("a", "b"), 1)
+        );
+
+        var result = ProtoUtils.toMap(ProtoUtils.toStruct(map));
+        assertEquals("order", result.get("name"));
+        assertEquals(12.5, result.get("total"));
+        assertEquals(Map.of("city", "Sydney"), result.get("address"));
+        assertEquals(List.of(Map.of("sku", "ABC"), List.of("a", "b"), 1.0), result.get("items"));
+
+        // Converted maps are mutable
+        result.put("name", null);
+        assertNull(result.get("name"));
+
+        var nullStruct = Struct.newBuilder()
+            .putFields("value", Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build())
+            .build();
+        var nullMap = ProtoUtils.toMap(nullStruct);
+        assertTrue(nullMap.containsKey("value"));
+        assertNull(nullMap.get("value"));
+    }
+
+    @Test
+    public void test_toMap_integralNumbers() {
+        Map<String, Object> map = Map.of(
+            "count", 42,
+            "id", 9007199254740991L,
+            "total", 12.5,
+            "address", Map.of("postcode", 2000),
+            "items", List.of(1, 2.5, List.of(-3))
+        );
+        var struct = ProtoUtils.toStruct(map);
+
+        var result = ProtoUtils.toMap(struct, true);
+        assertEquals(42L, result.get("count"));
+        assertEquals(9007199254740991L, result.get("id"));
+        assertEquals(12.5, result.get("total"));
+        assertEquals(Map.of("postcode", 2000L), result.get("address"));
+        assertEquals(List.of(1L, 2.5, List.of(-3L)), result.get("items"));
+
+        assertEquals(42.0, ProtoUtils.toMap(struct, false).get("count"));
+        assertEquals(ProtoUtils.toMap(struct), ProtoUtils.toMap(struct, false));
+
+        try {
+            ProtoUtils.toMap(null, true);
+            fail();
+
+        } catch (IllegalArgumentException iae) {
+        }
+    }
+
+    @Test
+    public void test_toNumber() {
+        assertEquals(0L, ProtoUtils.toNumber(0));
+        assertEquals(-7L, ProtoUtils.toNumber(-7));
+        assertEquals(9007199254740991L, ProtoUtils.toNumber(9007199254740991.0));
+        assertEquals(-9007199254740991L, ProtoUtils.toNumber(-9007199254740991.0));
+
+        // Numbers which may not be exact are returned as doubles
+        assertEquals(9007199254740992.0, ProtoUtils.toNumber(9007199254740992.0));
+        assertEquals(1e19, ProtoUtils.toNumber(1e19));
+        assertEquals(0.5, ProtoUtils.toNumber(0.5));
+        assertEquals(-0.0, ProtoUtils.toNumber(-0.0));
+        assertEquals(Double.NaN, ProtoUtils.toNumber(Double.NaN));
+        assertEquals(Double.POSITIVE_INFINITY, ProtoUtils.toNumber(Double.POSITIVE_INFINITY));
+    }
+
     @Test
     public void test_getScalarValue_bool() {
         var origVal = Value.newBuilder()
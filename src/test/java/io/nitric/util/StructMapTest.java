@@ -0,0 +1,175 @@
+/*-
+ * #%L
+ * Nitric Java SDK
+ * %%
+ * Copyright (C) 2021 Nitric Technologies Pty Ltd
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+package io.nitric.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class StructMapTest {
+
+    static final Map<String, Object> ORDER;
+
+    static {
+        var order = new HashMap<String, Object>();
+        order.put("id", "order-1");
+        order.put("total", 125.5);
+        order.put("quantity", 3);
+        order.put("paid", true);
+        order.put("notes", null);
+        order.put("address", Map.of("city", "Sydney", "postcode", 2000));
+        order.put("items", List.of(Map.of("sku", "ABC-1"), "gift", List.of(1, 2)));
+        ORDER = order;
+    }
+
+    @Test
+    public void test_get() {
+        var map = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER));
+
+        assertEquals(7, map.size());
+        assertEquals("order-1", map.get("id"));
+        assertEquals(125.5, map.get("total"));
+        assertEquals(3.0, map.get("quantity"));
+        assertEquals(true, map.get("paid"));
+        assertNull(map.get("notes"));
+        assertTrue(map.containsKey("notes"));
+        assertFalse(map.containsKey("missing"));
+        assertNull(map.get("missing"));
+        assertNull(map.get(1));
+
+        assertTrue(map.get("address") instanceof StructMap);
+        assertEquals(Map.of("city", "Sydney", "postcode", 2000.0), map.get("address"));
+
+        var items = (List<?>) map.get("items");
+        assertEquals(3, items.size());
+        assertEquals(Map.of("sku", "ABC-1"), items.get(0));
+        assertEquals("gift", items.get(1));
+        assertEquals(List.of(1.0, 2.0), items.get(2));
+
+        // Equal to the converted Map
+        assertEquals(ProtoUtils.toMap(map.getStruct()), map);
+        assertEquals(map, ProtoUtils.toMap(map.getStruct()));
+
+        try {
+            map.put("id", "order-2");
+            fail();
+        } catch (UnsupportedOperationException uoe) {
+        }
+        try {
+            map.entrySet().iterator().next().setValue("value");
+            fail();
+        } catch (UnsupportedOperationException uoe) {
+        }
+    }
+
+    @Test
+    public void test_primitives() {
+        var map = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER));
+
+        assertEquals(125.5, map.getDouble("total", 0));
+        assertEquals(-1, map.getDouble("id", -1));
+        assertEquals(-1, map.getDouble("missing", -1));
+        assertEquals(125, map.getLong("total", 0));
+        assertEquals(3, map.getLong("quantity", 0));
+        assertEquals(-1, map.getLong("paid", -1));
+        assertTrue(map.getBoolean("paid", false));
+        assertFalse(map.getBoolean("total", false));
+        assertEquals("order-1", map.getString("id"));
+        assertNull(map.getString("total"));
+        assertEquals("Sydney", map.getMap("address").getString("city"));
+        assertEquals(2000, map.getMap("address").getLong("postcode", 0));
+        assertNull(map.getMap("items"));
+        assertEquals(3, map.getList("items").size());
+        assertNull(map.getList("address"));
+    }
+
+    @Test
+    public void test_toStruct() {
+        var struct = ProtoUtils.toStruct(ORDER);
+        var map = ProtoUtils.asMap(struct);
+
+        assertSame(struct, ProtoUtils.toStruct(map));
+
+        var wrapper = new HashMap<String, Object>();
+        wrapper.put("order", map);
+        wrapper.put("items", map.getList("items"));
+        var wrapperStruct = ProtoUtils.toStruct(wrapper);
+        assertSame(struct, wrapperStruct.getFieldsOrThrow("order").getStructValue());
+        assertEquals(map.getList("items"), ProtoUtils.toMap(wrapperStruct).get("items"));
+    }
+
+    @Test
+    public void test_memoize() {
+        var map = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER));
+        assertFalse(map.isMemoized());
+        assertNotSame(map.get("address"), map.get("address"));
+        assertNull(map.memo);
+
+        map = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER), true);
+        assertTrue(map.isMemoized());
+        assertSame(map.get("address"), map.get("address"));
+        assertSame(map.get("address"), map.getMap("address"));
+        assertTrue(map.getMap("address").isMemoized());
+        assertSame(map.get("items"), map.getList("items"));
+        assertSame(map.get("total"), map.get("total"));
+        assertNull(map.get("notes"));
+        assertNull(map.get("notes"));
+
+        var items = map.getList("items");
+        assertSame(items.get(0), items.get(0));
+        assertSame(items.get(2), items.get(2));
+        assertEquals(List.of(1.0, 2.0), items.get(2));
+
+        assertEquals(ProtoUtils.toMap(map.getStruct()), map);
+        var entries = 0;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            assertSame(map.get(entry.getKey()), entry.getValue());
+            entries++;
+        }
+        assertEquals(7, entries);
+    }
+
+    @Test
+    public void test_integralNumbers() {
+        var map = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER), false, true);
+        assertTrue(map.isIntegralNumbers());
+        assertFalse(map.isMemoized());
+
+        assertEquals(3L, map.get("quantity"));
+        assertEquals(125.5, map.get("total"));
+        assertEquals(2000L, map.getMap("address").get("postcode"));
+        assertEquals(List.of(1L, 2L), map.getList("items").get(2));
+        assertEquals(ProtoUtils.toMap(map.getStruct(), true), map);
+        assertEquals(3, map.getLong("quantity", 0));
+
+        var memoized = ProtoUtils.asMap(ProtoUtils.toStruct(ORDER), true, true);
+        assertSame(memoized.get("quantity"), memoized.get("quantity"));
+        assertEquals(3L, memoized.get("quantity"));
+        assertTrue(memoized.getMap("address").isIntegralNumbers());
+
+        assertFalse(ProtoUtils.asMap(ProtoUtils.toStruct(ORDER), true).isIntegralNumbers());
+    }
+
+}